@@ -29,19 +29,24 @@ import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.xkzhangsan.time.TemporalAdjusterExtension;
 import com.xkzhangsan.time.constants.XkTimeConstant;
 import com.xkzhangsan.time.converter.DateTimeConverterUtil;
+import com.xkzhangsan.time.converter.PackedDateTime;
+import com.xkzhangsan.time.converter.ZoneRegistry;
 import com.xkzhangsan.time.enums.ConstellationNameEnum;
 import com.xkzhangsan.time.enums.MonthNameEnum;
 import com.xkzhangsan.time.enums.TwelveTwoEnum;
 import com.xkzhangsan.time.enums.WeekNameEnum;
 import com.xkzhangsan.time.enums.ZoneIdEnum;
 import com.xkzhangsan.time.formatter.DateTimeFormatterUtil;
+import com.xkzhangsan.time.formatter.FixedWidthDateTimeCodec;
+import com.xkzhangsan.time.holiday.HolidayCalendar;
+import com.xkzhangsan.time.holiday.WorkdayCalendar;
 import com.xkzhangsan.time.utils.ArrayUtil;
 import com.xkzhangsan.time.utils.CollectionUtil;
 import com.xkzhangsan.time.utils.StringUtil;
@@ -60,7 +65,7 @@ import com.xkzhangsan.time.utils.StringUtil;
  * 9.获取准确的起始时间方法，start*,end*，比如startTimeOfMonth() 当月起始时间 当月第一天日期+00:00:00 endTimeOfMonth() 当月最后一天日期+23:59:59 精确到秒；endAccuracyTimeOf*，精确到毫秒（Date），精确到纳秒（LocalDateTime）<br>
  * 10.相同月日比较判断方法，isSameMonthDay*，betweenNextSameMonthDay*，nextSameMonthDay*， 比如用于生日，节日等周期性的日期比较判断<br>
  * 11.星座计算方法，getConstellation*，比如getConstellationNameCn(String monthDayStr)，根据日期计算星座<br>
- * 12.计算指定年月或起始时间区间的时间列表，get*List， 比如getDateList(int year, int month)，计算指定年月的时间列表<br>
+ * 12.计算指定年月或起始时间区间的时间列表，get*List， 比如getDateList(int year, int month)，计算指定年月的时间列表；起始时间区间也支持延迟计算的get*Stream，比如getLocalDateTimeStream(LocalDateTime start, LocalDateTime end, ChronoUnit unit)<br>
  * 13.减少时间精度方法，reduceAccuracyTo*， 比如reduceAccuracyToDay(Date date)，减少时间精度到天，其他补0，返回如，2020-04-23 00:00:00<br>
  * 14.获取时间戳方法，getEpoch*， 比如getEpochMilli()获取时间戳，getEpochMilliFormat()获取时间戳格式化字符串（yyyy-MM-dd HH:mm:ss）<br>
  * 15.计算年龄方法，getAge*， 比如getAge(Date birthDay)，通过生日计算年龄<br>
@@ -73,19 +78,30 @@ import com.xkzhangsan.time.utils.StringUtil;
  * 22.获取年准确的起始时间方法，startTimeOfYear， 比如startTimeOfYear(int year)，获取指定年的开始时间<br>
  * 23.常用时间（明天，下周，下月，明年等）计算方法，比如tomorrow()，计算明天，返回Date<br>
  * 24.修改星期值方法 withDayOfWeek*，比如withDayOfWeek(Date date, long newValue)，修改星期为指定值newValue，返回Date<br>
- * 25.中国工作日计算（将放假信息包含在内），包括判断当前日期是否为工作日和下一个工作日等方法， isChineseWorkDay*，nextChineseWorkDay*，比如isChineseWorkDay(Date, String holidayData)，nextChineseWorkDay(Date date, String holidayData)<br>
- * 节假日数据holidayData，如果节假日数据不支持年份，将使用周一到周五为工作日来判断<br>
+ * 25.中国工作日计算（将放假信息包含在内），包括判断当前日期是否为工作日和下一个工作日等方法， isChineseWorkDay*，nextChineseWorkDay*，previousChineseWorkDay*，plusChineseWorkDays*，minusChineseWorkDays*，nthChineseWorkDayOfMonth，chineseWorkDayIndexOfMonth，比如isChineseWorkDay(Date, String holidayData)，nextChineseWorkDay(Date date, String holidayData)<br>
+ * 节假日数据holidayData，如果节假日数据不支持年份，将使用周一到周五为工作日来判断，节假日数据按字符串缓存为WorkdayCalendar位图，判断和计数不再逐天格式化查询<br>
+ * 以上方法都支持传入节假日日历HolidayCalendar代替holidayData字符串，节假日数据只解析一次，比如isChineseWorkDay(Date, HolidayCalendar holidayCalendar)<br>
  * 26.判断2个或多个时间段是否有重叠（交集）方法， isOverlap*，比如isOverlap(Date startDate1, Date endDate1, Date startDate2, Date endDate2)，重叠返回true。<br>
  * 27.计算平均时间方法，averageTime*，比如{@code averageTime(List<Date> dateList)}，返回平均时间，比如"15:03:03"。<br>
  * 28.根据毫秒值计算倒计时方法，支持支持传入时间对象和指定格式，countdown*，比如countdown(long millis),返回倒计时，比如"27小时10分钟30秒"。<br>
  * 29.获取指定区间的格式化时间列表 方法，比如getDateFormatList(Date start, Date end, String dateFormatPattern) 支持传入格式化模板。  <br>
  * 30.计算2个时间段的重叠（交集）时间方法，比如overlapTime(Date startDate1, Date endDate1, Date startDate2, Date endDate2)，返回毫秒值。  <br>
+ * 31.基本类型获取时间属性方法，get*(long epochMilli)，比如getYear(long epochMilli)，使用PackedDateTime整数计算，不创建LocalDateTime，Date参数的方法也使用该方式。<br>
+ * 32.Date参数的相差总天数、小时数、分钟数、秒数、毫秒数和纳秒数方法，betweenTotal*(Date startInclusive, Date endExclusive)，使用PackedDateTime按时间戳和时区偏移计算，不创建LocalDateTime和Duration，结果不变。<br>
  * 
 * @author xkzhangsan
 *
  */
 public class DateTimeCalculatorUtil {
 	
+	private static final long SECONDS_PER_DAY = 86400;
+	
+	private static final long SECONDS_PER_HOUR = 3600;
+	
+	private static final long SECONDS_PER_MINUTE = 60;
+	
+	private static final long NANOS_PER_MILLI = 1000_000;
+	
 	private DateTimeCalculatorUtil(){
 	}
 	
@@ -97,7 +113,17 @@ public class DateTimeCalculatorUtil {
 	 * @return int
 	 */
 	public static int getYear(Date date){
-		return DateTimeConverterUtil.toLocalDateTime(date).getYear();
+		Objects.requireNonNull(date, "date");
+		return getYear(date.getTime());
+	}
+	
+	/**
+	 * 获取年，比如2020，使用系统默认时区，不创建LocalDateTime
+	 * @param epochMilli 时间戳
+	 * @return int
+	 */
+	public static int getYear(long epochMilli){
+		return PackedDateTime.getYear(epochMilli);
 	}
 	
 	/**
@@ -137,7 +163,17 @@ public class DateTimeCalculatorUtil {
 	 * @return int
 	 */
 	public static int getMonth(Date date){
-		return DateTimeConverterUtil.toLocalDateTime(date).getMonthValue();
+		Objects.requireNonNull(date, "date");
+		return getMonth(date.getTime());
+	}
+	
+	/**
+	 * 获取月， 比如 1，使用系统默认时区，不创建LocalDateTime
+	 * @param epochMilli 时间戳
+	 * @return int
+	 */
+	public static int getMonth(long epochMilli){
+		return PackedDateTime.getMonth(epochMilli);
 	}
 	
 	/**
@@ -367,7 +403,17 @@ public class DateTimeCalculatorUtil {
 	 * @return int
 	 */
 	public static int getDayOfMonth(Date date){
-		return DateTimeConverterUtil.toLocalDateTime(date).getDayOfMonth();
+		Objects.requireNonNull(date, "date");
+		return getDayOfMonth(date.getTime());
+	}
+	
+	/**
+	 * 获取天，使用系统默认时区，不创建LocalDateTime
+	 * @param epochMilli 时间戳
+	 * @return int
+	 */
+	public static int getDayOfMonth(long epochMilli){
+		return PackedDateTime.getDayOfMonth(epochMilli);
 	}
 	
 	/**
@@ -407,7 +453,17 @@ public class DateTimeCalculatorUtil {
 	 * @return int
 	 */
 	public static int getDayOfYear(Date date){
-		return DateTimeConverterUtil.toLocalDateTime(date).getDayOfYear();
+		Objects.requireNonNull(date, "date");
+		return getDayOfYear(date.getTime());
+	}
+	
+	/**
+	 * 获取天（一年中），使用系统默认时区，不创建LocalDateTime
+	 * @param epochMilli 时间戳
+	 * @return int
+	 */
+	public static int getDayOfYear(long epochMilli){
+		return PackedDateTime.getDayOfYear(epochMilli);
 	}
 	
 	/**
@@ -464,7 +520,17 @@ public class DateTimeCalculatorUtil {
 	 * @return int
 	 */
 	public static int getHour(Date date){
-		return DateTimeConverterUtil.toLocalDateTime(date).getHour();
+		Objects.requireNonNull(date, "date");
+		return getHour(date.getTime());
+	}
+	
+	/**
+	 * 获取小时，使用系统默认时区，不创建LocalDateTime
+	 * @param epochMilli 时间戳
+	 * @return int
+	 */
+	public static int getHour(long epochMilli){
+		return PackedDateTime.getHour(epochMilli);
 	}
 	
 	/**
@@ -504,7 +570,17 @@ public class DateTimeCalculatorUtil {
 	 * @return int
 	 */
 	public static int getMinute(Date date){
-		return DateTimeConverterUtil.toLocalDateTime(date).getMinute();
+		Objects.requireNonNull(date, "date");
+		return getMinute(date.getTime());
+	}
+	
+	/**
+	 * 获取分钟，使用系统默认时区，不创建LocalDateTime
+	 * @param epochMilli 时间戳
+	 * @return int
+	 */
+	public static int getMinute(long epochMilli){
+		return PackedDateTime.getMinute(epochMilli);
 	}
 	
 	/**
@@ -544,7 +620,17 @@ public class DateTimeCalculatorUtil {
 	 * @return int
 	 */
 	public static int getSecond(Date date){
-		return DateTimeConverterUtil.toLocalDateTime(date).getSecond();
+		Objects.requireNonNull(date, "date");
+		return getSecond(date.getTime());
+	}
+	
+	/**
+	 * 获取秒，使用系统默认时区，不创建LocalDateTime
+	 * @param epochMilli 时间戳
+	 * @return int
+	 */
+	public static int getSecond(long epochMilli){
+		return PackedDateTime.getSecond(epochMilli);
 	}
 	
 	/**
@@ -584,7 +670,17 @@ public class DateTimeCalculatorUtil {
 	 * @return int
 	 */
 	public static int getMillisecond(Date date){
-		return DateTimeConverterUtil.toLocalDateTime(date).getNano()/1_000_000;
+		Objects.requireNonNull(date, "date");
+		return getMillisecond(date.getTime());
+	}
+	
+	/**
+	 * 获取毫秒，使用系统默认时区，不创建LocalDateTime
+	 * @param epochMilli 时间戳
+	 * @return int
+	 */
+	public static int getMillisecond(long epochMilli){
+		return PackedDateTime.getMillisecond(epochMilli);
 	}
 	
 	/**
@@ -810,7 +906,16 @@ public class DateTimeCalculatorUtil {
 	 */
 	public static int getQuarter(Date date){
 		Objects.requireNonNull(date, "date");
-		return (getMonth(date)+2)/3;
+		return getQuarter(date.getTime());
+	}
+	
+	/**
+	 * 获得季度值，使用系统默认时区，不创建LocalDateTime
+	 * @param epochMilli 时间戳
+	 * @return int 季度 1,2,3,4
+	 */
+	public static int getQuarter(long epochMilli){
+		return PackedDateTime.getQuarter(epochMilli);
 	}
 	
 	/**
@@ -1893,7 +1998,7 @@ public class DateTimeCalculatorUtil {
 	public static long betweenTotalDays(Date startInclusive, Date endExclusive){
 		Objects.requireNonNull(startInclusive, "startInclusive");
 		Objects.requireNonNull(endExclusive, "endExclusive");
-		return durationBetween(DateTimeConverterUtil.toLocalDateTime(startInclusive), DateTimeConverterUtil.toLocalDateTime(endExclusive)).toDays();
+		return PackedDateTime.betweenLocalSeconds(startInclusive.getTime(), endExclusive.getTime()) / SECONDS_PER_DAY;
 	}
 	
 	/**
@@ -1935,7 +2040,7 @@ public class DateTimeCalculatorUtil {
 	public static long betweenTotalHours(Date startInclusive, Date endExclusive){
 		Objects.requireNonNull(startInclusive, "startInclusive");
 		Objects.requireNonNull(endExclusive, "endExclusive");
-		return durationBetween(DateTimeConverterUtil.toLocalDateTime(startInclusive), DateTimeConverterUtil.toLocalDateTime(endExclusive)).toHours();
+		return PackedDateTime.betweenLocalSeconds(startInclusive.getTime(), endExclusive.getTime()) / SECONDS_PER_HOUR;
 	}
 	
 	/**
@@ -1977,7 +2082,7 @@ public class DateTimeCalculatorUtil {
 	public static long betweenTotalMinutes(Date startInclusive, Date endExclusive){
 		Objects.requireNonNull(startInclusive, "startInclusive");
 		Objects.requireNonNull(endExclusive, "endExclusive");
-		return durationBetween(DateTimeConverterUtil.toLocalDateTime(startInclusive), DateTimeConverterUtil.toLocalDateTime(endExclusive)).toMinutes();
+		return PackedDateTime.betweenLocalSeconds(startInclusive.getTime(), endExclusive.getTime()) / SECONDS_PER_MINUTE;
 	}
 	
 	/**
@@ -2019,7 +2124,7 @@ public class DateTimeCalculatorUtil {
 	public static long betweenTotalSeconds(Date startInclusive, Date endExclusive){
 		Objects.requireNonNull(startInclusive, "startInclusive");
 		Objects.requireNonNull(endExclusive, "endExclusive");
-		return durationBetween(DateTimeConverterUtil.toLocalDateTime(startInclusive), DateTimeConverterUtil.toLocalDateTime(endExclusive)).getSeconds();
+		return PackedDateTime.betweenLocalSeconds(startInclusive.getTime(), endExclusive.getTime());
 	}
 	
 	/**
@@ -2061,7 +2166,7 @@ public class DateTimeCalculatorUtil {
 	public static long betweenTotalMillis(Date startInclusive, Date endExclusive){
 		Objects.requireNonNull(startInclusive, "startInclusive");
 		Objects.requireNonNull(endExclusive, "endExclusive");
-		return durationBetween(DateTimeConverterUtil.toLocalDateTime(startInclusive), DateTimeConverterUtil.toLocalDateTime(endExclusive)).toMillis();
+		return PackedDateTime.betweenLocalMillis(startInclusive.getTime(), endExclusive.getTime());
 	}	
 	
 	/**
@@ -2103,7 +2208,7 @@ public class DateTimeCalculatorUtil {
 	public static long betweenTotalNanos(Date startInclusive, Date endExclusive){
 		Objects.requireNonNull(startInclusive, "startInclusive");
 		Objects.requireNonNull(endExclusive, "endExclusive");
-		return durationBetween(DateTimeConverterUtil.toLocalDateTime(startInclusive), DateTimeConverterUtil.toLocalDateTime(endExclusive)).toNanos();
+		return Math.multiplyExact(PackedDateTime.betweenLocalMillis(startInclusive.getTime(), endExclusive.getTime()), NANOS_PER_MILLI);
 	}
 	
 	
@@ -2115,7 +2220,17 @@ public class DateTimeCalculatorUtil {
 	 * @return int
 	 */
 	public static int getDayOfWeek(Date date){
-		return DateTimeConverterUtil.toLocalDateTime(date).getDayOfWeek().getValue();
+		Objects.requireNonNull(date, "date");
+		return getDayOfWeek(date.getTime());
+	}
+	
+	/**
+	 * 获取星期值 1-7，星期一到星期日，使用系统默认时区，不创建LocalDateTime
+	 * @param epochMilli 时间戳
+	 * @return int
+	 */
+	public static int getDayOfWeek(long epochMilli){
+		return PackedDateTime.getDayOfWeek(epochMilli);
 	}
 	
 	/**
@@ -2422,7 +2537,7 @@ public class DateTimeCalculatorUtil {
 	 * @return boolean
 	 */
 	public static boolean isLeapYear(Date date){
-		return DateTimeConverterUtil.toLocalDateTime(date).toLocalDate().isLeapYear();
+		return isLeapYear(getYear(date));
 	}
 	
 	/**
@@ -2552,7 +2667,22 @@ public class DateTimeCalculatorUtil {
 	 * @return boolean
 	 */
 	public static boolean isChineseWorkDay(Date date, String holidayData){
-		return isChineseWorkDay(DateTimeConverterUtil.toLocalDateTime(date), holidayData);
+		return isChineseWorkDay(date, workdayCalendar(holidayData));
+	}
+	
+	/**
+	 * 判断是否中国工作日，包含法定节假日调整日期，节假日日历holidayCalendar，如果节假日数据不支持年份，将使用周一到周五为工作日来判断。
+	 * @param date Date
+	 * @param holidayCalendar 节假日日历
+	 * @return boolean
+	 */
+	public static boolean isChineseWorkDay(Date date, HolidayCalendar holidayCalendar){
+		return isChineseWorkDay(date, workdayCalendar(holidayCalendar));
+	}
+	
+	private static boolean isChineseWorkDay(Date date, WorkdayCalendar calendar){
+		Objects.requireNonNull(date, "date");
+		return calendar.isWorkDay(PackedDateTime.getEpochDay(date.getTime()));
 	}
 	
 	/**
@@ -2562,13 +2692,22 @@ public class DateTimeCalculatorUtil {
 	 * @return boolean
 	 */
 	public static boolean isChineseWorkDay(LocalDateTime localDateTime, String holidayData){
-		Objects.requireNonNull(holidayData, "holidayData");
-		Map<String, Integer> dateTypeMap = StringUtil.convertHolidayDataToMapUseCache(holidayData);
-		Integer dateType = dateTypeMap.get(DateTimeFormatterUtil.formatToDateStr(localDateTime));
-		if(dateType != null){
-			return dateType == 1 ? true : false;
-		}
-		return isWorkDay(localDateTime);
+		return isChineseWorkDay(localDateTime, workdayCalendar(holidayData));
+	}
+	
+	/**
+	 * 判断是否中国工作日，包含法定节假日调整日期，节假日日历holidayCalendar，如果节假日数据不支持年份，将使用周一到周五为工作日来判断。
+	 * @param localDateTime LocalDateTime
+	 * @param holidayCalendar 节假日日历
+	 * @return boolean
+	 */
+	public static boolean isChineseWorkDay(LocalDateTime localDateTime, HolidayCalendar holidayCalendar){
+		return isChineseWorkDay(localDateTime, workdayCalendar(holidayCalendar));
+	}
+	
+	private static boolean isChineseWorkDay(LocalDateTime localDateTime, WorkdayCalendar calendar){
+		Objects.requireNonNull(localDateTime, "localDateTime");
+		return calendar.isWorkDay(localDateTime.toLocalDate().toEpochDay());
 	}
 	
 	/**
@@ -2579,25 +2718,26 @@ public class DateTimeCalculatorUtil {
 	 * @return boolean true 包含工作日 false 不包含 
 	 */
 	public static boolean hasChineseWorkDay(long start, long end, String holidayData){
-		Objects.requireNonNull(holidayData, "holidayData");
-		LocalDateTime startDate = DateTimeConverterUtil.toLocalDateTime(start);
-		LocalDateTime endDate = DateTimeConverterUtil.toLocalDateTime(end);
-		List<LocalDateTime> dateList = getLocalDateTimeList(startDate, endDate, ChronoUnit.DAYS);
-		Map<String, Integer> dateTypeMap = StringUtil.convertHolidayDataToMapUseCache(holidayData);
-		for(LocalDateTime date : dateList){
-			String dateStr = DateTimeFormatterUtil.formatToDateStr(date);
-			Integer dateType = dateTypeMap.get(dateStr);
-			if(dateType != null){
-				if(dateType == 1){
-					return true;
-				}
-			}else{
-				if(isWorkDay(date)){
-					return true;
-				}
-			}
+		return hasChineseWorkDay(start, end, workdayCalendar(holidayData));
+	}
+	
+	/**
+	 * 判断时间段是否包含工作日，节假日日历holidayCalendar，如果节假日数据不支持年份，将使用周一到周五为工作日来判断。
+	 * @param start 开始 时间戳
+	 * @param end 结束 时间戳
+	 * @param holidayCalendar 节假日日历
+	 * @return boolean true 包含工作日 false 不包含 
+	 */
+	public static boolean hasChineseWorkDay(long start, long end, HolidayCalendar holidayCalendar){
+		return hasChineseWorkDay(start, end, workdayCalendar(holidayCalendar));
+	}
+	
+	private static boolean hasChineseWorkDay(long start, long end, WorkdayCalendar calendar){
+		// 本地时间开始晚于结束时和按天生成时间列表一样抛出异常
+		if(PackedDateTime.betweenLocalSeconds(start, end) < 0){
+			throw new DateTimeException("start must before or equal end!");
 		}
-		return false;
+		return calendar.hasWorkDay(PackedDateTime.getEpochDay(start), PackedDateTime.getEpochDay(end));
 	}
 	
 	/**
@@ -2614,6 +2754,20 @@ public class DateTimeCalculatorUtil {
 		return hasChineseWorkDay(Long.parseLong(start), Long.parseLong(end), holidayData);
 	}
 	
+	/**
+	 * 判断时间段是否包含工作日，节假日日历holidayCalendar，如果节假日数据不支持年份，将使用周一到周五为工作日来判断。
+	 * @param start 开始 时间戳
+	 * @param end 结束 时间戳
+	 * @param holidayCalendar 节假日日历
+	 * @return boolean true 包含工作日 false 不包含 
+	 */
+	public static boolean hasChineseWorkDay(String start, String end, HolidayCalendar holidayCalendar){
+		Objects.requireNonNull(start, "start");
+		Objects.requireNonNull(end, "end");
+		Objects.requireNonNull(holidayCalendar, "holidayCalendar");
+		return hasChineseWorkDay(Long.parseLong(start), Long.parseLong(end), holidayCalendar);
+	}
+	
 	/**
 	 * 判断时间段是否包含工作日，节假日数据holidayData，如果节假日数据不支持年份，将使用周一到周五为工作日来判断。
 	 * @param start 开始 Date
@@ -2628,6 +2782,20 @@ public class DateTimeCalculatorUtil {
 		return hasChineseWorkDay(DateTimeConverterUtil.toEpochMilli(start), DateTimeConverterUtil.toEpochMilli(end), holidayData);
 	}
 	
+	/**
+	 * 判断时间段是否包含工作日，节假日日历holidayCalendar，如果节假日数据不支持年份，将使用周一到周五为工作日来判断。
+	 * @param start 开始 Date
+	 * @param end 结束 Date
+	 * @param holidayCalendar 节假日日历
+	 * @return boolean true 包含工作日 false 不包含 
+	 */
+	public static boolean hasChineseWorkDay(Date start, Date end, HolidayCalendar holidayCalendar){
+		Objects.requireNonNull(start, "start");
+		Objects.requireNonNull(end, "end");
+		Objects.requireNonNull(holidayCalendar, "holidayCalendar");
+		return hasChineseWorkDay(DateTimeConverterUtil.toEpochMilli(start), DateTimeConverterUtil.toEpochMilli(end), holidayCalendar);
+	}
+	
 	/**
 	 * 判断时间段是否包含工作日，节假日数据holidayData，如果节假日数据不支持年份，将使用周一到周五为工作日来判断。
 	 * @param start 开始 LocalDate
@@ -2642,6 +2810,20 @@ public class DateTimeCalculatorUtil {
 		return hasChineseWorkDay(DateTimeConverterUtil.toEpochMilli(start), DateTimeConverterUtil.toEpochMilli(end), holidayData);
 	}	
 	
+	/**
+	 * 判断时间段是否包含工作日，节假日日历holidayCalendar，如果节假日数据不支持年份，将使用周一到周五为工作日来判断。
+	 * @param start 开始 LocalDate
+	 * @param end 结束 LocalDate
+	 * @param holidayCalendar 节假日日历
+	 * @return boolean true 包含工作日 false 不包含 
+	 */
+	public static boolean hasChineseWorkDay(LocalDate start, LocalDate end, HolidayCalendar holidayCalendar){
+		Objects.requireNonNull(start, "start");
+		Objects.requireNonNull(end, "end");
+		Objects.requireNonNull(holidayCalendar, "holidayCalendar");
+		return hasChineseWorkDay(DateTimeConverterUtil.toEpochMilli(start), DateTimeConverterUtil.toEpochMilli(end), holidayCalendar);
+	}	
+	
 	/**
 	 * 时间段内中国工作日，节假日数据holidayData，如果节假日数据不支持年份，将使用周一到周五为工作日来判断。
 	 * @param start 开始 时间戳
@@ -2650,25 +2832,25 @@ public class DateTimeCalculatorUtil {
 	 * @return 返回 工作日， yyyy-MM-dd 英文逗号分隔
 	 */
 	public static List<String> chineseWorkDay(long start, long end, String holidayData){
-		Objects.requireNonNull(holidayData, "holidayData");
+		return chineseWorkDay(start, end, workdayCalendar(holidayData));
+	}
+
+	/**
+	 * 时间段内中国工作日，节假日日历holidayCalendar，如果节假日数据不支持年份，将使用周一到周五为工作日来判断。
+	 * @param start 开始 时间戳
+	 * @param end 结束 时间戳
+	 * @param holidayCalendar 节假日日历
+	 * @return 返回 工作日， yyyy-MM-dd 英文逗号分隔
+	 */
+	public static List<String> chineseWorkDay(long start, long end, HolidayCalendar holidayCalendar){
+		return chineseWorkDay(start, end, workdayCalendar(holidayCalendar));
+	}
+
+	private static List<String> chineseWorkDay(long start, long end, WorkdayCalendar calendar){
+		long startDay = checkEpochDayRange(start, end);
 		List<String> result = new ArrayList<>();
-		LocalDate startDate = DateTimeConverterUtil.toLocalDate(start);
-		LocalDate endDate = DateTimeConverterUtil.toLocalDate(end);
-		List<LocalDate> dateList = getLocalDateList(startDate, endDate, ChronoUnit.DAYS);
-		Map<String, Integer> dateTypeMap = StringUtil.convertHolidayDataToMapUseCache(holidayData);
-		dateList.stream().forEach(date->{
-			String dateStr = date.toString();
-			Integer dateType = dateTypeMap.get(dateStr);
-			if(dateType != null){
-				if(dateType == 1){
-					result.add(dateStr);
-				}
-			}else{
-				if(isWorkDay(date)){
-					result.add(dateStr);
-				}
-			}
-		});
+		calendar.forEachWorkDay(startDay, PackedDateTime.getEpochDay(end),
+				day -> result.add(LocalDate.ofEpochDay(day).toString()));
 		return result;
 	}
 
@@ -2682,6 +2864,18 @@ public class DateTimeCalculatorUtil {
 	public static List<String> chineseWorkDay(LocalDate start, LocalDate end, String holidayData){
 		return chineseWorkDay(DateTimeConverterUtil.toEpochMilli(start), DateTimeConverterUtil.toEpochMilli(end), holidayData);
 	}
+	
+	/**
+	 * 时间段内中国工作日，节假日日历holidayCalendar，如果节假日数据不支持年份，将使用周一到周五为工作日来判断。
+	 * @param start 开始 时间戳
+	 * @param end 结束 时间戳
+	 * @param holidayCalendar 节假日日历
+	 * @return 返回 工作日， yyyy-MM-dd 英文逗号分隔
+	 */
+	public static List<String> chineseWorkDay(LocalDate start, LocalDate end, HolidayCalendar holidayCalendar){
+		return chineseWorkDay(DateTimeConverterUtil.toEpochMilli(start), DateTimeConverterUtil.toEpochMilli(end), holidayCalendar);
+	}
+	
 	/**
 	 * 时间段内中国工作日天数，节假日数据holidayData，如果节假日数据不支持年份，将使用周一到周五为工作日来判断。
 	 * @param start 开始 时间戳
@@ -2690,7 +2884,34 @@ public class DateTimeCalculatorUtil {
 	 * @return 返回 工作日， yyyy-MM-dd 英文逗号分隔
 	 */
 	public static int chineseWorkDayCount(long start, long end, String holidayData){
-		return chineseWorkDay(start, end, holidayData).size();
+		return chineseWorkDayCount(start, end, workdayCalendar(holidayData));
+	}
+	
+	/**
+	 * 时间段内中国工作日天数，节假日日历holidayCalendar，如果节假日数据不支持年份，将使用周一到周五为工作日来判断。
+	 * @param start 开始 时间戳
+	 * @param end 结束 时间戳
+	 * @param holidayCalendar 节假日日历
+	 * @return 返回 工作日， yyyy-MM-dd 英文逗号分隔
+	 */
+	public static int chineseWorkDayCount(long start, long end, HolidayCalendar holidayCalendar){
+		return chineseWorkDayCount(start, end, workdayCalendar(holidayCalendar));
+	}
+	
+	private static int chineseWorkDayCount(long start, long end, WorkdayCalendar calendar){
+		long startDay = checkEpochDayRange(start, end);
+		return Math.toIntExact(calendar.workDayCount(startDay, PackedDateTime.getEpochDay(end)));
+	}
+	
+	/**
+	 * 按日期检查时间段，开始日期晚于结束日期时和按天生成日期列表一样抛出异常，返回开始日期的epochDay
+	 */
+	private static long checkEpochDayRange(long start, long end){
+		long startDay = PackedDateTime.getEpochDay(start);
+		if(startDay > PackedDateTime.getEpochDay(end)){
+			throw new DateTimeException("start must before or equal end!");
+		}
+		return startDay;
 	}
 	
 	/**
@@ -2700,7 +2921,22 @@ public class DateTimeCalculatorUtil {
 	 * @return boolean
 	 */
 	public static boolean isChineseWorkDay(LocalDate localDate, String holidayData){
-		return isChineseWorkDay(DateTimeConverterUtil.toLocalDateTime(localDate), holidayData);
+		return isChineseWorkDay(localDate, workdayCalendar(holidayData));
+	}
+	
+	/**
+	 * 判断是否中国工作日，包含法定节假日调整日期，节假日日历holidayCalendar，如果节假日数据不支持年份，将使用周一到周五为工作日来判断。
+	 * @param localDate LocalDate
+	 * @param holidayCalendar 节假日日历
+	 * @return boolean
+	 */
+	public static boolean isChineseWorkDay(LocalDate localDate, HolidayCalendar holidayCalendar){
+		return isChineseWorkDay(localDate, workdayCalendar(holidayCalendar));
+	}
+	
+	private static boolean isChineseWorkDay(LocalDate localDate, WorkdayCalendar calendar){
+		Objects.requireNonNull(localDate, "localDate");
+		return calendar.isWorkDay(localDate.toEpochDay());
 	}
 	
 	/**
@@ -2710,13 +2946,23 @@ public class DateTimeCalculatorUtil {
 	 * @return Date
 	 */
 	public static Date nextChineseWorkDay(Date date, String holidayData){
-		while(date != null){
-			date = plusDays(date, 1);
-			if(isChineseWorkDay(DateTimeConverterUtil.toLocalDate(date), holidayData)){
-				return date;
-			}
+		if(date == null){
+			return null;
+		}
+		return plusChineseWorkDays(date, 1, holidayData);
+	}
+	
+	/**
+	 * 下一个中国工作日，包含法定节假日调整日期，节假日日历holidayCalendar，如果节假日数据不支持年份，将使用周一到周五为工作日来判断。
+	 * @param date Date
+	 * @param holidayCalendar 节假日日历
+	 * @return Date
+	 */
+	public static Date nextChineseWorkDay(Date date, HolidayCalendar holidayCalendar){
+		if(date == null){
+			return null;
 		}
-		return null;
+		return plusChineseWorkDays(date, 1, holidayCalendar);
 	}
 	
 	/**
@@ -2726,13 +2972,23 @@ public class DateTimeCalculatorUtil {
 	 * @return LocalDateTime
 	 */
 	public static LocalDateTime nextChineseWorkDay(LocalDateTime localDateTime, String holidayData){
-		while(localDateTime != null){
-			localDateTime = plusDays(localDateTime, 1);
-			if(isChineseWorkDay(localDateTime, holidayData)){
-				return localDateTime;
-			}
+		if(localDateTime == null){
+			return null;
 		}
-		return null;
+		return plusChineseWorkDays(localDateTime, 1, holidayData);
+	}
+	
+	/**
+	 * 下一个中国工作日，包含法定节假日调整日期，节假日日历holidayCalendar，如果节假日数据不支持年份，将使用周一到周五为工作日来判断。
+	 * @param localDateTime LocalDateTime
+	 * @param holidayCalendar 节假日日历
+	 * @return LocalDateTime
+	 */
+	public static LocalDateTime nextChineseWorkDay(LocalDateTime localDateTime, HolidayCalendar holidayCalendar){
+		if(localDateTime == null){
+			return null;
+		}
+		return plusChineseWorkDays(localDateTime, 1, holidayCalendar);
 	}
 	
 	/**
@@ -2742,13 +2998,307 @@ public class DateTimeCalculatorUtil {
 	 * @return LocalDate
 	 */
 	public static LocalDate nextChineseWorkDay(LocalDate localDate, String holidayData){
-		while(localDate != null){
-			localDate = plusDays(localDate, 1);
-			if(isChineseWorkDay(localDate, holidayData)){
-				return localDate;
-			}
+		if(localDate == null){
+			return null;
 		}
-		return null;
+		return plusChineseWorkDays(localDate, 1, holidayData);
+	}
+	
+	/**
+	 * 下一个中国工作日，包含法定节假日调整日期，节假日日历holidayCalendar，如果节假日数据不支持年份，将使用周一到周五为工作日来判断。
+	 * @param localDate LocalDate
+	 * @param holidayCalendar 节假日日历
+	 * @return LocalDate
+	 */
+	public static LocalDate nextChineseWorkDay(LocalDate localDate, HolidayCalendar holidayCalendar){
+		if(localDate == null){
+			return null;
+		}
+		return plusChineseWorkDays(localDate, 1, holidayCalendar);
+	}
+	
+	/**
+	 * 上一个中国工作日，包含法定节假日调整日期，节假日数据holidayData，如果节假日数据不支持年份，将使用周一到周五为工作日来判断。
+	 * @param date Date
+	 * @param holidayData 放假信息0表示放假，1表示工作日，如：2021-01-01:0,2021-02-07:1
+	 * @return Date
+	 */
+	public static Date previousChineseWorkDay(Date date, String holidayData){
+		return plusChineseWorkDays(date, -1, holidayData);
+	}
+	
+	/**
+	 * 上一个中国工作日，包含法定节假日调整日期，节假日日历holidayCalendar，如果节假日数据不支持年份，将使用周一到周五为工作日来判断。
+	 * @param date Date
+	 * @param holidayCalendar 节假日日历
+	 * @return Date
+	 */
+	public static Date previousChineseWorkDay(Date date, HolidayCalendar holidayCalendar){
+		return plusChineseWorkDays(date, -1, holidayCalendar);
+	}
+	
+	/**
+	 * 上一个中国工作日，包含法定节假日调整日期，节假日数据holidayData，如果节假日数据不支持年份，将使用周一到周五为工作日来判断。
+	 * @param localDateTime LocalDateTime
+	 * @param holidayData 放假信息0表示放假，1表示工作日，如：2021-01-01:0,2021-02-07:1
+	 * @return LocalDateTime
+	 */
+	public static LocalDateTime previousChineseWorkDay(LocalDateTime localDateTime, String holidayData){
+		return plusChineseWorkDays(localDateTime, -1, holidayData);
+	}
+	
+	/**
+	 * 上一个中国工作日，包含法定节假日调整日期，节假日日历holidayCalendar，如果节假日数据不支持年份，将使用周一到周五为工作日来判断。
+	 * @param localDateTime LocalDateTime
+	 * @param holidayCalendar 节假日日历
+	 * @return LocalDateTime
+	 */
+	public static LocalDateTime previousChineseWorkDay(LocalDateTime localDateTime, HolidayCalendar holidayCalendar){
+		return plusChineseWorkDays(localDateTime, -1, holidayCalendar);
+	}
+	
+	/**
+	 * 上一个中国工作日，包含法定节假日调整日期，节假日数据holidayData，如果节假日数据不支持年份，将使用周一到周五为工作日来判断。
+	 * @param localDate LocalDate
+	 * @param holidayData 放假信息0表示放假，1表示工作日，如：2021-01-01:0,2021-02-07:1
+	 * @return LocalDate
+	 */
+	public static LocalDate previousChineseWorkDay(LocalDate localDate, String holidayData){
+		return plusChineseWorkDays(localDate, -1, holidayData);
+	}
+	
+	/**
+	 * 上一个中国工作日，包含法定节假日调整日期，节假日日历holidayCalendar，如果节假日数据不支持年份，将使用周一到周五为工作日来判断。
+	 * @param localDate LocalDate
+	 * @param holidayCalendar 节假日日历
+	 * @return LocalDate
+	 */
+	public static LocalDate previousChineseWorkDay(LocalDate localDate, HolidayCalendar holidayCalendar){
+		return plusChineseWorkDays(localDate, -1, holidayCalendar);
+	}
+	
+	/**
+	 * 增加中国工作日，包含法定节假日调整日期，workDays大于0时返回之后第workDays个工作日，小于0时返回之前第-workDays个工作日，等于0时返回原日期，使用WorkdayCalendar按前缀和反查，和workDays大小无关。
+	 * @param date Date
+	 * @param workDays 工作日数量，可以为负数
+	 * @param holidayData 放假信息0表示放假，1表示工作日，如：2021-01-01:0,2021-02-07:1
+	 * @return Date
+	 */
+	public static Date plusChineseWorkDays(Date date, long workDays, String holidayData){
+		return plusChineseWorkDays(date, workDays, workdayCalendar(holidayData));
+	}
+	
+	/**
+	 * 增加中国工作日，包含法定节假日调整日期，workDays大于0时返回之后第workDays个工作日，小于0时返回之前第-workDays个工作日，等于0时返回原日期，使用WorkdayCalendar按前缀和反查，和workDays大小无关。
+	 * @param date Date
+	 * @param workDays 工作日数量，可以为负数
+	 * @param holidayCalendar 节假日日历
+	 * @return Date
+	 */
+	public static Date plusChineseWorkDays(Date date, long workDays, HolidayCalendar holidayCalendar){
+		return plusChineseWorkDays(date, workDays, workdayCalendar(holidayCalendar));
+	}
+	
+	private static Date plusChineseWorkDays(Date date, long workDays, WorkdayCalendar calendar){
+		Objects.requireNonNull(date, "date");
+		long epochDay = PackedDateTime.getEpochDay(date.getTime());
+		return plusDays(date, calendar.plusWorkDays(epochDay, workDays) - epochDay);
+	}
+	
+	/**
+	 * 增加中国工作日，包含法定节假日调整日期，workDays大于0时返回之后第workDays个工作日，小于0时返回之前第-workDays个工作日，等于0时返回原日期，使用WorkdayCalendar按前缀和反查，和workDays大小无关。
+	 * @param localDateTime LocalDateTime
+	 * @param workDays 工作日数量，可以为负数
+	 * @param holidayData 放假信息0表示放假，1表示工作日，如：2021-01-01:0,2021-02-07:1
+	 * @return LocalDateTime
+	 */
+	public static LocalDateTime plusChineseWorkDays(LocalDateTime localDateTime, long workDays, String holidayData){
+		return plusChineseWorkDays(localDateTime, workDays, workdayCalendar(holidayData));
+	}
+	
+	/**
+	 * 增加中国工作日，包含法定节假日调整日期，workDays大于0时返回之后第workDays个工作日，小于0时返回之前第-workDays个工作日，等于0时返回原日期，使用WorkdayCalendar按前缀和反查，和workDays大小无关。
+	 * @param localDateTime LocalDateTime
+	 * @param workDays 工作日数量，可以为负数
+	 * @param holidayCalendar 节假日日历
+	 * @return LocalDateTime
+	 */
+	public static LocalDateTime plusChineseWorkDays(LocalDateTime localDateTime, long workDays, HolidayCalendar holidayCalendar){
+		return plusChineseWorkDays(localDateTime, workDays, workdayCalendar(holidayCalendar));
+	}
+	
+	private static LocalDateTime plusChineseWorkDays(LocalDateTime localDateTime, long workDays, WorkdayCalendar calendar){
+		Objects.requireNonNull(localDateTime, "localDateTime");
+		long epochDay = localDateTime.toLocalDate().toEpochDay();
+		return localDateTime.plusDays(calendar.plusWorkDays(epochDay, workDays) - epochDay);
+	}
+	
+	/**
+	 * 增加中国工作日，包含法定节假日调整日期，workDays大于0时返回之后第workDays个工作日，小于0时返回之前第-workDays个工作日，等于0时返回原日期，使用WorkdayCalendar按前缀和反查，和workDays大小无关。
+	 * @param localDate LocalDate
+	 * @param workDays 工作日数量，可以为负数
+	 * @param holidayData 放假信息0表示放假，1表示工作日，如：2021-01-01:0,2021-02-07:1
+	 * @return LocalDate
+	 */
+	public static LocalDate plusChineseWorkDays(LocalDate localDate, long workDays, String holidayData){
+		return plusChineseWorkDays(localDate, workDays, workdayCalendar(holidayData));
+	}
+	
+	/**
+	 * 增加中国工作日，包含法定节假日调整日期，workDays大于0时返回之后第workDays个工作日，小于0时返回之前第-workDays个工作日，等于0时返回原日期，使用WorkdayCalendar按前缀和反查，和workDays大小无关。
+	 * @param localDate LocalDate
+	 * @param workDays 工作日数量，可以为负数
+	 * @param holidayCalendar 节假日日历
+	 * @return LocalDate
+	 */
+	public static LocalDate plusChineseWorkDays(LocalDate localDate, long workDays, HolidayCalendar holidayCalendar){
+		return plusChineseWorkDays(localDate, workDays, workdayCalendar(holidayCalendar));
+	}
+	
+	private static LocalDate plusChineseWorkDays(LocalDate localDate, long workDays, WorkdayCalendar calendar){
+		Objects.requireNonNull(localDate, "localDate");
+		return calendar.plusWorkDays(localDate, workDays);
+	}
+	
+	/**
+	 * 减少中国工作日，包含法定节假日调整日期，workDays大于0时返回之前第workDays个工作日，小于0时返回之后第-workDays个工作日，等于0时返回原日期。
+	 * @param date Date
+	 * @param workDays 工作日数量，可以为负数
+	 * @param holidayData 放假信息0表示放假，1表示工作日，如：2021-01-01:0,2021-02-07:1
+	 * @return Date
+	 */
+	public static Date minusChineseWorkDays(Date date, long workDays, String holidayData){
+		if(workDays == Long.MIN_VALUE){
+			throw new DateTimeException("workDays out of range: " + workDays);
+		}
+		return plusChineseWorkDays(date, -workDays, holidayData);
+	}
+	
+	/**
+	 * 减少中国工作日，包含法定节假日调整日期，workDays大于0时返回之前第workDays个工作日，小于0时返回之后第-workDays个工作日，等于0时返回原日期。
+	 * @param date Date
+	 * @param workDays 工作日数量，可以为负数
+	 * @param holidayCalendar 节假日日历
+	 * @return Date
+	 */
+	public static Date minusChineseWorkDays(Date date, long workDays, HolidayCalendar holidayCalendar){
+		if(workDays == Long.MIN_VALUE){
+			throw new DateTimeException("workDays out of range: " + workDays);
+		}
+		return plusChineseWorkDays(date, -workDays, holidayCalendar);
+	}
+	
+	/**
+	 * 减少中国工作日，包含法定节假日调整日期，workDays大于0时返回之前第workDays个工作日，小于0时返回之后第-workDays个工作日，等于0时返回原日期。
+	 * @param localDateTime LocalDateTime
+	 * @param workDays 工作日数量，可以为负数
+	 * @param holidayData 放假信息0表示放假，1表示工作日，如：2021-01-01:0,2021-02-07:1
+	 * @return LocalDateTime
+	 */
+	public static LocalDateTime minusChineseWorkDays(LocalDateTime localDateTime, long workDays, String holidayData){
+		if(workDays == Long.MIN_VALUE){
+			throw new DateTimeException("workDays out of range: " + workDays);
+		}
+		return plusChineseWorkDays(localDateTime, -workDays, holidayData);
+	}
+	
+	/**
+	 * 减少中国工作日，包含法定节假日调整日期，workDays大于0时返回之前第workDays个工作日，小于0时返回之后第-workDays个工作日，等于0时返回原日期。
+	 * @param localDateTime LocalDateTime
+	 * @param workDays 工作日数量，可以为负数
+	 * @param holidayCalendar 节假日日历
+	 * @return LocalDateTime
+	 */
+	public static LocalDateTime minusChineseWorkDays(LocalDateTime localDateTime, long workDays, HolidayCalendar holidayCalendar){
+		if(workDays == Long.MIN_VALUE){
+			throw new DateTimeException("workDays out of range: " + workDays);
+		}
+		return plusChineseWorkDays(localDateTime, -workDays, holidayCalendar);
+	}
+	
+	/**
+	 * 减少中国工作日，包含法定节假日调整日期，workDays大于0时返回之前第workDays个工作日，小于0时返回之后第-workDays个工作日，等于0时返回原日期。
+	 * @param localDate LocalDate
+	 * @param workDays 工作日数量，可以为负数
+	 * @param holidayData 放假信息0表示放假，1表示工作日，如：2021-01-01:0,2021-02-07:1
+	 * @return LocalDate
+	 */
+	public static LocalDate minusChineseWorkDays(LocalDate localDate, long workDays, String holidayData){
+		if(workDays == Long.MIN_VALUE){
+			throw new DateTimeException("workDays out of range: " + workDays);
+		}
+		return plusChineseWorkDays(localDate, -workDays, holidayData);
+	}
+	
+	/**
+	 * 减少中国工作日，包含法定节假日调整日期，workDays大于0时返回之前第workDays个工作日，小于0时返回之后第-workDays个工作日，等于0时返回原日期。
+	 * @param localDate LocalDate
+	 * @param workDays 工作日数量，可以为负数
+	 * @param holidayCalendar 节假日日历
+	 * @return LocalDate
+	 */
+	public static LocalDate minusChineseWorkDays(LocalDate localDate, long workDays, HolidayCalendar holidayCalendar){
+		if(workDays == Long.MIN_VALUE){
+			throw new DateTimeException("workDays out of range: " + workDays);
+		}
+		return plusChineseWorkDays(localDate, -workDays, holidayCalendar);
+	}
+	
+	/**
+	 * 指定年月的第n个中国工作日，包含法定节假日调整日期，n从1开始，小于0时从月末倒数，比如-1为当月最后一个工作日。
+	 * @param year 年
+	 * @param month 月
+	 * @param n 第几个工作日
+	 * @param holidayData 放假信息0表示放假，1表示工作日，如：2021-01-01:0,2021-02-07:1
+	 * @return LocalDate
+	 */
+	public static LocalDate nthChineseWorkDayOfMonth(int year, int month, int n, String holidayData){
+		return workdayCalendar(holidayData).nthWorkDayOfMonth(year, month, n);
+	}
+	
+	/**
+	 * 指定年月的第n个中国工作日，包含法定节假日调整日期，n从1开始，小于0时从月末倒数，比如-1为当月最后一个工作日。
+	 * @param year 年
+	 * @param month 月
+	 * @param n 第几个工作日
+	 * @param holidayCalendar 节假日日历
+	 * @return LocalDate
+	 */
+	public static LocalDate nthChineseWorkDayOfMonth(int year, int month, int n, HolidayCalendar holidayCalendar){
+		return workdayCalendar(holidayCalendar).nthWorkDayOfMonth(year, month, n);
+	}
+	
+	/**
+	 * 日期是当月第几个中国工作日，包含法定节假日调整日期，从1开始，不是工作日时返回0。
+	 * @param localDate LocalDate
+	 * @param holidayData 放假信息0表示放假，1表示工作日，如：2021-01-01:0,2021-02-07:1
+	 * @return int
+	 */
+	public static int chineseWorkDayIndexOfMonth(LocalDate localDate, String holidayData){
+		return workdayCalendar(holidayData).workDayIndex(localDate);
+	}
+	
+	/**
+	 * 日期是当月第几个中国工作日，包含法定节假日调整日期，从1开始，不是工作日时返回0。
+	 * @param localDate LocalDate
+	 * @param holidayCalendar 节假日日历
+	 * @return int
+	 */
+	public static int chineseWorkDayIndexOfMonth(LocalDate localDate, HolidayCalendar holidayCalendar){
+		return workdayCalendar(holidayCalendar).workDayIndex(localDate);
+	}
+	
+	/**
+	 * 根据节假日数据获取缓存的工作日日历
+	 */
+	private static WorkdayCalendar workdayCalendar(String holidayData){
+		Objects.requireNonNull(holidayData, "holidayData");
+		return WorkdayCalendar.ofUseCache(holidayData);
+	}
+	
+	private static WorkdayCalendar workdayCalendar(HolidayCalendar holidayCalendar){
+		Objects.requireNonNull(holidayCalendar, "holidayCalendar");
+		return holidayCalendar.getWorkdayCalendar();
 	}
 	
 	/**
@@ -2914,7 +3464,7 @@ public class DateTimeCalculatorUtil {
 	 * @return ZonedDateTime
 	 */
 	public static ZonedDateTime getZonedDateTimeNowOfShanghai(){
-		return ZonedDateTime.now(ZoneId.of(ZoneIdEnum.CTT.getZoneIdName()));
+		return ZonedDateTime.now(ZoneRegistry.getZone(ZoneIdEnum.CTT.getZoneIdName()));
 	}
 	
 	/**
@@ -2922,7 +3472,7 @@ public class DateTimeCalculatorUtil {
 	 * @return ZonedDateTime
 	 */
 	public static ZonedDateTime getZonedDateTimeNowOfParis(){
-		return ZonedDateTime.now(ZoneId.of(ZoneIdEnum.ECT.getZoneIdName()));
+		return ZonedDateTime.now(ZoneRegistry.getZone(ZoneIdEnum.ECT.getZoneIdName()));
 	}
 	
 	/**
@@ -2930,7 +3480,7 @@ public class DateTimeCalculatorUtil {
 	 * @return ZonedDateTime
 	 */
 	public static ZonedDateTime getZonedDateTimeNowOfEST(){
-		return ZonedDateTime.now(ZoneId.of(ZoneIdEnum.EST.getZoneIdName()));
+		return ZonedDateTime.now(ZoneRegistry.getZone(ZoneIdEnum.EST.getZoneIdName()));
 	}
 	
 	/**
@@ -2938,7 +3488,7 @@ public class DateTimeCalculatorUtil {
 	 * @return ZonedDateTime
 	 */
 	public static ZonedDateTime getZonedDateTimeNowOfTokyo(){
-		return ZonedDateTime.now(ZoneId.of(ZoneIdEnum.JST.getZoneIdName()));
+		return ZonedDateTime.now(ZoneRegistry.getZone(ZoneIdEnum.JST.getZoneIdName()));
 	}	
 	
 	// base operation
@@ -3039,7 +3589,7 @@ public class DateTimeCalculatorUtil {
 	 */
 	public static ZonedDateTime getZonedDateTimeNow(String zoneId){
 		Objects.requireNonNull(zoneId, "zoneId");
-		return ZonedDateTime.now(ZoneId.of(zoneId));
+		return ZonedDateTime.now(ZoneRegistry.getZone(zoneId));
 	}
 	
 	/**
@@ -3050,7 +3600,7 @@ public class DateTimeCalculatorUtil {
 	 */
 	public static ZonedDateTime transform(ZonedDateTime zonedDateTime, String zoneId){
 		Objects.requireNonNull(zoneId, "zoneId");
-		return transform(zonedDateTime, ZoneId.of(zoneId));
+		return transform(zonedDateTime, ZoneRegistry.getZone(zoneId));
 	}
 	
 	/**
@@ -3073,7 +3623,7 @@ public class DateTimeCalculatorUtil {
 	 */
 	public static String transform(Date date, String zoneId){
 		Objects.requireNonNull(zoneId, "zoneId");
-		return transform(date, ZoneId.of(zoneId));
+		return transform(date, ZoneRegistry.getZone(zoneId));
 	}
 	
 	/**
@@ -3083,8 +3633,9 @@ public class DateTimeCalculatorUtil {
 	 * @return 日期 yyyy-MM-dd HH:mm:ss
 	 */
 	public static String transform(Date date, ZoneId zone){
+		Objects.requireNonNull(date, "date");
 		Objects.requireNonNull(zone, "zone");
-		return DateTimeFormatterUtil.formatToDateTimeStr(date, zone.toString());
+		return FixedWidthDateTimeCodec.YYYY_MM_DD_HH_MM_SS.format(date.getTime(), zone);
 	}
 	
 	/**
@@ -3649,17 +4200,7 @@ public class DateTimeCalculatorUtil {
 	 * @return 时间列表
 	 */
 	public static List<LocalDateTime> getLocalDateTimeList(LocalDateTime start, LocalDateTime end){
-		Objects.requireNonNull(start, "start");
-		Objects.requireNonNull(end, "end");
-		if(start.isAfter(end)){
-			throw new DateTimeException("start must before or equal end!");
-		}
-		List<LocalDateTime> localDateTimeList = new ArrayList<LocalDateTime>();
-		long days = betweenTotalDays(start, end)+1;
-		for(long i=0; i<days; i++){
-			localDateTimeList.add(start.plusDays(i));
-		}
-		return localDateTimeList;
+		return toList(TemporalRangeSpliterator.of(start, end));
 	}
 	
 	/**
@@ -3670,30 +4211,29 @@ public class DateTimeCalculatorUtil {
 	 * @return 时间列表
 	 */
 	public static List<LocalDateTime> getLocalDateTimeList(LocalDateTime start, LocalDateTime end, ChronoUnit unit){
-		Objects.requireNonNull(start, "start");
-		Objects.requireNonNull(end, "end");
-		Objects.requireNonNull(unit, "unit");
-		if(start.isAfter(end)){
-			throw new DateTimeException("start must before or equal end!");
-		}
-		List<LocalDateTime> localDateTimeList = new ArrayList<LocalDateTime>();
-		if(start.equals(end)){
-			localDateTimeList.add(start);
-			return localDateTimeList;
-		}
-		int i = 1;
-		LocalDateTime localDateTime = start;
-		localDateTimeList.add(localDateTime);
-		while(localDateTime.isBefore(end)){
-			localDateTime = (LocalDateTime) plus(start, unit, i);
-			if(localDateTime.isAfter(end) || localDateTime.equals(end)){
-				break;
-			}
-			localDateTimeList.add(localDateTime);
-			i++;
-		}
-		localDateTimeList.add(end);
-		return localDateTimeList;
+		return toList(TemporalRangeSpliterator.of(start, end, unit));
+	}
+	
+	/**
+	 * 获取指定区间的时间Stream，包含起始，元素在遍历时才计算，和getLocalDateTimeList(LocalDateTime start, LocalDateTime end)一致<br>
+	 * 并行流按下标平分，需要Iterator时使用TemporalRangeSpliterator.of(start, end).iterator()
+	 * @param start 开始时间
+	 * @param end 结束时间
+	 * @return 时间Stream
+	 */
+	public static Stream<LocalDateTime> getLocalDateTimeStream(LocalDateTime start, LocalDateTime end){
+		return TemporalRangeSpliterator.of(start, end).stream();
+	}
+	
+	/**
+	 * 获取指定区间的时间Stream，包含起始，间隔指定单位的相同时间，元素在遍历时才计算，和getLocalDateTimeList(LocalDateTime start, LocalDateTime end, ChronoUnit unit)一致
+	 * @param start 开始时间
+	 * @param end 结束时间
+	 * @param unit 单位
+	 * @return 时间Stream
+	 */
+	public static Stream<LocalDateTime> getLocalDateTimeStream(LocalDateTime start, LocalDateTime end, ChronoUnit unit){
+		return TemporalRangeSpliterator.of(start, end, unit).stream();
 	}
 	
 	/**
@@ -3716,9 +4256,7 @@ public class DateTimeCalculatorUtil {
 	 * @return 时间列表
 	 */
 	public static List<LocalDate> getLocalDateList(LocalDate start, LocalDate end){
-		return getLocalDateTimeList(DateTimeConverterUtil.toLocalDateTime(start),
-				DateTimeConverterUtil.toLocalDateTime(end)).stream()
-						.map(localDateTime -> localDateTime.toLocalDate()).collect(Collectors.toList());
+		return toList(TemporalRangeSpliterator.of(start, end));
 	}
 	
 	/**
@@ -3729,30 +4267,28 @@ public class DateTimeCalculatorUtil {
 	 * @return 时间列表
 	 */
 	public static List<LocalDate> getLocalDateList(LocalDate start, LocalDate end, ChronoUnit unit){
-		Objects.requireNonNull(start, "start");
-		Objects.requireNonNull(end, "end");
-		Objects.requireNonNull(unit, "unit");
-		if(start.isAfter(end)){
-			throw new DateTimeException("start must before or equal end!");
-		}
-		List<LocalDate> localDateList = new ArrayList<LocalDate>();
-		if(start.equals(end)){
-			localDateList.add(start);
-			return localDateList;
-		}
-		int i = 1;
-		LocalDate localDate = start;
-		localDateList.add(localDate);
-		while(localDate.isBefore(end)){
-			localDate = (LocalDate) plus(start, unit, i);
-			if(localDate.isAfter(end) || localDate.equals(end)){
-				break;
-			}
-			localDateList.add(localDate);
-			i++;
-		}
-		localDateList.add(end);
-		return localDateList;
+		return toList(TemporalRangeSpliterator.of(start, end, unit));
+	}
+	
+	/**
+	 * 获取指定区间的日期Stream，包含起始，元素在遍历时才计算，和getLocalDateList(LocalDate start, LocalDate end)一致
+	 * @param start 开始时间
+	 * @param end 结束时间
+	 * @return 日期Stream
+	 */
+	public static Stream<LocalDate> getLocalDateStream(LocalDate start, LocalDate end){
+		return TemporalRangeSpliterator.of(start, end).stream();
+	}
+	
+	/**
+	 * 获取指定区间的日期Stream，包含起始，间隔指定单位的相同时间，元素在遍历时才计算，和getLocalDateList(LocalDate start, LocalDate end, ChronoUnit unit)一致
+	 * @param start 开始时间
+	 * @param end 结束时间
+	 * @param unit 单位
+	 * @return 日期Stream
+	 */
+	public static Stream<LocalDate> getLocalDateStream(LocalDate start, LocalDate end, ChronoUnit unit){
+		return TemporalRangeSpliterator.of(start, end, unit).stream();
 	}
 	
 	/**
@@ -3762,9 +4298,19 @@ public class DateTimeCalculatorUtil {
 	 * @return 时间列表
 	 */
 	public static List<Date> getDateList(Date start, Date end){
-		return getLocalDateTimeList(DateTimeConverterUtil.toLocalDateTime(start),
-				DateTimeConverterUtil.toLocalDateTime(end)).stream()
-						.map(localDateTime -> DateTimeConverterUtil.toDate(localDateTime)).collect(Collectors.toList());
+		return toDateList(TemporalRangeSpliterator.of(DateTimeConverterUtil.toLocalDateTime(start),
+				DateTimeConverterUtil.toLocalDateTime(end)));
+	}
+	
+	/**
+	 * 获取指定区间的时间Stream，包含起始，元素在遍历时才计算，和getDateList(Date start, Date end)一致
+	 * @param start 开始时间
+	 * @param end 结束时间
+	 * @return 时间Stream
+	 */
+	public static Stream<Date> getDateStream(Date start, Date end){
+		return getLocalDateTimeStream(DateTimeConverterUtil.toLocalDateTime(start),
+				DateTimeConverterUtil.toLocalDateTime(end)).map(DateTimeConverterUtil::toDate);
 	}
 	
 	/**
@@ -3788,9 +4334,35 @@ public class DateTimeCalculatorUtil {
 	 * @return 时间列表
 	 */
 	public static List<Date> getDateList(Date startInclusive, Date endInclusive, ChronoUnit unit){
-		return getLocalDateTimeList(DateTimeConverterUtil.toLocalDateTime(startInclusive),
-				DateTimeConverterUtil.toLocalDateTime(endInclusive), unit).stream()
-						.map(localDateTime -> DateTimeConverterUtil.toDate(localDateTime)).collect(Collectors.toList());
+		return toDateList(TemporalRangeSpliterator.of(DateTimeConverterUtil.toLocalDateTime(startInclusive),
+				DateTimeConverterUtil.toLocalDateTime(endInclusive), unit));
+	}
+	
+	/**
+	 * 获取指定区间的时间Stream，包含起始，间隔指定单位的相同时间，元素在遍历时才计算，和getDateList(Date startInclusive, Date endInclusive, ChronoUnit unit)一致
+	 * @param startInclusive 开始时间
+	 * @param endInclusive 结束时间
+	 * @param unit 单位
+	 * @return 时间Stream
+	 */
+	public static Stream<Date> getDateStream(Date startInclusive, Date endInclusive, ChronoUnit unit){
+		return getLocalDateTimeStream(DateTimeConverterUtil.toLocalDateTime(startInclusive),
+				DateTimeConverterUtil.toLocalDateTime(endInclusive), unit).map(DateTimeConverterUtil::toDate);
+	}
+	
+	/**
+	 * 区间序列转列表，按数量创建ArrayList
+	 */
+	private static <T> List<T> toList(TemporalRangeSpliterator<T> range){
+		List<T> list = new ArrayList<T>(Math.toIntExact(range.estimateSize()));
+		range.forEachRemaining(list::add);
+		return list;
+	}
+	
+	private static List<Date> toDateList(TemporalRangeSpliterator<LocalDateTime> range){
+		List<Date> list = new ArrayList<Date>(Math.toIntExact(range.estimateSize()));
+		range.forEachRemaining(localDateTime -> list.add(DateTimeConverterUtil.toDate(localDateTime)));
+		return list;
 	}
 	
 	/**
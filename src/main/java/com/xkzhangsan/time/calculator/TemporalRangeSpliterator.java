@@ -0,0 +1,205 @@
+package com.xkzhangsan.time.calculator;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.Temporal;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 时间区间的延迟序列，元素在遍历时才计算，不预先创建列表<br>
+ * 1.第i个元素直接由开始时间计算，start.plus(i, unit)，和DateTimeCalculatorUtil.get*List的结果一致，比如1月31日按月为2月28日、3月31日。<br>
+ * 2.创建时计算元素数量，trySplit按下标平分，适合并行流。<br>
+ * 3.stream()返回Stream，iterator()返回Iterator，都是延迟计算。<br>
+ *
+ * @author xkzhangsan
+ * @param <T> 元素类型
+ */
+public class TemporalRangeSpliterator<T> implements Spliterator<T> {
+
+	private static final int CHARACTERISTICS = Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED
+			| Spliterator.IMMUTABLE | Spliterator.NONNULL;
+
+	/**
+	 * 根据下标计算元素
+	 */
+	private final LongFunction<T> element;
+
+	/**
+	 * 当前下标
+	 */
+	private long index;
+
+	/**
+	 * 结束下标，不包含
+	 */
+	private final long fence;
+
+	private TemporalRangeSpliterator(LongFunction<T> element, long index, long fence) {
+		this.element = element;
+		this.index = index;
+		this.fence = fence;
+	}
+
+	/**
+	 * 指定区间按天的时间序列，包含起始，和DateTimeCalculatorUtil.getLocalDateTimeList(LocalDateTime start, LocalDateTime end)一致
+	 * @param start 开始时间
+	 * @param end 结束时间
+	 * @return TemporalRangeSpliterator
+	 */
+	public static TemporalRangeSpliterator<LocalDateTime> of(LocalDateTime start, LocalDateTime end) {
+		checkRange(start, end);
+		long size = Duration.between(start, end).toDays() + 1;
+		return new TemporalRangeSpliterator<>(start::plusDays, 0, size);
+	}
+
+	/**
+	 * 指定区间间隔指定单位的时间序列，包含起始，和DateTimeCalculatorUtil.getLocalDateTimeList(LocalDateTime start, LocalDateTime end, ChronoUnit unit)一致
+	 * @param start 开始时间
+	 * @param end 结束时间
+	 * @param unit 单位
+	 * @return TemporalRangeSpliterator
+	 */
+	public static TemporalRangeSpliterator<LocalDateTime> of(LocalDateTime start, LocalDateTime end, ChronoUnit unit) {
+		return ofUnit(start, end, unit);
+	}
+
+	/**
+	 * 指定区间按天的日期序列，包含起始，和DateTimeCalculatorUtil.getLocalDateList(LocalDate start, LocalDate end)一致
+	 * @param start 开始日期
+	 * @param end 结束日期
+	 * @return TemporalRangeSpliterator
+	 */
+	public static TemporalRangeSpliterator<LocalDate> of(LocalDate start, LocalDate end) {
+		checkRange(start, end);
+		long size = start.until(end, ChronoUnit.DAYS) + 1;
+		return new TemporalRangeSpliterator<>(start::plusDays, 0, size);
+	}
+
+	/**
+	 * 指定区间间隔指定单位的日期序列，包含起始，和DateTimeCalculatorUtil.getLocalDateList(LocalDate start, LocalDate end, ChronoUnit unit)一致
+	 * @param start 开始日期
+	 * @param end 结束日期
+	 * @param unit 单位
+	 * @return TemporalRangeSpliterator
+	 */
+	public static TemporalRangeSpliterator<LocalDate> of(LocalDate start, LocalDate end, ChronoUnit unit) {
+		return ofUnit(start, end, unit);
+	}
+
+	/**
+	 * 返回延迟计算的Stream
+	 * @param parallel 是否并行
+	 * @return Stream
+	 */
+	public Stream<T> stream(boolean parallel) {
+		return StreamSupport.stream(this, parallel);
+	}
+
+	/**
+	 * 返回延迟计算的顺序Stream
+	 * @return Stream
+	 */
+	public Stream<T> stream() {
+		return stream(false);
+	}
+
+	/**
+	 * 返回延迟计算的Iterator
+	 * @return Iterator
+	 */
+	public Iterator<T> iterator() {
+		return Spliterators.iterator(this);
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super T> action) {
+		Objects.requireNonNull(action, "action");
+		if (index >= fence) {
+			return false;
+		}
+		action.accept(element.apply(index++));
+		return true;
+	}
+
+	@Override
+	public void forEachRemaining(Consumer<? super T> action) {
+		Objects.requireNonNull(action, "action");
+		long i = index;
+		index = fence;
+		for (; i < fence; i++) {
+			action.accept(element.apply(i));
+		}
+	}
+
+	@Override
+	public Spliterator<T> trySplit() {
+		long lo = index;
+		long mid = (lo + fence) >>> 1;
+		if (mid <= lo) {
+			return null;
+		}
+		index = mid;
+		return new TemporalRangeSpliterator<>(element, lo, mid);
+	}
+
+	@Override
+	public long estimateSize() {
+		return fence - index;
+	}
+
+	@Override
+	public int characteristics() {
+		return CHARACTERISTICS;
+	}
+
+	/**
+	 * 元素为start、start.plus(i, unit)（i从1开始，小于end的部分）和end，<br>
+	 * 先用until估算数量，再按plus的结果修正，比如1月31日到2月28日按月until为0，但plus 1个月等于2月28日
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T extends Temporal & Comparable<? super T>> TemporalRangeSpliterator<T> ofUnit(T start, T end, ChronoUnit unit) {
+		checkRange(start, end);
+		Objects.requireNonNull(unit, "unit");
+		if (start.equals(end)) {
+			return new TemporalRangeSpliterator<>(i -> start, 0, 1);
+		}
+		long count = Math.max(start.until(end, unit), 0);
+		while (count > 0 && ((T) start.plus(count, unit)).compareTo(end) > 0) {
+			count--;
+		}
+		while (isNotAfter(start, count + 1, unit, end)) {
+			count++;
+		}
+		// count为plus后不晚于end的最大值，等于end时end只计算一次
+		long last = ((T) start.plus(count, unit)).equals(end) ? count : count + 1;
+		return new TemporalRangeSpliterator<>(i -> i == last ? end : (T) start.plus(i, unit), 0, last + 1);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T extends Temporal & Comparable<? super T>> boolean isNotAfter(T start, long amount, ChronoUnit unit, T end) {
+		try {
+			return ((T) start.plus(amount, unit)).compareTo(end) <= 0;
+		} catch (DateTimeException | ArithmeticException e) {
+			// 超出支持的范围，一定晚于end
+			return false;
+		}
+	}
+
+	private static <T extends Comparable<? super T>> void checkRange(T start, T end) {
+		Objects.requireNonNull(start, "start");
+		Objects.requireNonNull(end, "end");
+		if (start.compareTo(end) > 0) {
+			throw new DateTimeException("start must before or equal end!");
+		}
+	}
+}
@@ -1,5 +1,6 @@
 /**
  * 日期计算工具类: DateTimeCalculatorUtil
+ * 时间区间延迟序列: TemporalRangeSpliterator
  *
  * @author xkzhangsan
  */
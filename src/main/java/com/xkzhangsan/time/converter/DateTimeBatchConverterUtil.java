@@ -0,0 +1,225 @@
+package com.xkzhangsan.time.converter;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.IntFunction;
+
+import com.xkzhangsan.time.utils.ParallelUtil;
+import com.xkzhangsan.time.utils.ParallelUtil.RangeAction;
+
+/**
+ * 批量（列式）转换工具类，适合JDBC批量写入、数据分析等整列时间一次转换的场景<br>
+ * 1.Date[]、Timestamp[]、{@code List<Date>} 转换为 long[] 时间戳毫秒值，long[] 转换为 Date[]、Timestamp[]。<br>
+ * 2.LocalDateTime[] 和 long[] 按指定时区互相转换，不指定时区时使用系统默认时区，整批只获取一次时区。<br>
+ * 3.每段使用ZoneRegistry的偏移窗口（前后两个夏令时转换之间），按时间排序或集中在一段时间内的数据大部分只需比较范围，不经过ZonedDateTime。<br>
+ * 4.数量超过PARALLEL_THRESHOLD时，拆分为多段在ForkJoinPool.commonPool()中并行执行，结果顺序不变。<br>
+ * 结果和逐个调用DateTimeConverterUtil一致，元素为null等出错时抛出第一个出错元素的异常。<br>
+ *
+ * @author xkzhangsan
+ */
+public class DateTimeBatchConverterUtil {
+
+	/**
+	 * 并行阈值，数量超过该值时并行执行
+	 */
+	public static final int PARALLEL_THRESHOLD = 8192;
+
+	private static final long MILLIS_PER_SECOND = 1000L;
+
+	private static final int NANOS_PER_MILLI = 1000_000;
+
+	private DateTimeBatchConverterUtil(){
+	}
+
+	// ==================================Date/Timestamp==================================
+
+	/**
+	 * Date[]（包括Timestamp[]）批量转时间戳毫秒值
+	 * @param dates Date数组
+	 * @return 时间戳毫秒值数组
+	 */
+	public static long[] toEpochMilli(Date[] dates){
+		Objects.requireNonNull(dates, "dates");
+		return toEpochMilli(i -> dates[i], dates.length);
+	}
+
+	/**
+	 * {@code List<Date>}（包括{@code List<Timestamp>}）批量转时间戳毫秒值
+	 * @param dates Date列表
+	 * @return 时间戳毫秒值数组
+	 */
+	public static long[] toEpochMilli(List<? extends Date> dates){
+		Objects.requireNonNull(dates, "dates");
+		return toEpochMilli(toArrayAccess(dates), dates.size());
+	}
+
+	/**
+	 * 时间戳毫秒值批量转Date
+	 * @param epochMillis 时间戳毫秒值数组
+	 * @return Date数组
+	 */
+	public static Date[] toDate(long[] epochMillis){
+		Objects.requireNonNull(epochMillis, "epochMillis");
+		Date[] result = new Date[epochMillis.length];
+		run(epochMillis.length, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				result[i] = new Date(epochMillis[i]);
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * 时间戳毫秒值批量转Timestamp，适合JDBC批量写入
+	 * @param epochMillis 时间戳毫秒值数组
+	 * @return Timestamp数组
+	 */
+	public static Timestamp[] toTimestamp(long[] epochMillis){
+		Objects.requireNonNull(epochMillis, "epochMillis");
+		Timestamp[] result = new Timestamp[epochMillis.length];
+		run(epochMillis.length, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				result[i] = new Timestamp(epochMillis[i]);
+			}
+		});
+		return result;
+	}
+
+	// ==================================LocalDateTime==================================
+
+	/**
+	 * LocalDateTime[]批量转时间戳毫秒值，使用系统默认时区，和DateTimeConverterUtil.toEpochMilli(LocalDateTime)一致
+	 * @param localDateTimes LocalDateTime数组
+	 * @return 时间戳毫秒值数组
+	 */
+	public static long[] toEpochMilli(LocalDateTime[] localDateTimes){
+		return toEpochMilli(localDateTimes, ZoneRegistry.getSystemDefault());
+	}
+
+	/**
+	 * LocalDateTime[]按时区批量转时间戳毫秒值，和localDateTime.atZone(zone).toInstant().toEpochMilli()一致，<br>
+	 * 夏令时重叠时取较早的偏移，处于夏令时间隙时按间隙之后的时间计算
+	 * @param localDateTimes LocalDateTime数组
+	 * @param zone 时区
+	 * @return 时间戳毫秒值数组
+	 */
+	public static long[] toEpochMilli(LocalDateTime[] localDateTimes, ZoneId zone){
+		Objects.requireNonNull(localDateTimes, "localDateTimes");
+		Objects.requireNonNull(zone, "zone");
+		long[] result = new long[localDateTimes.length];
+		RangeAction action = (from, to) -> {
+			long[] window = new long[ZoneRegistry.WINDOW_SIZE];
+			int windowOffset = 0;
+			for (int i = from; i < to; i++) {
+				LocalDateTime localDateTime = localDateTimes[i];
+				Objects.requireNonNull(localDateTime, "localDateTime");
+				long localSecond = DateTimeConverterUtil.toLocalSecond(localDateTime);
+				if (Math.abs(localSecond) >= DateTimeConverterUtil.FAST_SECOND_LIMIT) {
+					result[i] = localDateTime.atZone(zone).toInstant().toEpochMilli();
+					continue;
+				}
+				long localMilli = localSecond * MILLIS_PER_SECOND;
+				int offsetSeconds;
+				if (localMilli >= window[2] && localMilli < window[3]) {
+					offsetSeconds = windowOffset;
+				} else {
+					// 窗口外（包括夏令时间隙和重叠）按转换表计算，再更新为该时间所在的窗口
+					offsetSeconds = ZoneRegistry.getLocalOffsetSeconds(localMilli, zone);
+					windowOffset = ZoneRegistry.getOffsetWindow(localMilli - offsetSeconds * (long) MILLIS_PER_SECOND,
+							zone, window);
+				}
+				result[i] = (localSecond - offsetSeconds) * MILLIS_PER_SECOND + localDateTime.getNano() / NANOS_PER_MILLI;
+			}
+		};
+		runOrThrowFirst(localDateTimes.length, action);
+		return result;
+	}
+
+	/**
+	 * 时间戳毫秒值批量转LocalDateTime，使用系统默认时区，和DateTimeConverterUtil.toLocalDateTime(long)一致
+	 * @param epochMillis 时间戳毫秒值数组
+	 * @return LocalDateTime数组
+	 */
+	public static LocalDateTime[] toLocalDateTime(long[] epochMillis){
+		return toLocalDateTime(epochMillis, ZoneRegistry.getSystemDefault());
+	}
+
+	/**
+	 * 时间戳毫秒值按时区批量转LocalDateTime，和LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), zone)一致
+	 * @param epochMillis 时间戳毫秒值数组
+	 * @param zone 时区
+	 * @return LocalDateTime数组
+	 */
+	public static LocalDateTime[] toLocalDateTime(long[] epochMillis, ZoneId zone){
+		Objects.requireNonNull(epochMillis, "epochMillis");
+		Objects.requireNonNull(zone, "zone");
+		LocalDateTime[] result = new LocalDateTime[epochMillis.length];
+		runOrThrowFirst(epochMillis.length, (from, to) -> {
+			long[] window = new long[ZoneRegistry.WINDOW_SIZE];
+			int offsetSeconds = 0;
+			for (int i = from; i < to; i++) {
+				long epochMilli = epochMillis[i];
+				if (epochMilli < window[0] || epochMilli >= window[1]) {
+					offsetSeconds = ZoneRegistry.getOffsetWindow(epochMilli, zone, window);
+				}
+				// 分别计算秒和毫秒，避免接近long范围时溢出
+				result[i] = LocalDateTime.ofEpochSecond(Math.floorDiv(epochMilli, MILLIS_PER_SECOND) + offsetSeconds,
+						(int) Math.floorMod(epochMilli, MILLIS_PER_SECOND) * NANOS_PER_MILLI, ZoneOffset.UTC);
+			}
+		});
+		return result;
+	}
+
+	// ==================================common==================================
+
+	private static long[] toEpochMilli(IntFunction<? extends Date> dates, int size) {
+		long[] result = new long[size];
+		runOrThrowFirst(size, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				Date date = dates.apply(i);
+				Objects.requireNonNull(date, "date");
+				result[i] = date.getTime();
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * 非RandomAccess的列表先转换为数组，避免并行时按下标遍历链表
+	 */
+	private static IntFunction<? extends Date> toArrayAccess(List<? extends Date> dates) {
+		if (dates instanceof RandomAccess) {
+			return dates::get;
+		}
+		Date[] array = dates.toArray(new Date[0]);
+		return i -> array[i];
+	}
+
+	/**
+	 * 执行[0, size)区间，并行执行出错时按顺序重新执行，抛出和逐个调用相同的第一个出错元素的异常
+	 */
+	private static void runOrThrowFirst(int size, RangeAction action) {
+		try {
+			run(size, action);
+		} catch (RuntimeException e) {
+			if (size <= PARALLEL_THRESHOLD) {
+				throw e;
+			}
+			action.run(0, size);
+			throw e;
+		}
+	}
+
+	/**
+	 * 执行[0, size)区间，超过PARALLEL_THRESHOLD时在ForkJoinPool.commonPool()中并行执行
+	 */
+	private static void run(int size, RangeAction action) {
+		ParallelUtil.run(size, PARALLEL_THRESHOLD, action);
+	}
+}
@@ -11,6 +11,7 @@ import java.time.OffsetDateTime;
 import java.time.OffsetTime;
 import java.time.YearMonth;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.temporal.TemporalAccessor;
 import java.util.Date;
@@ -26,16 +27,79 @@ import com.xkzhangsan.time.calculator.DateTimeCalculatorUtil;
  * 
  * 1.Date、LocalDate、LocalDateTime、LocalTime、Instant、ZonedDateTime、YearMonth、Timestamp、时间戳和TemporalAccessor等互相转换<br>
  * 
- * 2.天、小时、分钟、秒和毫秒等时间单位相互转换，支持小单位到大单位的精确转换比如，minuteToHourPrecise(long num) 90分钟转换为小时，为1.5小时。<br>
+ * 2.天、小时、分钟、秒和毫秒等时间单位相互转换，支持小单位到大单位的精确转换比如，minuteToHourPrecise(long num) 90分钟转换为小时，为1.5小时，
+ * 常用的小数位数下按整数计算和舍入，不创建中间BigDecimal，unitConversionPreciseTo可以追加到复用的StringBuilder。<br>
  * 
  * 3.转换ZonedDateTime的同时支持转换为指定时区，比如toZonedDateTime(Date date, String zoneId) ,toZonedDateTimeAndTransformZone(LocalDateTime localDateTime, String targetZoneId)。<br>
  * 
+ * 4.系统默认时区使用ZoneRegistry.getSystemDefault()缓存，TimeZone.setDefault修改后自动失效；Date、LocalDateTime、LocalDate、Instant和时间戳之间的转换，
+ * 在系统默认时区当前偏移窗口（前后两个夏令时转换之间）内直接按偏移计算，不经过ZonedDateTime，窗口外使用偏移转换表或ZoneRules计算，结果一致。<br>
+ * 
  * 注意，ZonedDateTime相关的转换，尤其是其他时间转ZonedDateTime，要注意时间和对应时区一致。<br>
 * @author xkzhangsan
 *
  */
 public class DateTimeConverterUtil {
 	
+	/**
+	 * 直接按偏移计算的秒数范围（约55万年），超出时使用ZonedDateTime计算，避免毫秒值溢出
+	 */
+	static final long FAST_SECOND_LIMIT = 1L << 44;
+
+	private static final long SECONDS_PER_DAY = 86400;
+
+	private static final long MILLIS_PER_SECOND = 1000L;
+
+	private static final int NANOS_PER_MILLI = 1000_000;
+
+	/**
+	 * 精确单位转换整数计算支持的最大小数位数，10的18次方以内
+	 */
+	private static final int MAX_EXACT_SCALE = 18;
+
+	private static final long[] POWERS_OF_TEN = new long[MAX_EXACT_SCALE + 1];
+
+	/**
+	 * 单位换算比例，按TimeUnit.ordinal()下标，RATIO_NUMERATOR[source][target]/RATIO_DENOMINATOR[source][target]为约分后的比例
+	 */
+	private static final long[][] RATIO_NUMERATOR;
+
+	private static final long[][] RATIO_DENOMINATOR;
+
+	/**
+	 * 精确单位转换结果超出整数计算范围时的标记，整数计算结果的绝对值小于Long.MAX_VALUE，不会出现该值
+	 */
+	private static final long NOT_EXACT = Long.MIN_VALUE;
+
+	/**
+	 * 精确单位转换字符串的线程缓冲区，符号、19位数字和小数点
+	 */
+	private static final ThreadLocal<char[]> PRECISE_BUFFER = new ThreadLocal<char[]>() {
+		@Override
+		protected char[] initialValue() {
+			return new char[24];
+		}
+	};
+
+	static {
+		POWERS_OF_TEN[0] = 1;
+		for (int i = 1; i <= MAX_EXACT_SCALE; i++) {
+			POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+		}
+		TimeUnit[] units = TimeUnit.values();
+		RATIO_NUMERATOR = new long[units.length][units.length];
+		RATIO_DENOMINATOR = new long[units.length][units.length];
+		for (TimeUnit source : units) {
+			for (TimeUnit target : units) {
+				long numerator = source.toNanos(1);
+				long denominator = target.toNanos(1);
+				long gcd = gcd(numerator, denominator);
+				RATIO_NUMERATOR[source.ordinal()][target.ordinal()] = numerator / gcd;
+				RATIO_DENOMINATOR[source.ordinal()][target.ordinal()] = denominator / gcd;
+			}
+		}
+	}
+
 	private DateTimeConverterUtil(){
 	}
 
@@ -46,7 +110,11 @@ public class DateTimeConverterUtil {
 	 */
 	public static Date toDate(LocalDateTime localDateTime) {
 		Objects.requireNonNull(localDateTime, "localDateTime");
-		return Date.from(localDateTime.atZone(ZoneId.systemDefault()).toInstant());
+		long localSecond = toLocalSecond(localDateTime);
+		if (Math.abs(localSecond) < FAST_SECOND_LIMIT) {
+			return new Date(toSystemEpochMilli(localSecond, localDateTime.getNano()));
+		}
+		return Date.from(localDateTime.atZone(ZoneRegistry.getSystemDefault()).toInstant());
 	}
 
 	/**
@@ -55,8 +123,7 @@ public class DateTimeConverterUtil {
 	 * @return Date
 	 */
 	public static Date toDate(LocalDate localDate) {
-		Objects.requireNonNull(localDate, "localDate");
-		return Date.from(localDate.atStartOfDay().atZone(ZoneId.systemDefault()).toInstant());
+		return toDate(toLocalDateTime(localDate));
 	}
 	
 	/**
@@ -67,7 +134,7 @@ public class DateTimeConverterUtil {
 	 */
 	public static Date toDate(LocalTime localTime) {
 		Objects.requireNonNull(localTime, "localTime");
-		return Date.from(LocalDate.now().atTime(localTime).atZone(ZoneId.systemDefault()).toInstant());
+		return Date.from(LocalDate.now().atTime(localTime).atZone(ZoneRegistry.getSystemDefault()).toInstant());
 	}	
 
 	/**
@@ -148,7 +215,7 @@ public class DateTimeConverterUtil {
 	 */
 	public static LocalDateTime toLocalDateTime(Date date) {
 		Objects.requireNonNull(date, "date");
-		return Instant.ofEpochMilli(date.getTime()).atZone(ZoneId.systemDefault()).toLocalDateTime();
+		return toLocalDateTime(date.getTime());
 	}
 	
 	/**
@@ -188,7 +255,14 @@ public class DateTimeConverterUtil {
 	 * @return LocalDateTime
 	 */
 	public static LocalDateTime toLocalDateTime(Instant instant) {
-		return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+		Objects.requireNonNull(instant, "instant");
+		long epochSecond = instant.getEpochSecond();
+		if (Math.abs(epochSecond) < FAST_SECOND_LIMIT) {
+			int offsetSeconds = ZoneRegistry.getOffsetSeconds(epochSecond * MILLIS_PER_SECOND,
+					ZoneRegistry.getSystemDefault());
+			return LocalDateTime.ofEpochSecond(epochSecond + offsetSeconds, instant.getNano(), ZoneOffset.UTC);
+		}
+		return LocalDateTime.ofInstant(instant, ZoneRegistry.getSystemDefault());
 	}
 	
 	/**
@@ -198,7 +272,13 @@ public class DateTimeConverterUtil {
 	 */
 	public static LocalDateTime toLocalDateTime(long epochMilli) {
 		Objects.requireNonNull(epochMilli, "epochMilli");
-		return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), ZoneId.systemDefault());
+		if (epochMilli > -FAST_SECOND_LIMIT * MILLIS_PER_SECOND && epochMilli < FAST_SECOND_LIMIT * MILLIS_PER_SECOND) {
+			long localMilli = epochMilli
+					+ ZoneRegistry.getOffsetSeconds(epochMilli, ZoneRegistry.getSystemDefault()) * (long) MILLIS_PER_SECOND;
+			return LocalDateTime.ofEpochSecond(Math.floorDiv(localMilli, MILLIS_PER_SECOND),
+					(int) Math.floorMod(localMilli, MILLIS_PER_SECOND) * NANOS_PER_MILLI, ZoneOffset.UTC);
+		}
+		return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), ZoneRegistry.getSystemDefault());
 	}
 	
 	/**
@@ -414,7 +494,11 @@ public class DateTimeConverterUtil {
 	 */
 	public static Instant toInstant(LocalDateTime localDateTime) {
 		Objects.requireNonNull(localDateTime, "localDateTime");
-		return localDateTime.atZone(ZoneId.systemDefault()).toInstant();
+		long localSecond = toLocalSecond(localDateTime);
+		if (Math.abs(localSecond) < FAST_SECOND_LIMIT) {
+			return Instant.ofEpochSecond(localSecond - systemLocalOffsetSeconds(localSecond), localDateTime.getNano());
+		}
+		return localDateTime.atZone(ZoneRegistry.getSystemDefault()).toInstant();
 	}
 
 	/**
@@ -423,7 +507,7 @@ public class DateTimeConverterUtil {
 	 * @return Instant
 	 */
 	public static Instant toInstant(LocalDate localDate) {
-		return toLocalDateTime(localDate).atZone(ZoneId.systemDefault()).toInstant();
+		return toInstant(toLocalDateTime(localDate));
 	}
 	
 	/**
@@ -433,7 +517,7 @@ public class DateTimeConverterUtil {
 	 * @return Instant
 	 */
 	public static Instant toInstant(LocalTime localTime) {
-		return toLocalDateTime(localTime).atZone(ZoneId.systemDefault()).toInstant();
+		return toLocalDateTime(localTime).atZone(ZoneRegistry.getSystemDefault()).toInstant();
 	}
 	
 	/**
@@ -495,7 +579,12 @@ public class DateTimeConverterUtil {
 	 * @return 时间戳
 	 */
 	public static long toEpochMilli(LocalDateTime localDateTime){
-		return toInstant(localDateTime).toEpochMilli();
+		Objects.requireNonNull(localDateTime, "localDateTime");
+		long localSecond = toLocalSecond(localDateTime);
+		if (Math.abs(localSecond) < FAST_SECOND_LIMIT) {
+			return toSystemEpochMilli(localSecond, localDateTime.getNano());
+		}
+		return localDateTime.atZone(ZoneRegistry.getSystemDefault()).toInstant().toEpochMilli();
 	}
 	
 	/**
@@ -505,7 +594,7 @@ public class DateTimeConverterUtil {
 	 * @return 时间戳
 	 */
 	public static long toEpochMilli(LocalDate localDate){
-		return toInstant(localDate).toEpochMilli();
+		return toEpochMilli(toLocalDateTime(localDate));
 	}
 	
 	/**
@@ -557,7 +646,7 @@ public class DateTimeConverterUtil {
 	 */
 	public static ZonedDateTime toZonedDateTime(Date date) {
 		Objects.requireNonNull(date, "date");
-		return Instant.ofEpochMilli(date.getTime()).atZone(ZoneId.systemDefault());
+		return Instant.ofEpochMilli(date.getTime()).atZone(ZoneRegistry.getSystemDefault());
 	}
 	
 	/**
@@ -568,7 +657,7 @@ public class DateTimeConverterUtil {
 	 */
 	public static ZonedDateTime toZonedDateTime(Date date, String zoneId) {
 		Objects.requireNonNull(zoneId, "zoneId");
-		return toZonedDateTime(date, ZoneId.of(zoneId));
+		return toZonedDateTime(date, ZoneRegistry.getZone(zoneId));
 	}
 	
 	/**
@@ -590,7 +679,7 @@ public class DateTimeConverterUtil {
 	 */
 	public static ZonedDateTime toZonedDateTime(LocalDateTime localDateTime) {
 		Objects.requireNonNull(localDateTime, "localDateTime");
-		return localDateTime.atZone(ZoneId.systemDefault());
+		return localDateTime.atZone(ZoneRegistry.getSystemDefault());
 	}
 	
 	/**
@@ -604,7 +693,7 @@ public class DateTimeConverterUtil {
 	public static ZonedDateTime toZonedDateTime(LocalDateTime localDateTime, String zoneId) {
 		Objects.requireNonNull(localDateTime, "localDateTime");
 		Objects.requireNonNull(zoneId, "zoneId");
-		return localDateTime.atZone(ZoneId.of(zoneId));
+		return localDateTime.atZone(ZoneRegistry.getZone(zoneId));
 	}
 	
 	/**
@@ -618,7 +707,7 @@ public class DateTimeConverterUtil {
 	public static ZonedDateTime toZonedDateTimeAndTransformZone(LocalDateTime localDateTime, String targetZoneId) {
 		Objects.requireNonNull(localDateTime, "localDateTime");
 		Objects.requireNonNull(targetZoneId, "targetZoneId");
-		return DateTimeCalculatorUtil.transform(localDateTime.atZone(ZoneId.systemDefault()), targetZoneId);
+		return DateTimeCalculatorUtil.transform(localDateTime.atZone(ZoneRegistry.getSystemDefault()), targetZoneId);
 	}	
 
 	/**
@@ -628,7 +717,7 @@ public class DateTimeConverterUtil {
 	 */
 	public static ZonedDateTime toZonedDateTime(LocalDate localDate) {
 		Objects.requireNonNull(localDate, "localDate");
-		return localDate.atStartOfDay().atZone(ZoneId.systemDefault());
+		return localDate.atStartOfDay().atZone(ZoneRegistry.getSystemDefault());
 	}
 	
 	/**
@@ -639,7 +728,7 @@ public class DateTimeConverterUtil {
 	 */
 	public static ZonedDateTime toZonedDateTime(LocalTime localTime) {
 		Objects.requireNonNull(localTime, "localTime");
-		return LocalDate.now().atTime(localTime).atZone(ZoneId.systemDefault());
+		return LocalDate.now().atTime(localTime).atZone(ZoneRegistry.getSystemDefault());
 	}
 
 	/**
@@ -648,7 +737,7 @@ public class DateTimeConverterUtil {
 	 * @return ZonedDateTime
 	 */
 	public static ZonedDateTime toZonedDateTime(Instant instant) {
-		return LocalDateTime.ofInstant(instant, ZoneId.systemDefault()).atZone(ZoneId.systemDefault());
+		return LocalDateTime.ofInstant(instant, ZoneRegistry.getSystemDefault()).atZone(ZoneRegistry.getSystemDefault());
 	}
 	
 	/**
@@ -658,8 +747,8 @@ public class DateTimeConverterUtil {
 	 */
 	public static ZonedDateTime toZonedDateTime(long epochMilli) {
 		Objects.requireNonNull(epochMilli, "epochMilli");
-		return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), ZoneId.systemDefault())
-				.atZone(ZoneId.systemDefault());
+		return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), ZoneRegistry.getSystemDefault())
+				.atZone(ZoneRegistry.getSystemDefault());
 	}
 	
 	/**
@@ -826,7 +915,8 @@ public class DateTimeConverterUtil {
 	}
 
 	/**
-	 * 单位转换，精确计算
+	 * 单位转换，精确计算<br>
+	 * 小数位数不超过18位且结果在long范围内时按约分后的比例整数计算并舍入，比如秒、分钟、小时、天之间的转换，结果和BigDecimal除法一致，超出时使用BigDecimal计算
 	 * @param sourceDuration 数量
 	 * @param sourceUnit 原单位
 	 * @param targetUnit 新单位
@@ -835,12 +925,17 @@ public class DateTimeConverterUtil {
 	 * @return 返回结果
 	 */
 	public static BigDecimal unitConversionPrecise(long sourceDuration, TimeUnit sourceUnit, TimeUnit targetUnit, int scale, RoundingMode roundingMode) {
+		long unscaled = unitConversionUnscaled(sourceDuration, sourceUnit, targetUnit, scale, roundingMode);
+		if (unscaled != NOT_EXACT) {
+			return BigDecimal.valueOf(unscaled, scale);
+		}
 		return BigDecimal.valueOf(sourceDuration)
 				.multiply(BigDecimal.valueOf(sourceUnit.toNanos(1))).divide(BigDecimal.valueOf(targetUnit.toNanos(1)), scale, roundingMode);
 	}
 	
 	/**
-	 * 单位转换，精确计算，返回字符串，去掉尾部多余0
+	 * 单位转换，精确计算，返回字符串，去掉尾部多余0<br>
+	 * 整数计算时直接写入线程缓冲区生成字符串，不创建BigDecimal
 	 * @param sourceDuration 数量
 	 * @param sourceUnit 原单位
 	 * @param targetUnit 新单位
@@ -849,7 +944,40 @@ public class DateTimeConverterUtil {
 	 * @return 返回结果
 	 */
 	public static String unitConversionPreciseString(long sourceDuration, TimeUnit sourceUnit, TimeUnit targetUnit, int scale, RoundingMode roundingMode) {
-		return unitConversionPrecise(sourceDuration, sourceUnit, targetUnit, scale, roundingMode).stripTrailingZeros().toPlainString();
+		return unitConversionPreciseString(sourceDuration, sourceUnit, targetUnit, scale, roundingMode, true);
+	}
+	
+	/**
+	 * 单位转换，精确计算，保留1位小数，ROUND_DOWN 舍去多余小数，返回字符串，去掉尾部多余0
+	 * @param sourceDuration 数量
+	 * @param sourceUnit 原单位
+	 * @param targetUnit 新单位
+	 * @return 返回结果
+	 */
+	public static String unitConversionPreciseString(long sourceDuration, TimeUnit sourceUnit, TimeUnit targetUnit) {
+		return unitConversionPreciseString(sourceDuration, sourceUnit, targetUnit, 1, RoundingMode.DOWN, true);
+	}
+	
+	/**
+	 * 单位转换，精确计算，去掉尾部多余0后追加到StringBuilder，结果和unitConversionPreciseString一致，<br>
+	 * 适合大批量生成报表时复用同一个StringBuilder
+	 * @param sb StringBuilder
+	 * @param sourceDuration 数量
+	 * @param sourceUnit 原单位
+	 * @param targetUnit 新单位
+	 * @param scale 小数位数
+	 * @param roundingMode 舍入模式
+	 * @return StringBuilder
+	 */
+	public static StringBuilder unitConversionPreciseTo(StringBuilder sb, long sourceDuration, TimeUnit sourceUnit, TimeUnit targetUnit, int scale, RoundingMode roundingMode) {
+		Objects.requireNonNull(sb, "sb");
+		long unscaled = unitConversionUnscaled(sourceDuration, sourceUnit, targetUnit, scale, roundingMode);
+		if (unscaled != NOT_EXACT) {
+			char[] buf = PRECISE_BUFFER.get();
+			int start = formatUnscaled(unscaled, scale, true, buf);
+			return sb.append(buf, start, buf.length - start);
+		}
+		return sb.append(unitConversionPrecise(sourceDuration, sourceUnit, targetUnit, scale, roundingMode).stripTrailingZeros().toPlainString());
 	}
 	
 	/**
@@ -863,6 +991,119 @@ public class DateTimeConverterUtil {
 		return unitConversionPrecise(sourceDuration, sourceUnit, targetUnit, 1, RoundingMode.DOWN);
 	}
 	
+	private static String unitConversionPreciseString(long sourceDuration, TimeUnit sourceUnit, TimeUnit targetUnit, int scale,
+			RoundingMode roundingMode, boolean stripTrailingZeros) {
+		long unscaled = unitConversionUnscaled(sourceDuration, sourceUnit, targetUnit, scale, roundingMode);
+		if (unscaled != NOT_EXACT) {
+			char[] buf = PRECISE_BUFFER.get();
+			int start = formatUnscaled(unscaled, scale, stripTrailingZeros, buf);
+			return new String(buf, start, buf.length - start);
+		}
+		BigDecimal result = unitConversionPrecise(sourceDuration, sourceUnit, targetUnit, scale, roundingMode);
+		return stripTrailingZeros ? result.stripTrailingZeros().toPlainString() : result.toPlainString();
+	}
+	
+	/**
+	 * 按约分后的比例整数计算 sourceDuration * 10^scale * numerator / denominator 并舍入，返回结果的未缩放值，<br>
+	 * 小数位数超出范围、乘积溢出或UNNECESSARY模式下需要舍入时返回NOT_EXACT，由BigDecimal计算
+	 */
+	private static long unitConversionUnscaled(long sourceDuration, TimeUnit sourceUnit, TimeUnit targetUnit, int scale, RoundingMode roundingMode) {
+		Objects.requireNonNull(roundingMode, "roundingMode");
+		if (scale < 0 || scale > MAX_EXACT_SCALE) {
+			return NOT_EXACT;
+		}
+		long numerator = RATIO_NUMERATOR[sourceUnit.ordinal()][targetUnit.ordinal()];
+		long denominator = RATIO_DENOMINATOR[sourceUnit.ordinal()][targetUnit.ordinal()];
+		long power = POWERS_OF_TEN[scale];
+		if (numerator > Long.MAX_VALUE / power) {
+			return NOT_EXACT;
+		}
+		long factor = numerator * power;
+		long limit = Long.MAX_VALUE / factor;
+		if (sourceDuration > limit || sourceDuration < -limit) {
+			return NOT_EXACT;
+		}
+		long product = sourceDuration * factor;
+		long quotient = product / denominator;
+		long remainder = product - quotient * denominator;
+		if (remainder == 0) {
+			return quotient;
+		}
+		// 商向0截断，按舍入模式决定是否向远离0的方向进1
+		long sign = product < 0 ? -1 : 1;
+		boolean increment;
+		switch (roundingMode) {
+		case UP:
+			increment = true;
+			break;
+		case DOWN:
+			increment = false;
+			break;
+		case CEILING:
+			increment = sign > 0;
+			break;
+		case FLOOR:
+			increment = sign < 0;
+			break;
+		case HALF_UP:
+		case HALF_DOWN:
+		case HALF_EVEN:
+			// denominator最大为天的纳秒数，2倍余数不会溢出
+			long twice = Math.abs(remainder) * 2;
+			if (twice != denominator) {
+				increment = twice > denominator;
+			} else if (roundingMode == RoundingMode.HALF_UP) {
+				increment = true;
+			} else if (roundingMode == RoundingMode.HALF_DOWN) {
+				increment = false;
+			} else {
+				increment = (quotient & 1) != 0;
+			}
+			break;
+		default:
+			// UNNECESSARY，由BigDecimal抛出ArithmeticException
+			return NOT_EXACT;
+		}
+		return increment ? quotient + sign : quotient;
+	}
+	
+	/**
+	 * 未缩放值按小数位数写入buf尾部，返回开始位置，格式和BigDecimal.toPlainString()一致，stripTrailingZeros为true时去掉小数尾部的0
+	 */
+	private static int formatUnscaled(long unscaled, int scale, boolean stripTrailingZeros, char[] buf) {
+		if (stripTrailingZeros) {
+			while (scale > 0 && unscaled % 10 == 0) {
+				unscaled /= 10;
+				scale--;
+			}
+		}
+		boolean negative = unscaled < 0;
+		long abs = negative ? -unscaled : unscaled;
+		int pos = buf.length;
+		int digits = 0;
+		do {
+			buf[--pos] = (char) ('0' + abs % 10);
+			abs /= 10;
+			digits++;
+			if (digits == scale) {
+				buf[--pos] = '.';
+			}
+		} while (abs != 0 || digits <= scale);
+		if (negative) {
+			buf[--pos] = '-';
+		}
+		return pos;
+	}
+	
+	private static long gcd(long a, long b) {
+		while (b != 0) {
+			long t = a % b;
+			a = b;
+			b = t;
+		}
+		return a;
+	}
+	
 	/**
 	 * 单位转换，天转小时
 	 * @param num 待转换值
@@ -950,7 +1191,7 @@ public class DateTimeConverterUtil {
 	 * @return 天数，保留1位小数，ROUND_DOWN 舍去多余小数，返回字符串，去掉尾部多余0
 	 */
 	public static String hourToDayPreciseString(long num){
-		return hourToDayPrecise(num).stripTrailingZeros().toPlainString();
+		return unitConversionPreciseString(num, TimeUnit.HOURS, TimeUnit.DAYS);
 	}	
 	
 	/**
@@ -995,7 +1236,7 @@ public class DateTimeConverterUtil {
 	 * @return 小时数，保留1位小数，ROUND_DOWN 舍去多余小数，返回字符串，去掉尾部多余0
 	 */
 	public static String minuteToHourPreciseString(long num){
-		return minuteToHourPrecise(num).stripTrailingZeros().toPlainString();
+		return unitConversionPreciseString(num, TimeUnit.MINUTES, TimeUnit.HOURS);
 	}	
 	
 	/**
@@ -1022,7 +1263,7 @@ public class DateTimeConverterUtil {
 	 * @return 天数，保留1位小数，ROUND_DOWN 舍去多余小数，返回字符串，去掉尾部多余0
 	 */
 	public static String minuteToDayPreciseString(long num){
-		return minuteToDayPrecise(num).stripTrailingZeros().toPlainString();
+		return unitConversionPreciseString(num, TimeUnit.MINUTES, TimeUnit.DAYS);
 	}
 	
 	/**
@@ -1058,7 +1299,7 @@ public class DateTimeConverterUtil {
 	 * @return 分钟数，保留1位小数，ROUND_DOWN 舍去多余小数，返回字符串，去掉尾部多余0
 	 */
 	public static String secondToMinutePreciseString(long num){
-		return secondToMinutePrecise(num).stripTrailingZeros().toPlainString();
+		return unitConversionPreciseString(num, TimeUnit.SECONDS, TimeUnit.MINUTES);
 	}	
 	
 	/**
@@ -1085,7 +1326,7 @@ public class DateTimeConverterUtil {
 	 * @return 小时数，保留1位小数，ROUND_DOWN 舍去多余小数，返回字符串，去掉尾部多余0
 	 */
 	public static String secondToHourPreciseString(long num){
-		return secondToHourPrecise(num).stripTrailingZeros().toPlainString();
+		return unitConversionPreciseString(num, TimeUnit.SECONDS, TimeUnit.HOURS);
 	}	
 	
 	/**
@@ -1112,7 +1353,7 @@ public class DateTimeConverterUtil {
 	 * @return 天数，保留1位小数，ROUND_DOWN 舍去多余小数，返回字符串，去掉尾部多余0
 	 */
 	public static String secondToDayPreciseString(long num){
-		return secondToDayPrecise(num).stripTrailingZeros().toPlainString();
+		return unitConversionPreciseString(num, TimeUnit.SECONDS, TimeUnit.DAYS);
 	}	
 	
 	/**
@@ -1139,7 +1380,7 @@ public class DateTimeConverterUtil {
 	 * @return 秒数，保留1位小数，ROUND_DOWN 舍去多余小数，返回字符串，去掉尾部多余0
 	 */	
 	public static String millisecondToSecondPreciseString(long num){
-		return millisecondToSecondPrecise(num).stripTrailingZeros().toPlainString();
+		return unitConversionPreciseString(num, TimeUnit.MILLISECONDS, TimeUnit.SECONDS);
 	}
 	
 	/**
@@ -1157,7 +1398,7 @@ public class DateTimeConverterUtil {
 	 * @return 秒数，保留3位小数，ROUND_DOWN 舍去多余小数，返回字符串，去掉尾部多余0 比如 0.11
 	 */	
 	public static String millisecondToSecondPreciseThreeString(long num){
-		return millisecondToSecondPreciseThree(num).stripTrailingZeros().toPlainString();
+		return unitConversionPreciseString(num, TimeUnit.MILLISECONDS, TimeUnit.SECONDS, 3, RoundingMode.DOWN, true);
 	}	
 	
 	/**
@@ -1166,7 +1407,7 @@ public class DateTimeConverterUtil {
 	 * @return 秒数，保留3位小数，ROUND_DOWN 舍去多余小数，返回原始字符串 比如 0.110
 	 */	
 	public static String millisecondToSecondPreciseThreePlainString(long num){
-		return millisecondToSecondPreciseThree(num).toPlainString();
+		return unitConversionPreciseString(num, TimeUnit.MILLISECONDS, TimeUnit.SECONDS, 3, RoundingMode.DOWN, false);
 	}	
 	
 	/**
@@ -1193,7 +1434,7 @@ public class DateTimeConverterUtil {
 	 * @return 分钟数，保留1位小数，ROUND_DOWN 舍去多余小数
 	 */	
 	public static String millisecondToMinutePreciseString(long num){
-		return millisecondToMinutePrecise(num).stripTrailingZeros().toPlainString();
+		return unitConversionPreciseString(num, TimeUnit.MILLISECONDS, TimeUnit.MINUTES);
 	}
 	
 	/**
@@ -1220,7 +1461,7 @@ public class DateTimeConverterUtil {
 	 * @return 小时数，保留1位小数，ROUND_DOWN 舍去多余小数，返回字符串，去掉尾部多余0
 	 */	
 	public static String millisecondToHourPreciseString(long num){
-		return millisecondToHourPrecise(num).stripTrailingZeros().toPlainString();
+		return unitConversionPreciseString(num, TimeUnit.MILLISECONDS, TimeUnit.HOURS);
 	}	
 	
 	/**
@@ -1247,7 +1488,27 @@ public class DateTimeConverterUtil {
 	 * @return 天数，保留1位小数，ROUND_DOWN 舍去多余小数，返回字符串，去掉尾部多余0
 	 */	
 	public static String millisecondToDayPreciseString(long num){
-		return millisecondToDayPrecise(num).stripTrailingZeros().toPlainString();
+		return unitConversionPreciseString(num, TimeUnit.MILLISECONDS, TimeUnit.DAYS);
 	}	
 	
+	/**
+	 * 本地时间秒数（以UTC计算的本地时间）
+	 */
+	static long toLocalSecond(LocalDateTime localDateTime) {
+		return localDateTime.toLocalDate().toEpochDay() * SECONDS_PER_DAY + localDateTime.toLocalTime().toSecondOfDay();
+	}
+
+	/**
+	 * 系统默认时区下本地时间秒数对应的偏移秒数，和LocalDateTime.atZone(ZoneId.systemDefault())一致
+	 */
+	private static int systemLocalOffsetSeconds(long localSecond) {
+		return ZoneRegistry.getLocalOffsetSeconds(localSecond * MILLIS_PER_SECOND, ZoneRegistry.getSystemDefault());
+	}
+
+	/**
+	 * 系统默认时区下本地时间对应的时间戳，和localDateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()一致
+	 */
+	static long toSystemEpochMilli(long localSecond, int nano) {
+		return (localSecond - systemLocalOffsetSeconds(localSecond)) * MILLIS_PER_SECOND + nano / NANOS_PER_MILLI;
+	}
 }
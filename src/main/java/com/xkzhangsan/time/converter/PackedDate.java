@@ -0,0 +1,396 @@
+package com.xkzhangsan.time.converter;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * 基本类型日期工具类，日期使用int表示，不创建对象<br>
+ * 1.epochDay：从1970-01-01开始的天数，和LocalDate.toEpochDay()一致，支持年份范围MIN_YEAR-MAX_YEAR。<br>
+ * 2.yyyyMMdd：比如20200523，适合作为数据库字段或分区键，通过toYyyyMMdd(int epochDay)和ofYyyyMMdd(int yyyyMMdd)和epochDay互相转换。<br>
+ * 3.获取年、月、日、星期、一年中第几天、季度和日期加减等都使用整数计算，结果和LocalDate一致，适合大批量数据统计等循环中使用。<br>
+ * 4.和LocalDate、Date互相转换，Date使用系统默认时区。<br>
+ *
+ * @author xkzhangsan
+ */
+public class PackedDate {
+
+	/**
+	 * 最小年份
+	 */
+	public static final int MIN_YEAR = -999_999;
+
+	/**
+	 * 最大年份
+	 */
+	public static final int MAX_YEAR = 999_999;
+
+	/**
+	 * 0000-03-01到1970-01-01的天数
+	 */
+	private static final long DAYS_0000_TO_1970 = 719468;
+
+	/**
+	 * 400年的天数
+	 */
+	private static final int DAYS_PER_CYCLE = 146097;
+
+	private static final long SECONDS_PER_DAY = 86400;
+
+	private static final int MAX_YYYYMMDD_YEAR = Integer.MAX_VALUE / 10000 - 1;
+
+	private PackedDate() {
+	}
+
+	/**
+	 * 年月日转换为epochDay
+	 * @param year 年，MIN_YEAR-MAX_YEAR
+	 * @param month 月 1-12
+	 * @param day 日
+	 * @return epochDay
+	 * @throws DateTimeException 日期无效时抛出，和LocalDate.of一致
+	 */
+	public static int of(int year, int month, int day) {
+		if (year < MIN_YEAR || year > MAX_YEAR) {
+			throw new DateTimeException("Invalid year (valid values " + MIN_YEAR + " - " + MAX_YEAR + "): " + year);
+		}
+		if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+			// 使用LocalDate抛出相同的异常
+			LocalDate.of(year, month, day);
+		}
+		return (int) toEpochDay(year, month, day);
+	}
+
+	/**
+	 * yyyyMMdd转换为epochDay，比如20200523
+	 * @param yyyyMMdd yyyyMMdd
+	 * @return epochDay
+	 * @throws DateTimeException 日期无效时抛出
+	 */
+	public static int ofYyyyMMdd(int yyyyMMdd) {
+		if (yyyyMMdd < 0) {
+			throw new DateTimeException("Invalid yyyyMMdd: " + yyyyMMdd);
+		}
+		return of(yyyyMMdd / 10000, yyyyMMdd / 100 % 100, yyyyMMdd % 100);
+	}
+
+	/**
+	 * epochDay转换为yyyyMMdd，比如20200523
+	 * @param epochDay epochDay
+	 * @return yyyyMMdd
+	 * @throws DateTimeException 年份小于0或超出int表示范围（214747年）时抛出
+	 */
+	public static int toYyyyMMdd(int epochDay) {
+		long civil = civil(epochDay);
+		long year = civil >> 9;
+		if (year < 0 || year > MAX_YYYYMMDD_YEAR) {
+			throw new DateTimeException("Year out of yyyyMMdd range: " + year);
+		}
+		return (int) year * 10000 + civilMonth(civil) * 100 + civilDay(civil);
+	}
+
+	/**
+	 * LocalDate转epochDay
+	 * @param localDate LocalDate
+	 * @return epochDay
+	 */
+	public static int of(LocalDate localDate) {
+		Objects.requireNonNull(localDate, "localDate");
+		return Math.toIntExact(localDate.toEpochDay());
+	}
+
+	/**
+	 * Date转epochDay，使用系统默认时区
+	 * @param date Date
+	 * @return epochDay
+	 */
+	public static int of(Date date) {
+		Objects.requireNonNull(date, "date");
+		return Math.toIntExact(PackedDateTime.getEpochDay(date.getTime()));
+	}
+
+	/**
+	 * epochDay转LocalDate
+	 * @param epochDay epochDay
+	 * @return LocalDate
+	 */
+	public static LocalDate toLocalDate(int epochDay) {
+		return LocalDate.ofEpochDay(epochDay);
+	}
+
+	/**
+	 * epochDay转Date，当天开始时间，使用系统默认时区
+	 * @param epochDay epochDay
+	 * @return Date
+	 */
+	public static Date toDate(int epochDay) {
+		return new Date(DateTimeConverterUtil.toSystemEpochMilli(epochDay * SECONDS_PER_DAY, 0));
+	}
+
+	/**
+	 * 获取年
+	 * @param epochDay epochDay
+	 * @return 年
+	 */
+	public static int getYear(int epochDay) {
+		return (int) civilYear(epochDay);
+	}
+
+	/**
+	 * 获取月 1-12
+	 * @param epochDay epochDay
+	 * @return 月
+	 */
+	public static int getMonth(int epochDay) {
+		return civilMonth(civil(epochDay));
+	}
+
+	/**
+	 * 获取日（一个月中）
+	 * @param epochDay epochDay
+	 * @return 日
+	 */
+	public static int getDayOfMonth(int epochDay) {
+		return civilDay(civil(epochDay));
+	}
+
+	/**
+	 * 获取天（一年中） 1-366
+	 * @param epochDay epochDay
+	 * @return 一年中第几天
+	 */
+	public static int getDayOfYear(int epochDay) {
+		return (int) (epochDay - toEpochDay(civilYear(epochDay), 1, 1)) + 1;
+	}
+
+	/**
+	 * 获取星期值 1-7，星期一到星期日
+	 * @param epochDay epochDay
+	 * @return 星期值
+	 */
+	public static int getDayOfWeek(int epochDay) {
+		return dayOfWeek(epochDay);
+	}
+
+	/**
+	 * 获得季度值 1-4
+	 * @param epochDay epochDay
+	 * @return 季度
+	 */
+	public static int getQuarter(int epochDay) {
+		return (getMonth(epochDay) + 2) / 3;
+	}
+
+	/**
+	 * 判断是否闰年
+	 * @param year 年
+	 * @return boolean
+	 */
+	public static boolean isLeapYear(int year) {
+		return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+	}
+
+	/**
+	 * 月的天数
+	 * @param year 年
+	 * @param month 月 1-12
+	 * @return 天数
+	 */
+	public static int lengthOfMonth(int year, int month) {
+		switch (month) {
+		case 2:
+			return isLeapYear(year) ? 29 : 28;
+		case 4:
+		case 6:
+		case 9:
+		case 11:
+			return 30;
+		default:
+			return 31;
+		}
+	}
+
+	/**
+	 * 年的天数
+	 * @param year 年
+	 * @return 天数
+	 */
+	public static int lengthOfYear(int year) {
+		return isLeapYear(year) ? 366 : 365;
+	}
+
+	/**
+	 * 加天数，days为负数时减
+	 * @param epochDay epochDay
+	 * @param days 天数
+	 * @return epochDay
+	 */
+	public static int plusDays(int epochDay, int days) {
+		return Math.addExact(epochDay, days);
+	}
+
+	/**
+	 * 加月数，months为负数时减，日大于目标月天数时取月末，和LocalDate.plusMonths一致
+	 * @param epochDay epochDay
+	 * @param months 月数
+	 * @return epochDay
+	 */
+	public static int plusMonths(int epochDay, int months) {
+		long civil = civil(epochDay);
+		long monthCount = (civil >> 9) * 12 + civilMonth(civil) - 1 + months;
+		long year = Math.floorDiv(monthCount, 12L);
+		int month = (int) Math.floorMod(monthCount, 12L) + 1;
+		return withYearMonth(year, month, civilDay(civil));
+	}
+
+	/**
+	 * 加年数，years为负数时减，2月29日在目标年不是闰年时取2月28日，和LocalDate.plusYears一致
+	 * @param epochDay epochDay
+	 * @param years 年数
+	 * @return epochDay
+	 */
+	public static int plusYears(int epochDay, int years) {
+		long civil = civil(epochDay);
+		return withYearMonth((civil >> 9) + years, civilMonth(civil), civilDay(civil));
+	}
+
+	/**
+	 * 相差天数，endEpochDay - startEpochDay
+	 * @param startEpochDay 开始epochDay
+	 * @param endEpochDay 结束epochDay
+	 * @return 天数
+	 */
+	public static int betweenDays(int startEpochDay, int endEpochDay) {
+		return Math.subtractExact(endEpochDay, startEpochDay);
+	}
+
+	/**
+	 * 当月第一天
+	 * @param epochDay epochDay
+	 * @return epochDay
+	 */
+	public static int startOfMonth(int epochDay) {
+		return epochDay - getDayOfMonth(epochDay) + 1;
+	}
+
+	/**
+	 * 当月最后一天
+	 * @param epochDay epochDay
+	 * @return epochDay
+	 */
+	public static int endOfMonth(int epochDay) {
+		long civil = civil(epochDay);
+		return epochDay - civilDay(civil) + lengthOfMonth((int) (civil >> 9), civilMonth(civil));
+	}
+
+	/**
+	 * 当年第一天
+	 * @param epochDay epochDay
+	 * @return epochDay
+	 */
+	public static int startOfYear(int epochDay) {
+		return (int) toEpochDay(getYear(epochDay), 1, 1);
+	}
+
+	/**
+	 * 当年最后一天
+	 * @param epochDay epochDay
+	 * @return epochDay
+	 */
+	public static int endOfYear(int epochDay) {
+		return (int) toEpochDay(getYear(epochDay), 12, 31);
+	}
+
+	// ==================================civil date==================================
+
+	/**
+	 * 年月日转换为epochDay，字段需已校验
+	 * @param year 年
+	 * @param month 月
+	 * @param day 日
+	 * @return epochDay
+	 */
+	static long toEpochDay(long year, int month, int day) {
+		long y = month <= 2 ? year - 1 : year;
+		long era = Math.floorDiv(y, 400L);
+		long yearOfEra = y - era * 400;
+		int monthIndex = month > 2 ? month - 3 : month + 9;
+		long dayOfYear = (153 * monthIndex + 2) / 5 + day - 1;
+		long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+		return era * DAYS_PER_CYCLE + dayOfEra - DAYS_0000_TO_1970;
+	}
+
+	/**
+	 * epochDay转换为年月日，返回 year &lt;&lt; 9 | month &lt;&lt; 5 | day，年可以为负数，分别使用civil &gt;&gt; 9、civilMonth和civilDay获取
+	 * @param epochDay epochDay
+	 * @return 年月日
+	 */
+	static long civil(long epochDay) {
+		long march = marchYearDay(epochDay);
+		// 从3月1日开始计算的月和日
+		int marchDayOfYear = (int) march & 511;
+		int marchMonth = (marchDayOfYear * 5 + 2) / 153;
+		int month = (marchMonth + 2) % 12 + 1;
+		int day = marchDayOfYear - (marchMonth * 306 + 5) / 10 + 1;
+		long year = (march >> 9) + marchMonth / 10;
+		return year << 9 | month << 5 | day;
+	}
+
+	/**
+	 * epochDay对应的年，只获取年时不需要计算月和日
+	 * @param epochDay epochDay
+	 * @return 年
+	 */
+	static long civilYear(long epochDay) {
+		long march = marchYearDay(epochDay);
+		// 1月和2月（从3月1日开始的第306天之后）属于下一年
+		return (march >> 9) + (((int) march & 511) >= 306 ? 1 : 0);
+	}
+
+	/**
+	 * 以3月1日为一年开始计算年和一年中的天数（0-365），返回 year &lt;&lt; 9 | dayOfYear，闰日在年末方便计算
+	 */
+	private static long marchYearDay(long epochDay) {
+		long zeroDay = epochDay + DAYS_0000_TO_1970;
+		long adjust = 0;
+		if (zeroDay < 0) {
+			// 负数先调整到400年周期内
+			long adjustCycles = (zeroDay + 1) / DAYS_PER_CYCLE - 1;
+			adjust = adjustCycles * 400;
+			zeroDay += -adjustCycles * DAYS_PER_CYCLE;
+		}
+		long year = (400 * zeroDay + 591) / DAYS_PER_CYCLE;
+		long dayOfYear = zeroDay - (365 * year + year / 4 - year / 100 + year / 400);
+		if (dayOfYear < 0) {
+			year--;
+			dayOfYear = zeroDay - (365 * year + year / 4 - year / 100 + year / 400);
+		}
+		return (year + adjust) << 9 | dayOfYear;
+	}
+
+	static int civilMonth(long civil) {
+		return (int) (civil >>> 5) & 15;
+	}
+
+	static int civilDay(long civil) {
+		return (int) civil & 31;
+	}
+
+	/**
+	 * 星期值 1-7，1970-01-01为星期四
+	 */
+	static int dayOfWeek(long epochDay) {
+		return (int) Math.floorMod(epochDay + 3, 7L) + 1;
+	}
+
+	/**
+	 * 指定年月，日大于该月天数时取月末
+	 */
+	private static int withYearMonth(long year, int month, int day) {
+		if (year < MIN_YEAR || year > MAX_YEAR) {
+			throw new DateTimeException("Invalid year (valid values " + MIN_YEAR + " - " + MAX_YEAR + "): " + year);
+		}
+		return (int) toEpochDay(year, month, Math.min(day, lengthOfMonth((int) year, month)));
+	}
+}
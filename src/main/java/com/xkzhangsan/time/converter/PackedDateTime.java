@@ -0,0 +1,484 @@
+package com.xkzhangsan.time.converter;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * 基本类型时间工具类，时间使用long时间戳（epochMilli，从1970-01-01T00:00:00Z开始的毫秒值）表示，不创建对象<br>
+ * 1.获取年、月、日、星期、季度、时、分、秒和毫秒等，先按时区偏移计算本地时间，再使用PackedDate的整数计算，结果和转换为LocalDateTime后获取一致。<br>
+ * 2.加减天、月、年按本地时间计算后再转换为时间戳，和LocalDateTime加减后atZone(zone)一致。<br>
+ * 3.不带ZoneId的方法使用系统默认时区（ZoneRegistry.getSystemDefault()），带ZoneId的方法使用指定时区，时区偏移都通过ZoneRegistry的偏移窗口和转换表计算。<br>
+ * 4.和LocalDateTime互相转换，Date可以直接使用getTime()和new Date(epochMilli)。<br>
+ * 5.按本地时间计算2个时间戳相差的秒数和毫秒数，betweenLocal*，和Duration.between(LocalDateTime, LocalDateTime)一致。<br>
+ * 本地时间年份需在PackedDate.MIN_YEAR-PackedDate.MAX_YEAR范围内，超出时加减和of方法抛出异常。<br>
+ * 适合大批量数据统计等循环中按时间戳获取年月日等字段，比如按天、按月聚合。
+ *
+ * @author xkzhangsan
+ */
+public class PackedDateTime {
+
+	private static final long MILLIS_PER_DAY = 86400_000L;
+
+	private static final int MILLIS_PER_SECOND = 1000;
+
+	private static final int MILLIS_PER_HOUR = 3600_000;
+
+	private static final int MILLIS_PER_MINUTE = 60_000;
+
+	private PackedDateTime() {
+	}
+
+	/**
+	 * 年月日时分秒毫秒转换为时间戳，使用系统默认时区，和LocalDateTime.of(...).atZone(ZoneId.systemDefault())一致
+	 * @param year 年，PackedDate.MIN_YEAR-PackedDate.MAX_YEAR
+	 * @param month 月 1-12
+	 * @param day 日
+	 * @param hour 时 0-23
+	 * @param minute 分 0-59
+	 * @param second 秒 0-59
+	 * @param millisecond 毫秒 0-999
+	 * @return 时间戳
+	 */
+	public static long of(int year, int month, int day, int hour, int minute, int second, int millisecond) {
+		return of(year, month, day, hour, minute, second, millisecond, ZoneRegistry.getSystemDefault());
+	}
+
+	/**
+	 * 年月日时分秒毫秒转换为时间戳，和LocalDateTime.of(...).atZone(zone)一致
+	 * @param year 年，PackedDate.MIN_YEAR-PackedDate.MAX_YEAR
+	 * @param month 月 1-12
+	 * @param day 日
+	 * @param hour 时 0-23
+	 * @param minute 分 0-59
+	 * @param second 秒 0-59
+	 * @param millisecond 毫秒 0-999
+	 * @param zone 时区
+	 * @return 时间戳
+	 */
+	public static long of(int year, int month, int day, int hour, int minute, int second, int millisecond,
+			ZoneId zone) {
+		int epochDay = PackedDate.of(year, month, day);
+		if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59 || millisecond < 0
+				|| millisecond > 999) {
+			// 使用LocalDateTime抛出相同的异常
+			LocalDateTime.of(year, month, day, hour, minute, second, millisecond * 1000_000);
+		}
+		return toEpochMilli(epochDay * MILLIS_PER_DAY + hour * MILLIS_PER_HOUR + minute * MILLIS_PER_MINUTE
+				+ second * MILLIS_PER_SECOND + millisecond, zone);
+	}
+
+	/**
+	 * LocalDateTime转时间戳，使用系统默认时区
+	 * @param localDateTime LocalDateTime
+	 * @return 时间戳
+	 */
+	public static long of(LocalDateTime localDateTime) {
+		return DateTimeConverterUtil.toEpochMilli(localDateTime);
+	}
+
+	/**
+	 * 时间戳转LocalDateTime，使用系统默认时区
+	 * @param epochMilli 时间戳
+	 * @return LocalDateTime
+	 */
+	public static LocalDateTime toLocalDateTime(long epochMilli) {
+		return DateTimeConverterUtil.toLocalDateTime(epochMilli);
+	}
+
+	/**
+	 * 时间戳转LocalDateTime
+	 * @param epochMilli 时间戳
+	 * @param zone 时区
+	 * @return LocalDateTime
+	 */
+	public static LocalDateTime toLocalDateTime(long epochMilli, ZoneId zone) {
+		long epochSecond = Math.floorDiv(epochMilli, (long) MILLIS_PER_SECOND) + ZoneRegistry.getOffsetSeconds(epochMilli, zone);
+		return LocalDateTime.ofEpochSecond(epochSecond, getMillisecond(epochMilli) * 1000_000, ZoneOffset.UTC);
+	}
+
+	/**
+	 * 本地时间的epochDay，使用系统默认时区，和PackedDate配合使用
+	 * @param epochMilli 时间戳
+	 * @return epochDay
+	 */
+	public static long getEpochDay(long epochMilli) {
+		return getEpochDay(epochMilli, ZoneRegistry.getSystemDefault());
+	}
+
+	/**
+	 * 本地时间的epochDay，和PackedDate配合使用
+	 * @param epochMilli 时间戳
+	 * @param zone 时区
+	 * @return epochDay
+	 */
+	public static long getEpochDay(long epochMilli, ZoneId zone) {
+		return epochDay(epochMilli, offsetMillis(epochMilli, zone));
+	}
+
+	/**
+	 * 获取年，使用系统默认时区
+	 * @param epochMilli 时间戳
+	 * @return 年
+	 */
+	public static int getYear(long epochMilli) {
+		return getYear(epochMilli, ZoneRegistry.getSystemDefault());
+	}
+
+	/**
+	 * 获取年
+	 * @param epochMilli 时间戳
+	 * @param zone 时区
+	 * @return 年
+	 */
+	public static int getYear(long epochMilli, ZoneId zone) {
+		return (int) PackedDate.civilYear(getEpochDay(epochMilli, zone));
+	}
+
+	/**
+	 * 获取月 1-12，使用系统默认时区
+	 * @param epochMilli 时间戳
+	 * @return 月
+	 */
+	public static int getMonth(long epochMilli) {
+		return getMonth(epochMilli, ZoneRegistry.getSystemDefault());
+	}
+
+	/**
+	 * 获取月 1-12
+	 * @param epochMilli 时间戳
+	 * @param zone 时区
+	 * @return 月
+	 */
+	public static int getMonth(long epochMilli, ZoneId zone) {
+		return PackedDate.civilMonth(PackedDate.civil(getEpochDay(epochMilli, zone)));
+	}
+
+	/**
+	 * 获取日（一个月中），使用系统默认时区
+	 * @param epochMilli 时间戳
+	 * @return 日
+	 */
+	public static int getDayOfMonth(long epochMilli) {
+		return getDayOfMonth(epochMilli, ZoneRegistry.getSystemDefault());
+	}
+
+	/**
+	 * 获取日（一个月中）
+	 * @param epochMilli 时间戳
+	 * @param zone 时区
+	 * @return 日
+	 */
+	public static int getDayOfMonth(long epochMilli, ZoneId zone) {
+		return PackedDate.civilDay(PackedDate.civil(getEpochDay(epochMilli, zone)));
+	}
+
+	/**
+	 * 获取天（一年中） 1-366，使用系统默认时区
+	 * @param epochMilli 时间戳
+	 * @return 一年中第几天
+	 */
+	public static int getDayOfYear(long epochMilli) {
+		return getDayOfYear(epochMilli, ZoneRegistry.getSystemDefault());
+	}
+
+	/**
+	 * 获取天（一年中） 1-366
+	 * @param epochMilli 时间戳
+	 * @param zone 时区
+	 * @return 一年中第几天
+	 */
+	public static int getDayOfYear(long epochMilli, ZoneId zone) {
+		long epochDay = getEpochDay(epochMilli, zone);
+		return (int) (epochDay - PackedDate.toEpochDay(PackedDate.civilYear(epochDay), 1, 1)) + 1;
+	}
+
+	/**
+	 * 获取星期值 1-7，星期一到星期日，使用系统默认时区
+	 * @param epochMilli 时间戳
+	 * @return 星期值
+	 */
+	public static int getDayOfWeek(long epochMilli) {
+		return getDayOfWeek(epochMilli, ZoneRegistry.getSystemDefault());
+	}
+
+	/**
+	 * 获取星期值 1-7，星期一到星期日
+	 * @param epochMilli 时间戳
+	 * @param zone 时区
+	 * @return 星期值
+	 */
+	public static int getDayOfWeek(long epochMilli, ZoneId zone) {
+		return PackedDate.dayOfWeek(getEpochDay(epochMilli, zone));
+	}
+
+	/**
+	 * 获得季度值 1-4，使用系统默认时区
+	 * @param epochMilli 时间戳
+	 * @return 季度
+	 */
+	public static int getQuarter(long epochMilli) {
+		return getQuarter(epochMilli, ZoneRegistry.getSystemDefault());
+	}
+
+	/**
+	 * 获得季度值 1-4
+	 * @param epochMilli 时间戳
+	 * @param zone 时区
+	 * @return 季度
+	 */
+	public static int getQuarter(long epochMilli, ZoneId zone) {
+		return (getMonth(epochMilli, zone) + 2) / 3;
+	}
+
+	/**
+	 * 获取小时 0-23，使用系统默认时区
+	 * @param epochMilli 时间戳
+	 * @return 小时
+	 */
+	public static int getHour(long epochMilli) {
+		return getHour(epochMilli, ZoneRegistry.getSystemDefault());
+	}
+
+	/**
+	 * 获取小时 0-23
+	 * @param epochMilli 时间戳
+	 * @param zone 时区
+	 * @return 小时
+	 */
+	public static int getHour(long epochMilli, ZoneId zone) {
+		return getMilliOfDay(epochMilli, zone) / MILLIS_PER_HOUR;
+	}
+
+	/**
+	 * 获取分钟 0-59，使用系统默认时区
+	 * @param epochMilli 时间戳
+	 * @return 分钟
+	 */
+	public static int getMinute(long epochMilli) {
+		return getMinute(epochMilli, ZoneRegistry.getSystemDefault());
+	}
+
+	/**
+	 * 获取分钟 0-59
+	 * @param epochMilli 时间戳
+	 * @param zone 时区
+	 * @return 分钟
+	 */
+	public static int getMinute(long epochMilli, ZoneId zone) {
+		return getMilliOfDay(epochMilli, zone) / MILLIS_PER_MINUTE % 60;
+	}
+
+	/**
+	 * 获取秒 0-59，使用系统默认时区
+	 * @param epochMilli 时间戳
+	 * @return 秒
+	 */
+	public static int getSecond(long epochMilli) {
+		return getSecond(epochMilli, ZoneRegistry.getSystemDefault());
+	}
+
+	/**
+	 * 获取秒 0-59，早期的地方平时偏移包含秒，和时区相关
+	 * @param epochMilli 时间戳
+	 * @param zone 时区
+	 * @return 秒
+	 */
+	public static int getSecond(long epochMilli, ZoneId zone) {
+		return getMilliOfDay(epochMilli, zone) / MILLIS_PER_SECOND % 60;
+	}
+
+	/**
+	 * 获取毫秒 0-999，时区偏移都是整秒，和时区无关
+	 * @param epochMilli 时间戳
+	 * @return 毫秒
+	 */
+	public static int getMillisecond(long epochMilli) {
+		return (int) Math.floorMod(epochMilli, (long) MILLIS_PER_SECOND);
+	}
+
+	/**
+	 * 当天开始时间，使用系统默认时区
+	 * @param epochMilli 时间戳
+	 * @return 时间戳
+	 */
+	public static long startOfDay(long epochMilli) {
+		return startOfDay(epochMilli, ZoneRegistry.getSystemDefault());
+	}
+
+	/**
+	 * 当天开始时间，和LocalDate.atStartOfDay().atZone(zone)一致
+	 * @param epochMilli 时间戳
+	 * @param zone 时区
+	 * @return 时间戳
+	 */
+	public static long startOfDay(long epochMilli, ZoneId zone) {
+		return toEpochMilli(getEpochDay(epochMilli, zone) * MILLIS_PER_DAY, zone);
+	}
+
+	/**
+	 * 加天数，按本地时间计算，使用系统默认时区，和LocalDateTime.plusDays(days).atZone(ZoneId.systemDefault())一致
+	 * @param epochMilli 时间戳
+	 * @param days 天数
+	 * @return 时间戳
+	 */
+	public static long plusDays(long epochMilli, int days) {
+		return plusDays(epochMilli, days, ZoneRegistry.getSystemDefault());
+	}
+
+	/**
+	 * 加天数，按本地时间计算，和LocalDateTime.plusDays(days).atZone(zone)一致
+	 * @param epochMilli 时间戳
+	 * @param days 天数
+	 * @param zone 时区
+	 * @return 时间戳
+	 */
+	public static long plusDays(long epochMilli, int days, ZoneId zone) {
+		long offsetMillis = offsetMillis(epochMilli, zone);
+		long epochDay = PackedDate.plusDays(Math.toIntExact(epochDay(epochMilli, offsetMillis)), days);
+		return toEpochMilli(epochDay * MILLIS_PER_DAY + milliOfDay(epochMilli, offsetMillis), zone);
+	}
+
+	/**
+	 * 加月数，按本地时间计算，使用系统默认时区，和LocalDateTime.plusMonths(months).atZone(ZoneId.systemDefault())一致
+	 * @param epochMilli 时间戳
+	 * @param months 月数
+	 * @return 时间戳
+	 */
+	public static long plusMonths(long epochMilli, int months) {
+		return plusMonths(epochMilli, months, ZoneRegistry.getSystemDefault());
+	}
+
+	/**
+	 * 加月数，按本地时间计算，和LocalDateTime.plusMonths(months).atZone(zone)一致
+	 * @param epochMilli 时间戳
+	 * @param months 月数
+	 * @param zone 时区
+	 * @return 时间戳
+	 */
+	public static long plusMonths(long epochMilli, int months, ZoneId zone) {
+		long offsetMillis = offsetMillis(epochMilli, zone);
+		long epochDay = PackedDate.plusMonths(Math.toIntExact(epochDay(epochMilli, offsetMillis)), months);
+		return toEpochMilli(epochDay * MILLIS_PER_DAY + milliOfDay(epochMilli, offsetMillis), zone);
+	}
+
+	/**
+	 * 加年数，按本地时间计算，使用系统默认时区，和LocalDateTime.plusYears(years).atZone(ZoneId.systemDefault())一致
+	 * @param epochMilli 时间戳
+	 * @param years 年数
+	 * @return 时间戳
+	 */
+	public static long plusYears(long epochMilli, int years) {
+		return plusYears(epochMilli, years, ZoneRegistry.getSystemDefault());
+	}
+
+	/**
+	 * 加年数，按本地时间计算，和LocalDateTime.plusYears(years).atZone(zone)一致
+	 * @param epochMilli 时间戳
+	 * @param years 年数
+	 * @param zone 时区
+	 * @return 时间戳
+	 */
+	public static long plusYears(long epochMilli, int years, ZoneId zone) {
+		long offsetMillis = offsetMillis(epochMilli, zone);
+		long epochDay = PackedDate.plusYears(Math.toIntExact(epochDay(epochMilli, offsetMillis)), years);
+		return toEpochMilli(epochDay * MILLIS_PER_DAY + milliOfDay(epochMilli, offsetMillis), zone);
+	}
+
+	/**
+	 * 2个时间戳转换为本地时间后相差的秒数，使用系统默认时区（ZoneRegistry.getSystemDefault()缓存的时区，2个时间戳使用同一个时区），<br>
+	 * 和Duration.between(LocalDateTime, LocalDateTime).getSeconds()一致，向下取整，夏令时转换时按本地时间计算
+	 * @param startEpochMilli 开始时间戳
+	 * @param endEpochMilli 结束时间戳
+	 * @return 相差秒数
+	 */
+	public static long betweenLocalSeconds(long startEpochMilli, long endEpochMilli) {
+		return betweenLocalSeconds(startEpochMilli, endEpochMilli, ZoneRegistry.getSystemDefault());
+	}
+
+	/**
+	 * 2个时间戳转换为本地时间后相差的秒数，和Duration.between(LocalDateTime, LocalDateTime).getSeconds()一致，向下取整
+	 * @param startEpochMilli 开始时间戳
+	 * @param endEpochMilli 结束时间戳
+	 * @param zone 时区
+	 * @return 相差秒数
+	 */
+	public static long betweenLocalSeconds(long startEpochMilli, long endEpochMilli, ZoneId zone) {
+		long seconds = localSecond(endEpochMilli, zone) - localSecond(startEpochMilli, zone);
+		return Math.floorMod(endEpochMilli, (long) MILLIS_PER_SECOND) < Math.floorMod(startEpochMilli, (long) MILLIS_PER_SECOND) ? seconds - 1 : seconds;
+	}
+
+	/**
+	 * 2个时间戳转换为本地时间后相差的毫秒数，使用系统默认时区（ZoneRegistry.getSystemDefault()缓存的时区，2个时间戳使用同一个时区），<br>
+	 * 和Duration.between(LocalDateTime, LocalDateTime).toMillis()一致
+	 * @param startEpochMilli 开始时间戳
+	 * @param endEpochMilli 结束时间戳
+	 * @return 相差毫秒数
+	 * @throws ArithmeticException 超出long范围时
+	 */
+	public static long betweenLocalMillis(long startEpochMilli, long endEpochMilli) {
+		return betweenLocalMillis(startEpochMilli, endEpochMilli, ZoneRegistry.getSystemDefault());
+	}
+
+	/**
+	 * 2个时间戳转换为本地时间后相差的毫秒数，和Duration.between(LocalDateTime, LocalDateTime).toMillis()一致
+	 * @param startEpochMilli 开始时间戳
+	 * @param endEpochMilli 结束时间戳
+	 * @param zone 时区
+	 * @return 相差毫秒数
+	 * @throws ArithmeticException 超出long范围时
+	 */
+	public static long betweenLocalMillis(long startEpochMilli, long endEpochMilli, ZoneId zone) {
+		long seconds = betweenLocalSeconds(startEpochMilli, endEpochMilli, zone);
+		long millis = Math.floorMod(Math.floorMod(endEpochMilli, (long) MILLIS_PER_SECOND) - Math.floorMod(startEpochMilli, (long) MILLIS_PER_SECOND),
+				(long) MILLIS_PER_SECOND);
+		// 和Duration.toMillis()相同的计算顺序，负数先借1秒，只有结果超出long范围时抛出ArithmeticException
+		if (seconds < 0) {
+			seconds++;
+			millis -= MILLIS_PER_SECOND;
+		}
+		return Math.addExact(Math.multiplyExact(seconds, (long) MILLIS_PER_SECOND), millis);
+	}
+
+	/**
+	 * 本地时间的一天中的毫秒数
+	 */
+	private static int getMilliOfDay(long epochMilli, ZoneId zone) {
+		return milliOfDay(epochMilli, offsetMillis(epochMilli, zone));
+	}
+
+	/**
+	 * 本地时间的epochDay，先分别计算天和毫秒再加偏移，避免时间戳接近long范围时溢出
+	 */
+	private static long epochDay(long epochMilli, long offsetMillis) {
+		long epochDay = Math.floorDiv(epochMilli, MILLIS_PER_DAY);
+		long milliOfDay = Math.floorMod(epochMilli, MILLIS_PER_DAY) + offsetMillis;
+		// 偏移不超过18小时，最多跨1天
+		if (milliOfDay < 0) {
+			return epochDay - 1;
+		}
+		return milliOfDay >= MILLIS_PER_DAY ? epochDay + 1 : epochDay;
+	}
+
+	private static int milliOfDay(long epochMilli, long offsetMillis) {
+		return (int) Math.floorMod(Math.floorMod(epochMilli, MILLIS_PER_DAY) + offsetMillis, MILLIS_PER_DAY);
+	}
+
+	/**
+	 * 本地时间的秒数，时间戳按秒向下取整后加偏移，不会溢出
+	 */
+	private static long localSecond(long epochMilli, ZoneId zone) {
+		return Math.floorDiv(epochMilli, (long) MILLIS_PER_SECOND) + ZoneRegistry.getOffsetSeconds(epochMilli, zone);
+	}
+
+	private static long offsetMillis(long epochMilli, ZoneId zone) {
+		return ZoneRegistry.getOffsetSeconds(epochMilli, zone) * (long) MILLIS_PER_SECOND;
+	}
+
+	/**
+	 * 本地时间毫秒值转换为时间戳，和atZone(zone)一致，处于夏令时间隙时使用间隙之前的偏移
+	 */
+	private static long toEpochMilli(long localMilli, ZoneId zone) {
+		return localMilli - ZoneRegistry.getLocalOffsetSeconds(localMilli, zone) * (long) MILLIS_PER_SECOND;
+	}
+}
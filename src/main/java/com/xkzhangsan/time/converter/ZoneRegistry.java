@@ -0,0 +1,538 @@
+package com.xkzhangsan.time.converter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 时区注册表，缓存时区id解析结果和时区偏移转换表<br>
+ * 1.getZone(String zoneId)每个时区id只调用一次ZoneId.of，结果和ZoneId.of一致，无效的时区id不缓存，每次抛出相同的异常。<br>
+ * 2.每个时区预先计算年份范围（默认1970-2100年）内的所有偏移转换（夏令时切换），并按约48天分桶，偏移查询从所在桶向后查找，不经过ZoneRules。<br>
+ * 3.超出年份范围的时间使用ZoneRules计算，结果一致。<br>
+ * 4.getSystemDefault()缓存系统默认时区，按TimeZone.getDefault()的id校验，TimeZone.setDefault修改后自动失效；同时缓存系统默认时区当前时间所在的偏移窗口（前后两个转换之间），
+ * 窗口内的偏移查询只需比较范围，DateTimeConverterUtil中Date、LocalDateTime、Instant和时间戳的转换都使用该窗口。<br>
+ * 适合多租户报表等按租户时区逐行格式化的场景，DateTimeFormatterUtil、DateTimeConverterUtil和DateTimeCalculatorUtil中zoneId为String的方法都使用本类。<br>
+ * 时区数据（tzdb）更新后可调用clear()重新加载。
+ *
+ * @author xkzhangsan
+ */
+public class ZoneRegistry {
+
+	/**
+	 * 默认起始年份
+	 */
+	public static final int DEFAULT_FROM_YEAR = 1970;
+
+	/**
+	 * 默认结束年份（包含）
+	 */
+	public static final int DEFAULT_TO_YEAR = 2100;
+
+	/**
+	 * 最大缓存数量，超过后不再缓存，避免任意偏移字符串（比如+08:00:01）无限增长
+	 */
+	private static final int MAX_SIZE = 1024;
+
+	private static final long SECONDS_PER_DAY = 86400;
+
+	private static final long MILLIS_PER_SECOND = 1000L;
+
+	/**
+	 * 偏移窗口数组长度
+	 */
+	static final int WINDOW_SIZE = 4;
+
+	/**
+	 * 分桶位移，每个桶2^22秒（约48.5天），夏令时转换通常间隔数月，每个桶最多几个转换
+	 */
+	private static final int BUCKET_SHIFT = 22;
+
+	/**
+	 * 时区id缓存
+	 */
+	private static final ConcurrentHashMap<String, ZoneId> ZONES = new ConcurrentHashMap<>();
+
+	/**
+	 * 偏移转换表缓存
+	 */
+	private static final ConcurrentHashMap<ZoneId, OffsetTable> TABLES = new ConcurrentHashMap<>();
+
+	/**
+	 * 最近使用的转换表，连续查询同一时区时不查找缓存
+	 */
+	private static volatile OffsetTable lastTable;
+
+	/**
+	 * 系统默认时区及其当前偏移窗口
+	 */
+	private static volatile SystemZone systemZone;
+
+	private static volatile int fromYear = DEFAULT_FROM_YEAR;
+
+	private static volatile int toYear = DEFAULT_TO_YEAR;
+
+	private ZoneRegistry() {
+	}
+
+	/**
+	 * 根据时区id获取ZoneId，结果和ZoneId.of(zoneId)一致
+	 * @param zoneId 时区id，比如 Asia/Shanghai、+08:00
+	 * @return ZoneId
+	 */
+	public static ZoneId getZone(String zoneId) {
+		Objects.requireNonNull(zoneId, "zoneId");
+		ZoneId zone = ZONES.get(zoneId);
+		if (zone == null) {
+			zone = ZoneId.of(zoneId);
+			if (ZONES.size() < MAX_SIZE) {
+				ZONES.putIfAbsent(zoneId, zone);
+			}
+		}
+		return zone;
+	}
+
+	/**
+	 * 获取系统默认时区，结果和ZoneId.systemDefault()一致<br>
+	 * ZoneId.systemDefault()只由默认TimeZone的id决定，这里按id校验缓存，TimeZone.setDefault修改默认时区后重新计算。
+	 * @return ZoneId
+	 */
+	public static ZoneId getSystemDefault() {
+		// TimeZone.getDefault()返回默认时区的副本，没有不复制的公开方法，这里只用于读取id
+		TimeZone timeZone = TimeZone.getDefault();
+		String id = timeZone.getID();
+		SystemZone current = systemZone;
+		if (current != null && current.id.equals(id)) {
+			return current.zone;
+		}
+		ZoneId zone = timeZone.toZoneId();
+		systemZone = SystemZone.of(id, zone, getTable(zone), System.currentTimeMillis());
+		return zone;
+	}
+
+	/**
+	 * 时间戳对应的时区偏移秒数，结果和zone.getRules().getOffset(Instant)一致
+	 * @param epochMilli 时间戳毫秒值
+	 * @param zone 时区
+	 * @return 偏移秒数
+	 */
+	public static int getOffsetSeconds(long epochMilli, ZoneId zone) {
+		Objects.requireNonNull(zone, "zone");
+		if (zone instanceof ZoneOffset) {
+			return ((ZoneOffset) zone).getTotalSeconds();
+		}
+		SystemZone system = systemZone;
+		if (system != null && system.matches(zone)) {
+			if (epochMilli >= system.startMilli && epochMilli < system.endMilli) {
+				return system.offsetSeconds;
+			}
+			refreshWindow(system);
+		}
+		return getTable(zone).offsetSeconds(Math.floorDiv(epochMilli, MILLIS_PER_SECOND));
+	}
+
+	/**
+	 * 本地时间毫秒值（以UTC计算的本地时间）对应的时区偏移秒数，结果和zone.getRules().getOffset(LocalDateTime)一致，<br>
+	 * 夏令时重叠时取较早的偏移，处于夏令时间隙时取间隙之前的偏移，和LocalDateTime.atZone(zone)一致
+	 * @param localMilli 本地时间毫秒值
+	 * @param zone 时区
+	 * @return 偏移秒数
+	 */
+	public static int getLocalOffsetSeconds(long localMilli, ZoneId zone) {
+		Objects.requireNonNull(zone, "zone");
+		if (zone instanceof ZoneOffset) {
+			return ((ZoneOffset) zone).getTotalSeconds();
+		}
+		SystemZone system = systemZone;
+		if (system != null && system.matches(zone)) {
+			if (localMilli >= system.localStartMilli && localMilli < system.localEndMilli) {
+				return system.offsetSeconds;
+			}
+			refreshWindow(system);
+		}
+		return getTable(zone).localOffsetSeconds(Math.floorDiv(localMilli, MILLIS_PER_SECOND));
+	}
+
+	/**
+	 * 时间戳对应的时区偏移
+	 * @param epochMilli 时间戳毫秒值
+	 * @param zone 时区
+	 * @return ZoneOffset
+	 */
+	public static ZoneOffset getOffset(long epochMilli, ZoneId zone) {
+		return ZoneOffset.ofTotalSeconds(getOffsetSeconds(epochMilli, zone));
+	}
+
+	/**
+	 * 设置预先计算偏移转换的年份范围，并清空已计算的转换表
+	 * @param fromYear 起始年份
+	 * @param toYear 结束年份（包含）
+	 */
+	public static synchronized void setYearRange(int fromYear, int toYear) {
+		if (fromYear > toYear) {
+			throw new IllegalArgumentException("fromYear must not be greater than toYear");
+		}
+		// 校验年份
+		LocalDate.of(fromYear, 1, 1);
+		LocalDate.of(toYear, 1, 1);
+		ZoneRegistry.fromYear = fromYear;
+		ZoneRegistry.toYear = toYear;
+		TABLES.clear();
+		lastTable = null;
+		systemZone = null;
+	}
+
+	/**
+	 * 起始年份
+	 * @return 起始年份
+	 */
+	public static int getFromYear() {
+		return fromYear;
+	}
+
+	/**
+	 * 结束年份（包含）
+	 * @return 结束年份
+	 */
+	public static int getToYear() {
+		return toYear;
+	}
+
+	/**
+	 * 清空时区id和偏移转换表缓存
+	 */
+	public static void clear() {
+		ZONES.clear();
+		TABLES.clear();
+		lastTable = null;
+		systemZone = null;
+	}
+
+	/**
+	 * 已缓存的时区id数量
+	 * @return 数量
+	 */
+	public static int size() {
+		return ZONES.size();
+	}
+
+	/**
+	 * 计算时间戳所在的偏移窗口，供批量转换在循环中使用，不创建对象<br>
+	 * window[0]、window[1]为时间戳毫秒值范围[start, end)，范围内偏移都为返回值；<br>
+	 * window[2]、window[3]为本地时间毫秒值范围[start, end)，范围内只有返回值一个有效偏移；<br>
+	 * 超出转换表年份范围时窗口为空，只返回偏移。
+	 * @param epochMilli 时间戳毫秒值
+	 * @param zone 时区
+	 * @param window 长度至少为WINDOW_SIZE
+	 * @return 偏移秒数
+	 */
+	static int getOffsetWindow(long epochMilli, ZoneId zone, long[] window) {
+		if (zone instanceof ZoneOffset) {
+			window[0] = Long.MIN_VALUE;
+			window[1] = Long.MAX_VALUE;
+			window[2] = Long.MIN_VALUE;
+			window[3] = Long.MAX_VALUE;
+			return ((ZoneOffset) zone).getTotalSeconds();
+		}
+		return getTable(zone).window(epochMilli, window);
+	}
+
+	/**
+	 * 当前时间已不在偏移窗口内时（比如程序运行期间经过了夏令时切换），重新计算当前时间所在的窗口
+	 */
+	private static void refreshWindow(SystemZone system) {
+		long now = System.currentTimeMillis();
+		if ((now < system.startMilli || now >= system.endMilli) && system.table.covers(now)) {
+			systemZone = SystemZone.of(system.id, system.zone, system.table, now);
+		}
+	}
+
+	private static OffsetTable getTable(ZoneId zone) {
+		OffsetTable table = lastTable;
+		if (table != null && table.zone == zone) {
+			return table;
+		}
+		table = TABLES.get(zone);
+		if (table == null) {
+			table = OffsetTable.of(zone, fromYear, toYear);
+			if (TABLES.size() < MAX_SIZE) {
+				TABLES.putIfAbsent(zone, table);
+			}
+		}
+		lastTable = table;
+		return table;
+	}
+
+	/**
+	 * 系统默认时区和偏移窗口，不可变<br>
+	 * 时间戳在[startMilli, endMilli)内时偏移为offsetSeconds；本地时间在[localStartMilli, localEndMilli)内时只有offsetSeconds一个有效偏移，
+	 * 不包含夏令时间隙和重叠。
+	 */
+	private static final class SystemZone {
+
+		private final String id;
+
+		private final ZoneId zone;
+
+		private final OffsetTable table;
+
+		private final long startMilli;
+
+		private final long endMilli;
+
+		private final long localStartMilli;
+
+		private final long localEndMilli;
+
+		private final int offsetSeconds;
+
+		private SystemZone(String id, ZoneId zone, OffsetTable table, long startMilli, long endMilli,
+				long localStartMilli, long localEndMilli, int offsetSeconds) {
+			this.id = id;
+			this.zone = zone;
+			this.table = table;
+			this.startMilli = startMilli;
+			this.endMilli = endMilli;
+			this.localStartMilli = localStartMilli;
+			this.localEndMilli = localEndMilli;
+			this.offsetSeconds = offsetSeconds;
+		}
+
+		/**
+		 * 计算epochMilli所在的偏移窗口
+		 */
+		private static SystemZone of(String id, ZoneId zone, OffsetTable table, long epochMilli) {
+			long[] window = new long[WINDOW_SIZE];
+			int offsetSeconds = table.window(epochMilli, window);
+			return new SystemZone(id, zone, table, window[0], window[1], window[2], window[3], offsetSeconds);
+		}
+
+		private boolean matches(ZoneId other) {
+			return zone == other || zone.equals(other);
+		}
+	}
+
+	/**
+	 * 时区年份范围内的偏移转换表
+	 */
+	private static final class OffsetTable {
+
+		private final ZoneId zone;
+
+		private final ZoneRules rules;
+
+		/**
+		 * 是否为固定偏移时区
+		 */
+		private final boolean fixed;
+
+		/**
+		 * 固定偏移时区的偏移
+		 */
+		private final int fixedOffset;
+
+		/**
+		 * 范围起止秒数，本地时间和时间戳都使用该范围，[startSecond, endSecond)
+		 */
+		private final long startSecond;
+
+		private final long endSecond;
+
+		/**
+		 * 转换时刻（时间戳秒数），升序
+		 */
+		private final long[] instantBoundaries;
+
+		/**
+		 * 转换的本地时间边界，转换时刻 + max(转换前偏移, 转换后偏移)，小于该值的本地时间使用转换前偏移
+		 */
+		private final long[] localBoundaries;
+
+		/**
+		 * offsets[0]为第一个转换之前的偏移，offsets[i + 1]为第i个转换之后的偏移
+		 */
+		private final int[] offsets;
+
+		/**
+		 * 每个桶起始秒数之前的转换数量，查询时从该位置向后查找，不需要在全部转换中二分查找
+		 */
+		private final int[] instantBuckets;
+
+		private final int[] localBuckets;
+
+		/**
+		 * 本地时间边界不是严格递增时（转换间隔过短）为false，本地时间使用ZoneRules计算
+		 */
+		private final boolean localSupported;
+
+		private OffsetTable(ZoneId zone, ZoneRules rules, boolean fixed, int fixedOffset, long startSecond,
+				long endSecond, long[] instantBoundaries, long[] localBoundaries, int[] offsets, boolean localSupported) {
+			this.zone = zone;
+			this.rules = rules;
+			this.fixed = fixed;
+			this.fixedOffset = fixedOffset;
+			this.startSecond = startSecond;
+			this.endSecond = endSecond;
+			this.instantBoundaries = instantBoundaries;
+			this.localBoundaries = localBoundaries;
+			this.offsets = offsets;
+			this.localSupported = localSupported;
+			this.instantBuckets = fixed ? null : buckets(instantBoundaries, startSecond, endSecond);
+			this.localBuckets = fixed ? null : buckets(localBoundaries, startSecond, endSecond);
+		}
+
+		private static OffsetTable of(ZoneId zone, int fromYear, int toYear) {
+			ZoneRules rules = zone.getRules();
+			if (rules.isFixedOffset()) {
+				return new OffsetTable(zone, rules, true, rules.getOffset(Instant.EPOCH).getTotalSeconds(), 0, 0, null,
+						null, null, true);
+			}
+			long startSecond = LocalDate.of(fromYear, 1, 1).toEpochDay() * SECONDS_PER_DAY;
+			long endSecond = LocalDate.of(toYear, 12, 31).toEpochDay() * SECONDS_PER_DAY + SECONDS_PER_DAY;
+			// 前后多计算2天，覆盖本地时间和时间戳的差值
+			Instant from = Instant.ofEpochSecond(startSecond - 2 * SECONDS_PER_DAY);
+			long to = endSecond + 2 * SECONDS_PER_DAY;
+			int capacity = 16;
+			long[] instantBoundaries = new long[capacity];
+			long[] localBoundaries = new long[capacity];
+			int[] offsets = new int[capacity + 1];
+			offsets[0] = rules.getOffset(from).getTotalSeconds();
+			int size = 0;
+			boolean localSupported = true;
+			ZoneOffsetTransition transition = rules.nextTransition(from);
+			while (transition != null && transition.toEpochSecond() < to) {
+				if (size == capacity) {
+					capacity *= 2;
+					instantBoundaries = Arrays.copyOf(instantBoundaries, capacity);
+					localBoundaries = Arrays.copyOf(localBoundaries, capacity);
+					offsets = Arrays.copyOf(offsets, capacity + 1);
+				}
+				int before = transition.getOffsetBefore().getTotalSeconds();
+				int after = transition.getOffsetAfter().getTotalSeconds();
+				long instant = transition.toEpochSecond();
+				long local = instant + Math.max(before, after);
+				// 本地时间区间重叠时不能按边界查找
+				if (size > 0 && local - Math.abs(after - before) < localBoundaries[size - 1]) {
+					localSupported = false;
+				}
+				instantBoundaries[size] = instant;
+				localBoundaries[size] = local;
+				offsets[size + 1] = after;
+				size++;
+				transition = rules.nextTransition(transition.getInstant());
+			}
+			return new OffsetTable(zone, rules, false, 0, startSecond, endSecond, Arrays.copyOf(instantBoundaries, size),
+					Arrays.copyOf(localBoundaries, size), Arrays.copyOf(offsets, size + 1), localSupported);
+		}
+
+		/**
+		 * 按二分查找计算每个桶起始秒数之前的转换数量
+		 */
+		private static int[] buckets(long[] boundaries, long startSecond, long endSecond) {
+			int count = (int) ((endSecond - 1 - startSecond) >>> BUCKET_SHIFT) + 1;
+			int[] buckets = new int[count];
+			for (int i = 0; i < count; i++) {
+				buckets[i] = upperBound(boundaries, startSecond + ((long) i << BUCKET_SHIFT) - 1);
+			}
+			return buckets;
+		}
+
+		/**
+		 * 计算epochMilli所在的偏移窗口写入window，超出转换表范围时窗口为空
+		 * @return epochMilli对应的偏移秒数
+		 */
+		private int window(long epochMilli, long[] window) {
+			if (fixed) {
+				window[0] = Long.MIN_VALUE;
+				window[1] = Long.MAX_VALUE;
+				window[2] = Long.MIN_VALUE;
+				window[3] = Long.MAX_VALUE;
+				return fixedOffset;
+			}
+			long epochSecond = Math.floorDiv(epochMilli, MILLIS_PER_SECOND);
+			if (!covers(epochMilli)) {
+				Arrays.fill(window, 0, WINDOW_SIZE, 0);
+				return offsetSeconds(epochSecond);
+			}
+			int n = instantBoundaries.length;
+			int i = find(instantBoundaries, instantBuckets, epochSecond);
+			long start = i == 0 ? startSecond : Math.max(instantBoundaries[i - 1], startSecond);
+			long end = i == n ? endSecond : Math.min(instantBoundaries[i], endSecond);
+			long localStart = 0;
+			long localEnd = 0;
+			if (localSupported) {
+				// 前一个转换的间隙或重叠之后，到下一个转换的间隙或重叠之前
+				localStart = i == 0 ? startSecond : Math.max(localBoundaries[i - 1], startSecond);
+				localEnd = i == n ? endSecond : Math.min(instantBoundaries[i] + Math.min(offsets[i], offsets[i + 1]), endSecond);
+			}
+			window[0] = start * MILLIS_PER_SECOND;
+			window[1] = end * MILLIS_PER_SECOND;
+			window[2] = localStart * MILLIS_PER_SECOND;
+			window[3] = localEnd * MILLIS_PER_SECOND;
+			return offsets[i];
+		}
+
+		/**
+		 * 时间戳是否在转换表范围内
+		 */
+		private boolean covers(long epochMilli) {
+			long epochSecond = Math.floorDiv(epochMilli, MILLIS_PER_SECOND);
+			return !fixed && epochSecond >= startSecond && epochSecond < endSecond;
+		}
+
+		private int offsetSeconds(long epochSecond) {
+			if (fixed) {
+				return fixedOffset;
+			}
+			if (epochSecond < startSecond || epochSecond >= endSecond) {
+				return rules.getOffset(Instant.ofEpochSecond(epochSecond)).getTotalSeconds();
+			}
+			return offsets[find(instantBoundaries, instantBuckets, epochSecond)];
+		}
+
+		private int localOffsetSeconds(long localSecond) {
+			if (fixed) {
+				return fixedOffset;
+			}
+			if (!localSupported || localSecond < startSecond || localSecond >= endSecond) {
+				return rules.getOffset(LocalDateTime.ofEpochSecond(localSecond, 0, ZoneOffset.UTC)).getTotalSeconds();
+			}
+			return offsets[find(localBoundaries, localBuckets, localSecond)];
+		}
+
+		/**
+		 * 小于等于second的转换数量，从所在桶的位置向后查找
+		 */
+		private int find(long[] boundaries, int[] buckets, long second) {
+			int i = buckets[(int) ((second - startSecond) >>> BUCKET_SHIFT)];
+			while (i < boundaries.length && boundaries[i] <= second) {
+				i++;
+			}
+			return i;
+		}
+
+		/**
+		 * 小于等于value的元素个数
+		 */
+		private static int upperBound(long[] boundaries, long value) {
+			int low = 0;
+			int high = boundaries.length;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (boundaries[mid] <= value) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+	}
+}
@@ -1,5 +1,7 @@
 /**
  * 日期转换工具类: DateTimeConverterUtil
+ * 批量转换工具类: DateTimeBatchConverterUtil
+ * 基本类型日期时间工具类: PackedDate、PackedDateTime
  *
  * @author xkzhangsan
  */
@@ -0,0 +1,245 @@
+package com.xkzhangsan.time.formatter;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * 缓存最近一秒的格式化器，适合日志等连续格式化相近时间的场景，和logback的CachingDateFormatter类似<br>
+ * 1.缓存最近格式化的一秒，同一秒内再次格式化时直接使用缓存，包含毫秒的模板只替换毫秒数字。<br>
+ * 2.缓存以不可变对象保存在volatile字段中，多线程共享，无锁。<br>
+ * 3.缓存以 时间戳秒 + 时区 为key，时区偏移变化（比如夏令时切换）只发生在整秒，不会使用错误偏移的缓存；系统默认时区改变后也会重新格式化。<br>
+ * 4.毫秒位置不能确定的模板（比如只有1位或2位毫秒），每次直接使用formatter格式化。<br>
+ * 格式化结果和DateTimeFormatterUtil.format(Date date, DateTimeFormatter formatter)一致。<br>
+ * 比如：<br>
+ * <pre>
+ * CachingDateTimeFormatter formatter = CachingDateTimeFormatter.of(DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_SSS_FMT);
+ * String text = formatter.format(System.currentTimeMillis());
+ * </pre>
+ *
+ * @author xkzhangsan
+ */
+public final class CachingDateTimeFormatter {
+
+	/**
+	 * 用于确定毫秒位置的探测毫秒值
+	 */
+	private static final int PROBE_MILLI = 987;
+
+	/**
+	 * 没有毫秒
+	 */
+	private static final int NO_MILLI = -1;
+
+	/**
+	 * 毫秒位置不能确定，不能缓存
+	 */
+	private static final int UNCACHEABLE = -2;
+
+	private final DateTimeFormatter formatter;
+
+	/**
+	 * 最近格式化的一秒
+	 */
+	private volatile CachedSecond cachedSecond;
+
+	private CachingDateTimeFormatter(DateTimeFormatter formatter) {
+		this.formatter = formatter;
+	}
+
+	/**
+	 * 根据formatter创建缓存格式化器，比如DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_SSS_FMT
+	 * @param formatter DateTimeFormatter
+	 * @return CachingDateTimeFormatter
+	 */
+	public static CachingDateTimeFormatter of(DateTimeFormatter formatter) {
+		Objects.requireNonNull(formatter, "formatter");
+		return new CachingDateTimeFormatter(formatter);
+	}
+
+	/**
+	 * 根据模板创建缓存格式化器，formatter使用系统默认时区
+	 * @param dateFormatPattern 自定义格式化模板
+	 * @return CachingDateTimeFormatter
+	 */
+	public static CachingDateTimeFormatter of(String dateFormatPattern) {
+		return of(DateTimeFormatterUtil.getDateTimeFormatter(dateFormatPattern));
+	}
+
+	/**
+	 * 获取formatter
+	 * @return DateTimeFormatter
+	 */
+	public DateTimeFormatter getFormatter() {
+		return formatter;
+	}
+
+	/**
+	 * 格式化时间戳毫秒值，formatter没有设置时区时使用系统默认时区
+	 * @param epochMilli 时间戳毫秒值
+	 * @return String
+	 */
+	public String format(long epochMilli) {
+		long epochSecond = Math.floorDiv(epochMilli, 1000L);
+		int milli = (int) Math.floorMod(epochMilli, 1000L);
+		CachedSecond cached = getCachedSecond(epochSecond, resolveZone());
+		if (cached.milliPos == NO_MILLI) {
+			return cached.text;
+		}
+		if (cached.milliPos == UNCACHEABLE) {
+			return formatter.format(Instant.ofEpochMilli(epochMilli).atZone(cached.zone));
+		}
+		char[] chars = cached.chars.clone();
+		putMilli(chars, cached.milliPos, milli);
+		return new String(chars);
+	}
+
+	/**
+	 * 格式化Date，formatter没有设置时区时使用系统默认时区
+	 * @param date Date
+	 * @return String
+	 */
+	public String format(Date date) {
+		Objects.requireNonNull(date, "date");
+		return format(date.getTime());
+	}
+
+	/**
+	 * 格式化时间戳毫秒值，追加到StringBuilder，命中缓存时不创建对象
+	 * @param sb StringBuilder
+	 * @param epochMilli 时间戳毫秒值
+	 * @return StringBuilder
+	 */
+	public StringBuilder formatTo(StringBuilder sb, long epochMilli) {
+		Objects.requireNonNull(sb, "sb");
+		long epochSecond = Math.floorDiv(epochMilli, 1000L);
+		int milli = (int) Math.floorMod(epochMilli, 1000L);
+		CachedSecond cached = getCachedSecond(epochSecond, resolveZone());
+		if (cached.milliPos == UNCACHEABLE) {
+			formatter.formatTo(Instant.ofEpochMilli(epochMilli).atZone(cached.zone), sb);
+			return sb;
+		}
+		if (cached.milliPos == NO_MILLI) {
+			return sb.append(cached.chars);
+		}
+		char[] chars = cached.chars;
+		int pos = cached.milliPos;
+		return sb.append(chars, 0, pos).append((char) ('0' + milli / 100)).append((char) ('0' + milli / 10 % 10))
+				.append((char) ('0' + milli % 10)).append(chars, pos + 3, chars.length - pos - 3);
+	}
+
+	/**
+	 * 格式化Date，追加到StringBuilder，命中缓存时不创建对象
+	 * @param sb StringBuilder
+	 * @param date Date
+	 * @return StringBuilder
+	 */
+	public StringBuilder formatTo(StringBuilder sb, Date date) {
+		Objects.requireNonNull(date, "date");
+		return formatTo(sb, date.getTime());
+	}
+
+	@Override
+	public String toString() {
+		return "CachingDateTimeFormatter [formatter=" + formatter + "]";
+	}
+
+	/**
+	 * formatter设置了时区时使用该时区，否则使用系统默认时区，和DateTimeFormatterUtil.format(Date, DateTimeFormatter)一致
+	 */
+	private ZoneId resolveZone() {
+		ZoneId zone = formatter.getZone();
+		return zone != null ? zone : ZoneId.systemDefault();
+	}
+
+	/**
+	 * 获取缓存，秒或时区不同时重新格式化并替换缓存
+	 */
+	private CachedSecond getCachedSecond(long epochSecond, ZoneId zone) {
+		CachedSecond cached = this.cachedSecond;
+		if (cached != null && cached.epochSecond == epochSecond && cached.zone.equals(zone)) {
+			return cached;
+		}
+		cached = createCachedSecond(epochSecond, zone);
+		this.cachedSecond = cached;
+		return cached;
+	}
+
+	/**
+	 * 格式化整秒和探测毫秒值，比较两次结果确定毫秒位置
+	 */
+	private CachedSecond createCachedSecond(long epochSecond, ZoneId zone) {
+		Instant base = Instant.ofEpochSecond(epochSecond);
+		String text = formatter.format(base.atZone(zone));
+		String probe = formatter.format(base.plusMillis(PROBE_MILLI).atZone(zone));
+		int milliPos = findMilliPos(text, probe);
+		return new CachedSecond(epochSecond, zone, text, milliPos);
+	}
+
+	/**
+	 * 毫秒位置，只有连续3位 000 变为 987 时可以替换，相同时没有毫秒
+	 */
+	private static int findMilliPos(String text, String probe) {
+		if (text.equals(probe)) {
+			return NO_MILLI;
+		}
+		if (text.length() != probe.length()) {
+			return UNCACHEABLE;
+		}
+		int first = -1;
+		int last = -1;
+		for (int i = 0; i < text.length(); i++) {
+			if (text.charAt(i) != probe.charAt(i)) {
+				if (first < 0) {
+					first = i;
+				}
+				last = i;
+			}
+		}
+		if (last - first != 2 || !text.startsWith("000", first) || !probe.startsWith("987", first)) {
+			return UNCACHEABLE;
+		}
+		return first;
+	}
+
+	private static void putMilli(char[] chars, int pos, int milli) {
+		chars[pos] = (char) ('0' + milli / 100);
+		chars[pos + 1] = (char) ('0' + milli / 10 % 10);
+		chars[pos + 2] = (char) ('0' + milli % 10);
+	}
+
+	/**
+	 * 最近格式化的一秒，不可变
+	 *
+	 * @author xkzhangsan
+	 */
+	private static final class CachedSecond {
+
+		private final long epochSecond;
+
+		private final ZoneId zone;
+
+		/**
+		 * 整秒格式化结果，包含毫秒时毫秒为000
+		 */
+		private final String text;
+
+		private final char[] chars;
+
+		/**
+		 * 毫秒位置，NO_MILLI 没有毫秒，UNCACHEABLE 不能缓存
+		 */
+		private final int milliPos;
+
+		CachedSecond(long epochSecond, ZoneId zone, String text, int milliPos) {
+			this.epochSecond = epochSecond;
+			this.zone = zone;
+			this.text = text;
+			this.chars = text.toCharArray();
+			this.milliPos = milliPos;
+		}
+	}
+
+}
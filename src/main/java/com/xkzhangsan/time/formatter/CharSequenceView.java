@@ -0,0 +1,156 @@
+package com.xkzhangsan.time.formatter;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * 字符序列视图，直接读取CharSequence、char[]、byte[]或ByteBuffer的指定区间，不复制数据<br>
+ * byte[]和ByteBuffer按ASCII（单字节）读取，每个字节对应一个字符。<br>
+ * 只在解析时临时使用，不保存，调用toString()时才创建字符串（比如异常信息）。
+ *
+ * @author xkzhangsan
+ */
+final class CharSequenceView implements CharSequence {
+
+	private final CharSequence text;
+
+	private final char[] chars;
+
+	private final byte[] bytes;
+
+	private final ByteBuffer buffer;
+
+	private final int offset;
+
+	private final int length;
+
+	private CharSequenceView(CharSequence text, char[] chars, byte[] bytes, ByteBuffer buffer, int offset,
+			int length) {
+		this.text = text;
+		this.chars = chars;
+		this.bytes = bytes;
+		this.buffer = buffer;
+		this.offset = offset;
+		this.length = length;
+	}
+
+	/**
+	 * CharSequence的[start, end)区间
+	 * @param text CharSequence
+	 * @param start 起始位置
+	 * @param end 结束位置
+	 * @return CharSequence
+	 */
+	static CharSequence of(CharSequence text, int start, int end) {
+		checkRange(text, start, end);
+		if (start == 0 && end == text.length()) {
+			return text;
+		}
+		return new CharSequenceView(text, null, null, null, start, end - start);
+	}
+
+	/**
+	 * char[]从offset开始，长度为length的区间
+	 * @param chars char[]
+	 * @param offset 起始位置
+	 * @param length 长度
+	 * @return CharSequence
+	 */
+	static CharSequence of(char[] chars, int offset, int length) {
+		Objects.requireNonNull(chars, "chars");
+		checkRange(offset, length, chars.length);
+		return new CharSequenceView(null, chars, null, null, offset, length);
+	}
+
+	/**
+	 * ASCII byte[]从offset开始，长度为length的区间
+	 * @param bytes byte[]
+	 * @param offset 起始位置
+	 * @param length 长度
+	 * @return CharSequence
+	 */
+	static CharSequence of(byte[] bytes, int offset, int length) {
+		Objects.requireNonNull(bytes, "bytes");
+		checkRange(offset, length, bytes.length);
+		return new CharSequenceView(null, null, bytes, null, offset, length);
+	}
+
+	/**
+	 * ASCII ByteBuffer从绝对位置offset开始，长度为length的区间，不改变ByteBuffer的position
+	 * @param buffer ByteBuffer
+	 * @param offset 绝对位置
+	 * @param length 长度
+	 * @return CharSequence
+	 */
+	static CharSequence of(ByteBuffer buffer, int offset, int length) {
+		Objects.requireNonNull(buffer, "buffer");
+		checkRange(offset, length, buffer.limit());
+		if (buffer.hasArray()) {
+			return new CharSequenceView(null, null, buffer.array(), null, buffer.arrayOffset() + offset, length);
+		}
+		return new CharSequenceView(null, null, null, buffer, offset, length);
+	}
+
+	/**
+	 * 校验CharSequence的[start, end)区间
+	 * @param text CharSequence
+	 * @param start 起始位置
+	 * @param end 结束位置
+	 */
+	static void checkRange(CharSequence text, int start, int end) {
+		Objects.requireNonNull(text, "text");
+		checkRange(start, end - start, text.length());
+	}
+
+	private static void checkRange(int offset, int length, int size) {
+		if (offset < 0 || length < 0 || offset > size - length) {
+			throw new IndexOutOfBoundsException(
+					"offset: " + offset + ", length: " + length + ", size: " + size);
+		}
+	}
+
+	@Override
+	public int length() {
+		return length;
+	}
+
+	@Override
+	public char charAt(int index) {
+		if (index < 0 || index >= length) {
+			throw new StringIndexOutOfBoundsException(index);
+		}
+		int i = offset + index;
+		if (bytes != null) {
+			return (char) (bytes[i] & 0xFF);
+		}
+		if (chars != null) {
+			return chars[i];
+		}
+		if (buffer != null) {
+			return (char) (buffer.get(i) & 0xFF);
+		}
+		return text.charAt(i);
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		checkRange(start, end - start, length);
+		return new CharSequenceView(text, chars, bytes, buffer, offset + start, end - start);
+	}
+
+	@Override
+	public String toString() {
+		if (chars != null) {
+			return new String(chars, offset, length);
+		}
+		if (text != null) {
+			return text.subSequence(offset, offset + length).toString();
+		}
+		char[] copy = new char[length];
+		for (int i = 0; i < length; i++) {
+			copy[i] = charAt(i);
+		}
+		return new String(copy);
+	}
+
+}
@@ -0,0 +1,386 @@
+package com.xkzhangsan.time.formatter;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.IntFunction;
+
+import com.xkzhangsan.time.utils.ParallelUtil;
+import com.xkzhangsan.time.utils.ParallelUtil.RangeAction;
+
+/**
+ * 批量（列式）解析和格式化工具类，适合整列时间一次处理的场景，比如将5000万行时间字符串转换为时间戳<br>
+ * 1.批量解析，parseToEpochMilli(String[] texts, DateTimeFormatter formatter)，String[]或List&lt;String&gt; 转换为 long[] 时间戳毫秒值。<br>
+ * 定长ASCII记录（byte[]）parseToEpochMilli(byte[] records, int offset, int recordWidth, int count, DateTimeFormatter formatter)，定长formatter常量每次读取8个字节解析。<br>
+ * 2.批量格式化，format(long[] epochMillis, DateTimeFormatter formatter)，long[] 转换为 String[]；<br>
+ * formatToBytes(long[] epochMillis, DateTimeFormatter formatter, int recordWidth)，long[] 转换为定长记录的 byte[]，每条记录recordWidth字节，不足时末尾补空格。<br>
+ * 3.整批只获取一次formatter对应的定长编解码器、时区和缓冲区，DateTimeFormatterUtil中的定长formatter常量（比如YYYY_MM_DD_HH_MM_SS_FMT）不经过DateTimeFormatter。<br>
+ * 4.数量超过PARALLEL_THRESHOLD时，拆分为多段在ForkJoinPool.commonPool()中并行执行，结果顺序不变。<br>
+ * 5.带BitSet errors参数的方法，单个元素出错时不中断整批，在errors中将对应位置设置为true，结果中对应位置为0；<br>
+ * 不带errors参数的方法，和逐个调用一致，抛出第一个出错元素的异常。<br>
+ * 解析结果和DateTimeFormatterUtil.parseToDate(String text, DateTimeFormatter formatter).getTime()一致，<br>
+ * 格式化结果和DateTimeFormatterUtil.format(Date date, DateTimeFormatter formatter)一致。<br>
+ *
+ * @author xkzhangsan
+ */
+public class DateTimeBatchUtil {
+
+	/**
+	 * 并行阈值，数量超过该值时并行执行
+	 */
+	public static final int PARALLEL_THRESHOLD = 8192;
+
+	/**
+	 * errors位图每个long包含的元素数量，拆分位置按此对齐，每段只写自己的long，不需要同步
+	 */
+	private static final int WORD_SIZE = 64;
+
+	/**
+	 * 空格，formatToBytes补齐记录
+	 */
+	private static final byte SPACE = ' ';
+
+	private DateTimeBatchUtil(){
+	}
+
+	// ==================================parse==================================
+
+	/**
+	 * 根据 formatter批量解析为时间戳毫秒值，出错时抛出第一个出错元素的异常
+	 * @param texts 待解析字符串数组
+	 * @param formatter DateTimeFormatter
+	 * @return 时间戳毫秒值数组
+	 */
+	public static long[] parseToEpochMilli(String[] texts, DateTimeFormatter formatter){
+		Objects.requireNonNull(texts, "texts");
+		return parseToEpochMilli(i -> texts[i], texts.length, formatter, null);
+	}
+
+	/**
+	 * 根据 formatter批量解析为时间戳毫秒值，出错（包括元素为null）时不中断，在errors中将对应位置设置为true，结果中对应位置为0
+	 * @param texts 待解析字符串数组
+	 * @param formatter DateTimeFormatter
+	 * @param errors 出错位置位图，会先清除[0, texts.length)区间
+	 * @return 时间戳毫秒值数组
+	 */
+	public static long[] parseToEpochMilli(String[] texts, DateTimeFormatter formatter, BitSet errors){
+		Objects.requireNonNull(texts, "texts");
+		Objects.requireNonNull(errors, "errors");
+		return parseToEpochMilli(i -> texts[i], texts.length, formatter, errors);
+	}
+
+	/**
+	 * 根据 formatter批量解析为时间戳毫秒值，出错时抛出第一个出错元素的异常
+	 * @param texts 待解析字符串列表
+	 * @param formatter DateTimeFormatter
+	 * @return 时间戳毫秒值数组
+	 */
+	public static long[] parseToEpochMilli(List<String> texts, DateTimeFormatter formatter){
+		Objects.requireNonNull(texts, "texts");
+		return parseToEpochMilli(toArrayAccess(texts), texts.size(), formatter, null);
+	}
+
+	/**
+	 * 根据 formatter批量解析为时间戳毫秒值，出错（包括元素为null）时不中断，在errors中将对应位置设置为true，结果中对应位置为0
+	 * @param texts 待解析字符串列表
+	 * @param formatter DateTimeFormatter
+	 * @param errors 出错位置位图，会先清除[0, texts.size())区间
+	 * @return 时间戳毫秒值数组
+	 */
+	public static long[] parseToEpochMilli(List<String> texts, DateTimeFormatter formatter, BitSet errors){
+		Objects.requireNonNull(texts, "texts");
+		Objects.requireNonNull(errors, "errors");
+		return parseToEpochMilli(toArrayAccess(texts), texts.size(), formatter, errors);
+	}
+
+	/**
+	 * 根据 formatter批量解析定长ASCII记录为时间戳毫秒值，出错时抛出第一个出错记录的异常<br>
+	 * 第i条记录为records中从 offset + i * recordWidth 开始的recordWidth个字节，去掉末尾空格后解析，和formatToBytes的结果对应
+	 * @param records 字节数组，比如从Parquet/CSV导出的定长时间列
+	 * @param offset 第一条记录的起始位置
+	 * @param recordWidth 每条记录的字节数
+	 * @param count 记录数
+	 * @param formatter DateTimeFormatter
+	 * @return 时间戳毫秒值数组
+	 */
+	public static long[] parseToEpochMilli(byte[] records, int offset, int recordWidth, int count, DateTimeFormatter formatter){
+		return parseToEpochMilli(records, offset, recordWidth, count, formatter, null);
+	}
+
+	/**
+	 * 根据 formatter批量解析定长ASCII记录为时间戳毫秒值，出错时不中断，在errors中将对应位置设置为true，结果中对应位置为0<br>
+	 * 第i条记录为records中从 offset + i * recordWidth 开始的recordWidth个字节，去掉末尾空格后解析，和formatToBytes的结果对应<br>
+	 * yyyyMMddHHmmss、yyyy-MM-dd HH:mm:ss等定长formatter常量，每次读取8个字节同时校验和转换多个数字（SWAR），不逐个字符解析
+	 * @param records 字节数组，比如从Parquet/CSV导出的定长时间列
+	 * @param offset 第一条记录的起始位置
+	 * @param recordWidth 每条记录的字节数
+	 * @param count 记录数
+	 * @param formatter DateTimeFormatter
+	 * @param errors 出错位置位图，为null时抛出第一个出错记录的异常，不为null时会先清除[0, count)区间
+	 * @return 时间戳毫秒值数组
+	 */
+	public static long[] parseToEpochMilli(byte[] records, int offset, int recordWidth, int count, DateTimeFormatter formatter, BitSet errors){
+		Objects.requireNonNull(records, "records");
+		Objects.requireNonNull(formatter, "formatter");
+		if (offset < 0 || recordWidth <= 0 || count < 0 || offset + (long) recordWidth * count > records.length) {
+			throw new IndexOutOfBoundsException("offset: " + offset + ", recordWidth: " + recordWidth + ", count: "
+					+ count + ", size: " + records.length);
+		}
+		long[] result = new long[count];
+		long[] errorWords = newErrorWords(count);
+		ZoneId zone = ZoneId.systemDefault();
+		FixedWidthDateTimeCodec codec = DateTimeFormatterUtil.getFixedWidthCodec(formatter);
+		SwarDateTimeDecoder decoder = SwarDateTimeDecoder.of(codec);
+		run(count, (from, to) -> {
+			ByteBuffer buffer = decoder != null ? SwarDateTimeDecoder.wrap(records) : null;
+			for (int i = from; i < to; i++) {
+				int pos = offset + i * recordWidth;
+				int len = trimmedLength(records, pos, recordWidth);
+				if (decoder != null && len == decoder.getLength()) {
+					long localMilli = decoder.tryDecodeLocalMilli(buffer, pos);
+					if (localMilli == FixedWidthDateTimeCodec.INVALID) {
+						setError(errorWords, i);
+					} else {
+						result[i] = localMilli - FixedWidthDateTimeCodec.localOffsetSeconds(localMilli, zone) * 1000L;
+					}
+					continue;
+				}
+				CharSequence text = CharSequenceView.of(records, pos, len);
+				if (codec != null && codec.isSupportedLength(text)) {
+					// 定长模板的另一种长度，比如带毫秒或Z
+					long localMilli = codec.tryDecodeLocalMilli(text, 0, len);
+					if (localMilli == FixedWidthDateTimeCodec.INVALID) {
+						setError(errorWords, i);
+					} else {
+						result[i] = localMilli - FixedWidthDateTimeCodec.localOffsetSeconds(localMilli, zone) * 1000L;
+					}
+					continue;
+				}
+				// 解析失败返回null，不创建异常对象，只在最后重新解析第一个出错记录时抛出异常
+				LocalDateTime localDateTime = DateTimeFormatterUtil.tryParseLocalDateTime(text, null, formatter);
+				if (localDateTime == null) {
+					setError(errorWords, i);
+				} else {
+					result[i] = localDateTime.atZone(zone).toInstant().toEpochMilli();
+				}
+			}
+		});
+		int first = reportErrors(errorWords, count, errors);
+		if (first >= 0) {
+			// 重新解析第一个出错记录，抛出和逐个调用相同的异常
+			int pos = offset + first * recordWidth;
+			DateTimeFormatterUtil.parseToEpochMilli(records, pos, trimmedLength(records, pos, recordWidth), formatter);
+			throw new IllegalStateException("parse error at index " + first);
+		}
+		return result;
+	}
+
+	// ==================================format==================================
+
+	/**
+	 * 根据 formatter批量格式化时间戳毫秒值，formatter没有设置时区时使用系统默认时区
+	 * @param epochMillis 时间戳毫秒值数组
+	 * @param formatter DateTimeFormatter
+	 * @return 字符串数组
+	 */
+	public static String[] format(long[] epochMillis, DateTimeFormatter formatter){
+		Objects.requireNonNull(epochMillis, "epochMillis");
+		Objects.requireNonNull(formatter, "formatter");
+		String[] result = new String[epochMillis.length];
+		ZoneId zone = resolveZone(formatter);
+		FixedWidthDateTimeCodec codec = DateTimeFormatterUtil.getFixedWidthCodec(formatter);
+		run(epochMillis.length, (from, to) -> {
+			char[] buf = new char[FixedWidthDateTimeCodec.MAX_LENGTH];
+			for (int i = from; i < to; i++) {
+				int len = codec != null ? codec.encodeEpochMilli(epochMillis[i], zone, buf, 0) : -1;
+				result[i] = len >= 0 ? new String(buf, 0, len)
+						: formatter.format(Instant.ofEpochMilli(epochMillis[i]).atZone(zone));
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * 根据 formatter批量格式化时间戳毫秒值为定长记录，每条记录recordWidth字节，UTF-8编码，不足时末尾补空格，超出时抛出DateTimeException
+	 * @param epochMillis 时间戳毫秒值数组
+	 * @param formatter DateTimeFormatter
+	 * @param recordWidth 每条记录的字节数
+	 * @return byte[]，长度为 epochMillis.length * recordWidth
+	 */
+	public static byte[] formatToBytes(long[] epochMillis, DateTimeFormatter formatter, int recordWidth){
+		return formatToBytes(epochMillis, formatter, recordWidth, null);
+	}
+
+	/**
+	 * 根据 formatter批量格式化时间戳毫秒值为定长记录，每条记录recordWidth字节，UTF-8编码，不足时末尾补空格<br>
+	 * 超出recordWidth时不中断，该记录全部为空格，在errors中将对应位置设置为true
+	 * @param epochMillis 时间戳毫秒值数组
+	 * @param formatter DateTimeFormatter
+	 * @param recordWidth 每条记录的字节数
+	 * @param errors 出错位置位图，会先清除[0, epochMillis.length)区间
+	 * @return byte[]，长度为 epochMillis.length * recordWidth
+	 */
+	public static byte[] formatToBytes(long[] epochMillis, DateTimeFormatter formatter, int recordWidth, BitSet errors){
+		Objects.requireNonNull(epochMillis, "epochMillis");
+		Objects.requireNonNull(formatter, "formatter");
+		if (recordWidth <= 0 || (long) recordWidth * epochMillis.length > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("recordWidth: " + recordWidth + ", size: " + epochMillis.length);
+		}
+		byte[] result = new byte[epochMillis.length * recordWidth];
+		long[] errorWords = newErrorWords(epochMillis.length);
+		ZoneId zone = resolveZone(formatter);
+		FixedWidthDateTimeCodec codec = DateTimeFormatterUtil.getFixedWidthCodec(formatter);
+		run(epochMillis.length, (from, to) -> {
+			char[] buf = new char[FixedWidthDateTimeCodec.MAX_LENGTH];
+			for (int i = from; i < to; i++) {
+				int pos = i * recordWidth;
+				int len = codec != null ? codec.encodeEpochMilli(epochMillis[i], zone, buf, 0) : -1;
+				if (len >= 0 && len <= recordWidth) {
+					for (int j = 0; j < len; j++) {
+						result[pos + j] = (byte) buf[j];
+					}
+				} else {
+					byte[] bytes = len >= 0 ? null
+							: formatter.format(Instant.ofEpochMilli(epochMillis[i]).atZone(zone)).getBytes(StandardCharsets.UTF_8);
+					if (bytes != null && bytes.length <= recordWidth) {
+						System.arraycopy(bytes, 0, result, pos, bytes.length);
+						len = bytes.length;
+					} else {
+						setError(errorWords, i);
+						len = 0;
+					}
+				}
+				for (int j = pos + len, end = pos + recordWidth; j < end; j++) {
+					result[j] = SPACE;
+				}
+			}
+		});
+		int first = reportErrors(errorWords, epochMillis.length, errors);
+		if (first >= 0) {
+			throw new DateTimeException("formatted text exceeds recordWidth " + recordWidth + " at index " + first
+					+ ": " + DateTimeFormatterUtil.format(new Date(epochMillis[first]), formatter));
+		}
+		return result;
+	}
+
+	// ==================================private==================================
+
+	/**
+	 * 批量解析，errors为null时抛出第一个出错元素的异常
+	 */
+	private static long[] parseToEpochMilli(IntFunction<String> texts, int size, DateTimeFormatter formatter, BitSet errors) {
+		Objects.requireNonNull(formatter, "formatter");
+		long[] result = new long[size];
+		long[] errorWords = newErrorWords(size);
+		ZoneId zone = ZoneId.systemDefault();
+		FixedWidthDateTimeCodec codec = DateTimeFormatterUtil.getFixedWidthCodec(formatter);
+		run(size, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				String text = texts.apply(i);
+				if (text == null) {
+					setError(errorWords, i);
+					continue;
+				}
+				if (codec != null && codec.isSupportedLength(text)) {
+					// 定长模板，解析失败时DateTimeFormatterUtil同样抛出异常，不需要创建异常对象
+					long localMilli = codec.tryDecodeLocalMilli(text, 0, text.length());
+					if (localMilli == FixedWidthDateTimeCodec.INVALID) {
+						setError(errorWords, i);
+					} else {
+						result[i] = localMilli - FixedWidthDateTimeCodec.localOffsetSeconds(localMilli, zone) * 1000L;
+					}
+					continue;
+				}
+				// 解析失败返回null，不创建异常对象，只在最后重新解析第一个出错元素时抛出异常
+				LocalDateTime localDateTime = DateTimeFormatterUtil.tryParseLocalDateTime(text, codec, formatter);
+				if (localDateTime == null) {
+					setError(errorWords, i);
+				} else {
+					result[i] = localDateTime.atZone(zone).toInstant().toEpochMilli();
+				}
+			}
+		});
+		int first = reportErrors(errorWords, size, errors);
+		if (first >= 0) {
+			// 重新解析第一个出错元素，抛出和逐个调用相同的异常
+			String text = texts.apply(first);
+			Objects.requireNonNull(text, "texts[" + first + "]");
+			DateTimeFormatterUtil.parseToEpochMilli(text, 0, text.length(), formatter);
+			throw new IllegalStateException("parse error at index " + first + ": " + text);
+		}
+		return result;
+	}
+
+	/**
+	 * 去掉末尾空格后的记录长度
+	 */
+	private static int trimmedLength(byte[] records, int pos, int recordWidth) {
+		int len = recordWidth;
+		while (len > 0 && records[pos + len - 1] == SPACE) {
+			len--;
+		}
+		return len;
+	}
+
+	/**
+	 * 非RandomAccess的List先转换为数组
+	 */
+	private static IntFunction<String> toArrayAccess(List<String> texts) {
+		if (texts instanceof RandomAccess) {
+			return texts::get;
+		}
+		String[] array = texts.toArray(new String[0]);
+		return i -> array[i];
+	}
+
+	/**
+	 * formatter设置了时区时使用该时区，否则使用系统默认时区，和DateTimeFormatterUtil.format(Date, DateTimeFormatter)一致
+	 */
+	private static ZoneId resolveZone(DateTimeFormatter formatter) {
+		ZoneId zone = formatter.getZone();
+		return zone != null ? zone : ZoneId.systemDefault();
+	}
+
+	private static long[] newErrorWords(int size) {
+		return new long[(size + WORD_SIZE - 1) / WORD_SIZE];
+	}
+
+	private static void setError(long[] errorWords, int index) {
+		errorWords[index / WORD_SIZE] |= 1L << index;
+	}
+
+	/**
+	 * 将出错位置写入errors
+	 * @return errors为null时返回第一个出错位置，没有出错或errors不为null时返回-1
+	 */
+	private static int reportErrors(long[] errorWords, int size, BitSet errors) {
+		if (errors != null) {
+			errors.clear(0, size);
+			errors.or(BitSet.valueOf(errorWords));
+			return -1;
+		}
+		for (int i = 0; i < errorWords.length; i++) {
+			if (errorWords[i] != 0) {
+				return i * WORD_SIZE + Long.numberOfTrailingZeros(errorWords[i]);
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * 执行[0, size)区间，超过PARALLEL_THRESHOLD时在ForkJoinPool.commonPool()中并行执行，拆分位置按WORD_SIZE对齐
+	 */
+	private static void run(int size, RangeAction action) {
+		ParallelUtil.run(size, PARALLEL_THRESHOLD, action);
+	}
+
+}
@@ -0,0 +1,237 @@
+package com.xkzhangsan.time.formatter;
+
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * DateTimeFormatter缓存<br>
+ * 以 模板 + 时区 + Locale 为key缓存编译后的DateTimeFormatter，避免每次调用DateTimeFormatter.ofPattern重新编译模板。<br>
+ * 1.读取无锁，基于ConcurrentHashMap，命中时不会创建新的DateTimeFormatter。<br>
+ * 2.容量有上限，默认256，超过上限时按先进先出淘汰最早放入的formatter，可通过setMaxSize(int maxSize)调整，设置为0时不缓存。<br>
+ * 3.提供命中和未命中次数统计，getHitCount()，getMissCount()，方便调优。<br>
+ *
+ * @author xkzhangsan
+ */
+public class DateTimeFormatterCache {
+
+	/**
+	 * 默认最大缓存数量
+	 */
+	public static final int DEFAULT_MAX_SIZE = 256;
+
+	/**
+	 * 缓存
+	 */
+	private static final ConcurrentHashMap<FormatterKey, DateTimeFormatter> CACHE = new ConcurrentHashMap<>();
+
+	/**
+	 * 放入顺序，用于先进先出淘汰
+	 */
+	private static final Queue<FormatterKey> KEY_QUEUE = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * 命中次数
+	 */
+	private static final LongAdder HIT_COUNT = new LongAdder();
+
+	/**
+	 * 未命中次数
+	 */
+	private static final LongAdder MISS_COUNT = new LongAdder();
+
+	/**
+	 * 最大缓存数量
+	 */
+	private static volatile int maxSize = DEFAULT_MAX_SIZE;
+
+	private DateTimeFormatterCache() {
+	}
+
+	/**
+	 * 根据模板获取DateTimeFormatter，时区为系统默认时区，Locale为系统默认Locale
+	 * @param dateFormatPattern 格式化模板
+	 * @return DateTimeFormatter
+	 */
+	public static DateTimeFormatter get(String dateFormatPattern) {
+		return get(dateFormatPattern, ZoneId.systemDefault());
+	}
+
+	/**
+	 * 根据模板和时区获取DateTimeFormatter，Locale为系统默认Locale
+	 * @param dateFormatPattern 格式化模板
+	 * @param zone 时区，可以为null
+	 * @return DateTimeFormatter
+	 */
+	public static DateTimeFormatter get(String dateFormatPattern, ZoneId zone) {
+		return get(dateFormatPattern, zone, Locale.getDefault(Locale.Category.FORMAT));
+	}
+
+	/**
+	 * 根据模板、时区和Locale获取DateTimeFormatter，先从缓存中查找，没有编译后放入缓存
+	 * @param dateFormatPattern 格式化模板
+	 * @param zone 时区，可以为null
+	 * @param locale Locale
+	 * @return DateTimeFormatter
+	 */
+	public static DateTimeFormatter get(String dateFormatPattern, ZoneId zone, Locale locale) {
+		Objects.requireNonNull(dateFormatPattern, "dateFormatPattern");
+		Objects.requireNonNull(locale, "locale");
+		if (maxSize <= 0) {
+			MISS_COUNT.increment();
+			return DateTimeFormatter.ofPattern(dateFormatPattern, locale).withZone(zone);
+		}
+
+		final FormatterKey key = new FormatterKey(dateFormatPattern, zone, locale);
+		DateTimeFormatter formatter = CACHE.get(key);
+		if (formatter != null) {
+			HIT_COUNT.increment();
+			return formatter;
+		}
+
+		formatter = CACHE.computeIfAbsent(key, k -> {
+			MISS_COUNT.increment();
+			KEY_QUEUE.offer(k);
+			return DateTimeFormatter.ofPattern(k.pattern, k.locale).withZone(k.zone);
+		});
+		evict();
+		return formatter;
+	}
+
+	/**
+	 * 删除缓存
+	 * @param dateFormatPattern 格式化模板
+	 * @param zone 时区，可以为null
+	 * @param locale Locale
+	 * @return 移除的值
+	 */
+	public static DateTimeFormatter remove(String dateFormatPattern, ZoneId zone, Locale locale) {
+		FormatterKey key = new FormatterKey(dateFormatPattern, zone, locale);
+		KEY_QUEUE.remove(key);
+		return CACHE.remove(key);
+	}
+
+	/**
+	 * 清空缓存，同时重置统计
+	 */
+	public static void clear() {
+		CACHE.clear();
+		KEY_QUEUE.clear();
+		resetStatistics();
+	}
+
+	/**
+	 * 重置命中统计
+	 */
+	public static void resetStatistics() {
+		HIT_COUNT.reset();
+		MISS_COUNT.reset();
+	}
+
+	/**
+	 * 当前缓存数量
+	 * @return 缓存数量
+	 */
+	public static int size() {
+		return CACHE.size();
+	}
+
+	/**
+	 * 命中次数
+	 * @return 命中次数
+	 */
+	public static long getHitCount() {
+		return HIT_COUNT.sum();
+	}
+
+	/**
+	 * 未命中次数，即编译DateTimeFormatter的次数
+	 * @return 未命中次数
+	 */
+	public static long getMissCount() {
+		return MISS_COUNT.sum();
+	}
+
+	/**
+	 * 获取最大缓存数量
+	 * @return 最大缓存数量
+	 */
+	public static int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * 设置最大缓存数量，超过时按先进先出淘汰，设置为0时不缓存
+	 * @param maxSize 最大缓存数量
+	 */
+	public static void setMaxSize(int maxSize) {
+		if (maxSize < 0) {
+			throw new IllegalArgumentException("maxSize must not be negative: " + maxSize);
+		}
+		DateTimeFormatterCache.maxSize = maxSize;
+		evict();
+	}
+
+	/**
+	 * 超过最大缓存数量时，淘汰最早放入的formatter
+	 */
+	private static void evict() {
+		while (CACHE.size() > maxSize) {
+			FormatterKey eldest = KEY_QUEUE.poll();
+			if (eldest == null) {
+				break;
+			}
+			CACHE.remove(eldest);
+		}
+	}
+
+	/**
+	 * 缓存key，模板 + 时区 + Locale
+	 *
+	 * @author xkzhangsan
+	 */
+	private static final class FormatterKey {
+
+		private final String pattern;
+
+		private final ZoneId zone;
+
+		private final Locale locale;
+
+		private final int hash;
+
+		public FormatterKey(String pattern, ZoneId zone, Locale locale) {
+			this.pattern = pattern;
+			this.zone = zone;
+			this.locale = locale;
+			this.hash = Objects.hash(pattern, zone, locale);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj == null || getClass() != obj.getClass())
+				return false;
+			FormatterKey other = (FormatterKey) obj;
+			return Objects.equals(pattern, other.pattern) && Objects.equals(zone, other.zone)
+					&& Objects.equals(locale, other.locale);
+		}
+
+		@Override
+		public String toString() {
+			return "FormatterKey [pattern=" + pattern + ", zone=" + zone + ", locale=" + locale + "]";
+		}
+	}
+
+}
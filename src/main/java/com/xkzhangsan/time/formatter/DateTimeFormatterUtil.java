@@ -5,13 +5,19 @@ import static com.xkzhangsan.time.enums.ZoneIdEnum.CTT;
 import com.xkzhangsan.time.calculator.DateTimeCalculatorUtil;
 import com.xkzhangsan.time.constants.Constant;
 import com.xkzhangsan.time.converter.DateTimeConverterUtil;
+import com.xkzhangsan.time.converter.ZoneRegistry;
 import com.xkzhangsan.time.enums.ChineseDateDigitEnum;
 import com.xkzhangsan.time.enums.CommonTimeEnum;
 import com.xkzhangsan.time.enums.RegexEnum;
 import com.xkzhangsan.time.utils.ArrayUtil;
+import com.xkzhangsan.time.utils.BaseCache;
 import com.xkzhangsan.time.utils.CollectionUtil;
 import com.xkzhangsan.time.utils.StringUtil;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.ParsePosition;
 import java.time.DateTimeException;
 import java.time.Instant;
 import java.time.LocalDate;
@@ -19,14 +25,18 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.time.chrono.IsoChronology;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.ResolverStyle;
 import java.time.temporal.ChronoField;
 import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
 import java.util.Date;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -77,6 +87,22 @@ import java.util.regex.Pattern;
  * 
  * 16.中文日期解析方法，比如parseChineseDateStrToDate(String text)，支持：2021年09月11日 和 二〇二一年九月十一日格式日期解析<br>
  * 
+ * 17.不抛出异常的解析方法，tryParse*，比如tryParseToDate(String text, String dateFormatPattern)，解析失败时返回Optional.empty()，适合校验大量可能不正确的数据<br>
+ * 
+ * 18.区间解析方法，直接解析CharSequence、char[]、ASCII byte[]和ByteBuffer的指定区间，不创建子字符串，比如parseToEpochMilli(byte[] bytes, int offset, int length, DateTimeFormatter formatter)，适合日志和CSV读取<br>
+ * 
+ * 19.格式化写入方法，formatTo*，直接写入StringBuilder、Appendable、byte[]和ByteBuffer，不创建中间字符串，比如formatTo(StringBuilder sb, Date date, DateTimeFormatter formatter)，适合JSON和日志编码<br>
+ * 
+ * 20.缓存最近一秒的格式化器，CachingDateTimeFormatter.of(DateTimeFormatter formatter)，同一秒内只替换毫秒，适合日志等连续格式化当前时间的场景<br>
+ * 
+ * 21.记忆解析器，MemoizingDateTimeParser.of(DateTimeFormatter formatter)，每个线程记住最近解析的秒前缀，同一秒只解析毫秒，适合访问日志、CDC数据等连续解析相近时间的场景<br>
+ * 
+ * 22.根据样本推断格式的解析器，{@code InferredDateTimeParser.infer(List<String> samples)}，用前N行推断模板并编译为定长解析器，同时返回置信度报告，适合接入新的数据文件<br>
+ * 
+ * 23.分隔符文件时间列标准化，DelimitedTimestampNormalizer.csv(int... columns).normalize(Path input, Path output)，按行边界分段、大文件内存映射、并行解析并按原顺序输出，适合每天处理GB级的合作方导出文件<br>
+ * 
+ * 24.日志文件时间索引，LogTimestampIndex.build(Path file, String dateFormatPattern)，内存映射读取行首时间，生成时间戳毫秒值和行起始位置两个long[]，按时间二分查找读取位置，update只索引追加的内容<br>
+ * 
  * 注意：格式化和解析与系统时区不同的时间时，使用自定义时区格式化方法，或可以使用withZone方法重新设置时区，比如：<br>
  * YYYY_MM_DD_HH_MM_SS_SSS_FMT.withZone(ZoneId.of("Europe/Paris")<br>
  *
@@ -103,11 +129,21 @@ public class DateTimeFormatterUtil {
 	 */
     public static final ZoneId SHANGHAI_ZONE = ZoneId.of(SHANGHAI_ZONE_ID);
     
+	/**
+	 * formatTo使用的线程缓冲区，定长模板先写入该缓冲区，不创建中间字符串<br>
+	 * 使用匿名类而不是lambda，类初始化时不需要引导lambda，减少启动耗时
+	 */
+    private static final ThreadLocal<char[]> FORMAT_BUFFER = new ThreadLocal<char[]>() {
+    	@Override
+    	protected char[] initialValue() {
+    		return new char[FixedWidthDateTimeCodec.MAX_LENGTH];
+    	}
+    };
     // ==================================yyyy-MM-dd相关formatters==================================
 	/**
 	 * yyyy-MM-dd 比如：  2020-05-23
 	 */
-    public static final DateTimeFormatter YYYY_MM_DD_FMT = DateTimeFormatter.ofPattern(DateFormatPattern.YYYY_MM_DD).withZone(ZONE);
+    public static final DateTimeFormatter YYYY_MM_DD_FMT = FixedWidthDateTimeCodec.YYYY_MM_DD.bind(DateTimeFormatter.ofPattern(DateFormatPattern.YYYY_MM_DD).withZone(ZONE));
     /**
      * yyyy-M-d 不补0 比如：  2020-5-23
      */
@@ -239,8 +275,6 @@ public class DateTimeFormatterUtil {
 	public static final DateTimeFormatter M_D_CN_FMT = DateTimeFormatter.ofPattern(DateFormatPattern.M_D_CN).withZone(ZONE);
     
     
-	
-	
 	// ==================================HH:mm:ss 相关formatters==================================
 	
 	/**
@@ -316,7 +350,7 @@ public class DateTimeFormatterUtil {
 	/**
 	 * yyyy-MM-dd HH:mm:ss 比如：2020-05-23 17:06:30
 	 */
-    public static final DateTimeFormatter YYYY_MM_DD_HH_MM_SS_FMT = DateTimeFormatter.ofPattern(DateFormatPattern.YYYY_MM_DD_HH_MM_SS).withZone(ZONE);
+    public static final DateTimeFormatter YYYY_MM_DD_HH_MM_SS_FMT = FixedWidthDateTimeCodec.YYYY_MM_DD_HH_MM_SS.bind(DateTimeFormatter.ofPattern(DateFormatPattern.YYYY_MM_DD_HH_MM_SS).withZone(ZONE));
 
 	/**
 	 * yyyy-M-d H:m:s 比如：2020-5-23 17:6:30
@@ -326,7 +360,7 @@ public class DateTimeFormatterUtil {
 	/**
 	 * yyyyMMddHHmmss 比如：20200523170630
 	 */
-    public static final DateTimeFormatter YYYYMMDDHHMMSS_FMT = DateTimeFormatter.ofPattern(DateFormatPattern.YYYYMMDDHHMMSS).withZone(ZONE);
+    public static final DateTimeFormatter YYYYMMDDHHMMSS_FMT = FixedWidthDateTimeCodec.YYYYMMDDHHMMSS.bind(DateTimeFormatter.ofPattern(DateFormatPattern.YYYYMMDDHHMMSS).withZone(ZONE));
     
 	/**
 	 * yyyy/MM/dd HH:mm:ss 比如：2020/05/23 17:06:30
@@ -430,7 +464,7 @@ public class DateTimeFormatterUtil {
 	/**
 	 * yyyy-MM-dd HH:mm:ss.SSS 比如：2020-05-23 17:06:30.272
 	 */
-    public static final DateTimeFormatter YYYY_MM_DD_HH_MM_SS_SSS_FMT = DateTimeFormatter.ofPattern(DateFormatPattern.YYYY_MM_DD_HH_MM_SS_SSS).withZone(ZONE);
+    public static final DateTimeFormatter YYYY_MM_DD_HH_MM_SS_SSS_FMT = FixedWidthDateTimeCodec.YYYY_MM_DD_HH_MM_SS_SSS.bind(DateTimeFormatter.ofPattern(DateFormatPattern.YYYY_MM_DD_HH_MM_SS_SSS).withZone(ZONE));
     
 	/**
 	 * yyyy-MM-dd HH:mm:ss,SSS 比如：2020-05-23 17:06:30,272
@@ -505,7 +539,7 @@ public class DateTimeFormatterUtil {
 	/**
 	 * yyyy-MM-dd'T'HH:mm:ss.SSSXXX 比如：2020-05-23T17:06:30.272+08:00 0时区时末尾 为Z
 	 */
-    public static final DateTimeFormatter YYYY_MM_DD_T_HH_MM_SS_SSS_XXX_Z_FMT = DateTimeFormatter.ofPattern(DateFormatPattern.YYYY_MM_DD_T_HH_MM_SS_SSS_XXX_Z);
+    public static final DateTimeFormatter YYYY_MM_DD_T_HH_MM_SS_SSS_XXX_Z_FMT = FixedWidthDateTimeCodec.YYYY_MM_DD_T_HH_MM_SS_SSS_XXX_Z.bind(DateTimeFormatter.ofPattern(DateFormatPattern.YYYY_MM_DD_T_HH_MM_SS_SSS_XXX_Z));
     
 	/**
 	 * yyyy-MM-dd'T'HH:mm:ss.SSSSSSZ 比如：2020-05-23T17:06:30.272150+0800 2020-05-23T09:06:30.272150+0000
@@ -599,12 +633,22 @@ public class DateTimeFormatterUtil {
 	public static final DateTimeFormatter EEE_MMM_DD_HH_MM_SS_ZZZ_YYYY_FMT = DateTimeFormatter.ofPattern(DateFormatPattern.EEE_MMM_DD_HH_MM_SS_ZZZ_YYYY, Locale.ENGLISH);
 	
     /**
-     * 根据格式化模板返回DateTimeFormatter，默认系统时区
+     * 根据格式化模板返回DateTimeFormatter，默认系统时区，使用缓存，相同模板不会重复编译
      * @param dateFormatPattern 格式化模板
      * @return DateTimeFormatter
      */
     public static DateTimeFormatter getDateTimeFormatter(String dateFormatPattern){
-    	return DateTimeFormatter.ofPattern(dateFormatPattern).withZone(ZONE);
+    	return DateTimeFormatterCache.get(dateFormatPattern, ZONE);
+    }
+    
+    /**
+     * 根据格式化模板和时区返回DateTimeFormatter，使用缓存，相同模板不会重复编译
+     * @param dateFormatPattern 格式化模板
+     * @param zoneId 时区，为空时不设置时区
+     * @return DateTimeFormatter
+     */
+    public static DateTimeFormatter getDateTimeFormatter(String dateFormatPattern, String zoneId){
+    	return DateTimeFormatterCache.get(dateFormatPattern, StringUtil.isNotEmpty(zoneId) ? ZoneRegistry.getZone(zoneId) : null);
     }
 	
 	// ==================================format==================================
@@ -615,7 +659,8 @@ public class DateTimeFormatterUtil {
      * @return String
      */
     public static String formatToDateStr(Date date){
-    	return DateTimeConverterUtil.toLocalDateTime(date).format(YYYY_MM_DD_FMT);
+    	Objects.requireNonNull(date, "date");
+    	return FixedWidthDateTimeCodec.YYYY_MM_DD.format(date.getTime());
     }
     
     /**
@@ -664,9 +709,9 @@ public class DateTimeFormatterUtil {
      * @return String
      */
     public static String formatToDateStr(Date date, String zoneId){
-		return StringUtil.isNotEmpty(zoneId)
-				? DateTimeConverterUtil.toZonedDateTime(date).format(YYYY_MM_DD_FMT.withZone(ZoneId.of(zoneId)))
-				: DateTimeConverterUtil.toZonedDateTime(date).format(YYYY_MM_DD_FMT.withZone(null));
+    	Objects.requireNonNull(date, "date");
+    	return FixedWidthDateTimeCodec.YYYY_MM_DD.format(date.getTime(),
+    			StringUtil.isNotEmpty(zoneId) ? ZoneRegistry.getZone(zoneId) : ZoneId.systemDefault());
     }
     
     /**
@@ -676,7 +721,7 @@ public class DateTimeFormatterUtil {
      */
     public static String formatToDateStr(LocalDateTime localDateTime){
     	Objects.requireNonNull(localDateTime, "localDateTime");
-    	return localDateTime.format(YYYY_MM_DD_FMT);
+    	return FixedWidthDateTimeCodec.YYYY_MM_DD.format(localDateTime);
     }
     
     /**
@@ -687,7 +732,7 @@ public class DateTimeFormatterUtil {
      */
     public static String formatToDateStr(LocalDateTime localDateTime, String zoneId){
     	Objects.requireNonNull(localDateTime, "localDateTime");
-		return StringUtil.isNotEmpty(zoneId) ? localDateTime.format(YYYY_MM_DD_FMT.withZone(ZoneId.of(zoneId)))
+		return StringUtil.isNotEmpty(zoneId) ? localDateTime.format(YYYY_MM_DD_FMT.withZone(ZoneRegistry.getZone(zoneId)))
 				: localDateTime.format(YYYY_MM_DD_FMT.withZone(null));
     }
     
@@ -709,7 +754,7 @@ public class DateTimeFormatterUtil {
      */
     public static String formatToDateStr(ZonedDateTime zonedDateTime, String zoneId){
     	Objects.requireNonNull(zonedDateTime, "zonedDateTime");
-		return StringUtil.isNotEmpty(zoneId) ? zonedDateTime.format(YYYY_MM_DD_FMT.withZone(ZoneId.of(zoneId)))
+		return StringUtil.isNotEmpty(zoneId) ? zonedDateTime.format(YYYY_MM_DD_FMT.withZone(ZoneRegistry.getZone(zoneId)))
 				: zonedDateTime.format(YYYY_MM_DD_FMT.withZone(null));
     }
     
@@ -719,7 +764,8 @@ public class DateTimeFormatterUtil {
      * @return String
      */
     public static String formatToDateTimeStr(Date date){
-    	return DateTimeConverterUtil.toZonedDateTime(date).format(YYYY_MM_DD_HH_MM_SS_FMT);
+    	Objects.requireNonNull(date, "date");
+    	return FixedWidthDateTimeCodec.YYYY_MM_DD_HH_MM_SS.format(date.getTime(), ZONE);
     }
     
     /**
@@ -729,10 +775,9 @@ public class DateTimeFormatterUtil {
      * @return String
      */
     public static String formatToDateTimeStr(Date date, String zoneId){
-		return StringUtil.isNotEmpty(zoneId)
-				? DateTimeConverterUtil.toZonedDateTime(date)
-						.format(YYYY_MM_DD_HH_MM_SS_FMT.withZone(ZoneId.of(zoneId)))
-				: DateTimeConverterUtil.toZonedDateTime(date).format(YYYY_MM_DD_HH_MM_SS_FMT.withZone(null));
+    	Objects.requireNonNull(date, "date");
+    	return FixedWidthDateTimeCodec.YYYY_MM_DD_HH_MM_SS.format(date.getTime(),
+    			StringUtil.isNotEmpty(zoneId) ? ZoneRegistry.getZone(zoneId) : ZoneId.systemDefault());
     }
     
     /**
@@ -742,7 +787,7 @@ public class DateTimeFormatterUtil {
      */
     public static String formatToDateTimeStr(LocalDateTime localDateTime){
     	Objects.requireNonNull(localDateTime, "localDateTime");
-    	return localDateTime.format(YYYY_MM_DD_HH_MM_SS_FMT);
+    	return FixedWidthDateTimeCodec.YYYY_MM_DD_HH_MM_SS.format(localDateTime);
     }
     
     /**
@@ -753,7 +798,7 @@ public class DateTimeFormatterUtil {
      */
     public static String formatToDateTimeStr(LocalDateTime localDateTime, String zoneId){
     	Objects.requireNonNull(localDateTime, "localDateTime");
-		return StringUtil.isNotEmpty(zoneId) ? localDateTime.format(YYYY_MM_DD_HH_MM_SS_FMT.withZone(ZoneId.of(zoneId)))
+		return StringUtil.isNotEmpty(zoneId) ? localDateTime.format(YYYY_MM_DD_HH_MM_SS_FMT.withZone(ZoneRegistry.getZone(zoneId)))
 				: localDateTime.format(YYYY_MM_DD_HH_MM_SS_FMT.withZone(null));
     }
     
@@ -775,7 +820,7 @@ public class DateTimeFormatterUtil {
      */
     public static String formatToDateTimeStr(ZonedDateTime zonedDateTime, String zoneId){
     	Objects.requireNonNull(zonedDateTime, "zonedDateTime");
-		return StringUtil.isNotEmpty(zoneId) ? zonedDateTime.format(YYYY_MM_DD_HH_MM_SS_FMT.withZone(ZoneId.of(zoneId)))
+		return StringUtil.isNotEmpty(zoneId) ? zonedDateTime.format(YYYY_MM_DD_HH_MM_SS_FMT.withZone(ZoneRegistry.getZone(zoneId)))
 				: zonedDateTime.format(YYYY_MM_DD_HH_MM_SS_FMT.withZone(null));
     }
     
@@ -817,7 +862,12 @@ public class DateTimeFormatterUtil {
      */
     public static String format(Date date, String dateFormatPattern){
     	Objects.requireNonNull(dateFormatPattern, "dateFormatPattern");
-    	DateTimeFormatter formatter = DateTimeFormatter.ofPattern(dateFormatPattern).withZone(ZONE);
+    	FixedWidthDateTimeCodec codec = FixedWidthDateTimeCodec.of(dateFormatPattern);
+    	if(codec != null){
+    		Objects.requireNonNull(date, "date");
+    		return codec.format(date.getTime(), ZONE);
+    	}
+    	DateTimeFormatter formatter = getDateTimeFormatter(dateFormatPattern);
     	return format(date, formatter);
     }    
     
@@ -830,14 +880,17 @@ public class DateTimeFormatterUtil {
      */
     public static String format(Date date, DateTimeFormatter formatter, String zoneId){
     	Objects.requireNonNull(formatter, "formatter");
+    	Objects.requireNonNull(date, "date");
     	if(StringUtil.isNotEmpty(zoneId)){
-    		formatter.withZone(ZoneId.of(zoneId));
-    	}else{
-    		formatter.withZone(null);
+    		ZoneId zone = ZoneRegistry.getZone(zoneId);
+    		// 定长formatter常量直接按时区偏移转换表格式化
+    		FixedWidthDateTimeCodec codec = getFixedWidthCodec(formatter);
+    		if(codec != null){
+    			return codec.format(date.getTime(), zone);
+    		}
+    		return DateTimeConverterUtil.toZonedDateTime(date).format(formatter.withZone(zone));
     	}
-		return StringUtil.isNotEmpty(zoneId)
-				? DateTimeConverterUtil.toZonedDateTime(date).format(formatter.withZone(ZoneId.of(zoneId)))
-				: DateTimeConverterUtil.toZonedDateTime(date).format(formatter.withZone(null));
+		return DateTimeConverterUtil.toZonedDateTime(date).format(formatter.withZone(null));
     }
     
     /**
@@ -861,7 +914,16 @@ public class DateTimeFormatterUtil {
     public static String format(LocalDateTime localDateTime, String dateFormatPattern){
     	Objects.requireNonNull(localDateTime, "localDateTime");
     	Objects.requireNonNull(dateFormatPattern, "dateFormatPattern");
-    	DateTimeFormatter formatter = DateTimeFormatter.ofPattern(dateFormatPattern).withZone(ZONE);
+    	FixedWidthDateTimeCodec codec = FixedWidthDateTimeCodec.of(dateFormatPattern);
+    	if(codec != null){
+    		// 和format(LocalDateTime, DateTimeFormatter)一致，按系统默认时区转换，夏令时间隙使用formatter处理
+    		char[] buf = new char[codec.getMaxLength()];
+    		int len = codec.encodeLocalDateTime(localDateTime, ZoneId.systemDefault(), buf, 0);
+    		if(len >= 0){
+    			return new String(buf, 0, len);
+    		}
+    	}
+    	DateTimeFormatter formatter = getDateTimeFormatter(dateFormatPattern);
     	return format(localDateTime, formatter);
     }    
     
@@ -876,8 +938,8 @@ public class DateTimeFormatterUtil {
     	Objects.requireNonNull(localDateTime, "localDateTime");
     	Objects.requireNonNull(formatter, "formatter");
     	
-		return StringUtil.isNotEmpty(zoneId) ? DateTimeConverterUtil.toZonedDateTime(localDateTime).format(formatter.withZone(ZoneId.of(zoneId)))
-				: DateTimeConverterUtil.toZonedDateTime(localDateTime).format(formatter.withZone(ZoneId.of(null)));
+		return StringUtil.isNotEmpty(zoneId) ? DateTimeConverterUtil.toZonedDateTime(localDateTime).format(formatter.withZone(ZoneRegistry.getZone(zoneId)))
+				: DateTimeConverterUtil.toZonedDateTime(localDateTime).format(formatter.withZone(null));
     }
     
     /**
@@ -937,7 +999,7 @@ public class DateTimeFormatterUtil {
     public static String format(ZonedDateTime zonedDateTime, DateTimeFormatter formatter, String zoneId){
     	Objects.requireNonNull(zonedDateTime, "zonedDateTime");
     	Objects.requireNonNull(formatter, "formatter");
-		return StringUtil.isNotEmpty(zoneId) ? zonedDateTime.format(formatter.withZone(ZoneId.of(zoneId)))
+		return StringUtil.isNotEmpty(zoneId) ? zonedDateTime.format(formatter.withZone(ZoneRegistry.getZone(zoneId)))
 				: zonedDateTime.format(formatter.withZone(null));
     }
     
@@ -982,13 +1044,188 @@ public class DateTimeFormatterUtil {
     public static String format(TemporalAccessor temporal, DateTimeFormatter formatter, String zoneId){
     	Objects.requireNonNull(temporal, "temporal");
     	Objects.requireNonNull(formatter, "formatter");
-    	if(StringUtil.isNotEmpty(zoneId)){
-    		formatter.withZone(ZoneId.of(zoneId));
+		return StringUtil.isNotEmpty(zoneId) ? formatter.withZone(ZoneRegistry.getZone(zoneId)).format(temporal)
+				: formatter.withZone(null).format(temporal);
+    }
+    
+    /**
+     * 根据 formatter格式化 date，追加到StringBuilder，不创建中间字符串，结果和format(Date date, DateTimeFormatter formatter)一致<br>
+     * 定长模板比如YYYY_MM_DD_HH_MM_SS_FMT不创建对象
+     * @param sb StringBuilder
+     * @param date Date
+     * @param formatter DateTimeFormatter
+     * @return StringBuilder
+     */
+    public static StringBuilder formatTo(StringBuilder sb, Date date, DateTimeFormatter formatter){
+    	Objects.requireNonNull(sb, "sb");
+    	Objects.requireNonNull(date, "date");
+    	Objects.requireNonNull(formatter, "formatter");
+    	char[] buf = FORMAT_BUFFER.get();
+    	int len = encodeFixedWidth(date, formatter, buf);
+    	if(len >= 0){
+    		sb.append(buf, 0, len);
     	}else{
-    		formatter.withZone(null);
+    		formatter.formatTo(DateTimeConverterUtil.toZonedDateTime(date), sb);
     	}
-		return StringUtil.isNotEmpty(zoneId) ? formatter.withZone(ZoneId.of(zoneId)).format(temporal)
-				: formatter.withZone(null).format(temporal);
+    	return sb;
+    }
+    
+    /**
+     * 根据 formatter格式化 localDateTime，追加到StringBuilder，不创建中间字符串，结果和format(LocalDateTime localDateTime, DateTimeFormatter formatter)一致<br>
+     * 定长模板比如YYYY_MM_DD_HH_MM_SS_FMT不创建对象
+     * @param sb StringBuilder
+     * @param localDateTime LocalDateTime
+     * @param formatter DateTimeFormatter
+     * @return StringBuilder
+     */
+    public static StringBuilder formatTo(StringBuilder sb, LocalDateTime localDateTime, DateTimeFormatter formatter){
+    	Objects.requireNonNull(sb, "sb");
+    	Objects.requireNonNull(localDateTime, "localDateTime");
+    	Objects.requireNonNull(formatter, "formatter");
+    	char[] buf = FORMAT_BUFFER.get();
+    	int len = encodeFixedWidth(localDateTime, formatter, buf);
+    	if(len >= 0){
+    		sb.append(buf, 0, len);
+    	}else{
+    		formatter.formatTo(DateTimeConverterUtil.toZonedDateTime(localDateTime), sb);
+    	}
+    	return sb;
+    }
+    
+    /**
+     * 根据 formatter格式化 date，追加到Appendable，比如Writer、CharBuffer，结果和format(Date date, DateTimeFormatter formatter)一致
+     * @param appendable Appendable
+     * @param date Date
+     * @param formatter DateTimeFormatter
+     * @throws DateTimeException 写入Appendable出现IOException时
+     */
+    public static void formatTo(Appendable appendable, Date date, DateTimeFormatter formatter){
+    	Objects.requireNonNull(appendable, "appendable");
+    	if(appendable instanceof StringBuilder){
+    		formatTo((StringBuilder) appendable, date, formatter);
+    		return;
+    	}
+    	Objects.requireNonNull(date, "date");
+    	Objects.requireNonNull(formatter, "formatter");
+    	char[] buf = FORMAT_BUFFER.get();
+    	int len = encodeFixedWidth(date, formatter, buf);
+    	if(len >= 0){
+    		append(appendable, buf, len);
+    	}else{
+    		formatter.formatTo(DateTimeConverterUtil.toZonedDateTime(date), appendable);
+    	}
+    }
+    
+    /**
+     * 根据 formatter格式化 localDateTime，追加到Appendable，比如Writer、CharBuffer，结果和format(LocalDateTime localDateTime, DateTimeFormatter formatter)一致
+     * @param appendable Appendable
+     * @param localDateTime LocalDateTime
+     * @param formatter DateTimeFormatter
+     * @throws DateTimeException 写入Appendable出现IOException时
+     */
+    public static void formatTo(Appendable appendable, LocalDateTime localDateTime, DateTimeFormatter formatter){
+    	Objects.requireNonNull(appendable, "appendable");
+    	if(appendable instanceof StringBuilder){
+    		formatTo((StringBuilder) appendable, localDateTime, formatter);
+    		return;
+    	}
+    	Objects.requireNonNull(localDateTime, "localDateTime");
+    	Objects.requireNonNull(formatter, "formatter");
+    	char[] buf = FORMAT_BUFFER.get();
+    	int len = encodeFixedWidth(localDateTime, formatter, buf);
+    	if(len >= 0){
+    		append(appendable, buf, len);
+    	}else{
+    		formatter.formatTo(DateTimeConverterUtil.toZonedDateTime(localDateTime), appendable);
+    	}
+    }
+    
+    /**
+     * 根据 formatter格式化 date，以UTF-8编码写入byte[]的offset位置，结果和format(Date date, DateTimeFormatter formatter)一致<br>
+     * 定长模板比如YYYY_MM_DD_HH_MM_SS_FMT不创建对象，数字和分隔符都是ASCII字符，每个字符对应一个字节
+     * @param bytes 目标数组
+     * @param offset 写入起始位置
+     * @param date Date
+     * @param formatter DateTimeFormatter
+     * @return 写入字节数
+     * @throws IndexOutOfBoundsException 剩余空间不足时，不写入任何字节
+     */
+    public static int formatTo(byte[] bytes, int offset, Date date, DateTimeFormatter formatter){
+    	Objects.requireNonNull(bytes, "bytes");
+    	Objects.requireNonNull(date, "date");
+    	Objects.requireNonNull(formatter, "formatter");
+    	char[] buf = FORMAT_BUFFER.get();
+    	int len = encodeFixedWidth(date, formatter, buf);
+    	if(len >= 0){
+    		return putAscii(bytes, offset, buf, len);
+    	}
+    	return putBytes(bytes, offset, format(date, formatter).getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * 根据 formatter格式化 localDateTime，以UTF-8编码写入byte[]的offset位置，结果和format(LocalDateTime localDateTime, DateTimeFormatter formatter)一致<br>
+     * 定长模板比如YYYY_MM_DD_HH_MM_SS_FMT不创建对象，数字和分隔符都是ASCII字符，每个字符对应一个字节
+     * @param bytes 目标数组
+     * @param offset 写入起始位置
+     * @param localDateTime LocalDateTime
+     * @param formatter DateTimeFormatter
+     * @return 写入字节数
+     * @throws IndexOutOfBoundsException 剩余空间不足时，不写入任何字节
+     */
+    public static int formatTo(byte[] bytes, int offset, LocalDateTime localDateTime, DateTimeFormatter formatter){
+    	Objects.requireNonNull(bytes, "bytes");
+    	Objects.requireNonNull(localDateTime, "localDateTime");
+    	Objects.requireNonNull(formatter, "formatter");
+    	char[] buf = FORMAT_BUFFER.get();
+    	int len = encodeFixedWidth(localDateTime, formatter, buf);
+    	if(len >= 0){
+    		return putAscii(bytes, offset, buf, len);
+    	}
+    	return putBytes(bytes, offset, format(localDateTime, formatter).getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * 根据 formatter格式化 date，以UTF-8编码写入ByteBuffer的绝对位置offset，不改变ByteBuffer的position，结果和format(Date date, DateTimeFormatter formatter)一致<br>
+     * 定长模板比如YYYY_MM_DD_HH_MM_SS_FMT不创建对象，数字和分隔符都是ASCII字符，每个字符对应一个字节
+     * @param buffer 目标ByteBuffer
+     * @param offset 绝对位置
+     * @param date Date
+     * @param formatter DateTimeFormatter
+     * @return 写入字节数
+     * @throws IndexOutOfBoundsException 到limit的剩余空间不足时，不写入任何字节
+     */
+    public static int formatTo(ByteBuffer buffer, int offset, Date date, DateTimeFormatter formatter){
+    	Objects.requireNonNull(buffer, "buffer");
+    	Objects.requireNonNull(date, "date");
+    	Objects.requireNonNull(formatter, "formatter");
+    	char[] buf = FORMAT_BUFFER.get();
+    	int len = encodeFixedWidth(date, formatter, buf);
+    	if(len >= 0){
+    		return putAscii(buffer, offset, buf, len);
+    	}
+    	return putBytes(buffer, offset, format(date, formatter).getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * 根据 formatter格式化 localDateTime，以UTF-8编码写入ByteBuffer的绝对位置offset，不改变ByteBuffer的position，结果和format(LocalDateTime localDateTime, DateTimeFormatter formatter)一致<br>
+     * 定长模板比如YYYY_MM_DD_HH_MM_SS_FMT不创建对象，数字和分隔符都是ASCII字符，每个字符对应一个字节
+     * @param buffer 目标ByteBuffer
+     * @param offset 绝对位置
+     * @param localDateTime LocalDateTime
+     * @param formatter DateTimeFormatter
+     * @return 写入字节数
+     * @throws IndexOutOfBoundsException 到limit的剩余空间不足时，不写入任何字节
+     */
+    public static int formatTo(ByteBuffer buffer, int offset, LocalDateTime localDateTime, DateTimeFormatter formatter){
+    	Objects.requireNonNull(buffer, "buffer");
+    	Objects.requireNonNull(localDateTime, "localDateTime");
+    	Objects.requireNonNull(formatter, "formatter");
+    	char[] buf = FORMAT_BUFFER.get();
+    	int len = encodeFixedWidth(localDateTime, formatter, buf);
+    	if(len >= 0){
+    		return putAscii(buffer, offset, buf, len);
+    	}
+    	return putBytes(buffer, offset, format(localDateTime, formatter).getBytes(StandardCharsets.UTF_8));
     }
     
     // ==================================parse==================================
@@ -999,6 +1236,9 @@ public class DateTimeFormatterUtil {
      * @return Date
      */
     public static Date parseDateStrToDate(String text){
+    	if(FixedWidthDateTimeCodec.YYYY_MM_DD.isSupportedLength(text)){
+    		return new Date(FixedWidthDateTimeCodec.YYYY_MM_DD.parseToEpochMilli(text));
+    	}
     	return DateTimeConverterUtil.toDate(LocalDate.parse(text, YYYY_MM_DD_FMT));
     }
     
@@ -1051,6 +1291,9 @@ public class DateTimeFormatterUtil {
      * @return LocalDateTime
      */
     public static LocalDateTime parseDateStrToLocalDateTime(String text){
+    	if(FixedWidthDateTimeCodec.YYYY_MM_DD.isSupportedLength(text)){
+    		return FixedWidthDateTimeCodec.YYYY_MM_DD.parseToLocalDateTime(text);
+    	}
     	return DateTimeConverterUtil.toLocalDateTime(LocalDate.parse(text, YYYY_MM_DD_FMT));
     }
     
@@ -1060,6 +1303,9 @@ public class DateTimeFormatterUtil {
      * @return Instant
      */
     public static Instant parseDateStrToInstant(String text){
+    	if(FixedWidthDateTimeCodec.YYYY_MM_DD.isSupportedLength(text)){
+    		return Instant.ofEpochMilli(FixedWidthDateTimeCodec.YYYY_MM_DD.parseToEpochMilli(text));
+    	}
     	return DateTimeConverterUtil.toInstant(LocalDate.parse(text, YYYY_MM_DD_FMT));
     }
     
@@ -1069,6 +1315,9 @@ public class DateTimeFormatterUtil {
      * @return Date
      */
     public static Date parseDateTimeStrToDate(String text){
+    	if(FixedWidthDateTimeCodec.YYYY_MM_DD_HH_MM_SS.isSupportedLength(text)){
+    		return new Date(FixedWidthDateTimeCodec.YYYY_MM_DD_HH_MM_SS.parseToEpochMilli(text));
+    	}
     	return DateTimeConverterUtil.toDate(DateTimeConverterUtil.toLocalDateTime(YYYY_MM_DD_HH_MM_SS_FMT.parse(text)));
     }
     
@@ -1078,6 +1327,9 @@ public class DateTimeFormatterUtil {
      * @return LocalDateTime
      */
     public static LocalDateTime parseDateTimeStrToLocalDateTime(String text){
+    	if(FixedWidthDateTimeCodec.YYYY_MM_DD_HH_MM_SS.isSupportedLength(text)){
+    		return FixedWidthDateTimeCodec.YYYY_MM_DD_HH_MM_SS.parseToLocalDateTime(text, ZONE);
+    	}
     	return DateTimeConverterUtil.toLocalDateTime(YYYY_MM_DD_HH_MM_SS_FMT.parse(text));
     }
     
@@ -1087,6 +1339,9 @@ public class DateTimeFormatterUtil {
      * @return Instant
      */
     public static Instant parseDateTimeStrToInstant(String text){
+    	if(FixedWidthDateTimeCodec.YYYY_MM_DD_HH_MM_SS.isSupportedLength(text)){
+    		return Instant.ofEpochMilli(FixedWidthDateTimeCodec.YYYY_MM_DD_HH_MM_SS.parseToEpochMilli(text));
+    	}
     	return DateTimeConverterUtil.toInstant(YYYY_MM_DD_HH_MM_SS_FMT.parse(text));
     }
     
@@ -1098,6 +1353,10 @@ public class DateTimeFormatterUtil {
      */
     public static Date parseToDate(String text, DateTimeFormatter formatter){
     	Objects.requireNonNull(formatter, "formatter");
+    	FixedWidthDateTimeCodec codec = getFixedWidthCodec(text, formatter);
+    	if(codec != null){
+    		return parseToDate(text, codec);
+    	}
     	Date date = null;
     	try {
     		date = DateTimeConverterUtil.toDate(DateTimeConverterUtil.toLocalDateTime(formatter.parse(text)));
@@ -1119,7 +1378,12 @@ public class DateTimeFormatterUtil {
      */
 	public static Date parseToDate(String text, String dateFormatPattern) {
 		Objects.requireNonNull(dateFormatPattern, "dateFormatPattern");
-		DateTimeFormatter formatter = DateTimeFormatter.ofPattern(dateFormatPattern).withZone(ZONE);
+		FixedWidthDateTimeCodec codec = FixedWidthDateTimeCodec.of(dateFormatPattern);
+		if(codec != null && codec.isSupportedLength(text)){
+			// 和getDateTimeFormatter一致，包含时区偏移时转换为系统默认时区时间
+			return new Date(codec.parseToEpochMilli(text));
+		}
+		DateTimeFormatter formatter = getDateTimeFormatter(dateFormatPattern);
 		return parseToDate(text, formatter);
 	}
 	
@@ -1130,22 +1394,7 @@ public class DateTimeFormatterUtil {
      * @return Date
      */
 	public static Date parseToDate(String text, String[] dateFormatPatterns) {
-		Date result = null;
-		if(ArrayUtil.isEmpty(dateFormatPatterns)){
-			return result;
-		}
-		for(String dateFormatPattern : dateFormatPatterns){
-			if(StringUtil.isNotEmpty(dateFormatPattern)){
-				try {
-					result = parseToDate(text, dateFormatPattern);
-					if(result != null){
-						break;
-					}
-				} catch (Exception e) {
-				}
-			}
-		}
-		return result;
+		return tryParseToDate(text, dateFormatPatterns).orElse(null);
 	}
     
     /**
@@ -1156,17 +1405,11 @@ public class DateTimeFormatterUtil {
      */
     public static LocalDateTime parseToLocalDateTime(String text, DateTimeFormatter formatter){
     	Objects.requireNonNull(formatter, "formatter");
-    	LocalDateTime localDateTime = null;
-    	try {
-    		localDateTime = DateTimeConverterUtil.toLocalDateTime(formatter.parse(text));
-		} catch (DateTimeException e) {
-			if(e.getMessage().startsWith(Constant.PARSE_LOCAL_DATE_EXCEPTION)){
-				localDateTime = DateTimeConverterUtil.toLocalDateTime(LocalDate.parse(text, formatter));
-			}else{
-				throw e;
-			}
-		}
-    	return localDateTime;
+    	FixedWidthDateTimeCodec codec = getFixedWidthCodec(text, formatter);
+    	if(codec != null){
+    		return codec.parseToLocalDateTime(text, formatter.getZone());
+    	}
+    	return parseLocalDateTime(text, formatter);
     }
     
     /**
@@ -1177,7 +1420,15 @@ public class DateTimeFormatterUtil {
      */
     public static LocalDateTime parseToLocalDateTime(String text, String dateFormatPattern){
     	Objects.requireNonNull(dateFormatPattern, "dateFormatPattern");
-    	DateTimeFormatter formatter = DateTimeFormatter.ofPattern(dateFormatPattern).withZone(ZONE);
+    	FixedWidthDateTimeCodec codec = FixedWidthDateTimeCodec.of(dateFormatPattern);
+    	if(codec != null && codec.isSupportedLength(text)){
+    		// 和getDateTimeFormatter一致，包含时区偏移时转换为系统默认时区时间
+    		if (codec.hasOffset()) {
+    			return LocalDateTime.ofInstant(Instant.ofEpochMilli(codec.parseToEpochMilli(text)), ZONE);
+    		}
+    		return codec.parseToLocalDateTime(text, ZONE);
+    	}
+    	DateTimeFormatter formatter = getDateTimeFormatter(dateFormatPattern);
     	return parseToLocalDateTime(text, formatter);
     }
     
@@ -1188,22 +1439,7 @@ public class DateTimeFormatterUtil {
      * @return LocalDateTime
      */
 	public static LocalDateTime parseToLocalDateTime(String text, String[] dateFormatPatterns) {
-		LocalDateTime result = null;
-		if(ArrayUtil.isEmpty(dateFormatPatterns)){
-			return result;
-		}
-		for(String dateFormatPattern : dateFormatPatterns){
-			if(StringUtil.isNotEmpty(dateFormatPattern)){
-				try {
-					result = parseToLocalDateTime(text, dateFormatPattern);
-					if(result != null){
-						break;
-					}
-				} catch (Exception e) {
-				}
-			}
-		}
-		return result;
+		return tryParseToLocalDateTime(text, dateFormatPatterns).orElse(null);
 	}
     
     /**
@@ -1236,6 +1472,118 @@ public class DateTimeFormatterUtil {
     public static ZonedDateTime parseToZonedDateTime(String text, DateTimeFormatter formatter){
     	return ZonedDateTime.parse(text, formatter);
     }
+
+    /**
+     * 根据 formatter解析CharSequence的[start, end)区间为时间戳毫秒值，不创建子字符串，结果和parseToDate(String text, DateTimeFormatter formatter).getTime()一致
+     * @param text 待解析字符序列，比如StringBuilder、CharBuffer
+     * @param start 起始位置
+     * @param end 结束位置
+     * @param formatter DateTimeFormatter
+     * @return 时间戳毫秒值
+     */
+    public static long parseToEpochMilli(CharSequence text, int start, int end, DateTimeFormatter formatter){
+    	Objects.requireNonNull(formatter, "formatter");
+    	CharSequenceView.checkRange(text, start, end);
+    	FixedWidthDateTimeCodec codec = getFixedWidthCodec(end - start, formatter);
+    	if(codec != null){
+    		return parseToEpochMilli(text, start, end, codec);
+    	}
+    	return parseLocalDateTime(CharSequenceView.of(text, start, end), formatter).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    /**
+     * 根据 formatter解析CharSequence的[start, end)区间为 LocalDateTime，不创建子字符串，结果和parseToLocalDateTime(String text, DateTimeFormatter formatter)一致
+     * @param text 待解析字符序列，比如StringBuilder、CharBuffer
+     * @param start 起始位置
+     * @param end 结束位置
+     * @param formatter DateTimeFormatter
+     * @return LocalDateTime
+     */
+    public static LocalDateTime parseToLocalDateTime(CharSequence text, int start, int end, DateTimeFormatter formatter){
+    	Objects.requireNonNull(formatter, "formatter");
+    	CharSequenceView.checkRange(text, start, end);
+    	FixedWidthDateTimeCodec codec = getFixedWidthCodec(end - start, formatter);
+    	if(codec != null){
+    		return codec.toLocalDateTime(codec.decodeLocalMilli(text, start, end), formatter.getZone());
+    	}
+    	return parseLocalDateTime(CharSequenceView.of(text, start, end), formatter);
+    }
+    
+    /**
+     * 根据 formatter解析char[]中从offset开始，长度为length的区间为时间戳毫秒值，不创建字符串
+     * @param chars 字符数组
+     * @param offset 起始位置
+     * @param length 长度
+     * @param formatter DateTimeFormatter
+     * @return 时间戳毫秒值
+     */
+    public static long parseToEpochMilli(char[] chars, int offset, int length, DateTimeFormatter formatter){
+    	return parseToEpochMilli(CharSequenceView.of(chars, offset, length), 0, length, formatter);
+    }
+    
+    /**
+     * 根据 formatter解析char[]中从offset开始，长度为length的区间为 LocalDateTime，不创建字符串
+     * @param chars 字符数组
+     * @param offset 起始位置
+     * @param length 长度
+     * @param formatter DateTimeFormatter
+     * @return LocalDateTime
+     */
+    public static LocalDateTime parseToLocalDateTime(char[] chars, int offset, int length, DateTimeFormatter formatter){
+    	return parseToLocalDateTime(CharSequenceView.of(chars, offset, length), 0, length, formatter);
+    }
+    
+    /**
+     * 根据 formatter解析ASCII编码的byte[]中从offset开始，长度为length的区间为时间戳毫秒值，不创建字符串<br>
+     * 每个字节对应一个字符，包含中文等多字节字符时请先转换为String
+     * @param bytes ASCII字节数组
+     * @param offset 起始位置
+     * @param length 长度
+     * @param formatter DateTimeFormatter
+     * @return 时间戳毫秒值
+     */
+    public static long parseToEpochMilli(byte[] bytes, int offset, int length, DateTimeFormatter formatter){
+    	return parseToEpochMilli(CharSequenceView.of(bytes, offset, length), 0, length, formatter);
+    }
+    
+    /**
+     * 根据 formatter解析ASCII编码的byte[]中从offset开始，长度为length的区间为 LocalDateTime，不创建字符串<br>
+     * 每个字节对应一个字符，包含中文等多字节字符时请先转换为String
+     * @param bytes ASCII字节数组
+     * @param offset 起始位置
+     * @param length 长度
+     * @param formatter DateTimeFormatter
+     * @return LocalDateTime
+     */
+    public static LocalDateTime parseToLocalDateTime(byte[] bytes, int offset, int length, DateTimeFormatter formatter){
+    	return parseToLocalDateTime(CharSequenceView.of(bytes, offset, length), 0, length, formatter);
+    }
+    
+    /**
+     * 根据 formatter解析ASCII编码的ByteBuffer中从绝对位置offset开始，长度为length的区间为时间戳毫秒值，不创建字符串，不改变ByteBuffer的position<br>
+     * 每个字节对应一个字符，包含中文等多字节字符时请先转换为String
+     * @param buffer ASCII ByteBuffer，支持堆外内存和MappedByteBuffer
+     * @param offset 绝对位置
+     * @param length 长度
+     * @param formatter DateTimeFormatter
+     * @return 时间戳毫秒值
+     */
+    public static long parseToEpochMilli(ByteBuffer buffer, int offset, int length, DateTimeFormatter formatter){
+    	return parseToEpochMilli(CharSequenceView.of(buffer, offset, length), 0, length, formatter);
+    }
+    
+    /**
+     * 根据 formatter解析ASCII编码的ByteBuffer中从绝对位置offset开始，长度为length的区间为 LocalDateTime，不创建字符串，不改变ByteBuffer的position<br>
+     * 每个字节对应一个字符，包含中文等多字节字符时请先转换为String
+     * @param buffer ASCII ByteBuffer，支持堆外内存和MappedByteBuffer
+     * @param offset 绝对位置
+     * @param length 长度
+     * @param formatter DateTimeFormatter
+     * @return LocalDateTime
+     */
+    public static LocalDateTime parseToLocalDateTime(ByteBuffer buffer, int offset, int length, DateTimeFormatter formatter){
+    	return parseToLocalDateTime(CharSequenceView.of(buffer, offset, length), 0, length, formatter);
+    }
     
     
 	/**
@@ -1326,14 +1674,28 @@ public class DateTimeFormatterUtil {
 			throw new DateTimeException("text is null");
 		}
 		
-		text = text.trim();
-		int len = text.length();
+		//去除首尾空白，和trim()一致，不创建新字符串
+		int start = 0;
+		int end = text.length();
+		while (start < end && text.charAt(start) <= ' ') {
+			start++;
+		}
+		while (start < end && text.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		int len = end - start;
 		if(len < 8){
-			throw new DateTimeException("text is not supported! " + text);
+			throw new DateTimeException("text is not supported! " + text.trim());
+		}
+		
+		//常用格式一次扫描直接解析
+		long localMilli = SmartDateTimeLexer.parseLocalMilli(text, start, end, ZONE);
+		if (localMilli != SmartDateTimeLexer.UNSUPPORTED) {
+			return FixedWidthDateTimeCodec.toLocalDateTime(localMilli);
 		}
 		
 		//预处理待解析字符串
-		text = preprocessText(text);
+		text = preprocessText(text.trim());
 
 		// 2.解析字符串
 		// 2.1 Date 默认格式 EEE MMM dd HH:mm:ss zzz yyyy 如：Thu May 21 22:58:05 CST
@@ -1558,18 +1920,169 @@ public class DateTimeFormatterUtil {
 		return parseToLocalDateTime(text, DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_SSSSSSSSS_FMT);
 	}
 	
+	/**
+	 * 尝试根据 formatter解析为 LocalDateTime，解析失败时返回Optional.empty()，不抛出异常<br>
+	 * 先使用parseUnresolved校验格式和字段范围，适合校验或解析大量可能不正确的数据，避免创建异常的开销
+	 * @param text 待解析字符串，可以为null
+	 * @param formatter DateTimeFormatter
+	 * @return Optional&lt;LocalDateTime&gt;
+	 */
+	public static Optional<LocalDateTime> tryParseToLocalDateTime(String text, DateTimeFormatter formatter){
+		Objects.requireNonNull(formatter, "formatter");
+		if(text == null){
+			return Optional.empty();
+		}
+		FixedWidthDateTimeCodec codec = getFixedWidthCodec(text, formatter);
+		if(codec != null){
+			long localMilli = codec.tryDecodeLocalMilli(text, 0, text.length());
+			return localMilli == FixedWidthDateTimeCodec.INVALID ? Optional.empty()
+					: Optional.of(codec.toLocalDateTime(localMilli, formatter.getZone()));
+		}
+		return Optional.ofNullable(tryParseLocalDateTime(text, formatter));
+	}
+	
+	/**
+	 * 尝试根据 formatter解析为 Date，解析失败时返回Optional.empty()，不抛出异常
+	 * @param text 待解析字符串，可以为null
+	 * @param formatter DateTimeFormatter
+	 * @return Optional&lt;Date&gt;
+	 */
+	public static Optional<Date> tryParseToDate(String text, DateTimeFormatter formatter){
+		Objects.requireNonNull(formatter, "formatter");
+		if(text == null){
+			return Optional.empty();
+		}
+		FixedWidthDateTimeCodec codec = getFixedWidthCodec(text, formatter);
+		if(codec != null && !codec.hasOffset()){
+			long epochMilli = codec.tryDecodeEpochMilli(text, 0, text.length(), ZoneId.systemDefault());
+			return epochMilli == FixedWidthDateTimeCodec.INVALID ? Optional.empty() : Optional.of(new Date(epochMilli));
+		}
+		return tryParseToLocalDateTime(text, formatter).map(DateTimeConverterUtil::toDate);
+	}
+	
+	/**
+	 * 尝试根据模板解析为 LocalDateTime，解析失败时返回Optional.empty()，不抛出异常
+	 * @param text 待解析字符串，可以为null
+	 * @param dateFormatPattern 自定义格式化模板
+	 * @return Optional&lt;LocalDateTime&gt;
+	 */
+	public static Optional<LocalDateTime> tryParseToLocalDateTime(String text, String dateFormatPattern){
+		Objects.requireNonNull(dateFormatPattern, "dateFormatPattern");
+		if(text == null){
+			return Optional.empty();
+		}
+		FixedWidthDateTimeCodec codec = FixedWidthDateTimeCodec.of(dateFormatPattern);
+		if(codec != null && codec.isSupportedLength(text)){
+			return Optional.ofNullable(tryParseLocalDateTime(text, codec, null));
+		}
+		return Optional.ofNullable(tryParseLocalDateTime(text, getDateTimeFormatter(dateFormatPattern)));
+	}
+	
+	/**
+	 * 尝试根据模板解析为 Date，解析失败时返回Optional.empty()，不抛出异常
+	 * @param text 待解析字符串，可以为null
+	 * @param dateFormatPattern 自定义格式化模板
+	 * @return Optional&lt;Date&gt;
+	 */
+	public static Optional<Date> tryParseToDate(String text, String dateFormatPattern){
+		Objects.requireNonNull(dateFormatPattern, "dateFormatPattern");
+		if(text == null){
+			return Optional.empty();
+		}
+		FixedWidthDateTimeCodec codec = FixedWidthDateTimeCodec.of(dateFormatPattern);
+		if(codec != null && codec.isSupportedLength(text)){
+			long epochMilli = codec.tryDecodeEpochMilli(text, 0, text.length(), ZoneId.systemDefault());
+			return epochMilli == FixedWidthDateTimeCodec.INVALID ? Optional.empty() : Optional.of(new Date(epochMilli));
+		}
+		return Optional.ofNullable(tryParseLocalDateTime(text, getDateTimeFormatter(dateFormatPattern)))
+				.map(DateTimeConverterUtil::toDate);
+	}
+	
+	/**
+	 * 尝试根据自定义模板数组解析为 LocalDateTime，按顺序使用模板解析，返回第一个解析成功的结果，都失败时返回Optional.empty()
+	 * @param text 待解析字符串，可以为null
+	 * @param dateFormatPatterns 自定义格式化模板数组
+	 * @return Optional&lt;LocalDateTime&gt;
+	 */
+	public static Optional<LocalDateTime> tryParseToLocalDateTime(String text, String[] dateFormatPatterns){
+		if(text == null || ArrayUtil.isEmpty(dateFormatPatterns)){
+			return Optional.empty();
+		}
+		for(String dateFormatPattern : dateFormatPatterns){
+			if(isValidPattern(dateFormatPattern)){
+				Optional<LocalDateTime> result = tryParseToLocalDateTime(text, dateFormatPattern);
+				if(result.isPresent()){
+					return result;
+				}
+			}
+		}
+		return Optional.empty();
+	}
+	
+	/**
+	 * 尝试根据自定义模板数组解析为 Date，按顺序使用模板解析，返回第一个解析成功的结果，都失败时返回Optional.empty()
+	 * @param text 待解析字符串，可以为null
+	 * @param dateFormatPatterns 自定义格式化模板数组
+	 * @return Optional&lt;Date&gt;
+	 */
+	public static Optional<Date> tryParseToDate(String text, String[] dateFormatPatterns){
+		if(text == null || ArrayUtil.isEmpty(dateFormatPatterns)){
+			return Optional.empty();
+		}
+		for(String dateFormatPattern : dateFormatPatterns){
+			if(isValidPattern(dateFormatPattern)){
+				Optional<Date> result = tryParseToDate(text, dateFormatPattern);
+				if(result.isPresent()){
+					return result;
+				}
+			}
+		}
+		return Optional.empty();
+	}
+	
+	/**
+	 * 尝试解析日期yyyy-MM-dd，返回Date，解析失败时返回Optional.empty()
+	 * @param text yyyy-MM-dd，可以为null
+	 * @return Optional&lt;Date&gt;
+	 */
+	public static Optional<Date> tryParseDateStrToDate(String text){
+		return tryParseToDate(text, YYYY_MM_DD_FMT);
+	}
+	
+	/**
+	 * 尝试解析日期yyyy-MM-dd，返回LocalDateTime，解析失败时返回Optional.empty()
+	 * @param text yyyy-MM-dd，可以为null
+	 * @return Optional&lt;LocalDateTime&gt;
+	 */
+	public static Optional<LocalDateTime> tryParseDateStrToLocalDateTime(String text){
+		return tryParseToLocalDateTime(text, YYYY_MM_DD_FMT);
+	}
+	
+	/**
+	 * 尝试解析日期yyyy-MM-dd HH:mm:ss，返回Date，解析失败时返回Optional.empty()
+	 * @param text yyyy-MM-dd HH:mm:ss，可以为null
+	 * @return Optional&lt;Date&gt;
+	 */
+	public static Optional<Date> tryParseDateTimeStrToDate(String text){
+		return tryParseToDate(text, YYYY_MM_DD_HH_MM_SS_FMT);
+	}
+	
+	/**
+	 * 尝试解析日期yyyy-MM-dd HH:mm:ss，返回LocalDateTime，解析失败时返回Optional.empty()
+	 * @param text yyyy-MM-dd HH:mm:ss，可以为null
+	 * @return Optional&lt;LocalDateTime&gt;
+	 */
+	public static Optional<LocalDateTime> tryParseDateTimeStrToLocalDateTime(String text){
+		return tryParseToLocalDateTime(text, YYYY_MM_DD_HH_MM_SS_FMT);
+	}
+	
 	/**
 	 * 验证日期格式是否正确
 	 * @param text yyyy-MM-dd 格式
 	 * @return 正确返回true，不正确返回false
 	 */
 	public static boolean isValidDate(String text){
-		try {
-			parseDateStrToDate(text);
-			return true;
-		} catch (Exception e) {
-			return false;
-		}
+		return tryParseDateStrToDate(text).isPresent();
 	}
 	
 	/**
@@ -1578,12 +2091,7 @@ public class DateTimeFormatterUtil {
 	 * @return 正确返回true，不正确返回false
 	 */
 	public static boolean isValidDateTime(String text){
-		try {
-			parseDateTimeStrToDate(text);
-			return true;
-		} catch (Exception e) {
-			return false;
-		}
+		return tryParseDateTimeStrToDate(text).isPresent();
 	}
 
 	/**
@@ -1664,6 +2172,386 @@ public class DateTimeFormatterUtil {
 	
 	// ==================================private method==================================
 
+	/**
+	 * 解析时需要预先校验范围的字段，超出范围时DateTimeFormatter在SMART和STRICT模式下解析失败<br>
+	 * 不包含OFFSET_SECONDS，只有日期时解析不使用时区偏移，超出范围也能解析成功，由解析过程判断
+	 */
+	private static final ChronoField[] RESOLVE_CHECK_FIELDS = { ChronoField.YEAR_OF_ERA, ChronoField.YEAR,
+			ChronoField.MONTH_OF_YEAR, ChronoField.DAY_OF_MONTH, ChronoField.HOUR_OF_DAY, ChronoField.MINUTE_OF_HOUR,
+			ChronoField.SECOND_OF_MINUTE, ChronoField.MILLI_OF_SECOND, ChronoField.NANO_OF_SECOND };
+
+	/**
+	 * 只包含年月日时分秒数字和固定字符的模板，如：yyyy-MM-dd HH:mm:ss.SSS，toString()格式
+	 */
+	private static final Pattern DIRECT_RESOLVE_PATTERN = Pattern.compile(
+			"(?:Value\\((?:YearOfEra|Year|MonthOfYear|DayOfMonth|HourOfDay|MinuteOfHour|SecondOfMinute)(?:,\\d+)*(?:,[A-Z_]+)?\\)"
+					+ "|Fraction\\(NanoOfSecond,\\d+,\\d+(?:,DecimalPoint)?\\)|'(?:[^']|'')*')+");
+
+	/**
+	 * formatter是否可以直接使用parseUnresolved结果计算
+	 */
+	private static final BaseCache<DateTimeFormatter, Boolean> DIRECT_RESOLVE_CACHE = new BaseCache<>();
+
+	/**
+	 * resolveUnresolved不支持的字段组合，需要完整解析
+	 */
+	private static final LocalDateTime DIRECT_RESOLVE_UNSUPPORTED = LocalDateTime.MIN;
+
+    /**
+     * 使用formatter解析为LocalDateTime，解析失败返回null<br>
+     * 先使用parseUnresolved校验格式，再预先校验字段范围，大部分错误数据不会创建异常<br>
+     * 只包含年月日时分秒的SMART模式模板，直接按DateTimeFormatter的规则计算parseUnresolved结果，只解析一次，
+     * 其他模板再使用parseObject完整解析
+     * @param text 待解析字符串
+     * @param formatter DateTimeFormatter
+     * @return LocalDateTime，解析失败返回null
+     */
+    private static LocalDateTime tryParseLocalDateTime(CharSequence text, DateTimeFormatter formatter) {
+    	ParsePosition position = new ParsePosition(0);
+    	TemporalAccessor unresolved = null;
+    	try {
+    		unresolved = formatter.parseUnresolved(text, position);
+		} catch (DateTimeException e) {
+			// 时区偏移超出范围时parseUnresolved会抛出异常
+			return null;
+		}
+    	if (unresolved == null || position.getErrorIndex() >= 0 || position.getIndex() != text.length()
+    			|| !isValidUnresolved(unresolved, formatter.getResolverStyle())) {
+    		return null;
+    	}
+    	if (isDirectResolvable(formatter)) {
+    		LocalDateTime localDateTime = resolveUnresolved(unresolved, formatter.getZone());
+    		if (localDateTime != DIRECT_RESOLVE_UNSUPPORTED) {
+    			return localDateTime;
+    		}
+    	}
+    	// parseObject解析失败时返回null，不抛出异常
+    	TemporalAccessor temporal = (TemporalAccessor) formatter.toFormat().parseObject(text.toString(), new ParsePosition(0));
+    	if (temporal == null) {
+    		return null;
+    	}
+    	// 和parseToLocalDateTime(String, DateTimeFormatter)一致，先转换为ZonedDateTime，不支持时取日期部分
+    	LocalDate localDate = temporal.query(TemporalQueries.localDate());
+    	if (!temporal.isSupported(ChronoField.INSTANT_SECONDS) && temporal.isSupported(ChronoField.OFFSET_SECONDS)
+    			&& !ChronoField.OFFSET_SECONDS.range().isValidValue(temporal.getLong(ChronoField.OFFSET_SECONDS))) {
+    		// 只有日期时不使用超出范围的时区偏移，查询时区会抛出异常，Java 8有时间时不使用偏移，按formatter时区计算为INSTANT_SECONDS
+    		return localDate != null ? localDate.atStartOfDay() : null;
+    	}
+    	ZoneId zone = temporal.query(TemporalQueries.zone());
+    	if (zone != null && (temporal.isSupported(ChronoField.INSTANT_SECONDS)
+    			|| (localDate != null && temporal.query(TemporalQueries.localTime()) != null))) {
+    		return ZonedDateTime.from(temporal).toLocalDateTime();
+    	}
+    	return localDate != null ? localDate.atStartOfDay() : null;
+    }
+
+    /**
+     * formatter是否为只包含年月日时分秒的SMART模式模板，ISO日历，设置了时区，没有指定resolverFields
+     * @param formatter DateTimeFormatter
+     * @return boolean
+     */
+    private static boolean isDirectResolvable(DateTimeFormatter formatter) {
+    	return DIRECT_RESOLVE_CACHE.get(formatter, () -> formatter.getResolverStyle() == ResolverStyle.SMART
+    			&& (formatter.getChronology() == null || formatter.getChronology() == IsoChronology.INSTANCE)
+    			&& formatter.getResolverFields() == null && formatter.getZone() != null
+    			&& DIRECT_RESOLVE_PATTERN.matcher(formatter.toString()).matches());
+    }
+
+    /**
+     * 按DateTimeFormatter SMART模式的规则计算parseUnresolved结果：<br>
+     * 1.只有年份没有纪元时年份作为YEAR，日超过当月天数时取当月最后一天。<br>
+     * 2.24:00:00.000为第二天0点，24点其他时间解析失败。<br>
+     * 3.有时间时和ZonedDateTime.from一致，按时区调整，只有日期时取当天0点。
+     * @param unresolved parseUnresolved结果，字段范围已校验
+     * @param zone formatter时区
+     * @return LocalDateTime，解析失败返回null，字段组合不支持时返回DIRECT_RESOLVE_UNSUPPORTED
+     */
+    private static LocalDateTime resolveUnresolved(TemporalAccessor unresolved, ZoneId zone) {
+    	boolean hasYearOfEra = unresolved.isSupported(ChronoField.YEAR_OF_ERA);
+    	if (hasYearOfEra == unresolved.isSupported(ChronoField.YEAR)
+    			|| !unresolved.isSupported(ChronoField.MONTH_OF_YEAR) || !unresolved.isSupported(ChronoField.DAY_OF_MONTH)) {
+    		return DIRECT_RESOLVE_UNSUPPORTED;
+    	}
+    	// 时间字段需要从小时开始连续，如：HH、HH:mm、HH:mm:ss、HH:mm:ss.SSS
+    	ChronoField[] timeFields = { ChronoField.HOUR_OF_DAY, ChronoField.MINUTE_OF_HOUR, ChronoField.SECOND_OF_MINUTE,
+    			ChronoField.NANO_OF_SECOND };
+    	long[] timeValues = new long[timeFields.length];
+    	int timeCount = 0;
+    	while (timeCount < timeFields.length && unresolved.isSupported(timeFields[timeCount])) {
+    		timeValues[timeCount] = unresolved.getLong(timeFields[timeCount]);
+    		timeCount++;
+    	}
+    	for (int i = timeCount; i < timeFields.length; i++) {
+    		if (unresolved.isSupported(timeFields[i])) {
+    			return DIRECT_RESOLVE_UNSUPPORTED;
+    		}
+    	}
+    	long year = unresolved.getLong(hasYearOfEra ? ChronoField.YEAR_OF_ERA : ChronoField.YEAR);
+    	if (!ChronoField.YEAR.range().isValidValue(year)) {
+    		// 年份超过999999999
+    		return null;
+    	}
+    	int month = (int) unresolved.getLong(ChronoField.MONTH_OF_YEAR);
+    	int day = (int) unresolved.getLong(ChronoField.DAY_OF_MONTH);
+    	LocalDate localDate = LocalDate.of((int) year, month, 1);
+    	localDate = localDate.withDayOfMonth(Math.min(day, localDate.lengthOfMonth()));
+    	if (timeCount == 0) {
+    		return localDate.atStartOfDay();
+    	}
+    	if (timeValues[0] == 24) {
+    		if ((timeValues[1] | timeValues[2] | timeValues[3]) != 0 || localDate.equals(LocalDate.MAX)) {
+    			return null;
+    		}
+    		localDate = localDate.plusDays(1);
+    		timeValues[0] = 0;
+    	}
+    	LocalDateTime localDateTime = localDate.atTime((int) timeValues[0], (int) timeValues[1], (int) timeValues[2],
+    			(int) timeValues[3]);
+    	return localDateTime.atZone(zone).toLocalDateTime();
+    }
+    
+    /**
+     * 使用模板对应的定长编解码器或formatter解析为LocalDateTime，和tryParseToLocalDateTime(String, String)一致，解析失败返回null
+     * @param text 待解析字符串
+     * @param codec 模板对应的定长编解码器，可以为null
+     * @param formatter 模板对应的formatter，codec支持text长度时可以为null
+     * @return LocalDateTime，解析失败返回null
+     */
+    static LocalDateTime tryParseLocalDateTime(CharSequence text, FixedWidthDateTimeCodec codec, DateTimeFormatter formatter) {
+    	if (codec != null && codec.isSupportedLength(text)) {
+    		// 和getDateTimeFormatter一致，包含时区偏移时转换为系统默认时区时间
+    		if (codec.hasOffset()) {
+    			long epochMilli = codec.tryDecodeEpochMilli(text, 0, text.length(), null);
+    			return epochMilli == FixedWidthDateTimeCodec.INVALID ? null
+    					: LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), ZONE);
+    		}
+    		long localMilli = codec.tryDecodeLocalMilli(text, 0, text.length());
+    		return localMilli == FixedWidthDateTimeCodec.INVALID ? null : codec.toLocalDateTime(localMilli, ZONE);
+    	}
+    	return tryParseLocalDateTime(text, formatter);
+    }
+    
+    /**
+     * 校验未解析的字段范围，SMART模式下 24:00 为第二天0点
+     * @param unresolved parseUnresolved结果
+     * @param resolverStyle ResolverStyle
+     * @return 字段范围是否正确
+     */
+    private static boolean isValidUnresolved(TemporalAccessor unresolved, ResolverStyle resolverStyle) {
+    	if (resolverStyle == ResolverStyle.LENIENT) {
+    		return true;
+    	}
+    	// 和DateTimeFormatter一致，有小时但分秒不连续时，如：HH:ss，不组合为时间，也不校验时间字段
+    	boolean hasMinute = unresolved.isSupported(ChronoField.MINUTE_OF_HOUR);
+    	boolean hasSecond = unresolved.isSupported(ChronoField.SECOND_OF_MINUTE);
+    	boolean hasNano = unresolved.isSupported(ChronoField.NANO_OF_SECOND)
+    			|| unresolved.isSupported(ChronoField.MILLI_OF_SECOND);
+    	boolean checkTime = !unresolved.isSupported(ChronoField.HOUR_OF_DAY)
+    			|| !((!hasMinute && (hasSecond || hasNano)) || (hasMinute && !hasSecond && hasNano));
+    	for (ChronoField field : RESOLVE_CHECK_FIELDS) {
+    		if (unresolved.isSupported(field) && (checkTime || field.isDateBased())) {
+    			long value = unresolved.getLong(field);
+    			if (!field.range().isValidValue(value) && !(field == ChronoField.HOUR_OF_DAY && value == 24
+    					&& resolverStyle == ResolverStyle.SMART)) {
+    				return false;
+    			}
+    		}
+    	}
+    	return true;
+    }
+    
+    /**
+     * 模板是否可用，模板错误时和parseToDate(String text, String[] dateFormatPatterns)原有方式一致，跳过该模板
+     * @param dateFormatPattern 自定义格式化模板
+     * @return boolean
+     */
+    private static boolean isValidPattern(String dateFormatPattern) {
+    	if (StringUtil.isEmpty(dateFormatPattern)) {
+    		return false;
+    	}
+    	if (FixedWidthDateTimeCodec.of(dateFormatPattern) != null) {
+    		return true;
+    	}
+    	try {
+    		getDateTimeFormatter(dateFormatPattern);
+    		return true;
+    	} catch (IllegalArgumentException e) {
+    		return false;
+    	}
+    }
+
+    /**
+     * 获取formatter对应的定长编解码器，仅支持本类中定义的formatter，并且text长度符合时返回
+     * @param text 待解析字符串
+     * @param formatter DateTimeFormatter
+     * @return 定长编解码器，不支持时返回null
+     */
+    private static FixedWidthDateTimeCodec getFixedWidthCodec(String text, DateTimeFormatter formatter) {
+    	return text == null ? null : getFixedWidthCodec(text.length(), formatter);
+    }
+    
+    /**
+     * 获取formatter对应的定长编解码器，长度不符合时返回null
+     * @param length 待解析字符串长度
+     * @param formatter DateTimeFormatter
+     * @return FixedWidthDateTimeCodec
+     */
+    private static FixedWidthDateTimeCodec getFixedWidthCodec(int length, DateTimeFormatter formatter) {
+    	FixedWidthDateTimeCodec codec = getFixedWidthCodec(formatter);
+    	return codec != null && (length == codec.getMinLength() || length == codec.getMaxLength()) ? codec : null;
+    }
+    
+    /**
+     * 获取formatter对应的定长编解码器，只支持本类中的formatter常量，不支持时返回null
+     * @param formatter DateTimeFormatter
+     * @return FixedWidthDateTimeCodec
+     */
+    static FixedWidthDateTimeCodec getFixedWidthCodec(DateTimeFormatter formatter) {
+    	// 按绑定的常量查找
+    	for (FixedWidthDateTimeCodec codec : FixedWidthDateTimeCodec.ENUMS) {
+    		if (codec.isBound(formatter)) {
+    			return codec;
+    		}
+    	}
+    	return null;
+    }
+    
+    /**
+     * 定长formatter将date写入buf，和format(Date date, DateTimeFormatter formatter)一致，formatter设置了时区时使用该时区
+     * @param date Date
+     * @param formatter DateTimeFormatter
+     * @param buf 目标数组
+     * @return 写入长度，不是定长formatter或不支持时返回-1
+     */
+    private static int encodeFixedWidth(Date date, DateTimeFormatter formatter, char[] buf) {
+    	FixedWidthDateTimeCodec codec = getFixedWidthCodec(formatter);
+    	if (codec == null) {
+    		return -1;
+    	}
+    	ZoneId zone = formatter.getZone() != null ? formatter.getZone() : ZoneId.systemDefault();
+    	return codec.encodeEpochMilli(date.getTime(), zone, buf, 0);
+    }
+    
+    /**
+     * 定长formatter将localDateTime写入buf，和format(LocalDateTime localDateTime, DateTimeFormatter formatter)一致，按系统默认时区转换
+     * @param localDateTime LocalDateTime
+     * @param formatter DateTimeFormatter
+     * @param buf 目标数组
+     * @return 写入长度，不是定长formatter、formatter时区和系统默认时区不同或不支持时返回-1
+     */
+    private static int encodeFixedWidth(LocalDateTime localDateTime, DateTimeFormatter formatter, char[] buf) {
+    	FixedWidthDateTimeCodec codec = getFixedWidthCodec(formatter);
+    	if (codec == null) {
+    		return -1;
+    	}
+    	ZoneId zone = ZoneId.systemDefault();
+    	if (formatter.getZone() != null && !formatter.getZone().equals(zone)) {
+    		return -1;
+    	}
+    	return codec.encodeLocalDateTime(localDateTime, zone, buf, 0);
+    }
+    
+    /**
+     * 逐个字符追加到Appendable
+     */
+    private static void append(Appendable appendable, char[] buf, int len) {
+    	try {
+    		for (int i = 0; i < len; i++) {
+    			appendable.append(buf[i]);
+    		}
+    	} catch (IOException e) {
+    		throw new DateTimeException(e.getMessage(), e);
+    	}
+    }
+    
+    /**
+     * ASCII字符写入byte[]
+     */
+    private static int putAscii(byte[] bytes, int offset, char[] buf, int len) {
+    	checkFormatRange(offset, len, bytes.length);
+    	for (int i = 0; i < len; i++) {
+    		bytes[offset + i] = (byte) buf[i];
+    	}
+    	return len;
+    }
+    
+    /**
+     * ASCII字符写入ByteBuffer，不改变position
+     */
+    private static int putAscii(ByteBuffer buffer, int offset, char[] buf, int len) {
+    	checkFormatRange(offset, len, buffer.limit());
+    	for (int i = 0; i < len; i++) {
+    		buffer.put(offset + i, (byte) buf[i]);
+    	}
+    	return len;
+    }
+    
+    private static int putBytes(byte[] bytes, int offset, byte[] src) {
+    	checkFormatRange(offset, src.length, bytes.length);
+    	System.arraycopy(src, 0, bytes, offset, src.length);
+    	return src.length;
+    }
+    
+    private static int putBytes(ByteBuffer buffer, int offset, byte[] src) {
+    	checkFormatRange(offset, src.length, buffer.limit());
+    	for (int i = 0; i < src.length; i++) {
+    		buffer.put(offset + i, src[i]);
+    	}
+    	return src.length;
+    }
+    
+    private static void checkFormatRange(int offset, int length, int size) {
+    	if (offset < 0 || offset > size - length) {
+    		throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + length + ", size: " + size);
+    	}
+    }
+    
+    /**
+     * 使用定长编解码器解析为Date，包含时区偏移时和parseToDate(String, DateTimeFormatter)一致，使用字符串中的本地时间
+     * @param text 待解析字符串
+     * @param codec 定长编解码器
+     * @return Date
+     */
+    private static Date parseToDate(String text, FixedWidthDateTimeCodec codec) {
+    	return new Date(parseToEpochMilli(text, 0, text.length(), codec));
+    }
+    
+    /**
+     * 使用定长编解码器解析text的[start, end)区间为时间戳毫秒值，包含时区偏移时和parseToDate(String, DateTimeFormatter)一致，使用字符串中的本地时间
+     * @param text 待解析字符序列
+     * @param start 起始位置
+     * @param end 结束位置
+     * @param codec 定长编解码器
+     * @return 时间戳毫秒值
+     */
+    private static long parseToEpochMilli(CharSequence text, int start, int end, FixedWidthDateTimeCodec codec) {
+    	if (codec.hasOffset()) {
+    		long localMilli = codec.decodeLocalMilli(text, start, end);
+    		return localMilli - FixedWidthDateTimeCodec.localOffsetSeconds(localMilli, ZoneId.systemDefault()) * 1000L;
+    	}
+    	return codec.decodeEpochMilli(text, start, end, ZoneId.systemDefault());
+    }
+    
+    /**
+     * 根据 formatter解析为 LocalDateTime，只有日期时为当天开始时间
+     * @param text 待解析字符序列
+     * @param formatter DateTimeFormatter
+     * @return LocalDateTime
+     */
+    private static LocalDateTime parseLocalDateTime(CharSequence text, DateTimeFormatter formatter) {
+    	LocalDateTime localDateTime = null;
+    	try {
+    		localDateTime = DateTimeConverterUtil.toLocalDateTime(formatter.parse(text));
+		} catch (DateTimeException e) {
+			if(e.getMessage().startsWith(Constant.PARSE_LOCAL_DATE_EXCEPTION)){
+				localDateTime = DateTimeConverterUtil.toLocalDateTime(LocalDate.parse(text, formatter));
+			}else{
+				throw e;
+			}
+		}
+    	return localDateTime;
+    }
+
     /**
      * 预处理待解析字符串
 	 * @param text 待解析字符串
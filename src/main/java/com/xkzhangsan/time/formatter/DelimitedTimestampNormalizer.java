@@ -0,0 +1,750 @@
+package com.xkzhangsan.time.formatter;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * 分隔符文件（CSV、TSV）时间列标准化工具，适合每天处理GB级的合作方导出文件<br>
+ * 1.通过FileChannel读取文件，按行边界拆分为多段，文件较大时每段使用内存映射（MappedByteBuffer）读入，按字节扫描，不逐行创建字符串。<br>
+ * 2.解析指定列的时间，支持自动解析（默认，和DateTimeFormatterUtil.smartParseToDate(String text)一致）、指定formatter和多个模板（MultiPatternParser），
+ * 改写为指定formatter格式（比如DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_FMT）或时间戳毫秒值（默认），其他列和行尾（\n或\r\n）原样输出。<br>
+ * 3.多段在ForkJoinPool.commonPool()中并行处理，按原顺序写入输出channel。<br>
+ * 4.支持双引号包围的字段，时间列有双引号时输出仍带双引号，注意：字段中不能包含换行。<br>
+ * 5.空字段原样输出；解析失败时默认抛出DateTimeException，包含行号和列号，withInvalidKept(true)时原样输出并计数。<br>
+ * 文件按UTF-8编码处理，分隔符必须为ASCII字符。比如：<br>
+ * <pre>
+ * DelimitedTimestampNormalizer.csv(0, 3)
+ *         .withOutputFormatter(DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_SSS_FMT)
+ *         .withHeader(true)
+ *         .normalize(Paths.get("in.csv"), Paths.get("out.csv"));
+ * </pre>
+ * 对象不可变，线程安全，with*方法返回新对象。
+ *
+ * @author xkzhangsan
+ */
+public final class DelimitedTimestampNormalizer {
+
+	/**
+	 * 默认每段字节数
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+
+	/**
+	 * 文件大小超过该值时使用内存映射
+	 */
+	private static final long MAP_THRESHOLD = 16L * 1024 * 1024;
+
+	/**
+	 * 查找行边界时每次读取的字节数
+	 */
+	private static final int PROBE_SIZE = 8192;
+
+	private static final byte QUOTE = '"';
+
+	private static final byte CR = '\r';
+
+	private static final byte LF = '\n';
+
+	private final byte delimiter;
+
+	/**
+	 * 时间列，从0开始，已排序
+	 */
+	private final int[] columns;
+
+	/**
+	 * 按列序号标记是否为时间列
+	 */
+	private final boolean[] targets;
+
+	/**
+	 * 解析formatter，为null时自动解析或使用patternParser
+	 */
+	private final DateTimeFormatter formatter;
+
+	/**
+	 * 多模板解析器，为null时自动解析或使用formatter
+	 */
+	private final MultiPatternParser patternParser;
+
+	/**
+	 * 输出formatter，为null时输出时间戳毫秒值
+	 */
+	private final DateTimeFormatter outputFormatter;
+
+	private final boolean header;
+
+	private final boolean invalidKept;
+
+	private final int chunkSize;
+
+	private DelimitedTimestampNormalizer(byte delimiter, int[] columns, DateTimeFormatter formatter,
+			MultiPatternParser patternParser, DateTimeFormatter outputFormatter, boolean header, boolean invalidKept,
+			int chunkSize) {
+		this.delimiter = delimiter;
+		this.columns = columns;
+		this.targets = new boolean[columns[columns.length - 1] + 1];
+		for (int column : columns) {
+			targets[column] = true;
+		}
+		this.formatter = formatter;
+		this.patternParser = patternParser;
+		this.outputFormatter = outputFormatter;
+		this.header = header;
+		this.invalidKept = invalidKept;
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * 创建标准化工具，默认自动解析，输出时间戳毫秒值
+	 * @param delimiter 分隔符，ASCII字符，比如 , 或 \t
+	 * @param columns 时间列，从0开始
+	 * @return DelimitedTimestampNormalizer
+	 * @throws IllegalArgumentException 分隔符不是ASCII字符、为双引号或换行，或时间列为空、为负数时
+	 */
+	public static DelimitedTimestampNormalizer of(char delimiter, int... columns) {
+		if (delimiter >= 0x80 || delimiter == QUOTE || delimiter == CR || delimiter == LF) {
+			throw new IllegalArgumentException("delimiter is not supported: " + delimiter);
+		}
+		if (columns == null || columns.length == 0) {
+			throw new IllegalArgumentException("columns is empty");
+		}
+		int[] sorted = columns.clone();
+		Arrays.sort(sorted);
+		if (sorted[0] < 0) {
+			throw new IllegalArgumentException("column must not be negative: " + sorted[0]);
+		}
+		return new DelimitedTimestampNormalizer((byte) delimiter, sorted, null, null, null, false, false,
+				DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * 创建逗号分隔（CSV）的标准化工具
+	 * @param columns 时间列，从0开始
+	 * @return DelimitedTimestampNormalizer
+	 */
+	public static DelimitedTimestampNormalizer csv(int... columns) {
+		return of(',', columns);
+	}
+
+	/**
+	 * 创建制表符分隔（TSV）的标准化工具
+	 * @param columns 时间列，从0开始
+	 * @return DelimitedTimestampNormalizer
+	 */
+	public static DelimitedTimestampNormalizer tsv(int... columns) {
+		return of('\t', columns);
+	}
+
+	/**
+	 * 使用formatter解析时间列，和DateTimeFormatterUtil.parseToDate(String text, DateTimeFormatter formatter)一致
+	 * @param formatter DateTimeFormatter，为null时自动解析
+	 * @return DelimitedTimestampNormalizer
+	 */
+	public DelimitedTimestampNormalizer withFormatter(DateTimeFormatter formatter) {
+		return new DelimitedTimestampNormalizer(delimiter, columns, formatter, null, outputFormatter, header,
+				invalidKept, chunkSize);
+	}
+
+	/**
+	 * 使用多个模板解析时间列，和MultiPatternParser.parseToDate(String text)一致
+	 * @param dateFormatPatterns 自定义格式化模板数组
+	 * @return DelimitedTimestampNormalizer
+	 */
+	public DelimitedTimestampNormalizer withPatterns(String... dateFormatPatterns) {
+		return new DelimitedTimestampNormalizer(delimiter, columns, null, MultiPatternParser.of(dateFormatPatterns),
+				outputFormatter, header, invalidKept, chunkSize);
+	}
+
+	/**
+	 * 输出格式，和DateTimeFormatterUtil.format(Date date, DateTimeFormatter formatter)一致
+	 * @param outputFormatter DateTimeFormatter，为null时输出时间戳毫秒值
+	 * @return DelimitedTimestampNormalizer
+	 */
+	public DelimitedTimestampNormalizer withOutputFormatter(DateTimeFormatter outputFormatter) {
+		return new DelimitedTimestampNormalizer(delimiter, columns, formatter, patternParser, outputFormatter, header,
+				invalidKept, chunkSize);
+	}
+
+	/**
+	 * 第一行是否为标题行，标题行原样输出
+	 * @param header 是否有标题行
+	 * @return DelimitedTimestampNormalizer
+	 */
+	public DelimitedTimestampNormalizer withHeader(boolean header) {
+		return new DelimitedTimestampNormalizer(delimiter, columns, formatter, patternParser, outputFormatter, header,
+				invalidKept, chunkSize);
+	}
+
+	/**
+	 * 解析失败时是否原样输出，false时抛出DateTimeException
+	 * @param invalidKept 是否原样输出
+	 * @return DelimitedTimestampNormalizer
+	 */
+	public DelimitedTimestampNormalizer withInvalidKept(boolean invalidKept) {
+		return new DelimitedTimestampNormalizer(delimiter, columns, formatter, patternParser, outputFormatter, header,
+				invalidKept, chunkSize);
+	}
+
+	/**
+	 * 每段字节数，每段从行首开始，到超过该长度后的第一个行尾结束
+	 * @param chunkSize 每段字节数，默认DEFAULT_CHUNK_SIZE
+	 * @return DelimitedTimestampNormalizer
+	 */
+	public DelimitedTimestampNormalizer withChunkSize(int chunkSize) {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+		}
+		return new DelimitedTimestampNormalizer(delimiter, columns, formatter, patternParser, outputFormatter, header,
+				invalidKept, chunkSize);
+	}
+
+	/**
+	 * 标准化文件，输出文件已存在时覆盖
+	 * @param input 输入文件
+	 * @param output 输出文件
+	 * @return 处理结果
+	 * @throws IOException 读写出错时
+	 * @throws DateTimeException 解析失败且没有设置withInvalidKept(true)时，之前的行已写入输出文件
+	 */
+	public Result normalize(Path input, Path output) throws IOException {
+		Objects.requireNonNull(input, "input");
+		Objects.requireNonNull(output, "output");
+		try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+				FileChannel out = FileChannel.open(output, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+						StandardOpenOption.TRUNCATE_EXISTING)) {
+			return normalize(in, out);
+		}
+	}
+
+	/**
+	 * 标准化input的全部内容（从0到size()）写入output，不改变input的position，不关闭channel
+	 * @param input 输入FileChannel
+	 * @param output 输出channel
+	 * @return 处理结果
+	 * @throws IOException 读写出错时
+	 * @throws DateTimeException 解析失败且没有设置withInvalidKept(true)时，之前的行已写入output
+	 */
+	public Result normalize(FileChannel input, WritableByteChannel output) throws IOException {
+		Objects.requireNonNull(input, "input");
+		Objects.requireNonNull(output, "output");
+		long size = input.size();
+		boolean mapped = size > MAP_THRESHOLD;
+		ZoneId zone = ZoneId.systemDefault();
+		ZoneId outputZone = resolveOutputZone(zone);
+		FixedWidthDateTimeCodec outputCodec = outputFormatter != null
+				? DateTimeFormatterUtil.getFixedWidthCodec(outputFormatter) : null;
+		boolean parallel = ForkJoinPool.getCommonPoolParallelism() > 1 && size > chunkSize;
+		// 同时处理的段数量，限制内存占用
+		int window = parallel ? ForkJoinPool.getCommonPoolParallelism() * 2 : 1;
+
+		ArrayDeque<ForkJoinTask<Chunk>> pending = new ArrayDeque<>();
+		long lineCount = 0;
+		long convertedCount = 0;
+		long invalidCount = 0;
+		long start = 0;
+		while (start < size || !pending.isEmpty()) {
+			// 提交下一段，等待中的段数量达到window时先写出最早的段
+			if (start < size && pending.size() < window) {
+				long end = findChunkEnd(input, start, size);
+				ChunkTask task = new ChunkTask(input, start, (int) (end - start), mapped, start == 0 && header, zone,
+						outputZone, outputCodec);
+				pending.add(parallel ? ForkJoinPool.commonPool().submit(task) : ForkJoinTask.adapt(task));
+				start = end;
+				continue;
+			}
+			Chunk chunk = join(pending.poll(), parallel, pending);
+			write(output, chunk.bytes, chunk.lineCount < 0 ? chunk.errorOffset : chunk.size);
+			if (chunk.lineCount < 0) {
+				cancel(pending);
+				throw new DateTimeException("line " + (lineCount + chunk.errorLine + 1) + " column "
+						+ chunk.errorColumn + " is not supported! " + chunk.errorText, chunk.errorCause);
+			}
+			lineCount += chunk.lineCount;
+			convertedCount += chunk.convertedCount;
+			invalidCount += chunk.invalidCount;
+		}
+		return new Result(lineCount, convertedCount, invalidCount);
+	}
+
+	@Override
+	public String toString() {
+		return "DelimitedTimestampNormalizer [delimiter=" + (char) delimiter + ", columns=" + Arrays.toString(columns)
+				+ ", formatter=" + (formatter != null ? formatter : patternParser != null ? patternParser : "smart")
+				+ ", outputFormatter=" + (outputFormatter != null ? outputFormatter : "epochMilli") + ", header="
+				+ header + ", invalidKept=" + invalidKept + ", chunkSize=" + chunkSize + "]";
+	}
+
+	/**
+	 * 输出formatter设置了时区时使用该时区，否则使用系统默认时区，和DateTimeFormatterUtil.format(Date, DateTimeFormatter)一致
+	 */
+	private ZoneId resolveOutputZone(ZoneId zone) {
+		ZoneId outputZone = outputFormatter != null ? outputFormatter.getZone() : null;
+		return outputZone != null ? outputZone : zone;
+	}
+
+	/**
+	 * 从start开始超过chunkSize后的第一个行尾之后的位置，没有时为文件末尾
+	 */
+	private long findChunkEnd(FileChannel input, long start, long size) throws IOException {
+		long pos = start + chunkSize - 1;
+		if (pos >= size - 1) {
+			return size;
+		}
+		ByteBuffer probe = ByteBuffer.allocate(PROBE_SIZE);
+		while (pos < size) {
+			// 通过Buffer调用，高版本JDK编译时不使用ByteBuffer的协变返回方法，兼容Java 8
+			((Buffer) probe).clear();
+			int n = readFully(input, probe, pos, (int) Math.min(PROBE_SIZE, size - pos));
+			for (int i = 0; i < n; i++) {
+				if (probe.get(i) == LF) {
+					long end = pos + i + 1;
+					if (end - start > Integer.MAX_VALUE - 8) {
+						break;
+					}
+					return end;
+				}
+			}
+			pos += n;
+			if (pos - start > Integer.MAX_VALUE - 8) {
+				throw new IOException("line is too long at position " + start);
+			}
+		}
+		return size;
+	}
+
+	private static int readFully(FileChannel input, ByteBuffer buffer, long pos, int length) throws IOException {
+		((Buffer) buffer).limit(length);
+		int n = 0;
+		while (n < length) {
+			int read = input.read(buffer, pos + n);
+			if (read < 0) {
+				throw new IOException("unexpected end of file at position " + (pos + n));
+			}
+			n += read;
+		}
+		return n;
+	}
+
+	private static void write(WritableByteChannel output, byte[] bytes, int length) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, length);
+		while (buffer.hasRemaining()) {
+			output.write(buffer);
+		}
+	}
+
+	/**
+	 * 获取一段的结果，不并行时在当前线程执行，读取出错时抛出原IOException
+	 */
+	private static Chunk join(ForkJoinTask<Chunk> task, boolean parallel, ArrayDeque<ForkJoinTask<Chunk>> pending)
+			throws IOException {
+		try {
+			return parallel ? task.join() : task.invoke();
+		} catch (RuntimeException e) {
+			cancel(pending);
+			for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+				if (cause instanceof IOException) {
+					throw (IOException) cause;
+				}
+			}
+			throw e;
+		}
+	}
+
+	private static void cancel(ArrayDeque<ForkJoinTask<Chunk>> pending) {
+		for (ForkJoinTask<Chunk> task : pending) {
+			task.cancel(false);
+		}
+	}
+
+	/**
+	 * 处理结果
+	 *
+	 * @author xkzhangsan
+	 */
+	public static final class Result {
+
+		private final long lineCount;
+
+		private final long convertedCount;
+
+		private final long invalidCount;
+
+		Result(long lineCount, long convertedCount, long invalidCount) {
+			this.lineCount = lineCount;
+			this.convertedCount = convertedCount;
+			this.invalidCount = invalidCount;
+		}
+
+		/**
+		 * 行数，包括标题行
+		 * @return 行数
+		 */
+		public long getLineCount() {
+			return lineCount;
+		}
+
+		/**
+		 * 改写的时间字段数量
+		 * @return 改写的字段数量
+		 */
+		public long getConvertedCount() {
+			return convertedCount;
+		}
+
+		/**
+		 * 解析失败原样输出的字段数量，只在withInvalidKept(true)时大于0
+		 * @return 解析失败的字段数量
+		 */
+		public long getInvalidCount() {
+			return invalidCount;
+		}
+
+		@Override
+		public String toString() {
+			return "Result [lineCount=" + lineCount + ", convertedCount=" + convertedCount + ", invalidCount="
+					+ invalidCount + "]";
+		}
+	}
+
+	/**
+	 * 一段的处理结果，lineCount为-1时表示解析失败，bytes中只有errorOffset之前的内容有效
+	 *
+	 * @author xkzhangsan
+	 */
+	private static final class Chunk {
+
+		private byte[] bytes;
+
+		private int size;
+
+		private long lineCount;
+
+		private long convertedCount;
+
+		private long invalidCount;
+
+		private int errorOffset;
+
+		private long errorLine;
+
+		private int errorColumn;
+
+		private String errorText;
+
+		private DateTimeException errorCause;
+
+		Chunk(int capacity) {
+			this.bytes = new byte[capacity];
+		}
+
+		void ensureCapacity(int extra) {
+			if (size + extra > bytes.length) {
+				bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+			}
+		}
+
+		void put(byte b) {
+			ensureCapacity(1);
+			bytes[size++] = b;
+		}
+	}
+
+	/**
+	 * 处理一段，每段从行首开始，以行尾或文件末尾结束
+	 *
+	 * @author xkzhangsan
+	 */
+	private final class ChunkTask implements Callable<Chunk> {
+
+		private final FileChannel input;
+
+		private final long position;
+
+		private final int length;
+
+		private final boolean mapped;
+
+		private final boolean skipHeader;
+
+		private final ZoneId zone;
+
+		private final ZoneId outputZone;
+
+		private final FixedWidthDateTimeCodec outputCodec;
+
+		/**
+		 * 本段内容，内存映射时从MappedByteBuffer一次复制，逐字节扫描比ByteBuffer.get(int)快
+		 */
+		private byte[] bytes;
+
+		private Chunk chunk;
+
+		private final char[] formatBuffer = new char[FixedWidthDateTimeCodec.MAX_LENGTH];
+
+		ChunkTask(FileChannel input, long position, int length, boolean mapped, boolean skipHeader, ZoneId zone,
+				ZoneId outputZone, FixedWidthDateTimeCodec outputCodec) {
+			this.input = input;
+			this.position = position;
+			this.length = length;
+			this.mapped = mapped;
+			this.skipHeader = skipHeader;
+			this.zone = zone;
+			this.outputZone = outputZone;
+			this.outputCodec = outputCodec;
+		}
+
+		@Override
+		public Chunk call() throws IOException {
+			bytes = new byte[length];
+			if (mapped) {
+				input.map(FileChannel.MapMode.READ_ONLY, position, length).get(bytes);
+			} else {
+				readFully(input, ByteBuffer.wrap(bytes), position, length);
+			}
+			// 时间戳毫秒值通常比原文本短，预留少量空间
+			chunk = new Chunk(length + (length >>> 4) + 16);
+			int pos = 0;
+			long lines = 0;
+			while (pos < length) {
+				int next = pos;
+				while (next < length && bytes[next] != LF) {
+					next++;
+				}
+				int contentEnd = next > pos && bytes[next - 1] == CR ? next - 1 : next;
+				if (next < length) {
+					next++;
+				}
+				int lineOffset = chunk.size;
+				if (skipHeader && lines == 0) {
+					copy(pos, next);
+				} else if (!normalizeLine(pos, contentEnd, next)) {
+					chunk.errorOffset = lineOffset;
+					chunk.errorLine = lines;
+					chunk.lineCount = -1;
+					return chunk;
+				}
+				lines++;
+				pos = next;
+			}
+			chunk.lineCount = lines;
+			return chunk;
+		}
+
+		/**
+		 * 标准化一行，[start, contentEnd)为内容，[contentEnd, next)为行尾
+		 * @return 解析失败且不原样输出时返回false
+		 */
+		private boolean normalizeLine(int start, int contentEnd, int next) {
+			int copyFrom = start;
+			int fieldStart = start;
+			int maxColumn = targets.length - 1;
+			for (int column = 0; column <= maxColumn; column++) {
+				boolean quoted = fieldStart < contentEnd && bytes[fieldStart] == QUOTE;
+				int valueStart = quoted ? fieldStart + 1 : fieldStart;
+				int valueEnd;
+				int fieldEnd;
+				if (quoted) {
+					valueEnd = closingQuote(valueStart, contentEnd);
+					fieldEnd = indexOfDelimiter(Math.min(valueEnd + 1, contentEnd), contentEnd);
+				} else {
+					valueEnd = indexOfDelimiter(fieldStart, contentEnd);
+					fieldEnd = valueEnd;
+				}
+				if (targets[column] && !isBlank(valueStart, valueEnd)) {
+					long epochMilli = FixedWidthDateTimeCodec.INVALID;
+					DateTimeException cause = null;
+					try {
+						epochMilli = parse(valueStart, valueEnd);
+					} catch (DateTimeException e) {
+						cause = e;
+					}
+					if (cause == null) {
+						copy(copyFrom, valueStart);
+						writeValue(epochMilli);
+						copyFrom = valueEnd;
+						chunk.convertedCount++;
+					} else if (invalidKept) {
+						chunk.invalidCount++;
+					} else {
+						chunk.errorColumn = column;
+						chunk.errorText = decode(valueStart, valueEnd);
+						chunk.errorCause = cause;
+						return false;
+					}
+				}
+				if (fieldEnd >= contentEnd) {
+					break;
+				}
+				fieldStart = fieldEnd + 1;
+			}
+			copy(copyFrom, next);
+			return true;
+		}
+
+		/**
+		 * 解析[start, end)，和DateTimeFormatterUtil中对应的方法一致
+		 * @return 时间戳毫秒值
+		 * @throws DateTimeException 解析失败时
+		 */
+		private long parse(int start, int end) {
+			boolean ascii = isAscii(start, end);
+			if (patternParser != null) {
+				String text = decode(start, end);
+				Date date = patternParser.parseToDate(text);
+				if (date == null) {
+					throw new DateTimeException("text is not supported! " + text);
+				}
+				return date.getTime();
+			}
+			if (formatter != null) {
+				return ascii ? DateTimeFormatterUtil.parseToEpochMilli(bytes, start, end - start, formatter)
+						: DateTimeFormatterUtil.parseToDate(decode(start, end), formatter).getTime();
+			}
+			if (ascii) {
+				// 和smartParseToLocalDateTime一致，去除首尾空白后长度不小于8时一次扫描解析
+				int s = start;
+				int e = end;
+				while (s < e && bytes[s] <= ' ') {
+					s++;
+				}
+				while (s < e && bytes[e - 1] <= ' ') {
+					e--;
+				}
+				if (e - s >= 8) {
+					long localMilli = SmartDateTimeLexer.parseLocalMilli(CharSequenceView.of(bytes, s, e - s), 0,
+							e - s);
+					if (localMilli != SmartDateTimeLexer.UNSUPPORTED) {
+						return localMilli - FixedWidthDateTimeCodec.localOffsetSeconds(localMilli, zone) * 1000L;
+					}
+				}
+			}
+			return DateTimeFormatterUtil.smartParseToDate(decode(start, end)).getTime();
+		}
+
+		private void writeValue(long epochMilli) {
+			if (outputFormatter == null) {
+				writeLong(epochMilli);
+				return;
+			}
+			int len = outputCodec != null ? outputCodec.encodeEpochMilli(epochMilli, outputZone, formatBuffer, 0) : -1;
+			if (len >= 0) {
+				chunk.ensureCapacity(len);
+				for (int i = 0; i < len; i++) {
+					chunk.bytes[chunk.size++] = (byte) formatBuffer[i];
+				}
+				return;
+			}
+			byte[] bytes = outputFormatter.format(Instant.ofEpochMilli(epochMilli).atZone(outputZone))
+					.getBytes(StandardCharsets.UTF_8);
+			chunk.ensureCapacity(bytes.length);
+			System.arraycopy(bytes, 0, chunk.bytes, chunk.size, bytes.length);
+			chunk.size += bytes.length;
+		}
+
+		private void writeLong(long value) {
+			if (value == Long.MIN_VALUE) {
+				byte[] bytes = Long.toString(value).getBytes(StandardCharsets.US_ASCII);
+				chunk.ensureCapacity(bytes.length);
+				System.arraycopy(bytes, 0, chunk.bytes, chunk.size, bytes.length);
+				chunk.size += bytes.length;
+				return;
+			}
+			if (value < 0) {
+				chunk.put((byte) '-');
+				value = -value;
+			}
+			int digits = 1;
+			for (long v = value / 10; v > 0; v /= 10) {
+				digits++;
+			}
+			chunk.ensureCapacity(digits);
+			for (int i = chunk.size + digits - 1; i >= chunk.size; i--) {
+				chunk.bytes[i] = (byte) ('0' + value % 10);
+				value /= 10;
+			}
+			chunk.size += digits;
+		}
+
+		/**
+		 * 原样复制[from, to)
+		 */
+		private void copy(int from, int to) {
+			int n = to - from;
+			if (n <= 0) {
+				return;
+			}
+			chunk.ensureCapacity(n);
+			System.arraycopy(bytes, from, chunk.bytes, chunk.size, n);
+			chunk.size += n;
+		}
+
+		private String decode(int from, int to) {
+			return new String(bytes, from, to - from, StandardCharsets.UTF_8);
+		}
+
+		/**
+		 * 从from开始的下一个分隔符位置，没有时返回end
+		 */
+		private int indexOfDelimiter(int from, int end) {
+			for (int i = from; i < end; i++) {
+				if (bytes[i] == delimiter) {
+					return i;
+				}
+			}
+			return end;
+		}
+
+		/**
+		 * 从from开始的结束双引号位置，两个双引号表示一个双引号，没有时返回end
+		 */
+		private int closingQuote(int from, int end) {
+			for (int i = from; i < end; i++) {
+				if (bytes[i] == QUOTE) {
+					if (i + 1 < end && bytes[i + 1] == QUOTE) {
+						i++;
+					} else {
+						return i;
+					}
+				}
+			}
+			return end;
+		}
+
+		private boolean isBlank(int from, int to) {
+			for (int i = from; i < to; i++) {
+				if (bytes[i] > ' ' || bytes[i] < 0) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private boolean isAscii(int from, int to) {
+			for (int i = from; i < to; i++) {
+				if (bytes[i] < 0) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+}
@@ -0,0 +1,724 @@
+package com.xkzhangsan.time.formatter;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Objects;
+
+import com.xkzhangsan.time.converter.PackedDate;
+import com.xkzhangsan.time.converter.ZoneRegistry;
+
+/**
+ * 定长日期格式编解码器<br>
+ * 针对最常用的几种定长模板，按固定字符位置直接解析和格式化，不经过DateTimeFormatter和TemporalAccessor的通用解析流程。<br>
+ * 1.解析方法，parseToEpochMilli(CharSequence text)，parseToEpochSecond(CharSequence text) 直接返回时间戳，不创建中间的LocalDateTime和Date对象；<br>
+ * parseToLocalDateTime(CharSequence text, ZoneId zone) 返回LocalDateTime，处于夏令时间隙的时间和DateTimeFormatter一样按时区调整。<br>
+ * 2.格式化方法，format(long epochMilli)，format(LocalDateTime localDateTime)。<br>
+ * 3.直接使用编解码器时不会初始化DateTimeFormatterUtil和其中的formatter常量，适合Serverless函数、命令行工具等对第一次调用耗时敏感的场景。<br>
+ *
+ * 解析结果和DateTimeFormatter默认的SMART解析保持一致，比如：2020-02-30 解析为 2020-02-29，24:00:00 解析为第二天 00:00:00。<br>
+ * 年份超出 0001-9999 的时间格式化时，自动使用对应模板的DateTimeFormatter处理。<br>
+ *
+ * 支持模板：<br>
+ * yyyy-MM-dd<br>
+ * yyyy-MM-dd HH:mm:ss<br>
+ * yyyy-MM-dd HH:mm:ss.SSS<br>
+ * yyyyMMddHHmmss<br>
+ * yyyy-MM-dd'T'HH:mm:ss.SSSXXX<br>
+ *
+ * @author xkzhangsan
+ */
+public enum FixedWidthDateTimeCodec {
+
+	/**
+	 * yyyy-MM-dd 比如：2020-05-23
+	 */
+	YYYY_MM_DD(DateFormatPattern.YYYY_MM_DD, "yyyy-MM-dd", false),
+
+	/**
+	 * yyyy-MM-dd HH:mm:ss 比如：2020-05-23 17:06:30
+	 */
+	YYYY_MM_DD_HH_MM_SS(DateFormatPattern.YYYY_MM_DD_HH_MM_SS, "yyyy-MM-dd HH:mm:ss", false),
+
+	/**
+	 * yyyy-MM-dd HH:mm:ss.SSS 比如：2020-05-23 17:06:30.272
+	 */
+	YYYY_MM_DD_HH_MM_SS_SSS(DateFormatPattern.YYYY_MM_DD_HH_MM_SS_SSS, "yyyy-MM-dd HH:mm:ss.SSS", false),
+
+	/**
+	 * yyyyMMddHHmmss 比如：20200523170630
+	 */
+	YYYYMMDDHHMMSS(DateFormatPattern.YYYYMMDDHHMMSS, "yyyyMMddHHmmss", false),
+
+	/**
+	 * yyyy-MM-dd'T'HH:mm:ss.SSSXXX 比如：2020-05-23T17:06:30.272+08:00 0时区时末尾 为Z
+	 */
+	YYYY_MM_DD_T_HH_MM_SS_SSS_XXX_Z(DateFormatPattern.YYYY_MM_DD_T_HH_MM_SS_SSS_XXX_Z, "yyyy-MM-ddTHH:mm:ss.SSS", true),;
+
+	public static final FixedWidthDateTimeCodec[] ENUMS = FixedWidthDateTimeCodec.values();
+
+	private static final int MILLIS_PER_SECOND = 1000;
+
+	private static final long MILLIS_PER_DAY = 86400_000L;
+
+	/**
+	 * 格式化支持的epochDay范围，0001-01-01到9999-12-31
+	 */
+	private static final int MIN_EPOCH_DAY = PackedDate.of(1, 1, 1);
+
+	private static final int MAX_EPOCH_DAY = PackedDate.of(9999, 12, 31);
+
+	/**
+	 * 解析失败
+	 */
+	static final long INVALID = Long.MIN_VALUE;
+
+	private static final int INVALID_OFFSET = Integer.MIN_VALUE;
+
+	/**
+	 * 所有模板格式化后的最大长度，可作为格式化缓冲区长度
+	 */
+	static final int MAX_LENGTH = 32;
+
+	/**
+	 * 格式化模板，对应DateFormatPattern中的常量
+	 */
+	private final String pattern;
+
+	/**
+	 * 字符模板，字母为数字位置，其他为固定字符
+	 */
+	private final char[] layout;
+
+	/**
+	 * 是否包含时区偏移，Z 或 +HH:MM
+	 */
+	private final boolean hasOffset;
+
+	private final int yearPos;
+
+	private final int monthPos;
+
+	private final int dayPos;
+
+	private final int hourPos;
+
+	private final int minutePos;
+
+	private final int secondPos;
+
+	private final int milliPos;
+
+	/**
+	 * 绑定的DateTimeFormatterUtil中的formatter常量，常量初始化时设置
+	 */
+	private volatile DateTimeFormatter constant;
+
+	private FixedWidthDateTimeCodec(String pattern, String layout, boolean hasOffset) {
+		this.pattern = pattern;
+		this.layout = layout.toCharArray();
+		this.hasOffset = hasOffset;
+		this.yearPos = layout.indexOf('y');
+		this.monthPos = layout.indexOf('M');
+		this.dayPos = layout.indexOf('d');
+		this.hourPos = layout.indexOf('H');
+		this.minutePos = layout.indexOf('m');
+		this.secondPos = layout.indexOf('s');
+		this.milliPos = layout.indexOf('S');
+	}
+
+	/**
+	 * 根据模板获取编解码器
+	 * @param dateFormatPattern 格式化模板
+	 * @return 支持时返回对应编解码器，不支持返回null
+	 */
+	public static FixedWidthDateTimeCodec of(String dateFormatPattern) {
+		if (dateFormatPattern == null) {
+			return null;
+		}
+		for (FixedWidthDateTimeCodec codec : ENUMS) {
+			if (codec.pattern.equals(dateFormatPattern)) {
+				return codec;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * 绑定DateTimeFormatterUtil中对应的formatter常量，在常量初始化时调用
+	 * @param formatter formatter常量
+	 * @return formatter
+	 */
+	DateTimeFormatter bind(DateTimeFormatter formatter) {
+		this.constant = formatter;
+		return formatter;
+	}
+
+	/**
+	 * 是否为绑定的formatter常量，常量未初始化时返回false
+	 * @param formatter DateTimeFormatter
+	 * @return boolean
+	 */
+	boolean isBound(DateTimeFormatter formatter) {
+		return formatter != null && formatter == constant;
+	}
+
+	/**
+	 * 格式化模板
+	 * @return 格式化模板
+	 */
+	public String getPattern() {
+		return pattern;
+	}
+
+	/**
+	 * 是否包含时区偏移
+	 * @return boolean
+	 */
+	public boolean hasOffset() {
+		return hasOffset;
+	}
+
+	/**
+	 * 最短长度，包含时区偏移时为 Z 结尾的长度
+	 * @return 最短长度
+	 */
+	public int getMinLength() {
+		return hasOffset ? layout.length + 1 : layout.length;
+	}
+
+	/**
+	 * 最大长度，包含时区偏移时为 +HH:MM 结尾的长度
+	 * @return 最大长度
+	 */
+	public int getMaxLength() {
+		return hasOffset ? layout.length + 6 : layout.length;
+	}
+
+	/**
+	 * 判断text长度是否可以使用当前编解码器
+	 * @param text 待解析字符串
+	 * @return boolean
+	 */
+	public boolean isSupportedLength(CharSequence text) {
+		if (text == null) {
+			return false;
+		}
+		int len = text.length();
+		return len == getMinLength() || len == getMaxLength();
+	}
+
+	// ==================================parse==================================
+
+	/**
+	 * 解析为时间戳毫秒值，不包含时区偏移的模板使用系统默认时区
+	 * @param text 待解析字符串
+	 * @return 时间戳毫秒值
+	 */
+	public long parseToEpochMilli(CharSequence text) {
+		return parseToEpochMilli(text, ZoneId.systemDefault());
+	}
+
+	/**
+	 * 解析为时间戳毫秒值
+	 * @param text 待解析字符串
+	 * @param zone 时区，不包含时区偏移的模板使用该时区
+	 * @return 时间戳毫秒值
+	 */
+	public long parseToEpochMilli(CharSequence text, ZoneId zone) {
+		Objects.requireNonNull(text, "text");
+		return decodeEpochMilli(text, 0, text.length(), zone);
+	}
+
+	/**
+	 * 解析为时间戳秒值，不包含时区偏移的模板使用系统默认时区
+	 * @param text 待解析字符串
+	 * @return 时间戳秒值
+	 */
+	public long parseToEpochSecond(CharSequence text) {
+		return parseToEpochSecond(text, ZoneId.systemDefault());
+	}
+
+	/**
+	 * 解析为时间戳秒值
+	 * @param text 待解析字符串
+	 * @param zone 时区，不包含时区偏移的模板使用该时区
+	 * @return 时间戳秒值
+	 */
+	public long parseToEpochSecond(CharSequence text, ZoneId zone) {
+		return Math.floorDiv(parseToEpochMilli(text, zone), (long) MILLIS_PER_SECOND);
+	}
+
+	/**
+	 * 解析为LocalDateTime，包含时区偏移的模板返回字符串中的本地时间，其他模板处于系统默认时区的夏令时间隙时向后调整
+	 * @param text 待解析字符串
+	 * @return LocalDateTime
+	 */
+	public LocalDateTime parseToLocalDateTime(CharSequence text) {
+		return parseToLocalDateTime(text, ZoneId.systemDefault());
+	}
+
+	/**
+	 * 解析为LocalDateTime，和withZone(zone)的DateTimeFormatter解析结果一致：<br>
+	 * 包含时区偏移的模板返回字符串中的本地时间；包含时间的模板处于zone的夏令时间隙时，和LocalDateTime.atZone(zone)一样向后调整间隙长度，
+	 * 比如America/New_York的2020-03-08 02:30:00解析为03:30:00。
+	 * @param text 待解析字符串
+	 * @param zone 时区，为null时不调整
+	 * @return LocalDateTime
+	 */
+	public LocalDateTime parseToLocalDateTime(CharSequence text, ZoneId zone) {
+		Objects.requireNonNull(text, "text");
+		return toLocalDateTime(decodeLocalMilli(text, 0, text.length()), zone);
+	}
+
+	/**
+	 * 本地时间毫秒值按当前模板和时区转换为LocalDateTime，包含时间且不包含时区偏移的模板处于zone的夏令时间隙时向后调整
+	 * @param localMilli 本地时间毫秒值（以UTC计算的本地时间）
+	 * @param zone 时区，为null时不调整
+	 * @return LocalDateTime
+	 */
+	LocalDateTime toLocalDateTime(long localMilli, ZoneId zone) {
+		return toLocalDateTime(adjustLocalMilli(localMilli, zone));
+	}
+
+	/**
+	 * 本地时间毫秒值按当前模板和时区调整，包含时间且不包含时区偏移的模板处于zone的夏令时间隙时向后调整，其他情况不变
+	 * @param localMilli 本地时间毫秒值（以UTC计算的本地时间）
+	 * @param zone 时区，为null时不调整
+	 * @return 调整后的本地时间毫秒值
+	 */
+	long adjustLocalMilli(long localMilli, ZoneId zone) {
+		if (zone == null || hasOffset || hourPos < 0) {
+			return localMilli;
+		}
+		return resolveLocalMilli(localMilli, zone);
+	}
+
+	/**
+	 * 本地时间毫秒值（以UTC计算的本地时间）转换为LocalDateTime
+	 * @param localMilli 本地时间毫秒值
+	 * @return LocalDateTime
+	 */
+	static LocalDateTime toLocalDateTime(long localMilli) {
+		long epochDay = Math.floorDiv(localMilli, MILLIS_PER_DAY);
+		int milliOfDay = (int) Math.floorMod(localMilli, MILLIS_PER_DAY);
+		// 解析结果的年份为0000-10000，yyyyMMdd不会超出int范围
+		int date = PackedDate.toYyyyMMdd(Math.toIntExact(epochDay));
+		int secondOfDay = milliOfDay / MILLIS_PER_SECOND;
+		return LocalDateTime.of(date / 10000, date / 100 % 100, date % 100, secondOfDay / 3600,
+				secondOfDay / 60 % 60, secondOfDay % 60, milliOfDay % MILLIS_PER_SECOND * 1000_000);
+	}
+
+	/**
+	 * 各字段转换为本地时间毫秒值（以UTC计算的本地时间），字段需已校验
+	 */
+	static long toLocalMilli(int year, int month, int day, int hour, int minute, int second, int milli) {
+		return PackedDate.of(year, month, day) * MILLIS_PER_DAY
+				+ ((hour * 60 + minute) * 60 + second) * (long) MILLIS_PER_SECOND + milli;
+	}
+
+	/**
+	 * 解析text的[start, end)区间为本地时间毫秒值（以UTC计算的本地时间），解析失败时抛出和DateTimeFormatter相同的异常
+	 * @param text 待解析字符串
+	 * @param start 起始位置
+	 * @param end 结束位置
+	 * @return 本地时间毫秒值
+	 */
+	long decodeLocalMilli(CharSequence text, int start, int end) {
+		long localMilli = tryDecodeLocalMilli(text, start, end);
+		if (localMilli == INVALID) {
+			throw parseException(text, start, end);
+		}
+		return localMilli;
+	}
+
+	/**
+	 * 解析text的[start, end)区间为时间戳毫秒值，解析失败时抛出和DateTimeFormatter相同的异常
+	 * @param text 待解析字符串
+	 * @param start 起始位置
+	 * @param end 结束位置
+	 * @param zone 时区，不包含时区偏移的模板使用该时区
+	 * @return 时间戳毫秒值
+	 */
+	long decodeEpochMilli(CharSequence text, int start, int end, ZoneId zone) {
+		long epochMilli = tryDecodeEpochMilli(text, start, end, zone);
+		if (epochMilli == INVALID) {
+			throw parseException(text, start, end);
+		}
+		return epochMilli;
+	}
+
+	/**
+	 * 解析text的[start, end)区间为本地时间毫秒值（以UTC计算的本地时间），不抛出异常，包含时区偏移的模板同时校验时区偏移
+	 * @param text 待解析字符串
+	 * @param start 起始位置
+	 * @param end 结束位置
+	 * @return 本地时间毫秒值，解析失败返回INVALID
+	 */
+	long tryDecodeLocalMilli(CharSequence text, int start, int end) {
+		long localMilli = tryDecodeFields(text, start, end);
+		if (localMilli != INVALID && hasOffset
+				&& tryDecodeOffsetSeconds(text, start + layout.length, end) == INVALID_OFFSET) {
+			return INVALID;
+		}
+		return localMilli;
+	}
+
+	/**
+	 * 解析text的[start, end)区间为时间戳毫秒值，不抛出异常
+	 * @param text 待解析字符串
+	 * @param start 起始位置
+	 * @param end 结束位置
+	 * @param zone 时区，不包含时区偏移的模板使用该时区
+	 * @return 时间戳毫秒值，解析失败返回INVALID
+	 */
+	long tryDecodeEpochMilli(CharSequence text, int start, int end, ZoneId zone) {
+		long localMilli = tryDecodeFields(text, start, end);
+		if (localMilli == INVALID) {
+			return INVALID;
+		}
+		if (hasOffset) {
+			int offsetSeconds = tryDecodeOffsetSeconds(text, start + layout.length, end);
+			return offsetSeconds == INVALID_OFFSET ? INVALID : localMilli - offsetSeconds * (long) MILLIS_PER_SECOND;
+		}
+		Objects.requireNonNull(zone, "zone");
+		return localMilli - localOffsetSeconds(localMilli, zone) * (long) MILLIS_PER_SECOND;
+	}
+
+	/**
+	 * 字段布局，比如 yyyy-MM-dd HH:mm:ss，不包含时区偏移部分
+	 * @return 字段布局
+	 */
+	String getLayout() {
+		return new String(layout);
+	}
+
+	/**
+	 * 秒字段的结束位置，之前的部分（日期、时、分、秒）可以作为前缀复用，没有时间字段时为日期的长度
+	 * @return 秒字段的结束位置
+	 */
+	int getSecondEnd() {
+		return secondPos >= 0 ? secondPos + 2 : layout.length;
+	}
+
+	/**
+	 * 校验text中秒字段之后的部分（毫秒和时区偏移）并解析毫秒，秒字段之前的部分需已校验
+	 * @param text 待解析字符串
+	 * @param start 起始位置
+	 * @param end 结束位置
+	 * @return 毫秒值，没有毫秒字段时为0，失败返回-1
+	 */
+	int tryDecodeMilliOfSecond(CharSequence text, int start, int end) {
+		int len = end - start;
+		if (len != getMinLength() && len != getMaxLength()) {
+			return -1;
+		}
+		char[] layout = this.layout;
+		for (int i = getSecondEnd(); i < layout.length; i++) {
+			char c = text.charAt(start + i);
+			char l = layout[i];
+			if (l >= 'A' && l <= 'z' && l != 'T') {
+				if (c < '0' || c > '9') {
+					return -1;
+				}
+			} else if (c != l) {
+				return -1;
+			}
+		}
+		if (hasOffset && tryDecodeOffsetSeconds(text, start + layout.length, end) == INVALID_OFFSET) {
+			return -1;
+		}
+		return milliPos >= 0 ? (text.charAt(start + milliPos) - '0') * 100 + digits2(text, start + milliPos + 1) : 0;
+	}
+
+	/**
+	 * 校验格式和各字段范围，解析日期时间部分
+	 */
+	private long tryDecodeFields(CharSequence text, int start, int end) {
+		int len = end - start;
+		if (len != getMinLength() && len != getMaxLength()) {
+			return INVALID;
+		}
+		char[] layout = this.layout;
+		for (int i = 0; i < layout.length; i++) {
+			char c = text.charAt(start + i);
+			char l = layout[i];
+			if (l >= 'A' && l <= 'z' && l != 'T') {
+				if (c < '0' || c > '9') {
+					return INVALID;
+				}
+			} else if (c != l) {
+				return INVALID;
+			}
+		}
+
+		int year = digits4(text, start + yearPos);
+		int month = digits2(text, start + monthPos);
+		int day = digits2(text, start + dayPos);
+		int hour = hourPos < 0 ? 0 : digits2(text, start + hourPos);
+		int minute = minutePos < 0 ? 0 : digits2(text, start + minutePos);
+		int second = secondPos < 0 ? 0 : digits2(text, start + secondPos);
+		int milli = milliPos < 0 ? 0 : digits2(text, start + milliPos) * 10 + (text.charAt(start + milliPos + 2) - '0');
+		return resolveFields(year, month, day, hour, minute, second, milli);
+	}
+
+	/**
+	 * 校验字段并转换为本地时间毫秒值，和DateTimeFormatter SMART解析一致：日期超出当月天数时取当月最后一天，24:00:00 为第二天0点
+	 * @return 本地时间毫秒值，字段超出范围时返回INVALID
+	 */
+	static long resolveFields(int year, int month, int day, int hour, int minute, int second, int milli) {
+		if (year < 1 || month < 1 || month > 12 || day < 1 || day > 31 || minute > 59 || second > 59) {
+			return INVALID;
+		}
+		int extraDay = 0;
+		if (hour == 24 && minute == 0 && second == 0 && milli == 0) {
+			hour = 0;
+			extraDay = 1;
+		} else if (hour > 23) {
+			return INVALID;
+		}
+		int monthLength = PackedDate.lengthOfMonth(year, month);
+		if (day > monthLength) {
+			day = monthLength;
+		}
+		return toLocalMilli(year, month, day, hour, minute, second, milli) + extraDay * MILLIS_PER_DAY;
+	}
+
+	/**
+	 * 解析时区偏移 Z 或 +HH:MM，返回偏移秒数，解析失败返回INVALID_OFFSET
+	 */
+	private static int tryDecodeOffsetSeconds(CharSequence text, int start, int end) {
+		char sign = text.charAt(start);
+		if (end - start == 1) {
+			return sign == 'Z' ? 0 : INVALID_OFFSET;
+		}
+		if ((sign != '+' && sign != '-') || text.charAt(start + 3) != ':' || !isDigit(text, start + 1)
+				|| !isDigit(text, start + 2) || !isDigit(text, start + 4) || !isDigit(text, start + 5)) {
+			return INVALID_OFFSET;
+		}
+		int hours = digits2(text, start + 1);
+		int minutes = digits2(text, start + 4);
+		if (hours > 18 || minutes > 59 || (hours == 18 && minutes > 0)) {
+			return INVALID_OFFSET;
+		}
+		int seconds = hours * 3600 + minutes * 60;
+		return sign == '-' ? -seconds : seconds;
+	}
+
+	/**
+	 * 解析失败时，使用对应模板的DateTimeFormatter解析，抛出的异常信息和错误位置与原有方式一致
+	 */
+	private DateTimeParseException parseException(CharSequence text, int start, int end) {
+		CharSequence str = text.subSequence(start, end);
+		try {
+			formatter(null).parse(str);
+		} catch (DateTimeParseException e) {
+			return e;
+		}
+		return new DateTimeParseException("Text '" + str + "' could not be parsed", str, 0);
+	}
+
+	// ==================================format==================================
+
+	/**
+	 * 格式化时间戳毫秒值，使用系统默认时区
+	 * @param epochMilli 时间戳毫秒值
+	 * @return String
+	 */
+	public String format(long epochMilli) {
+		return format(epochMilli, ZoneId.systemDefault());
+	}
+
+	/**
+	 * 格式化时间戳毫秒值
+	 * @param epochMilli 时间戳毫秒值
+	 * @param zone 时区
+	 * @return String
+	 */
+	public String format(long epochMilli, ZoneId zone) {
+		Objects.requireNonNull(zone, "zone");
+		char[] buf = new char[getMaxLength()];
+		int len = encodeEpochMilli(epochMilli, zone, buf, 0);
+		if (len < 0) {
+			return formatter(zone).format(Instant.ofEpochMilli(epochMilli));
+		}
+		return new String(buf, 0, len);
+	}
+
+	/**
+	 * 格式化LocalDateTime，包含时区偏移的模板使用系统默认时区对应的偏移
+	 * @param localDateTime LocalDateTime
+	 * @return String
+	 */
+	public String format(LocalDateTime localDateTime) {
+		Objects.requireNonNull(localDateTime, "localDateTime");
+		char[] buf = new char[getMaxLength()];
+		int len = encodeLocalDateTime(localDateTime, hasOffset ? ZoneId.systemDefault() : null, buf, 0);
+		if (len < 0) {
+			return formatter(ZoneId.systemDefault()).format(localDateTime.atZone(ZoneId.systemDefault()));
+		}
+		return new String(buf, 0, len);
+	}
+
+	/**
+	 * 将时间戳毫秒值按模板写入buf
+	 * @param epochMilli 时间戳毫秒值
+	 * @param zone 时区
+	 * @param buf 目标数组，长度至少为getMaxLength()
+	 * @param pos 写入起始位置
+	 * @return 写入长度，不支持时返回-1，由调用方使用DateTimeFormatter处理
+	 */
+	int encodeEpochMilli(long epochMilli, ZoneId zone, char[] buf, int pos) {
+		int offsetSeconds = offsetSeconds(epochMilli, zone);
+		return encode(epochMilli + offsetSeconds * (long) MILLIS_PER_SECOND, offsetSeconds, buf, pos);
+	}
+
+	/**
+	 * 将LocalDateTime按模板写入buf<br>
+	 * zone不为null时和localDateTime.atZone(zone)格式化一致，使用zone对应的偏移，处于夏令时间隙时返回-1（atZone会调整时间）；<br>
+	 * zone为null时直接写入本地时间，包含时区偏移的模板偏移为Z。
+	 * @param localDateTime LocalDateTime
+	 * @param zone 时区，可以为null
+	 * @param buf 目标数组，长度至少为getMaxLength()
+	 * @param pos 写入起始位置
+	 * @return 写入长度，不支持时返回-1，由调用方使用DateTimeFormatter处理
+	 */
+	int encodeLocalDateTime(LocalDateTime localDateTime, ZoneId zone, char[] buf, int pos) {
+		long localMilli = localDateTime.toLocalDate().toEpochDay() * MILLIS_PER_DAY
+				+ localDateTime.toLocalTime().toNanoOfDay() / 1000_000;
+		int offsetSeconds = 0;
+		if (zone != null) {
+			if (isGap(localDateTime, zone)) {
+				return -1;
+			}
+			offsetSeconds = localOffsetSeconds(localMilli, zone);
+		}
+		return encode(localMilli, offsetSeconds, buf, pos);
+	}
+
+	/**
+	 * 将本地时间毫秒值按模板写入buf
+	 * @param localMilli 本地时间毫秒值（以UTC计算的本地时间）
+	 * @param offsetSeconds 时区偏移秒数，包含时区偏移的模板使用
+	 * @param buf 目标数组
+	 * @param pos 写入起始位置
+	 * @return 写入长度，年份超出0001-9999或时区偏移包含秒时返回-1，由调用方使用DateTimeFormatter处理
+	 */
+	int encode(long localMilli, int offsetSeconds, char[] buf, int pos) {
+		long epochDay = Math.floorDiv(localMilli, MILLIS_PER_DAY);
+		int milliOfDay = (int) Math.floorMod(localMilli, MILLIS_PER_DAY);
+		if (epochDay < MIN_EPOCH_DAY || epochDay > MAX_EPOCH_DAY || (hasOffset && offsetSeconds % 60 != 0)) {
+			return -1;
+		}
+		int date = PackedDate.toYyyyMMdd((int) epochDay);
+		int secondOfDay = milliOfDay / MILLIS_PER_SECOND;
+		char[] layout = this.layout;
+		for (int i = 0; i < layout.length; i++) {
+			buf[pos + i] = layout[i];
+		}
+		putDigits4(buf, pos + yearPos, date / 10000);
+		putDigits2(buf, pos + monthPos, date / 100 % 100);
+		putDigits2(buf, pos + dayPos, date % 100);
+		if (hourPos >= 0) {
+			putDigits2(buf, pos + hourPos, secondOfDay / 3600);
+			putDigits2(buf, pos + minutePos, secondOfDay / 60 % 60);
+			putDigits2(buf, pos + secondPos, secondOfDay % 60);
+		}
+		if (milliPos >= 0) {
+			int milli = milliOfDay % MILLIS_PER_SECOND;
+			buf[pos + milliPos] = (char) ('0' + milli / 100);
+			putDigits2(buf, pos + milliPos + 1, milli % 100);
+		}
+		int len = layout.length;
+		if (hasOffset) {
+			if (offsetSeconds == 0) {
+				buf[pos + len++] = 'Z';
+			} else {
+				int abs = Math.abs(offsetSeconds);
+				buf[pos + len] = offsetSeconds < 0 ? '-' : '+';
+				putDigits2(buf, pos + len + 1, abs / 3600);
+				buf[pos + len + 3] = ':';
+				putDigits2(buf, pos + len + 4, abs / 60 % 60);
+				len += 6;
+			}
+		}
+		return len;
+	}
+
+	/**
+	 * 对应模板的DateTimeFormatter，用于超出定长范围的时间
+	 */
+	private DateTimeFormatter formatter(ZoneId zone) {
+		return DateTimeFormatterCache.get(pattern, zone);
+	}
+
+	// ==================================zone offset==================================
+
+	/**
+	 * 时间戳对应的时区偏移秒数，使用ZoneRegistry的偏移转换表
+	 */
+	static int offsetSeconds(long epochMilli, ZoneId zone) {
+		return ZoneRegistry.getOffsetSeconds(epochMilli, zone);
+	}
+
+	/**
+	 * 本地时间对应的时区偏移秒数，夏令时重叠时取较早的偏移，和LocalDateTime.atZone一致，使用ZoneRegistry的偏移转换表
+	 */
+	static int localOffsetSeconds(long localMilli, ZoneId zone) {
+		return ZoneRegistry.getLocalOffsetSeconds(localMilli, zone);
+	}
+
+	/**
+	 * 本地时间毫秒值按时区调整，和LocalDateTime.atZone(zone).toLocalDateTime()一致，处于夏令时间隙时向后调整间隙长度，其他时间不变<br>
+	 * 间隙中的本地时间使用间隙之前的偏移转换为时间戳，再使用时间戳对应的偏移（间隙之后的偏移）转换回本地时间
+	 */
+	static long resolveLocalMilli(long localMilli, ZoneId zone) {
+		long epochMilli = localMilli - localOffsetSeconds(localMilli, zone) * (long) MILLIS_PER_SECOND;
+		return epochMilli + offsetSeconds(epochMilli, zone) * (long) MILLIS_PER_SECOND;
+	}
+
+	/**
+	 * 本地时间是否处于夏令时间隙，即该时区不存在的本地时间
+	 */
+	static boolean isGap(LocalDateTime localDateTime, ZoneId zone) {
+		if (zone instanceof ZoneOffset) {
+			return false;
+		}
+		ZoneRules rules = zone.getRules();
+		if (rules.isFixedOffset()) {
+			return false;
+		}
+		ZoneOffsetTransition transition = rules.getTransition(localDateTime);
+		return transition != null && transition.isGap();
+	}
+
+	// ==================================digits==================================
+
+	private static boolean isDigit(CharSequence text, int index) {
+		char c = text.charAt(index);
+		return c >= '0' && c <= '9';
+	}
+
+	private static int digits2(CharSequence text, int index) {
+		return (text.charAt(index) - '0') * 10 + (text.charAt(index + 1) - '0');
+	}
+
+	private static int digits4(CharSequence text, int index) {
+		return digits2(text, index) * 100 + digits2(text, index + 2);
+	}
+
+	private static void putDigits2(char[] buf, int index, int value) {
+		buf[index] = (char) ('0' + value / 10);
+		buf[index + 1] = (char) ('0' + value % 10);
+	}
+
+	private static void putDigits4(char[] buf, int index, int value) {
+		putDigits2(buf, index, value / 100);
+		putDigits2(buf, index + 2, value % 100);
+	}
+}
@@ -0,0 +1,680 @@
+package com.xkzhangsan.time.formatter;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import com.xkzhangsan.time.utils.CollectionUtil;
+
+/**
+ * 根据样本推断格式的解析器，适合接入新的数据文件时，用前N行推断时间格式，后续行不再逐行判断格式<br>
+ * 1.候选模板为DateFormatPattern中包含完整日期的模板，以及由 yyyy-MM-dd、yyyy-M-d 开头的模板生成的斜杠（yyyy/MM/dd）和中文（yyyy年MM月dd日、HH时mm分ss秒）变体，
+ * 包含文本字段（比如EEE、MMM、a）的模板同时尝试英文Locale。<br>
+ * 2.选择解析成功样本最多的模板，相同时选择格式化后和样本完全一致（往返一致）最多的模板，再相同时选择有快速解析的模板，最后按候选顺序。<br>
+ * 3.推断结果见getReport()，包括匹配数量、置信度、同样匹配的其他模板（存在歧义，比如 05/06/07）和解析失败的样本位置。<br>
+ * 4.推断出的模板为定长数字模板时（比如 yyyy/MM/dd HH:mm:ss、yyyy年MM月dd日 HH时mm分ss秒），编译为按位置校验和读取数字的解析器，不使用DateTimeFormatter；
+ * 长度或格式不符合时使用formatter解析，因此结果和异常都和DateTimeFormatterUtil.parseToLocalDateTime(String text, String dateFormatPattern)一致。<br>
+ * 比如：<br>
+ * <pre>
+ * InferredDateTimeParser parser = InferredDateTimeParser.infer(firstLines);
+ * if (parser.getReport().getConfidence() == 1 &amp;&amp; !parser.getReport().isAmbiguous()) {
+ *     Date date = parser.parseToDate("2020/05/23 17:06:30");
+ * }
+ * </pre>
+ * 解析器不可变，线程安全。
+ *
+ * @author xkzhangsan
+ */
+public final class InferredDateTimeParser {
+
+	/**
+	 * 包含完整日期的候选模板，按优先顺序排列，只有时间或缺少年月日的模板不能解析为LocalDateTime，不作为候选
+	 */
+	private static final String[] PATTERNS = {
+			DateFormatPattern.YYYY_MM_DD, DateFormatPattern.YYYY_M_D, DateFormatPattern.YYYYMMDD,
+			DateFormatPattern.YYYY_MM_DD_EN, DateFormatPattern.YYYY_M_D_EN, DateFormatPattern.YYYY_MM_DD_CN,
+			DateFormatPattern.YYYY_M_D_CN, DateFormatPattern.YYYY_MM_DD_POINT, DateFormatPattern.YYYY_M_D_POINT,
+			DateFormatPattern.YY_MM_DD_EN, DateFormatPattern.YY_M_D_EN, DateFormatPattern.MM_DD_YY_EN,
+			DateFormatPattern.M_D_YY_EN, DateFormatPattern.YYYY_MM_DD_E,
+			DateFormatPattern.YYYY_MM_DD_HH_MM_SS, DateFormatPattern.YYYY_M_D_H_M_S,
+			DateFormatPattern.YYYYMMDDHHMMSS, DateFormatPattern.YYYY_MM_DD_HH_MM_SS_EN,
+			DateFormatPattern.YYYY_M_D_H_M_S_EN, DateFormatPattern.YYYY_MM_DD_HH_MM_SS_CN,
+			DateFormatPattern.YYYY_MM_DD_HH_MM_SS_CN_ALL, DateFormatPattern.YYYY_MM_DD_HH_MM,
+			DateFormatPattern.YYYY_M_D_H_M, DateFormatPattern.YYYYMMDDHHMM, DateFormatPattern.YYYY_MM_DD_HH_MM_EN,
+			DateFormatPattern.YYYY_M_D_H_M_EN, DateFormatPattern.YYYY_M_D_H_M_A_EN,
+			DateFormatPattern.YYYY_MM_DD_HH_MM_SS_A_CN, DateFormatPattern.YYYY_MM_DD_HH_MM_SS_A_CN_ALL,
+			DateFormatPattern.YYYY_MM_DD_HH_MM_SS_SSS, DateFormatPattern.YYYY_MM_DD_HH_MM_SS_SSS_COMMA,
+			DateFormatPattern.YYYYMMDDHHMMSSSSS, DateFormatPattern.YYYY_M_D_H_M_S_SSS,
+			DateFormatPattern.YYYY_M_D_H_M_S_SSS_EN, DateFormatPattern.YYYY_M_D_H_M_S_SSS_COMMA,
+			DateFormatPattern.YYYY_MM_DD_HH_MM_SS_SSSSSS, DateFormatPattern.YYYY_MM_DD_HH_MM_SS_SSSSSSSSS,
+			DateFormatPattern.YYYY_MM_DD_T_HH_MM_SS_Z, DateFormatPattern.YYYY_MM_DD_T_HH_MM_SS_XXX,
+			DateFormatPattern.YYYY_MM_DD_T_HH_MM_SS_XXX_Z, DateFormatPattern.YYYY_MM_DD_T_HH_MM_SS_SSS_Z,
+			DateFormatPattern.YYYY_MM_DD_T_HH_MM_SS_SSS_XXX, DateFormatPattern.YYYY_MM_DD_T_HH_MM_SS_SSS_XXX_Z,
+			DateFormatPattern.YYYY_MM_DD_T_HH_MM_SS_SSSSSS_Z, DateFormatPattern.YYYY_MM_DD_T_HH_MM_SS_SSSSSS_XXX,
+			DateFormatPattern.YYYY_MM_DD_T_HH_MM_SS_SSSSSS_XXX_Z,
+			DateFormatPattern.YYYY_MM_DD_T_HH_MM_SS_SSSSSSSSS_Z,
+			DateFormatPattern.YYYY_MM_DD_T_HH_MM_SS_SSSSSSSSS_XXX,
+			DateFormatPattern.YYYY_MM_DD_T_HH_MM_SS_SSSSSSSSS_XXX_Z,
+			DateFormatPattern.EEE_MMM_DD_HH_MM_SS_ZZZ_YYYY };
+
+	/**
+	 * 推断出的模板
+	 */
+	private final String pattern;
+
+	/**
+	 * 模板对应的formatter，Locale为系统默认Locale或英文
+	 */
+	private final DateTimeFormatter formatter;
+
+	/**
+	 * 模板对应的定长编解码器，不支持时为null
+	 */
+	private final FixedWidthDateTimeCodec codec;
+
+	/**
+	 * 编译后的定长解析器，不支持时为null
+	 */
+	private final CompiledLayout layout;
+
+	private final InferenceReport report;
+
+	private InferredDateTimeParser(Candidate candidate, CompiledLayout layout, InferenceReport report) {
+		this.pattern = candidate.pattern;
+		this.formatter = candidate.formatter;
+		this.codec = candidate.codec;
+		this.layout = layout;
+		this.report = report;
+	}
+
+	/**
+	 * 根据样本推断格式，创建解析器
+	 * @param samples 样本，比如文件的前100行中的时间字段
+	 * @return InferredDateTimeParser
+	 * @throws IllegalArgumentException 样本为空时
+	 * @throws DateTimeException 没有模板可以解析任何一个样本时
+	 */
+	public static InferredDateTimeParser infer(String... samples) {
+		Objects.requireNonNull(samples, "samples");
+		return infer(Arrays.asList(samples));
+	}
+
+	/**
+	 * 根据样本推断格式，创建解析器，样本不去除首尾空白
+	 * @param samples 样本，比如文件的前100行中的时间字段，null元素视为解析失败
+	 * @return InferredDateTimeParser
+	 * @throws IllegalArgumentException 样本为空时
+	 * @throws DateTimeException 没有模板可以解析任何一个样本时
+	 */
+	public static InferredDateTimeParser infer(List<String> samples) {
+		if (CollectionUtil.isEmpty(samples)) {
+			throw new IllegalArgumentException("samples is empty");
+		}
+		List<Candidate> candidates = CandidatesHolder.CANDIDATES;
+		String[] texts = samples.toArray(new String[0]);
+		int[] matchCounts = new int[candidates.size()];
+		int[] roundTripCounts = new int[candidates.size()];
+		int best = -1;
+		for (int i = 0; i < candidates.size(); i++) {
+			Candidate candidate = candidates.get(i);
+			for (String text : texts) {
+				LocalDateTime localDateTime = candidate.tryParse(text);
+				if (localDateTime != null) {
+					matchCounts[i]++;
+					if (candidate.isRoundTrip(text)) {
+						roundTripCounts[i]++;
+					}
+				}
+			}
+			if (matchCounts[i] > 0 && (best < 0 || compare(candidates, matchCounts, roundTripCounts, i, best) > 0)) {
+				best = i;
+			}
+		}
+		if (best < 0) {
+			throw new DateTimeException("samples are not supported! " + texts[0]);
+		}
+
+		Candidate candidate = candidates.get(best);
+		List<String> alternatives = new ArrayList<>();
+		for (int i = 0; i < candidates.size(); i++) {
+			if (i != best && matchCounts[i] == matchCounts[best] && roundTripCounts[i] == roundTripCounts[best]) {
+				alternatives.add(candidates.get(i).pattern);
+			}
+		}
+		List<Integer> unmatchedIndexes = new ArrayList<>();
+		List<String> matched = new ArrayList<>();
+		for (int i = 0; i < texts.length; i++) {
+			if (candidate.tryParse(texts[i]) == null) {
+				unmatchedIndexes.add(i);
+			} else {
+				matched.add(texts[i]);
+			}
+		}
+		CompiledLayout layout = candidate.codec == null ? CompiledLayout.compile(candidate.pattern, candidate.formatter.getZone()) : null;
+		if (layout != null && !layout.verify(matched, candidate)) {
+			layout = null;
+		}
+		InferenceReport report = new InferenceReport(candidate.pattern, candidate.formatter.getLocale(),
+				texts.length, matchCounts[best], roundTripCounts[best], candidate.codec != null || layout != null,
+				alternatives, unmatchedIndexes);
+		return new InferredDateTimeParser(candidate, layout, report);
+	}
+
+	/**
+	 * 解析为LocalDateTime，和DateTimeFormatterUtil.parseToLocalDateTime(String text, String dateFormatPattern)一致，
+	 * 英文Locale时和parseToLocalDateTime(String text, DateTimeFormatter formatter)一致
+	 * @param text 待解析字符串
+	 * @return LocalDateTime
+	 */
+	public LocalDateTime parseToLocalDateTime(String text) {
+		if (layout != null && text != null) {
+			LocalDateTime localDateTime = layout.tryDecodeLocalDateTime(text);
+			if (localDateTime != null) {
+				return localDateTime;
+			}
+		}
+		return codec != null ? DateTimeFormatterUtil.parseToLocalDateTime(text, pattern)
+				: DateTimeFormatterUtil.parseToLocalDateTime(text, formatter);
+	}
+
+	/**
+	 * 解析为LocalDateTime，解析失败时返回Optional.empty()，不抛出异常
+	 * @param text 待解析字符串，可以为null
+	 * @return Optional&lt;LocalDateTime&gt;
+	 */
+	public Optional<LocalDateTime> tryParseToLocalDateTime(String text) {
+		if (text == null) {
+			return Optional.empty();
+		}
+		if (layout != null) {
+			LocalDateTime localDateTime = layout.tryDecodeLocalDateTime(text);
+			if (localDateTime != null) {
+				return Optional.of(localDateTime);
+			}
+		}
+		return Optional.ofNullable(DateTimeFormatterUtil.tryParseLocalDateTime(text, codec, formatter));
+	}
+
+	/**
+	 * 解析为时间戳毫秒值，使用系统默认时区，和parseToDate(String text).getTime()一致
+	 * @param text 待解析字符串
+	 * @return 时间戳毫秒值
+	 */
+	public long parseToEpochMilli(String text) {
+		if (layout != null && text != null) {
+			long localMilli = layout.tryDecodeLocalMilli(text);
+			if (localMilli != FixedWidthDateTimeCodec.INVALID) {
+				return localMilli
+						- FixedWidthDateTimeCodec.localOffsetSeconds(localMilli, ZoneId.systemDefault()) * 1000L;
+			}
+		}
+		Date date = codec != null ? DateTimeFormatterUtil.parseToDate(text, pattern)
+				: DateTimeFormatterUtil.parseToDate(text, formatter);
+		return date.getTime();
+	}
+
+	/**
+	 * 解析为Date，使用系统默认时区，和DateTimeFormatterUtil.parseToDate(String text, String dateFormatPattern)一致
+	 * @param text 待解析字符串
+	 * @return Date
+	 */
+	public Date parseToDate(String text) {
+		return new Date(parseToEpochMilli(text));
+	}
+
+	/**
+	 * 推断出的模板
+	 * @return 模板
+	 */
+	public String getPattern() {
+		return pattern;
+	}
+
+	/**
+	 * 推断出的模板对应的formatter
+	 * @return DateTimeFormatter
+	 */
+	public DateTimeFormatter getFormatter() {
+		return formatter;
+	}
+
+	/**
+	 * 推断报告
+	 * @return InferenceReport
+	 */
+	public InferenceReport getReport() {
+		return report;
+	}
+
+	@Override
+	public String toString() {
+		return "InferredDateTimeParser [pattern=" + pattern + ", report=" + report + "]";
+	}
+
+	/**
+	 * 比较候选模板i和j，依次比较匹配数量、往返一致数量、是否有快速解析，都相同时候选顺序在前的优先
+	 */
+	private static int compare(List<Candidate> candidates, int[] matchCounts, int[] roundTripCounts, int i, int j) {
+		int result = Integer.compare(matchCounts[i], matchCounts[j]);
+		if (result == 0) {
+			result = Integer.compare(roundTripCounts[i], roundTripCounts[j]);
+		}
+		if (result == 0) {
+			result = Boolean.compare(candidates.get(i).fast, candidates.get(j).fast);
+		}
+		return result;
+	}
+
+	/**
+	 * 推断报告，不可变
+	 *
+	 * @author xkzhangsan
+	 */
+	public static final class InferenceReport {
+
+		private final String pattern;
+
+		private final Locale locale;
+
+		private final int sampleCount;
+
+		private final int matchCount;
+
+		private final int roundTripCount;
+
+		private final boolean compiled;
+
+		private final List<String> alternatives;
+
+		private final List<Integer> unmatchedIndexes;
+
+		InferenceReport(String pattern, Locale locale, int sampleCount, int matchCount, int roundTripCount,
+				boolean compiled, List<String> alternatives, List<Integer> unmatchedIndexes) {
+			this.pattern = pattern;
+			this.locale = locale;
+			this.sampleCount = sampleCount;
+			this.matchCount = matchCount;
+			this.roundTripCount = roundTripCount;
+			this.compiled = compiled;
+			this.alternatives = Collections.unmodifiableList(alternatives);
+			this.unmatchedIndexes = Collections.unmodifiableList(unmatchedIndexes);
+		}
+
+		/**
+		 * 推断出的模板
+		 * @return 模板
+		 */
+		public String getPattern() {
+			return pattern;
+		}
+
+		/**
+		 * 推断出的模板使用的Locale
+		 * @return Locale
+		 */
+		public Locale getLocale() {
+			return locale;
+		}
+
+		/**
+		 * 样本数量
+		 * @return 样本数量
+		 */
+		public int getSampleCount() {
+			return sampleCount;
+		}
+
+		/**
+		 * 解析成功的样本数量
+		 * @return 解析成功的样本数量
+		 */
+		public int getMatchCount() {
+			return matchCount;
+		}
+
+		/**
+		 * 格式化后和样本完全一致的样本数量，比如 2020-5-3 使用 yyyy-M-d 往返一致，使用 yyyy-MM-dd 不一致
+		 * @return 往返一致的样本数量
+		 */
+		public int getRoundTripCount() {
+			return roundTripCount;
+		}
+
+		/**
+		 * 置信度，解析成功的样本比例
+		 * @return 置信度，0到1
+		 */
+		public double getConfidence() {
+			return (double) matchCount / sampleCount;
+		}
+
+		/**
+		 * 是否存在歧义，即其他模板的匹配数量和往返一致数量都相同，比如 05/06/07 可以是 yy/MM/dd 或 MM/dd/yy
+		 * @return boolean
+		 */
+		public boolean isAmbiguous() {
+			return !alternatives.isEmpty();
+		}
+
+		/**
+		 * 匹配数量和往返一致数量都相同的其他模板，按候选顺序排列
+		 * @return 其他模板
+		 */
+		public List<String> getAlternatives() {
+			return alternatives;
+		}
+
+		/**
+		 * 推断出的模板解析失败的样本位置
+		 * @return 样本位置
+		 */
+		public List<Integer> getUnmatchedIndexes() {
+			return unmatchedIndexes;
+		}
+
+		/**
+		 * 是否有快速解析，即使用定长编解码器或编译后的定长解析器，不使用DateTimeFormatter
+		 * @return boolean
+		 */
+		public boolean isCompiled() {
+			return compiled;
+		}
+
+		@Override
+		public String toString() {
+			return "InferenceReport [pattern=" + pattern + ", locale=" + locale + ", sampleCount=" + sampleCount
+					+ ", matchCount=" + matchCount + ", roundTripCount=" + roundTripCount + ", compiled=" + compiled
+					+ ", alternatives=" + alternatives + ", unmatchedIndexes=" + unmatchedIndexes + "]";
+		}
+	}
+
+	/**
+	 * 候选模板，第一次推断时创建
+	 *
+	 * @author xkzhangsan
+	 */
+	private static final class CandidatesHolder {
+
+		private static final List<Candidate> CANDIDATES = createCandidates();
+
+		private static List<Candidate> createCandidates() {
+			Set<String> patterns = new LinkedHashSet<>(Arrays.asList(PATTERNS));
+			for (String pattern : PATTERNS) {
+				addVariants(patterns, pattern);
+			}
+			Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+			boolean english = Locale.ENGLISH.getLanguage().equals(locale.getLanguage());
+			List<Candidate> candidates = new ArrayList<>(patterns.size() + 8);
+			for (String pattern : patterns) {
+				DateTimeFormatter formatter = DateTimeFormatterUtil.getDateTimeFormatter(pattern);
+				candidates.add(new Candidate(pattern, formatter, true));
+				if (!english && hasText(pattern)) {
+					candidates.add(new Candidate(pattern,
+							DateTimeFormatterCache.get(pattern, formatter.getZone(), Locale.ENGLISH), false));
+				}
+			}
+			return Collections.unmodifiableList(candidates);
+		}
+
+		/**
+		 * 由 yyyy-MM-dd 或 yyyy-M-d 后跟空格的模板生成斜杠和中文变体，比如 yyyy-MM-dd HH:mm:ss.SSS 生成
+		 * yyyy/MM/dd HH:mm:ss.SSS、yyyy年MM月dd日 HH:mm:ss.SSS 和 yyyy年MM月dd日 HH时mm分ss秒.SSS
+		 */
+		private static void addVariants(Set<String> patterns, String pattern) {
+			String date;
+			String cnDate;
+			if (pattern.startsWith("yyyy-MM-dd ")) {
+				date = "yyyy-MM-dd";
+				cnDate = "yyyy年MM月dd日";
+			} else if (pattern.startsWith("yyyy-M-d ")) {
+				date = "yyyy-M-d";
+				cnDate = "yyyy年M月d日";
+			} else {
+				return;
+			}
+			String time = pattern.substring(date.length());
+			patterns.add(date.replace('-', '/') + time);
+			patterns.add(cnDate + time);
+			String cnTime = time.replace("HH:mm:ss", "HH时mm分ss秒").replace("H:m:s", "H时m分s秒")
+					.replace("HH:mm", "HH时mm分").replace("H:m", "H时m分");
+			patterns.add(cnDate + cnTime);
+		}
+
+		/**
+		 * 是否包含和Locale有关的文本字段，比如EEE、MMM、a
+		 */
+		private static boolean hasText(String pattern) {
+			return pattern.indexOf('E') >= 0 || pattern.indexOf('a') >= 0 || pattern.contains("MMM")
+					|| pattern.indexOf('z') >= 0;
+		}
+	}
+
+	/**
+	 * 候选模板
+	 *
+	 * @author xkzhangsan
+	 */
+	private static final class Candidate {
+
+		private final String pattern;
+
+		private final DateTimeFormatter formatter;
+
+		/**
+		 * 模板对应的定长编解码器，英文Locale时为null
+		 */
+		private final FixedWidthDateTimeCodec codec;
+
+		/**
+		 * 是否可能有快速解析，推断时优先
+		 */
+		private final boolean fast;
+
+		Candidate(String pattern, DateTimeFormatter formatter, boolean defaultLocale) {
+			this.pattern = pattern;
+			this.formatter = formatter;
+			this.codec = defaultLocale ? FixedWidthDateTimeCodec.of(pattern) : null;
+			this.fast = codec != null || CompiledLayout.compile(pattern, null) != null;
+		}
+
+		/**
+		 * 和DateTimeFormatterUtil.tryParseToLocalDateTime(String text, String dateFormatPattern)一致，解析失败返回null
+		 */
+		LocalDateTime tryParse(String text) {
+			return text == null ? null : DateTimeFormatterUtil.tryParseLocalDateTime(text, codec, formatter);
+		}
+
+		/**
+		 * 格式化解析结果后是否和样本完全一致
+		 */
+		boolean isRoundTrip(String text) {
+			try {
+				return formatter.format(formatter.parse(text)).equals(text);
+			} catch (DateTimeException e) {
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * 编译后的定长数字模板，各字段位数固定：yyyy或yy、MM、dd、HH、mm、ss、SSS，其他为固定字符，比如 yyyy年MM月dd日 HH时mm分ss秒<br>
+	 * 长度、数字和固定字符都符合时直接读取字段，字段校验规则和FixedWidthDateTimeCodec一致
+	 *
+	 * @author xkzhangsan
+	 */
+	private static final class CompiledLayout {
+
+		/**
+		 * 数字位置
+		 */
+		private static final char DIGIT = 0;
+
+		/**
+		 * 每个位置为DIGIT或固定字符
+		 */
+		private final char[] chars;
+
+		/**
+		 * 年份位数，2位时为2000年到2099年，和DateTimeFormatter的yy一致
+		 */
+		private final int yearWidth;
+
+		private final int yearPos;
+
+		private final int monthPos;
+
+		private final int dayPos;
+
+		private final int hourPos;
+
+		private final int minutePos;
+
+		private final int secondPos;
+
+		private final int milliPos;
+
+		/**
+		 * formatter的时区，formatter解析时会转换该时区夏令时间隙中的时间
+		 */
+		private final ZoneId zone;
+
+		private CompiledLayout(char[] chars, int[] positions, int yearWidth, ZoneId zone) {
+			this.chars = chars;
+			this.yearWidth = yearWidth;
+			this.zone = zone;
+			this.yearPos = positions[0];
+			this.monthPos = positions[1];
+			this.dayPos = positions[2];
+			this.hourPos = positions[3];
+			this.minutePos = positions[4];
+			this.secondPos = positions[5];
+			this.milliPos = positions[6];
+		}
+
+		/**
+		 * 编译模板，不是定长数字模板时返回null
+		 */
+		static CompiledLayout compile(String pattern, ZoneId zone) {
+			StringBuilder sb = new StringBuilder(pattern.length());
+			// 依次为 y M d H m s S 的位置
+			int[] positions = { -1, -1, -1, -1, -1, -1, -1 };
+			int yearWidth = 0;
+			int len = pattern.length();
+			for (int i = 0; i < len; i++) {
+				char c = pattern.charAt(i);
+				if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z')) {
+					int count = 1;
+					while (i + 1 < len && pattern.charAt(i + 1) == c) {
+						count++;
+						i++;
+					}
+					int field = "yMdHmsS".indexOf(c);
+					int width = c == 'S' ? 3 : c == 'y' && count == 4 ? 4 : 2;
+					if (field < 0 || count != width || positions[field] >= 0) {
+						return null;
+					}
+					if (c == 'y') {
+						yearWidth = width;
+					}
+					positions[field] = sb.length();
+					for (int j = 0; j < width; j++) {
+						sb.append(DIGIT);
+					}
+				} else if (c == '\'') {
+					int end = pattern.indexOf('\'', i + 1);
+					// 只支持不包含单引号的引号部分，比如'T'
+					if (end <= i + 1) {
+						return null;
+					}
+					sb.append(pattern, i + 1, end);
+					i = end;
+				} else if (c == '[' || c == ']' || c == '{' || c == '}' || c == '#') {
+					return null;
+				} else {
+					sb.append(c);
+				}
+			}
+			// 必须有完整日期，有时间字段时必须有时和分
+			if (positions[0] < 0 || positions[1] < 0 || positions[2] < 0
+					|| ((positions[5] >= 0 || positions[6] >= 0) && positions[4] < 0)
+					|| (positions[3] >= 0) != (positions[4] >= 0)) {
+				return null;
+			}
+			return new CompiledLayout(sb.toString().toCharArray(), positions, yearWidth, zone);
+		}
+
+		/**
+		 * 解析为本地时间毫秒值（以UTC计算的本地时间）
+		 * @return 长度、格式或字段范围不符合时返回FixedWidthDateTimeCodec.INVALID
+		 */
+		long tryDecodeLocalMilli(String text) {
+			char[] chars = this.chars;
+			if (text.length() != chars.length) {
+				return FixedWidthDateTimeCodec.INVALID;
+			}
+			for (int i = 0; i < chars.length; i++) {
+				char c = text.charAt(i);
+				if (chars[i] == DIGIT) {
+					if (c < '0' || c > '9') {
+						return FixedWidthDateTimeCodec.INVALID;
+					}
+				} else if (c != chars[i]) {
+					return FixedWidthDateTimeCodec.INVALID;
+				}
+			}
+			int year = yearWidth == 4 ? digits2(text, yearPos) * 100 + digits2(text, yearPos + 2)
+					: 2000 + digits2(text, yearPos);
+			int month = digits2(text, monthPos);
+			int day = digits2(text, dayPos);
+			int hour = hourPos < 0 ? 0 : digits2(text, hourPos);
+			int minute = minutePos < 0 ? 0 : digits2(text, minutePos);
+			int second = secondPos < 0 ? 0 : digits2(text, secondPos);
+			int milli = milliPos < 0 ? 0 : digits2(text, milliPos) * 10 + (text.charAt(milliPos + 2) - '0');
+			return FixedWidthDateTimeCodec.resolveFields(year, month, day, hour, minute, second, milli);
+		}
+
+		/**
+		 * 解析为LocalDateTime，包含时间时和定长模板一样，处于formatter时区的夏令时间隙时向后调整间隙长度
+		 * @return 解析失败时返回null
+		 */
+		LocalDateTime tryDecodeLocalDateTime(String text) {
+			long localMilli = tryDecodeLocalMilli(text);
+			if (localMilli == FixedWidthDateTimeCodec.INVALID) {
+				return null;
+			}
+			if (zone != null && hourPos >= 0) {
+				localMilli = FixedWidthDateTimeCodec.resolveLocalMilli(localMilli, zone);
+			}
+			return FixedWidthDateTimeCodec.toLocalDateTime(localMilli);
+		}
+
+		/**
+		 * 校验解析成功的样本，结果都和formatter一致时才使用，避免不同JDK版本的差异
+		 */
+		boolean verify(List<String> samples, Candidate candidate) {
+			for (String sample : samples) {
+				LocalDateTime localDateTime = tryDecodeLocalDateTime(sample);
+				if (localDateTime != null && !localDateTime.equals(candidate.tryParse(sample))) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private static int digits2(String text, int index) {
+			return (text.charAt(index) - '0') * 10 + (text.charAt(index + 1) - '0');
+		}
+	}
+
+}
@@ -0,0 +1,494 @@
+package com.xkzhangsan.time.formatter;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParsePosition;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * 日志文件时间索引，按行首时间建立 时间戳毫秒值数组 和 行起始字节位置数组，可以按时间二分查找多GB日志的读取位置，不需要读取全部内容<br>
+ * 1.文件按段内存映射（MappedByteBuffer），每次读取8个字节查找换行，不逐行创建字符串。<br>
+ * 2.行首时间按指定模板解析，定长模板（比如yyyy-MM-dd HH:mm:ss.SSS）直接从映射内存解码，其他模板使用DateTimeFormatter解析行首部分。<br>
+ * 3.行首不是时间的行（比如异常堆栈）不加入索引，属于上一条日志。<br>
+ * 4.update方法只索引上次之后追加的字节，适合持续写入的日志；文件变小（被截断或轮转）时重新建立。<br>
+ * 5.未写完的最后一行，行首时间之后还有内容时加入索引，否则等下次update。<br>
+ * 比如：<br>
+ * <pre>
+ * LogTimestampIndex index = LogTimestampIndex.build(path, DateFormatPattern.YYYY_MM_DD_HH_MM_SS_SSS);
+ * long offset = index.offsetOf(startTime);
+ * // 从offset开始读取startTime及之后的日志
+ * index.update(path);
+ * </pre>
+ * update方法之间同步执行，查询方法读取最近一次update完成时的索引，可以在其他线程中同时调用。
+ *
+ * @author xkzhangsan
+ */
+public final class LogTimestampIndex {
+
+	/**
+	 * 每次内存映射的最大字节数
+	 */
+	private static final int SEGMENT_SIZE = 256 * 1024 * 1024;
+
+	/**
+	 * 非定长模板最多读取的行首字符数
+	 */
+	private static final int MAX_TIMESTAMP_LENGTH = 128;
+
+	private static final int INITIAL_CAPACITY = 1024;
+
+	private static final byte CR = '\r';
+
+	private static final byte LF = '\n';
+
+	/**
+	 * 每个字节都是\n
+	 */
+	private static final long LFS = 0x0A0A0A0A0A0A0A0AL;
+
+	private static final long ONES = 0x0101010101010101L;
+
+	private static final long HIGH_BITS = 0x8080808080808080L;
+
+	private final String dateFormatPattern;
+
+	private final ZoneId zone;
+
+	/**
+	 * 定长模板的解码器，不支持时为null
+	 */
+	private final SwarDateTimeDecoder decoder;
+
+	private final DateTimeFormatter formatter;
+
+	/**
+	 * 模板是否只包含ASCII字符，否则行首按UTF-8解码后解析
+	 */
+	private final boolean ascii;
+
+	private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+	private LogTimestampIndex(String dateFormatPattern, ZoneId zone) {
+		this.dateFormatPattern = dateFormatPattern;
+		this.zone = zone;
+		this.decoder = SwarDateTimeDecoder.of(FixedWidthDateTimeCodec.of(dateFormatPattern));
+		this.formatter = DateTimeFormatterCache.get(dateFormatPattern, zone);
+		boolean ascii = true;
+		for (int i = 0; i < dateFormatPattern.length(); i++) {
+			if (dateFormatPattern.charAt(i) >= 0x80) {
+				ascii = false;
+				break;
+			}
+		}
+		this.ascii = ascii;
+	}
+
+	/**
+	 * 创建空索引，使用系统默认时区，需要调用update建立
+	 * @param dateFormatPattern 行首时间模板，比如DateFormatPattern.YYYY_MM_DD_HH_MM_SS_SSS
+	 * @return LogTimestampIndex
+	 */
+	public static LogTimestampIndex of(String dateFormatPattern) {
+		return of(dateFormatPattern, ZoneId.systemDefault());
+	}
+
+	/**
+	 * 创建空索引，需要调用update建立
+	 * @param dateFormatPattern 行首时间模板，比如DateFormatPattern.YYYY_MM_DD_HH_MM_SS_SSS
+	 * @param zone 时区，不包含时区的模板使用该时区
+	 * @return LogTimestampIndex
+	 */
+	public static LogTimestampIndex of(String dateFormatPattern, ZoneId zone) {
+		Objects.requireNonNull(dateFormatPattern, "dateFormatPattern");
+		Objects.requireNonNull(zone, "zone");
+		if (dateFormatPattern.isEmpty()) {
+			throw new IllegalArgumentException("dateFormatPattern is empty");
+		}
+		return new LogTimestampIndex(dateFormatPattern, zone);
+	}
+
+	/**
+	 * 建立文件的索引，使用系统默认时区
+	 * @param file 日志文件
+	 * @param dateFormatPattern 行首时间模板
+	 * @return LogTimestampIndex
+	 * @throws IOException 读取文件失败时
+	 */
+	public static LogTimestampIndex build(Path file, String dateFormatPattern) throws IOException {
+		LogTimestampIndex index = of(dateFormatPattern);
+		index.update(file);
+		return index;
+	}
+
+	/**
+	 * 索引文件上次update之后追加的内容
+	 * @param file 日志文件
+	 * @return 新增的索引行数，文件变小重新建立时为全部行数
+	 * @throws IOException 读取文件失败时
+	 */
+	public int update(Path file) throws IOException {
+		Objects.requireNonNull(file, "file");
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return update(channel);
+		}
+	}
+
+	/**
+	 * 索引channel上次update之后追加的内容，不改变channel的position
+	 * @param channel 日志文件的FileChannel
+	 * @return 新增的索引行数，文件变小重新建立时为全部行数
+	 * @throws IOException 读取文件失败时
+	 */
+	public synchronized int update(FileChannel channel) throws IOException {
+		Objects.requireNonNull(channel, "channel");
+		long fileSize = channel.size();
+		Snapshot old = snapshot;
+		boolean truncated = fileSize < old.scannedLength;
+		if (truncated) {
+			old = Snapshot.EMPTY;
+		}
+		if (fileSize == old.scannedLength) {
+			if (truncated) {
+				snapshot = old;
+			}
+			return 0;
+		}
+		Builder builder = new Builder(old);
+		// 当前行起始位置，当前行是否已处理（已加入索引或确定不加入）
+		long lineStart = old.indexedLength;
+		boolean done = old.tailDone;
+		long pos = lineStart;
+		while (pos < fileSize) {
+			int length = (int) Math.min(SEGMENT_SIZE, fileSize - pos);
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, pos, length).order(ByteOrder.LITTLE_ENDIAN);
+			int i = 0;
+			int lf;
+			while ((lf = indexOfLf(buffer, i, length)) >= 0) {
+				if (!done) {
+					int end = lf > 0 && buffer.get(lf - 1) == CR ? lf - 1 : lf;
+					index(buffer, (int) (lineStart - pos), end, lineStart, true, builder);
+				}
+				lineStart = pos + lf + 1;
+				done = false;
+				i = lf + 1;
+			}
+			if (pos + length == fileSize) {
+				// 未写完的最后一行
+				if (!done && lineStart < fileSize) {
+					done = index(buffer, (int) (lineStart - pos), length, lineStart, false, builder);
+				}
+				break;
+			}
+			if (lineStart > pos) {
+				// 从未结束的行重新映射
+				pos = lineStart;
+				continue;
+			}
+			// 超过一段的长行，处理行首后继续查找换行
+			if (!done) {
+				index(buffer, (int) (lineStart - pos), length, lineStart, false, builder);
+				done = true;
+			}
+			pos += length;
+		}
+		Snapshot current = builder.build(lineStart, lineStart < fileSize && done, fileSize);
+		snapshot = current;
+		return current.size - old.size;
+	}
+
+	/**
+	 * 解析行首时间并加入索引
+	 * @param buffer 小端序的ByteBuffer
+	 * @param start 行起始位置
+	 * @param end 行结束位置，不包含换行
+	 * @param lineOffset 行起始字节在文件中的位置
+	 * @param complete 是否为完整的行，不完整时要求时间之后还有内容
+	 * @param builder 索引
+	 * @return 是否加入索引
+	 */
+	private boolean index(ByteBuffer buffer, int start, int end, long lineOffset, boolean complete,
+			Builder builder) {
+		int length = end - start;
+		if (decoder != null) {
+			int width = decoder.getLength();
+			if (length < width || (!complete && length == width)) {
+				return false;
+			}
+			long localMilli = decoder.tryDecodeLocalMilli(buffer, start);
+			if (localMilli == FixedWidthDateTimeCodec.INVALID) {
+				return false;
+			}
+			builder.add(localMilli - FixedWidthDateTimeCodec.localOffsetSeconds(localMilli, zone) * 1000L, lineOffset);
+			return true;
+		}
+		// 非ASCII模板按UTF-8解码，一个字符最多3个字节
+		int limit = ascii ? MAX_TIMESTAMP_LENGTH : MAX_TIMESTAMP_LENGTH * 3;
+		int readLength = Math.min(length, limit);
+		CharSequence text;
+		if (ascii) {
+			text = CharSequenceView.of(buffer, start, readLength);
+		} else {
+			byte[] bytes = new byte[readLength];
+			ByteBuffer source = buffer.duplicate();
+			// Java 8的ByteBuffer没有返回ByteBuffer的position(int)
+			((Buffer) source).position(start);
+			source.get(bytes);
+			text = new String(bytes, StandardCharsets.UTF_8);
+		}
+		ParsePosition position = new ParsePosition(0);
+		TemporalAccessor temporal;
+		try {
+			temporal = formatter.parse(text, position);
+		} catch (DateTimeException e) {
+			return false;
+		}
+		if (!complete && readLength == length && position.getIndex() >= text.length()) {
+			return false;
+		}
+		long epochMilli;
+		if (temporal.isSupported(ChronoField.INSTANT_SECONDS)) {
+			int milli = temporal.isSupported(ChronoField.MILLI_OF_SECOND) ? temporal.get(ChronoField.MILLI_OF_SECOND) : 0;
+			epochMilli = temporal.getLong(ChronoField.INSTANT_SECONDS) * 1000L + milli;
+		} else {
+			LocalDate date = temporal.query(TemporalQueries.localDate());
+			if (date == null) {
+				return false;
+			}
+			LocalTime time = temporal.query(TemporalQueries.localTime());
+			epochMilli = date.atTime(time == null ? LocalTime.MIDNIGHT : time).atZone(zone).toInstant().toEpochMilli();
+		}
+		builder.add(epochMilli, lineOffset);
+		return true;
+	}
+
+	/**
+	 * 查找[from, to)中第一个\n，每次比较8个字节
+	 * @return 位置，没有时返回-1
+	 */
+	private static int indexOfLf(ByteBuffer buffer, int from, int to) {
+		int i = from;
+		for (; i + 8 <= to; i += 8) {
+			long x = buffer.getLong(i) ^ LFS;
+			// 值为0的字节最高位为1，小端序最低的标记字节即第一个\n
+			long found = (x - ONES) & ~x & HIGH_BITS;
+			if (found != 0) {
+				return i + (Long.numberOfTrailingZeros(found) >>> 3);
+			}
+		}
+		for (; i < to; i++) {
+			if (buffer.get(i) == LF) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	// ==================================query==================================
+
+	/**
+	 * 索引行数
+	 * @return 索引行数
+	 */
+	public int size() {
+		return snapshot.size;
+	}
+
+	/**
+	 * 各行的时间戳毫秒值，和getLineOffsets()一一对应
+	 * @return 时间戳毫秒值数组，复制的新数组
+	 */
+	public long[] getEpochMillis() {
+		Snapshot current = snapshot;
+		return Arrays.copyOf(current.epochMillis, current.size);
+	}
+
+	/**
+	 * 各行的起始字节位置，和getEpochMillis()一一对应
+	 * @return 行起始字节位置数组，复制的新数组
+	 */
+	public long[] getLineOffsets() {
+		Snapshot current = snapshot;
+		return Arrays.copyOf(current.lineOffsets, current.size);
+	}
+
+	/**
+	 * 第index行的时间戳毫秒值
+	 * @param index 索引行序号，从0开始
+	 * @return 时间戳毫秒值
+	 */
+	public long getEpochMilli(int index) {
+		Snapshot current = snapshot;
+		checkIndex(index, current.size);
+		return current.epochMillis[index];
+	}
+
+	/**
+	 * 第index行的起始字节位置
+	 * @param index 索引行序号，从0开始
+	 * @return 行起始字节位置
+	 */
+	public long getLineOffset(int index) {
+		Snapshot current = snapshot;
+		checkIndex(index, current.size);
+		return current.lineOffsets[index];
+	}
+
+	/**
+	 * 已索引的字节数，即下次update开始的位置之前的内容
+	 * @return 已索引的字节数
+	 */
+	public long getIndexedLength() {
+		return snapshot.scannedLength;
+	}
+
+	/**
+	 * 二分查找第一个时间大于等于epochMilli的索引行序号，要求时间非递减，乱序的日志请使用getEpochMillis()自行处理
+	 * @param epochMilli 时间戳毫秒值
+	 * @return 索引行序号，都小于epochMilli时返回size()
+	 */
+	public int indexOf(long epochMilli) {
+		Snapshot current = snapshot;
+		return lowerBound(current.epochMillis, current.size, epochMilli);
+	}
+
+	/**
+	 * 二分查找第一个时间大于等于epochMilli的行起始字节位置，从该位置读取即为epochMilli及之后的日志，要求时间非递减
+	 * @param epochMilli 时间戳毫秒值
+	 * @return 行起始字节位置，都小于epochMilli时返回getIndexedLength()
+	 */
+	public long offsetOf(long epochMilli) {
+		Snapshot current = snapshot;
+		int index = lowerBound(current.epochMillis, current.size, epochMilli);
+		return index < current.size ? current.lineOffsets[index] : current.scannedLength;
+	}
+
+	private static int lowerBound(long[] epochMillis, int size, long epochMilli) {
+		int low = 0;
+		int high = size;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (epochMillis[mid] < epochMilli) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	private static void checkIndex(int index, int size) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+		}
+	}
+
+	/**
+	 * 行首时间模板
+	 * @return 模板
+	 */
+	public String getPattern() {
+		return dateFormatPattern;
+	}
+
+	/**
+	 * 时区
+	 * @return 时区
+	 */
+	public ZoneId getZone() {
+		return zone;
+	}
+
+	@Override
+	public String toString() {
+		Snapshot current = snapshot;
+		return "LogTimestampIndex [pattern=" + dateFormatPattern + ", zone=" + zone + ", size=" + current.size
+				+ ", indexedLength=" + current.scannedLength + "]";
+	}
+
+	/**
+	 * 某次update完成时的索引，数组只在size之后追加，旧的Snapshot读取不受影响
+	 */
+	private static final class Snapshot {
+
+		private static final Snapshot EMPTY = new Snapshot(new long[0], new long[0], 0, 0, false, 0);
+
+		private final long[] epochMillis;
+
+		private final long[] lineOffsets;
+
+		private final int size;
+
+		/**
+		 * 最后一行（可能未写完）的起始位置，下次update从这里开始
+		 */
+		private final long indexedLength;
+
+		/**
+		 * 最后一行未写完且已处理
+		 */
+		private final boolean tailDone;
+
+		/**
+		 * 已读取的文件大小
+		 */
+		private final long scannedLength;
+
+		private Snapshot(long[] epochMillis, long[] lineOffsets, int size, long indexedLength, boolean tailDone,
+				long scannedLength) {
+			this.epochMillis = epochMillis;
+			this.lineOffsets = lineOffsets;
+			this.size = size;
+			this.indexedLength = indexedLength;
+			this.tailDone = tailDone;
+			this.scannedLength = scannedLength;
+		}
+	}
+
+	/**
+	 * update时追加索引，容量不足时复制为新数组
+	 */
+	private static final class Builder {
+
+		private long[] epochMillis;
+
+		private long[] lineOffsets;
+
+		private int size;
+
+		private Builder(Snapshot snapshot) {
+			this.epochMillis = snapshot.epochMillis;
+			this.lineOffsets = snapshot.lineOffsets;
+			this.size = snapshot.size;
+		}
+
+		private void add(long epochMilli, long lineOffset) {
+			if (size == epochMillis.length) {
+				int capacity = Math.max(INITIAL_CAPACITY, size + (size >> 1));
+				epochMillis = Arrays.copyOf(epochMillis, capacity);
+				lineOffsets = Arrays.copyOf(lineOffsets, capacity);
+			}
+			epochMillis[size] = epochMilli;
+			lineOffsets[size] = lineOffset;
+			size++;
+		}
+
+		private Snapshot build(long indexedLength, boolean tailDone, long scannedLength) {
+			return new Snapshot(epochMillis, lineOffsets, size, indexedLength, tailDone, scannedLength);
+		}
+	}
+}
@@ -0,0 +1,380 @@
+package com.xkzhangsan.time.formatter;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 记忆解析器，适合访问日志、CDC数据等连续多行时间相同或同一秒的场景<br>
+ * 1.每个线程记住最近解析的字符串，和秒字段之前的前缀（日期、时、分、秒）解析出的秒值。<br>
+ * 2.前缀相同时直接复用秒值，只解析毫秒部分；完全相同时直接返回结果。<br>
+ * 3.支持DateTimeFormatterUtil中的formatter常量，其中定长模板比如YYYY_MM_DD_HH_MM_SS_SSS_FMT按前缀复用，其他formatter只在字符串完全相同时复用；<br>
+ * smart()支持DateTimeFormatterUtil.smartParseToLocalDateTime(String text)，常用格式按前缀复用。<br>
+ * 4.提供命中统计getHitCount()，getMissCount()，getHitRate()，方便评估效果。<br>
+ * 解析结果和异常都和DateTimeFormatterUtil中对应的方法一致。<br>
+ * 比如：<br>
+ * <pre>
+ * MemoizingDateTimeParser parser = MemoizingDateTimeParser.of(DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_SSS_FMT);
+ * long epochMilli = parser.parseToEpochMilli("2020-05-23 17:06:30.272");
+ * </pre>
+ * 注意：每个线程保存一个记忆，请复用同一个解析器，不要每次解析都创建。
+ *
+ * @author xkzhangsan
+ */
+public final class MemoizingDateTimeParser {
+
+	/**
+	 * 没有记忆
+	 */
+	private static final int KIND_NONE = 0;
+
+	/**
+	 * 记忆秒字段之前的前缀
+	 */
+	private static final int KIND_PREFIX = 1;
+
+	/**
+	 * 记忆完整字符串
+	 */
+	private static final int KIND_TEXT = 2;
+
+	private static final long MILLIS_PER_DAY = 86400_000L;
+
+	/**
+	 * formatter，smart()时为null
+	 */
+	private final DateTimeFormatter formatter;
+
+	/**
+	 * formatter对应的定长编解码器，不是定长模板时为null
+	 */
+	private final FixedWidthDateTimeCodec codec;
+
+	private final ThreadLocal<Memo> memo = ThreadLocal.withInitial(Memo::new);
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private MemoizingDateTimeParser(DateTimeFormatter formatter, FixedWidthDateTimeCodec codec) {
+		this.formatter = formatter;
+		this.codec = codec;
+	}
+
+	/**
+	 * 根据formatter创建记忆解析器，结果和DateTimeFormatterUtil.parseToLocalDateTime(String text, DateTimeFormatter formatter)一致
+	 * @param formatter DateTimeFormatter，比如DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_SSS_FMT
+	 * @return MemoizingDateTimeParser
+	 */
+	public static MemoizingDateTimeParser of(DateTimeFormatter formatter) {
+		Objects.requireNonNull(formatter, "formatter");
+		return new MemoizingDateTimeParser(formatter, DateTimeFormatterUtil.getFixedWidthCodec(formatter));
+	}
+
+	/**
+	 * 创建自动解析的记忆解析器，结果和DateTimeFormatterUtil.smartParseToLocalDateTime(String text)一致
+	 * @return MemoizingDateTimeParser
+	 */
+	public static MemoizingDateTimeParser smart() {
+		return new MemoizingDateTimeParser(null, null);
+	}
+
+	/**
+	 * 解析为LocalDateTime
+	 * @param text 待解析字符串
+	 * @return LocalDateTime
+	 */
+	public LocalDateTime parseToLocalDateTime(String text) {
+		Memo m = memo.get();
+		int milli = lookup(text, m);
+		if (milli >= 0) {
+			hitCount.increment();
+		} else {
+			missCount.increment();
+			milli = update(text, m);
+		}
+		return m.kind == KIND_PREFIX ? FixedWidthDateTimeCodec.toLocalDateTime(m.localSecondMilli + milli)
+				: m.localDateTime;
+	}
+
+	/**
+	 * 解析为时间戳毫秒值，使用系统默认时区，和parseToDate(String text).getTime()一致
+	 * @param text 待解析字符串
+	 * @return 时间戳毫秒值
+	 */
+	public long parseToEpochMilli(String text) {
+		ZoneId zone = ZoneId.systemDefault();
+		Memo m = memo.get();
+		int milli = lookup(text, m);
+		if (milli >= 0) {
+			hitCount.increment();
+		} else {
+			missCount.increment();
+			milli = update(text, m);
+		}
+		if (!zone.equals(m.zone)) {
+			m.epochSecondMilli = m.kind == KIND_PREFIX
+					? m.localSecondMilli
+							- FixedWidthDateTimeCodec.localOffsetSeconds(m.localSecondMilli, zone) * 1000L
+					: m.localDateTime.atZone(zone).toInstant().toEpochMilli();
+			m.zone = zone;
+		}
+		return m.epochSecondMilli + milli;
+	}
+
+	/**
+	 * 解析为Date，使用系统默认时区
+	 * @param text 待解析字符串
+	 * @return Date
+	 */
+	public Date parseToDate(String text) {
+		return new Date(parseToEpochMilli(text));
+	}
+
+	/**
+	 * 命中次数，包括前缀相同和完全相同
+	 * @return 命中次数
+	 */
+	public long getHitCount() {
+		return hitCount.sum();
+	}
+
+	/**
+	 * 未命中次数，即完整解析的次数
+	 * @return 未命中次数
+	 */
+	public long getMissCount() {
+		return missCount.sum();
+	}
+
+	/**
+	 * 命中率，没有解析时为0
+	 * @return 命中率，0到1
+	 */
+	public double getHitRate() {
+		long hit = hitCount.sum();
+		long total = hit + missCount.sum();
+		return total == 0 ? 0 : (double) hit / total;
+	}
+
+	/**
+	 * 重置命中统计
+	 */
+	public void resetStatistics() {
+		hitCount.reset();
+		missCount.reset();
+	}
+
+	@Override
+	public String toString() {
+		return "MemoizingDateTimeParser [formatter=" + (formatter != null ? formatter : "smart") + ", hitCount="
+				+ getHitCount() + ", missCount=" + getMissCount() + "]";
+	}
+
+	/**
+	 * 查找记忆
+	 * @return 命中时返回毫秒部分，完全相同时为0，未命中返回-1
+	 */
+	private int lookup(String text, Memo m) {
+		if (text == null || m.kind == KIND_NONE) {
+			return -1;
+		}
+		if (m.kind == KIND_TEXT) {
+			return text.equals(m.text) ? 0 : -1;
+		}
+		if (codec != null) {
+			if (!text.regionMatches(0, m.text, 0, m.prefixLength)) {
+				return -1;
+			}
+			return codec.tryDecodeMilliOfSecond(text, 0, text.length());
+		}
+
+		// 自动解析，去除首尾空白后比较
+		int start = trimStart(text);
+		int end = trimEnd(text, start);
+		if (end - start != m.length || !text.regionMatches(start, m.text, m.start, m.prefixLength)) {
+			return -1;
+		}
+		int suffixLength = m.length - m.prefixLength;
+		if (suffixLength == 0) {
+			return 0;
+		}
+		if (suffixLength == 4 && text.charAt(end - 4) != m.separator) {
+			return -1;
+		}
+		return digits3(text, end - 3);
+	}
+
+	/**
+	 * 完整解析并更新记忆，解析失败时抛出异常，记忆不变
+	 * @return 毫秒部分，记忆完整字符串时为0
+	 */
+	private int update(String text, Memo m) {
+		if (codec != null && codec.isSupportedLength(text)) {
+			long localMilli = codec.tryDecodeLocalMilli(text, 0, text.length());
+			if (localMilli != FixedWidthDateTimeCodec.INVALID) {
+				// 和formatter解析一致，处于夏令时间隙时按formatter时区调整后再记忆
+				localMilli = codec.adjustLocalMilli(localMilli, formatter.getZone());
+				int milli = (int) Math.floorMod(localMilli, 1000L);
+				if (milli == 0 && Math.floorMod(localMilli, MILLIS_PER_DAY) == 0) {
+					// 可能是24:00:00.000，只有毫秒为0时有效，不能复用前缀，只记忆完整字符串
+					m.setText(text, FixedWidthDateTimeCodec.toLocalDateTime(localMilli));
+					return 0;
+				}
+				m.setPrefix(text, 0, text.length(), codec.getSecondEnd(), (char) 0, localMilli - milli);
+				return milli;
+			}
+		} else if (formatter == null && text != null) {
+			int start = trimStart(text);
+			int end = trimEnd(text, start);
+			if (end - start >= 8) {
+				// 和smartParseToLocalDateTime一致，处于夏令时间隙时按系统默认时区调整
+				ZoneId zone = ZoneId.systemDefault();
+				long localMilli = SmartDateTimeLexer.parseLocalMilli(text, start, end, zone);
+				if (localMilli != SmartDateTimeLexer.UNSUPPORTED) {
+					return updateSmartPrefix(text, start, end, zone, localMilli, m);
+				}
+			}
+		}
+
+		LocalDateTime localDateTime = formatter != null ? DateTimeFormatterUtil.parseToLocalDateTime(text, formatter)
+				: DateTimeFormatterUtil.smartParseToLocalDateTime(text);
+		m.setText(text, localDateTime);
+		return 0;
+	}
+
+	/**
+	 * 自动解析的前缀记忆，包含3位毫秒时（yyyy-MM-dd HH:mm:ss.SSS、yyyy-MM-dd HH:mm:ss,SSS、yyyyMMddHHmmssSSS）前缀不包含毫秒
+	 */
+	private static int updateSmartPrefix(String text, int start, int end, ZoneId zone, long localMilli, Memo m) {
+		int length = end - start;
+		int milli = length >= 11 ? digits3(text, end - 3) : -1;
+		if (milli >= 0) {
+			// 去掉毫秒后仍然可以解析为同一秒，说明最后3位是毫秒
+			char separator = text.charAt(end - 4);
+			if ((separator == '.' || separator == ',')
+					&& SmartDateTimeLexer.parseLocalMilli(text, start, end - 4, zone) == localMilli - milli) {
+				m.setPrefix(text, start, length, length - 4, separator, localMilli - milli);
+				return milli;
+			}
+			if (SmartDateTimeLexer.parseLocalMilli(text, start, end - 3, zone) == localMilli - milli
+					&& isDigit(text.charAt(end - 4))) {
+				m.setPrefix(text, start, length, length - 3, (char) 0, localMilli - milli);
+				return milli;
+			}
+		}
+		m.setPrefix(text, start, length, length, (char) 0, localMilli);
+		return 0;
+	}
+
+	private static int trimStart(String text) {
+		int start = 0;
+		while (start < text.length() && text.charAt(start) <= ' ') {
+			start++;
+		}
+		return start;
+	}
+
+	private static int trimEnd(String text, int start) {
+		int end = text.length();
+		while (start < end && text.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		return end;
+	}
+
+	/**
+	 * 3位数字，不是数字时返回-1
+	 */
+	private static int digits3(String text, int index) {
+		char c1 = text.charAt(index);
+		char c2 = text.charAt(index + 1);
+		char c3 = text.charAt(index + 2);
+		if (!isDigit(c1) || !isDigit(c2) || !isDigit(c3)) {
+			return -1;
+		}
+		return (c1 - '0') * 100 + (c2 - '0') * 10 + (c3 - '0');
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	/**
+	 * 线程记忆，只在所属线程中使用
+	 *
+	 * @author xkzhangsan
+	 */
+	private static final class Memo {
+
+		private int kind = KIND_NONE;
+
+		/**
+		 * 最近解析的字符串
+		 */
+		private String text;
+
+		/**
+		 * 去除首尾空白后的起始位置
+		 */
+		private int start;
+
+		/**
+		 * 去除首尾空白后的长度
+		 */
+		private int length;
+
+		/**
+		 * 可以复用的前缀长度，从start开始
+		 */
+		private int prefixLength;
+
+		/**
+		 * 自动解析时秒和毫秒之间的分隔符，没有时为0
+		 */
+		private char separator;
+
+		/**
+		 * 前缀对应的本地时间毫秒值（以UTC计算的本地时间），毫秒部分为0
+		 */
+		private long localSecondMilli;
+
+		/**
+		 * 记忆完整字符串时的结果
+		 */
+		private LocalDateTime localDateTime;
+
+		/**
+		 * epochSecondMilli对应的时区，为null时需要重新计算
+		 */
+		private ZoneId zone;
+
+		/**
+		 * 前缀对应的时间戳毫秒值，记忆完整字符串时为完整结果
+		 */
+		private long epochSecondMilli;
+
+		void setPrefix(String text, int start, int length, int prefixLength, char separator, long localSecondMilli) {
+			this.kind = KIND_PREFIX;
+			this.text = text;
+			this.start = start;
+			this.length = length;
+			this.prefixLength = prefixLength;
+			this.separator = separator;
+			this.localSecondMilli = localSecondMilli;
+			this.localDateTime = null;
+			this.zone = null;
+		}
+
+		void setText(String text, LocalDateTime localDateTime) {
+			this.kind = KIND_TEXT;
+			this.text = text;
+			this.localDateTime = localDateTime;
+			this.zone = null;
+		}
+	}
+
+}
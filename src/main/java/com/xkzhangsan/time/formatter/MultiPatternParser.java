@@ -0,0 +1,473 @@
+package com.xkzhangsan.time.formatter;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.xkzhangsan.time.converter.DateTimeConverterUtil;
+import com.xkzhangsan.time.utils.ArrayUtil;
+import com.xkzhangsan.time.utils.StringUtil;
+
+/**
+ * 多模板解析器，可重复使用，线程安全<br>
+ * 和parseToDate(String text, String[] dateFormatPatterns)相比：<br>
+ * 1.创建时预先编译所有模板，解析时不再编译。<br>
+ * 2.解析前根据长度和分隔符形态预先过滤，比如 2020-05-23 不会尝试 yyyy/MM/dd 和 yyyyMMddHHmmss，只对数字字段组成的模板过滤，包含文本字段的模板（比如MMM、EEE、a、时区）总会尝试。<br>
+ * 3.解析失败时不创建异常。<br>
+ * 4.根据各模板解析成功的次数调整尝试顺序，最常用的模板最先尝试。<br>
+ * 5.提供各模板的统计信息getStatistics()，方便调优。<br>
+ * 解析结果和parseToDate(String text, String dateFormatPattern)一致。<br>
+ * 比如：<br>
+ * <pre>
+ * MultiPatternParser parser = MultiPatternParser.of("yyyy-MM-dd HH:mm:ss", "yyyy/MM/dd HH:mm:ss", "yyyyMMddHHmmss");
+ * Date date = parser.parseToDate("2020/05/23 17:06:30");
+ * </pre>
+ *
+ * @author xkzhangsan
+ */
+public final class MultiPatternParser {
+
+	/**
+	 * 模板，按尝试顺序排列，调整顺序时整体替换
+	 */
+	private volatile PatternCandidate[] candidates;
+
+	/**
+	 * 所有模板都解析失败的次数
+	 */
+	private final LongAdder missCount = new LongAdder();
+
+	private MultiPatternParser(PatternCandidate[] candidates) {
+		this.candidates = candidates;
+	}
+
+	/**
+	 * 根据模板创建多模板解析器，模板顺序为初始尝试顺序，空模板忽略
+	 * @param dateFormatPatterns 自定义格式化模板数组
+	 * @return MultiPatternParser
+	 * @throws IllegalArgumentException 模板为空或格式错误时
+	 */
+	public static MultiPatternParser of(String... dateFormatPatterns) {
+		if (ArrayUtil.isEmpty(dateFormatPatterns)) {
+			throw new IllegalArgumentException("dateFormatPatterns is empty");
+		}
+		List<PatternCandidate> candidateList = new ArrayList<>(dateFormatPatterns.length);
+		for (String dateFormatPattern : dateFormatPatterns) {
+			if (StringUtil.isNotEmpty(dateFormatPattern)) {
+				candidateList.add(new PatternCandidate(dateFormatPattern));
+			}
+		}
+		if (candidateList.isEmpty()) {
+			throw new IllegalArgumentException("dateFormatPatterns is empty");
+		}
+		return new MultiPatternParser(candidateList.toArray(new PatternCandidate[0]));
+	}
+
+	/**
+	 * 解析为LocalDateTime，所有模板都解析失败时返回Optional.empty()
+	 * @param text 待解析字符串，可以为null
+	 * @return Optional&lt;LocalDateTime&gt;
+	 */
+	public Optional<LocalDateTime> tryParseToLocalDateTime(String text) {
+		return Optional.ofNullable(parseToLocalDateTime(text));
+	}
+
+	/**
+	 * 解析为Date，所有模板都解析失败时返回Optional.empty()
+	 * @param text 待解析字符串，可以为null
+	 * @return Optional&lt;Date&gt;
+	 */
+	public Optional<Date> tryParseToDate(String text) {
+		return Optional.ofNullable(parseToDate(text));
+	}
+
+	/**
+	 * 解析为LocalDateTime，和parseToLocalDateTime(String text, String[] dateFormatPatterns)一致，所有模板都解析失败时返回null
+	 * @param text 待解析字符串，可以为null
+	 * @return LocalDateTime
+	 */
+	public LocalDateTime parseToLocalDateTime(String text) {
+		if (text == null) {
+			return null;
+		}
+		PatternCandidate[] current = this.candidates;
+		for (int i = 0; i < current.length; i++) {
+			PatternCandidate candidate = current[i];
+			if (!candidate.matchesShape(text)) {
+				candidate.skipCount.increment();
+				continue;
+			}
+			candidate.attemptCount.increment();
+			LocalDateTime localDateTime = DateTimeFormatterUtil.tryParseLocalDateTime(text, candidate.codec,
+					candidate.formatter);
+			if (localDateTime != null) {
+				candidate.hitCount.increment();
+				if (i > 0) {
+					promote(current, i);
+				}
+				return localDateTime;
+			}
+		}
+		missCount.increment();
+		return null;
+	}
+
+	/**
+	 * 解析为Date，和parseToDate(String text, String[] dateFormatPatterns)一致，所有模板都解析失败时返回null
+	 * @param text 待解析字符串，可以为null
+	 * @return Date
+	 */
+	public Date parseToDate(String text) {
+		LocalDateTime localDateTime = parseToLocalDateTime(text);
+		return localDateTime == null ? null : DateTimeConverterUtil.toDate(localDateTime);
+	}
+
+	/**
+	 * 当前尝试顺序的模板
+	 * @return 模板数组
+	 */
+	public String[] getPatterns() {
+		PatternCandidate[] current = this.candidates;
+		String[] patterns = new String[current.length];
+		for (int i = 0; i < current.length; i++) {
+			patterns[i] = current[i].pattern;
+		}
+		return patterns;
+	}
+
+	/**
+	 * 各模板的统计信息，按当前尝试顺序排列
+	 * @return 统计信息列表
+	 */
+	public List<PatternStatistics> getStatistics() {
+		PatternCandidate[] current = this.candidates;
+		List<PatternStatistics> statistics = new ArrayList<>(current.length);
+		for (PatternCandidate candidate : current) {
+			statistics.add(new PatternStatistics(candidate.pattern, candidate.hitCount.sum(),
+					candidate.attemptCount.sum(), candidate.skipCount.sum()));
+		}
+		return Collections.unmodifiableList(statistics);
+	}
+
+	/**
+	 * 所有模板都解析失败的次数
+	 * @return 失败次数
+	 */
+	public long getMissCount() {
+		return missCount.sum();
+	}
+
+	/**
+	 * 重置统计信息，尝试顺序不变
+	 */
+	public void resetStatistics() {
+		for (PatternCandidate candidate : candidates) {
+			candidate.hitCount.reset();
+			candidate.attemptCount.reset();
+			candidate.skipCount.reset();
+		}
+		missCount.reset();
+	}
+
+	@Override
+	public String toString() {
+		return "MultiPatternParser [statistics=" + getStatistics() + ", missCount=" + getMissCount() + "]";
+	}
+
+	/**
+	 * 成功次数超过前一个模板时向前移动一位，常用模板逐步移动到最前面
+	 */
+	private void promote(PatternCandidate[] current, int index) {
+		if (current[index].hitCount.sum() <= current[index - 1].hitCount.sum()) {
+			return;
+		}
+		synchronized (this) {
+			// 其他线程已调整顺序时放弃本次调整
+			if (current != this.candidates) {
+				return;
+			}
+			PatternCandidate[] reordered = current.clone();
+			reordered[index - 1] = current[index];
+			reordered[index] = current[index - 1];
+			this.candidates = reordered;
+		}
+	}
+
+	/**
+	 * 模板统计信息
+	 *
+	 * @author xkzhangsan
+	 */
+	public static final class PatternStatistics {
+
+		private final String pattern;
+
+		private final long hitCount;
+
+		private final long attemptCount;
+
+		private final long skipCount;
+
+		PatternStatistics(String pattern, long hitCount, long attemptCount, long skipCount) {
+			this.pattern = pattern;
+			this.hitCount = hitCount;
+			this.attemptCount = attemptCount;
+			this.skipCount = skipCount;
+		}
+
+		/**
+		 * 模板
+		 * @return 模板
+		 */
+		public String getPattern() {
+			return pattern;
+		}
+
+		/**
+		 * 解析成功次数
+		 * @return 解析成功次数
+		 */
+		public long getHitCount() {
+			return hitCount;
+		}
+
+		/**
+		 * 通过预先过滤后尝试解析的次数
+		 * @return 尝试解析次数
+		 */
+		public long getAttemptCount() {
+			return attemptCount;
+		}
+
+		/**
+		 * 长度或分隔符不符合，预先过滤跳过的次数
+		 * @return 跳过次数
+		 */
+		public long getSkipCount() {
+			return skipCount;
+		}
+
+		@Override
+		public String toString() {
+			return "PatternStatistics [pattern=" + pattern + ", hitCount=" + hitCount + ", attemptCount="
+					+ attemptCount + ", skipCount=" + skipCount + "]";
+		}
+	}
+
+	/**
+	 * 预先编译的模板，以及用于预先过滤的形态：固定字符和数字字段的位数范围
+	 *
+	 * @author xkzhangsan
+	 */
+	private static final class PatternCandidate {
+
+		/**
+		 * 数字字段最大位数，和DateTimeFormatter一致
+		 */
+		private static final int MAX_WIDTH = 19;
+
+		private final String pattern;
+
+		private final DateTimeFormatter formatter;
+
+		private final FixedWidthDateTimeCodec codec;
+
+		/**
+		 * 形态，每一项为固定字符，或为0时表示数字字段，为null时不能预先过滤
+		 */
+		private final char[] shapeChars;
+
+		private final int[] minDigits;
+
+		private final int[] maxDigits;
+
+		/**
+		 * 数字字段是否可以带符号，比如年份
+		 */
+		private final boolean[] signed;
+
+		private final int minLength;
+
+		private final int maxLength;
+
+		private final LongAdder hitCount = new LongAdder();
+
+		private final LongAdder attemptCount = new LongAdder();
+
+		private final LongAdder skipCount = new LongAdder();
+
+		PatternCandidate(String pattern) {
+			this.pattern = pattern;
+			this.formatter = DateTimeFormatterUtil.getDateTimeFormatter(pattern);
+			this.codec = FixedWidthDateTimeCodec.of(pattern);
+
+			int len = pattern.length();
+			char[] chars = new char[len];
+			int[] mins = new int[len];
+			int[] maxs = new int[len];
+			boolean[] signs = new boolean[len];
+			int size = 0;
+			boolean filterable = true;
+			for (int i = 0; i < len && filterable; i++) {
+				char c = pattern.charAt(i);
+				if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z')) {
+					int count = 1;
+					while (i + 1 < len && pattern.charAt(i + 1) == c) {
+						count++;
+						i++;
+					}
+					int min;
+					int max;
+					boolean sign = false;
+					switch (c) {
+					case 'y':
+					case 'u':
+						min = count;
+						max = count == 2 ? 2 : MAX_WIDTH;
+						sign = count != 2;
+						break;
+					case 'M':
+					case 'L':
+					case 'd':
+					case 'H':
+					case 'h':
+					case 'k':
+					case 'K':
+					case 'm':
+					case 's':
+						if (count > 2) {
+							filterable = false;
+							continue;
+						}
+						min = count;
+						max = count == 1 ? MAX_WIDTH : 2;
+						break;
+					case 'S':
+						min = count;
+						max = count;
+						break;
+					default:
+						// 文本字段、时区等，不能预先过滤
+						filterable = false;
+						continue;
+					}
+					// 相邻的数字字段合并为一个
+					if (size > 0 && chars[size - 1] == 0) {
+						mins[size - 1] += min;
+						maxs[size - 1] = Math.min(maxs[size - 1] + max, Integer.MAX_VALUE / 2);
+					} else {
+						mins[size] = min;
+						maxs[size] = max;
+						signs[size] = sign;
+						size++;
+					}
+				} else if (c == '\'') {
+					// 引号中为固定字符，两个单引号表示单引号
+					if (i + 1 < len && pattern.charAt(i + 1) == '\'') {
+						chars[size++] = '\'';
+						i++;
+						continue;
+					}
+					int end = pattern.indexOf('\'', i + 1);
+					while (end > 0 && end + 1 < len && pattern.charAt(end + 1) == '\'') {
+						end = pattern.indexOf('\'', end + 2);
+					}
+					if (end < 0) {
+						filterable = false;
+						continue;
+					}
+					for (int j = i + 1; j < end; j++) {
+						char literal = pattern.charAt(j);
+						if (literal == '\'') {
+							j++;
+						}
+						filterable &= appendLiteral(chars, size++, literal);
+					}
+					i = end;
+				} else if (c == '[' || c == ']') {
+					// 可选部分，不能预先过滤
+					filterable = false;
+				} else {
+					filterable &= appendLiteral(chars, size++, c);
+				}
+			}
+
+			if (filterable) {
+				int minLen = 0;
+				long maxLen = 0;
+				for (int i = 0; i < size; i++) {
+					minLen += chars[i] == 0 ? mins[i] : 1;
+					maxLen += chars[i] == 0 ? maxs[i] + (signs[i] ? 1 : 0) : 1;
+				}
+				this.shapeChars = new char[size];
+				this.minDigits = new int[size];
+				this.maxDigits = new int[size];
+				this.signed = new boolean[size];
+				System.arraycopy(chars, 0, shapeChars, 0, size);
+				System.arraycopy(mins, 0, minDigits, 0, size);
+				System.arraycopy(maxs, 0, maxDigits, 0, size);
+				System.arraycopy(signs, 0, signed, 0, size);
+				this.minLength = minLen;
+				this.maxLength = (int) Math.min(maxLen, Integer.MAX_VALUE);
+			} else {
+				this.shapeChars = null;
+				this.minDigits = null;
+				this.maxDigits = null;
+				this.signed = null;
+				this.minLength = 0;
+				this.maxLength = Integer.MAX_VALUE;
+			}
+		}
+
+		/**
+		 * 添加固定字符，固定字符为数字时不能预先过滤
+		 */
+		private static boolean appendLiteral(char[] chars, int index, char literal) {
+			chars[index] = literal;
+			return literal != 0 && (literal < '0' || literal > '9');
+		}
+
+		/**
+		 * 长度和形态是否符合，不符合时一定不能解析
+		 */
+		boolean matchesShape(String text) {
+			int len = text.length();
+			if (len < minLength || len > maxLength) {
+				return false;
+			}
+			char[] shapeChars = this.shapeChars;
+			if (shapeChars == null) {
+				return true;
+			}
+			int pos = 0;
+			for (int i = 0; i < shapeChars.length; i++) {
+				char c = shapeChars[i];
+				if (c != 0) {
+					if (pos >= len || text.charAt(pos) != c) {
+						return false;
+					}
+					pos++;
+					continue;
+				}
+				if (signed[i] && pos < len && (text.charAt(pos) == '+' || text.charAt(pos) == '-')) {
+					pos++;
+				}
+				int start = pos;
+				while (pos < len && text.charAt(pos) >= '0' && text.charAt(pos) <= '9') {
+					pos++;
+				}
+				int digits = pos - start;
+				if (digits < minDigits[i] || digits > maxDigits[i]) {
+					return false;
+				}
+			}
+			return pos == len;
+		}
+	}
+
+}
@@ -0,0 +1,226 @@
+package com.xkzhangsan.time.formatter;
+
+import java.time.ZoneId;
+
+import com.xkzhangsan.time.converter.PackedDate;
+
+/**
+ * 自动解析词法分析器，供DateTimeFormatterUtil.smartParse*使用<br>
+ * 从左到右扫描一次，同时识别字符串形态（数字段、分隔符、冒号、中文单位）并解析各字段，不创建中间字符串。<br>
+ * 支持的形态：<br>
+ * yyyyMMdd、yyyyMMddHHmm、yyyyMMddHHmmss、yyyyMMddHHmmssSSS<br>
+ * yyyy-M-d、yyyy-M-d H:m、yyyy-M-d H:m:s、yyyy-M-d H:m:s.SSS、yyyy-M-d H:m:s,SSS<br>
+ * 其中日期分隔符 - 也可以是 / 、 . （需为2个）或 年月日，时间分隔符 : 也可以是 时分秒，和原有预处理规则一致。<br>
+ * 其他形态（比如ISO、Date默认格式、Timestamp格式）或字段超出范围时返回UNSUPPORTED，由原有的formatter方式解析，保证支持的字符串和异常信息不变。
+ *
+ * @author xkzhangsan
+ */
+final class SmartDateTimeLexer {
+
+	/**
+	 * 不支持的形态，需要使用formatter解析
+	 */
+	static final long UNSUPPORTED = Long.MIN_VALUE;
+
+	private SmartDateTimeLexer() {
+	}
+
+	/**
+	 * 解析text的[start, end)区间为本地时间毫秒值（以UTC计算的本地时间）
+	 * @param text 待解析字符串，已去除首尾空白
+	 * @param start 起始位置
+	 * @param end 结束位置
+	 * @return 本地时间毫秒值，不支持时返回UNSUPPORTED
+	 */
+	static long parseLocalMilli(CharSequence text, int start, int end) {
+		return parseLocalMilli(text, start, end, null);
+	}
+
+	/**
+	 * 解析text的[start, end)区间为本地时间毫秒值，包含时间时和smartParseToLocalDateTime的formatter解析一致，处于zone的夏令时间隙时向后调整
+	 * @param text 待解析字符串，已去除首尾空白
+	 * @param start 起始位置
+	 * @param end 结束位置
+	 * @param zone 时区，为null时不调整
+	 * @return 本地时间毫秒值，不支持时返回UNSUPPORTED
+	 */
+	static long parseLocalMilli(CharSequence text, int start, int end, ZoneId zone) {
+		int year = 0, month = 0, day = 0, hour = 0, minute = 0, second = 0, milli = 0;
+		// 当前数字段序号，0年 1月 2日 3时 4分 5秒 6毫秒
+		int run = 0;
+		int value = 0;
+		int digits = 0;
+		int dateDots = 0;
+		boolean fractionDot = false;
+		for (int i = start; i < end; i++) {
+			char c = text.charAt(i);
+			if (c >= '0' && c <= '9') {
+				// 第一段可能是纯数字格式，结束后按位置解析
+				if (++digits > 4 && run > 0) {
+					return UNSUPPORTED;
+				}
+				value = value * 10 + (c - '0');
+				continue;
+			}
+
+			// 中文单位转换，和原有预处理一致：日、秒 删除，年、月 为 -，时、分 为 :，/ 为 -
+			switch (c) {
+			case '日':
+			case '秒':
+				continue;
+			case '年':
+			case '月':
+			case '/':
+				c = '-';
+				break;
+			case '时':
+			case '分':
+				c = ':';
+				break;
+			default:
+				break;
+			}
+
+			// 分隔符前需要有数字
+			if (digits == 0) {
+				return UNSUPPORTED;
+			}
+			switch (run) {
+			case 0:
+				if (digits != 4) {
+					return UNSUPPORTED;
+				}
+				year = value;
+				break;
+			case 1:
+				month = value;
+				break;
+			case 2:
+				day = value;
+				break;
+			case 3:
+				hour = value;
+				break;
+			case 4:
+				minute = value;
+				break;
+			default:
+				second = value;
+				break;
+			}
+			if (run > 0 && digits > 2) {
+				return UNSUPPORTED;
+			}
+
+			// 校验当前段之后的分隔符
+			if (run <= 1) {
+				if (c == '.') {
+					dateDots++;
+				} else if (c != '-') {
+					return UNSUPPORTED;
+				}
+			} else if (run == 2) {
+				if (c != ' ') {
+					return UNSUPPORTED;
+				}
+			} else if (run <= 4) {
+				if (c != ':') {
+					return UNSUPPORTED;
+				}
+			} else if (run == 5) {
+				if (c == '.') {
+					fractionDot = true;
+				} else if (c != ',') {
+					return UNSUPPORTED;
+				}
+			} else {
+				return UNSUPPORTED;
+			}
+			run++;
+			value = 0;
+			digits = 0;
+		}
+
+		if (digits == 0) {
+			return UNSUPPORTED;
+		}
+		if (run == 0) {
+			// 包含被删除的中文单位时不是纯数字格式
+			return digits == end - start ? parseNumeric(text, start, end, zone) : UNSUPPORTED;
+		}
+
+		switch (run) {
+		case 2:
+			day = value;
+			break;
+		case 4:
+			minute = value;
+			break;
+		case 5:
+			second = value;
+			break;
+		case 6:
+			if (digits != 3) {
+				return UNSUPPORTED;
+			}
+			milli = value;
+			break;
+		default:
+			// yyyy-M 或 yyyy-M-d H 等不完整形态
+			return UNSUPPORTED;
+		}
+		if (run < 6 && digits > 2) {
+			return UNSUPPORTED;
+		}
+		// . 仅在日期中出现2次时作为日期分隔符
+		if (dateDots == 1 || (dateDots == 2 && fractionDot)) {
+			return UNSUPPORTED;
+		}
+		return toLocalMilli(year, month, day, hour, minute, second, milli, run > 2 ? zone : null);
+	}
+
+	/**
+	 * 解析纯数字格式 yyyyMMdd、yyyyMMddHHmm、yyyyMMddHHmmss、yyyyMMddHHmmssSSS
+	 */
+	private static long parseNumeric(CharSequence text, int start, int end, ZoneId zone) {
+		int len = end - start;
+		if (len != 8 && len != 12 && len != 14 && len != 17) {
+			return UNSUPPORTED;
+		}
+		int year = digits(text, start, 4);
+		int month = digits(text, start + 4, 2);
+		int day = digits(text, start + 6, 2);
+		int hour = len > 8 ? digits(text, start + 8, 2) : 0;
+		int minute = len > 8 ? digits(text, start + 10, 2) : 0;
+		int second = len > 12 ? digits(text, start + 12, 2) : 0;
+		int milli = len > 14 ? digits(text, start + 14, 3) : 0;
+		return toLocalMilli(year, month, day, hour, minute, second, milli, len > 8 ? zone : null);
+	}
+
+	/**
+	 * 校验字段范围，日期超出当月天数时取当月最后一天，和DateTimeFormatter SMART解析一致，其他超出范围的情况返回UNSUPPORTED<br>
+	 * zone不为null时按时区调整夏令时间隙中的时间，只有日期时传入null，和只有日期的formatter解析一致
+	 */
+	private static long toLocalMilli(int year, int month, int day, int hour, int minute, int second, int milli,
+			ZoneId zone) {
+		if (year < 1 || month < 1 || month > 12 || day < 1 || day > 31 || hour > 23 || minute > 59
+				|| second > 59) {
+			return UNSUPPORTED;
+		}
+		int monthLength = PackedDate.lengthOfMonth(year, month);
+		if (day > monthLength) {
+			day = monthLength;
+		}
+		long localMilli = FixedWidthDateTimeCodec.toLocalMilli(year, month, day, hour, minute, second, milli);
+		return zone == null ? localMilli : FixedWidthDateTimeCodec.resolveLocalMilli(localMilli, zone);
+	}
+
+	private static int digits(CharSequence text, int index, int count) {
+		int value = 0;
+		for (int i = index; i < index + count; i++) {
+			value = value * 10 + (text.charAt(i) - '0');
+		}
+		return value;
+	}
+
+}
@@ -0,0 +1,224 @@
+package com.xkzhangsan.time.formatter;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * 定长ASCII记录的批量数字解码器，使用SWAR（SIMD Within A Register）方式，一次读取8个字节为一个long，<br>
+ * 同时校验8个字节的数字和分隔符，并用乘法把相邻数字合并为两位数，不逐个字符判断。<br>
+ * 1.只支持不包含时区偏移的定长模板，比如 yyyyMMddHHmmss，yyyy-MM-dd HH:mm:ss，yyyy-MM-dd HH:mm:ss.SSS。<br>
+ * 2.记录按8字节分为多个可重叠的窗口，比如19字节的记录读取0、8、11三个位置，每个字段完整位于一个窗口内。<br>
+ * 3.字段校验规则和FixedWidthDateTimeCodec一致，结果也一致。<br>
+ * 读取使用ByteBuffer.getLong(int)，Java 9及以上为一次内存读取，Java 8也能正确运行。
+ *
+ * @author xkzhangsan
+ */
+final class SwarDateTimeDecoder {
+
+	/**
+	 * 每个字节都是0x30（字符0）
+	 */
+	private static final long ZEROS = 0x3030303030303030L;
+
+	/**
+	 * 每个字节的高4位
+	 */
+	private static final long HIGH_NIBBLES = 0xF0F0F0F0F0F0F0F0L;
+
+	/**
+	 * 每个字节加6，字符9变为0x3F，超过9的字符高4位变为4
+	 */
+	private static final long SIXES = 0x0606060606060606L;
+
+	private static final int WORD_BYTES = 8;
+
+	/**
+	 * 按FixedWidthDateTimeCodec.ordinal()保存，不支持的模板为null
+	 */
+	private static final SwarDateTimeDecoder[] DECODERS = new SwarDateTimeDecoder[FixedWidthDateTimeCodec.ENUMS.length];
+
+	static {
+		for (FixedWidthDateTimeCodec codec : FixedWidthDateTimeCodec.ENUMS) {
+			if (!codec.hasOffset()) {
+				DECODERS[codec.ordinal()] = new SwarDateTimeDecoder(codec.getLayout());
+			}
+		}
+	}
+
+	/**
+	 * 记录长度
+	 */
+	private final int length;
+
+	/**
+	 * 窗口起始位置
+	 */
+	private final int[] wordOffsets;
+
+	/**
+	 * 每个窗口中需要校验的数字字节，对应字节为0xFF
+	 */
+	private final long[] digitMasks;
+
+	/**
+	 * 每个窗口中需要校验的分隔符字节，对应字节为0xFF
+	 */
+	private final long[] literalMasks;
+
+	/**
+	 * 每个窗口中分隔符字节的期望值
+	 */
+	private final long[] literals;
+
+	/**
+	 * 各字段所在窗口序号和窗口内位移（位），没有该字段时窗口序号为-1
+	 */
+	private final int yearWord, yearShift, monthWord, monthShift, dayWord, dayShift, hourWord, hourShift, minuteWord,
+			minuteShift, secondWord, secondShift, milliWord, milliShift;
+
+	private SwarDateTimeDecoder(String layout) {
+		length = layout.length();
+		int count = (length + WORD_BYTES - 1) / WORD_BYTES;
+		wordOffsets = new int[count];
+		for (int i = 0; i < count; i++) {
+			// 最后一个窗口和前一个重叠，不超出记录
+			wordOffsets[i] = Math.min(i * WORD_BYTES, length - WORD_BYTES);
+		}
+		digitMasks = new long[count];
+		literalMasks = new long[count];
+		literals = new long[count];
+		for (int pos = 0; pos < length; pos++) {
+			// 每个字节只由包含它的第一个窗口校验
+			int word = Math.min(pos / WORD_BYTES, count - 1);
+			int shift = (pos - wordOffsets[word]) * 8;
+			char c = layout.charAt(pos);
+			if (c >= 'A' && c <= 'z' && c != 'T') {
+				digitMasks[word] |= 0xFFL << shift;
+			} else {
+				literalMasks[word] |= 0xFFL << shift;
+				literals[word] |= (long) c << shift;
+			}
+		}
+		int yearPos = layout.indexOf('y');
+		int monthPos = layout.indexOf('M');
+		int dayPos = layout.indexOf('d');
+		int hourPos = layout.indexOf('H');
+		int minutePos = layout.indexOf('m');
+		int secondPos = layout.indexOf('s');
+		int milliPos = layout.indexOf('S');
+		yearWord = wordOf(yearPos, 4);
+		yearShift = shiftOf(yearPos, yearWord);
+		monthWord = wordOf(monthPos, 2);
+		monthShift = shiftOf(monthPos, monthWord);
+		dayWord = wordOf(dayPos, 2);
+		dayShift = shiftOf(dayPos, dayWord);
+		hourWord = wordOf(hourPos, 2);
+		hourShift = shiftOf(hourPos, hourWord);
+		minuteWord = wordOf(minutePos, 2);
+		minuteShift = shiftOf(minutePos, minuteWord);
+		secondWord = wordOf(secondPos, 2);
+		secondShift = shiftOf(secondPos, secondWord);
+		milliWord = wordOf(milliPos, 3);
+		milliShift = shiftOf(milliPos, milliWord);
+	}
+
+	/**
+	 * 获取定长编解码器对应的解码器
+	 * @param codec 定长编解码器
+	 * @return 不支持（包含时区偏移）时返回null
+	 */
+	static SwarDateTimeDecoder of(FixedWidthDateTimeCodec codec) {
+		return codec == null ? null : DECODERS[codec.ordinal()];
+	}
+
+	/**
+	 * 记录长度
+	 * @return 记录长度
+	 */
+	int getLength() {
+		return length;
+	}
+
+	/**
+	 * 解码从pos开始的一条记录为本地时间毫秒值（以UTC计算的本地时间）
+	 * @param buffer 小端序的ByteBuffer
+	 * @param pos 记录起始位置
+	 * @return 本地时间毫秒值，解析失败返回FixedWidthDateTimeCodec.INVALID
+	 */
+	long tryDecodeLocalMilli(ByteBuffer buffer, int pos) {
+		int[] offsets = this.wordOffsets;
+		long w0 = 0, w1 = 0, w2 = 0, w3 = 0;
+		for (int i = 0; i < offsets.length; i++) {
+			long w = buffer.getLong(pos + offsets[i]);
+			long digits = digitMasks[i];
+			// 数字字节的高4位必须为3，加6后高4位仍为3
+			long bad = (((w & HIGH_NIBBLES) ^ ZEROS) | (((w + SIXES) & HIGH_NIBBLES) ^ ZEROS)) & digits;
+			if (bad != 0 || (w & literalMasks[i]) != literals[i]) {
+				return FixedWidthDateTimeCodec.INVALID;
+			}
+			// 每个字节为数字值，再合并相邻两个数字，字节i为 第i位 * 10 + 第i+1位
+			long values = (w & digits) - (ZEROS & digits);
+			long pairs = values * 10 + (values >>> 8);
+			switch (i) {
+			case 0: w0 = pairs; break;
+			case 1: w1 = pairs; break;
+			case 2: w2 = pairs; break;
+			default: w3 = pairs; break;
+			}
+		}
+		int year = pair(yearWord, yearShift, w0, w1, w2, w3) * 100 + pair(yearWord, yearShift + 16, w0, w1, w2, w3);
+		int month = pair(monthWord, monthShift, w0, w1, w2, w3);
+		int day = pair(dayWord, dayShift, w0, w1, w2, w3);
+		int hour = pair(hourWord, hourShift, w0, w1, w2, w3);
+		int minute = pair(minuteWord, minuteShift, w0, w1, w2, w3);
+		int second = pair(secondWord, secondShift, w0, w1, w2, w3);
+		// 3位毫秒，前两位合并值 * 10 + 第三位，第三位为 第三位合并值 / 10
+		int milli = milliWord < 0 ? 0
+				: pair(milliWord, milliShift, w0, w1, w2, w3) * 10 + pair(milliWord, milliShift + 16, w0, w1, w2, w3) / 10;
+		return FixedWidthDateTimeCodec.resolveFields(year, month, day, hour, minute, second, milli);
+	}
+
+	/**
+	 * 创建小端序的ByteBuffer，用于tryDecodeLocalMilli
+	 * @param bytes 字节数组
+	 * @return ByteBuffer
+	 */
+	static ByteBuffer wrap(byte[] bytes) {
+		return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * 取窗口中位移为shift的合并值，没有该字段时为0
+	 */
+	private static int pair(int word, int shift, long w0, long w1, long w2, long w3) {
+		long w;
+		switch (word) {
+		case -1: return 0;
+		case 0: w = w0; break;
+		case 1: w = w1; break;
+		case 2: w = w2; break;
+		default: w = w3; break;
+		}
+		return (int) (w >>> shift) & 0xFF;
+	}
+
+	/**
+	 * 包含[pos, pos + width)的窗口序号，没有该字段时返回-1
+	 */
+	private int wordOf(int pos, int width) {
+		if (pos < 0) {
+			return -1;
+		}
+		for (int i = 0; i < wordOffsets.length; i++) {
+			if (pos >= wordOffsets[i] && pos + width <= wordOffsets[i] + WORD_BYTES) {
+				return i;
+			}
+		}
+		throw new IllegalStateException("field at " + pos + " crosses 8-byte windows");
+	}
+
+	private int shiftOf(int pos, int word) {
+		return word < 0 ? 0 : (pos - wordOffsets[word]) * 8;
+	}
+
+}
@@ -0,0 +1,206 @@
+package com.xkzhangsan.time.holiday;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * 节假日日历，节假日数据只解析一次，不可变，可以在多个线程和多次计算中共享，直接传给DateTimeCalculatorUtil的*ChineseWorkDay*方法，
+ * 不需要每次按holidayData字符串查询缓存<br>
+ * 1.of(String holidayData)使用和isChineseWorkDay相同的字符串格式，如：2021-01-01:0,2021-02-07:1，0表示放假，1表示工作日。<br>
+ * 2.load(Path file, long version)、load(InputStream in, long version)读取UTF-8文本，每行一个或多个英文逗号分隔的 日期:类型，
+ * 连续日期可以写为 开始日期~结束日期:类型，#之后为注释，比如：<br>
+ * <pre>
+ * # 2021年节假日安排
+ * 2021-01-01:0
+ * 2021-02-07:1
+ * 2021-02-11~2021-02-17:0, 2021-02-20:1
+ * </pre>
+ * 文本中的日期必须为有效的yyyy-MM-dd，类型必须为0或1，格式错误时抛出DateTimeException并说明行号，同一日期重复时以最后一个为准。<br>
+ * 3.version为数据版本，比如发布日期20201125，配合HolidayCalendarHolder.update在新的年度安排发布时原子替换。<br>
+ * 4.getHolidayData()返回按日期排序的字符串，可以保存或者传给holidayData参数的方法。<br>
+ * 节假日数据中没有的日期，周一到周五为工作日。
+ *
+ * @author xkzhangsan
+ */
+public class HolidayCalendar {
+
+	private static final int WORK_DAY = 1;
+
+	private static final int HOLIDAY = 0;
+
+	private static final String RANGE_SEPARATOR = "~";
+
+	private static final char COMMENT = '#';
+
+	/**
+	 * 数据版本
+	 */
+	private final long version;
+
+	/**
+	 * 按日期排序的节假日数据
+	 */
+	private final String holidayData;
+
+	private final WorkdayCalendar workdayCalendar;
+
+	private HolidayCalendar(long version, Map<Integer, Integer> dateTypeMap) {
+		this.version = version;
+		this.workdayCalendar = WorkdayCalendar.of(dateTypeMap);
+		StringBuilder sb = new StringBuilder(dateTypeMap.size() * 13);
+		for (Map.Entry<Integer, Integer> entry : new TreeMap<>(dateTypeMap).entrySet()) {
+			if (sb.length() > 0) {
+				sb.append(',');
+			}
+			sb.append(LocalDate.ofEpochDay(entry.getKey())).append(':').append(entry.getValue() == WORK_DAY ? WORK_DAY : HOLIDAY);
+		}
+		this.holidayData = sb.toString();
+	}
+
+	/**
+	 * 根据节假日数据字符串创建，版本为0
+	 * @param holidayData 放假信息0表示放假，1表示工作日，如：2021-01-01:0,2021-02-07:1
+	 * @return HolidayCalendar
+	 */
+	public static HolidayCalendar of(String holidayData) {
+		return of(holidayData, 0);
+	}
+
+	/**
+	 * 根据节假日数据字符串创建，格式和isChineseWorkDay相同，不是yyyy-MM-dd格式的有效日期忽略
+	 * @param holidayData 放假信息0表示放假，1表示工作日，如：2021-01-01:0,2021-02-07:1
+	 * @param version 数据版本
+	 * @return HolidayCalendar
+	 */
+	public static HolidayCalendar of(String holidayData, long version) {
+		Objects.requireNonNull(holidayData, "holidayData");
+		return new HolidayCalendar(version, WorkdayCalendar.parse(holidayData));
+	}
+
+	/**
+	 * 读取节假日文本，UTF-8编码，读取后不关闭输入流
+	 * @param in 输入流
+	 * @param version 数据版本
+	 * @return HolidayCalendar
+	 * @throws IOException 读取失败时
+	 * @throws DateTimeException 格式错误时
+	 */
+	public static HolidayCalendar load(InputStream in, long version) throws IOException {
+		Objects.requireNonNull(in, "in");
+		BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+		Map<Integer, Integer> dateTypeMap = new HashMap<>();
+		String line;
+		int lineNumber = 0;
+		while ((line = reader.readLine()) != null) {
+			lineNumber++;
+			int commentIndex = line.indexOf(COMMENT);
+			if (commentIndex >= 0) {
+				line = line.substring(0, commentIndex);
+			}
+			for (String dateType : line.split(",")) {
+				dateType = dateType.trim();
+				if (!dateType.isEmpty()) {
+					parseDateType(dateType, lineNumber, dateTypeMap);
+				}
+			}
+		}
+		return new HolidayCalendar(version, dateTypeMap);
+	}
+
+	/**
+	 * 读取节假日文件，UTF-8编码
+	 * @param file 文件
+	 * @param version 数据版本
+	 * @return HolidayCalendar
+	 * @throws IOException 读取文件失败时
+	 * @throws DateTimeException 格式错误时
+	 */
+	public static HolidayCalendar load(Path file, long version) throws IOException {
+		Objects.requireNonNull(file, "file");
+		try (InputStream in = Files.newInputStream(file)) {
+			return load(in, version);
+		}
+	}
+
+	/**
+	 * 数据版本
+	 * @return version
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * 按日期排序的节假日数据，如：2021-01-01:0,2021-02-07:1
+	 * @return holidayData
+	 */
+	public String getHolidayData() {
+		return holidayData;
+	}
+
+	/**
+	 * 工作日日历，周六、周日为周末
+	 * @return WorkdayCalendar
+	 */
+	public WorkdayCalendar getWorkdayCalendar() {
+		return workdayCalendar;
+	}
+
+	/**
+	 * 是否工作日
+	 * @param localDate LocalDate
+	 * @return boolean
+	 */
+	public boolean isWorkDay(LocalDate localDate) {
+		return workdayCalendar.isWorkDay(localDate);
+	}
+
+	@Override
+	public String toString() {
+		return "HolidayCalendar[version=" + version + ", holidayData=" + holidayData + "]";
+	}
+
+	/**
+	 * 解析一个 日期:类型 或者 开始日期~结束日期:类型
+	 */
+	private static void parseDateType(String dateType, int lineNumber, Map<Integer, Integer> dateTypeMap) {
+		int typeIndex = dateType.lastIndexOf(':');
+		if (typeIndex < 0) {
+			throw invalid(dateType, lineNumber);
+		}
+		String typeText = dateType.substring(typeIndex + 1).trim();
+		int type;
+		if (typeText.equals("0")) {
+			type = HOLIDAY;
+		} else if (typeText.equals("1")) {
+			type = WORK_DAY;
+		} else {
+			throw invalid(dateType, lineNumber);
+		}
+		String dateText = dateType.substring(0, typeIndex).trim();
+		int rangeIndex = dateText.indexOf(RANGE_SEPARATOR);
+		int startDay = WorkdayCalendar.parseEpochDay(rangeIndex < 0 ? dateText : dateText.substring(0, rangeIndex).trim());
+		int endDay = rangeIndex < 0 ? startDay : WorkdayCalendar.parseEpochDay(dateText.substring(rangeIndex + 1).trim());
+		if (startDay == Integer.MIN_VALUE || endDay == Integer.MIN_VALUE || startDay > endDay) {
+			throw invalid(dateType, lineNumber);
+		}
+		for (int day = startDay; day <= endDay; day++) {
+			dateTypeMap.put(day, type);
+		}
+	}
+
+	private static DateTimeException invalid(String dateType, int lineNumber) {
+		return new DateTimeException("Invalid holiday data at line " + lineNumber + ": " + dateType);
+	}
+}
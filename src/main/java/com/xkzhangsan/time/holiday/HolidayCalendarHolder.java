@@ -0,0 +1,70 @@
+package com.xkzhangsan.time.holiday;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 节假日日历持有者，保存当前使用的HolidayCalendar，新的年度安排发布时原子替换，读取时没有锁<br>
+ * 替换前已经获取的HolidayCalendar不受影响，同一次计算使用同一个版本，比如：<br>
+ * <pre>
+ * HolidayCalendarHolder holder = HolidayCalendarHolder.of(HolidayCalendar.load(path, 20201125));
+ * DateTimeCalculatorUtil.isChineseWorkDay(date, holder.get());
+ * // 新的年度安排发布后
+ * holder.update(HolidayCalendar.load(newPath, 20211025));
+ * </pre>
+ *
+ * @author xkzhangsan
+ */
+public class HolidayCalendarHolder {
+
+	private final AtomicReference<HolidayCalendar> current;
+
+	private HolidayCalendarHolder(HolidayCalendar holidayCalendar) {
+		this.current = new AtomicReference<>(holidayCalendar);
+	}
+
+	/**
+	 * 创建持有者
+	 * @param holidayCalendar 初始节假日日历
+	 * @return HolidayCalendarHolder
+	 */
+	public static HolidayCalendarHolder of(HolidayCalendar holidayCalendar) {
+		Objects.requireNonNull(holidayCalendar, "holidayCalendar");
+		return new HolidayCalendarHolder(holidayCalendar);
+	}
+
+	/**
+	 * 当前节假日日历
+	 * @return HolidayCalendar
+	 */
+	public HolidayCalendar get() {
+		return current.get();
+	}
+
+	/**
+	 * 版本大于当前版本时替换，多个线程同时更新时保留版本最大的
+	 * @param holidayCalendar 新的节假日日历
+	 * @return 是否替换
+	 */
+	public boolean update(HolidayCalendar holidayCalendar) {
+		Objects.requireNonNull(holidayCalendar, "holidayCalendar");
+		HolidayCalendar previous;
+		do {
+			previous = current.get();
+			if (holidayCalendar.getVersion() <= previous.getVersion()) {
+				return false;
+			}
+		} while (!current.compareAndSet(previous, holidayCalendar));
+		return true;
+	}
+
+	/**
+	 * 不比较版本直接替换，比如回退到旧版本
+	 * @param holidayCalendar 新的节假日日历
+	 * @return 替换前的节假日日历
+	 */
+	public HolidayCalendar set(HolidayCalendar holidayCalendar) {
+		Objects.requireNonNull(holidayCalendar, "holidayCalendar");
+		return current.getAndSet(holidayCalendar);
+	}
+}
@@ -0,0 +1,520 @@
+package com.xkzhangsan.time.holiday;
+
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoField;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.LongConsumer;
+
+import com.xkzhangsan.time.converter.PackedDate;
+import com.xkzhangsan.time.utils.BaseCache;
+import com.xkzhangsan.time.utils.StringUtil;
+
+/**
+ * 工作日日历，根据节假日数据一次构建，之后的查询不再格式化日期和查询Map<br>
+ * 1.节假日数据覆盖的年份（最小年份1月1日到最大年份12月31日），按epochDay保存为位图，1表示工作日，同时保存每64天的前缀和。<br>
+ * 2.isWorkDay为一次位运算，workDayCount为2次前缀和查询加bitCount，和区间长度无关，工作日列表按位扫描。<br>
+ * 3.plusWorkDays、minusWorkDays、nthWorkDayOfMonth、workDayIndex按前缀和（rank）和反查（select）计算，位图内二分查找，位图外按整周计算，和工作日数量无关。<br>
+ * 4.节假日数据中没有的日期按周末规则判断，默认周六、周日为周末，可以通过of(String holidayData, Set&lt;DayOfWeek&gt; weekendDays)指定，
+ * 覆盖年份之外的区间按整周计算。<br>
+ * 节假日数据格式和DateTimeCalculatorUtil.isChineseWorkDay相同，0表示放假，1表示工作日，如：2021-01-01:0,2021-02-07:1，
+ * 同一日期重复时以最后一个为准，不是yyyy-MM-dd格式的有效日期忽略。<br>
+ * 不可变，线程安全。
+ *
+ * @author xkzhangsan
+ */
+public class WorkdayCalendar {
+
+	private static final int WORK_DAY = 1;
+
+	private static final int DAYS_PER_WEEK = 7;
+
+	/**
+	 * 1969-12-29 星期一，按周计算的起点
+	 */
+	private static final long MONDAY_EPOCH_DAY = -3;
+
+	/**
+	 * LocalDate支持的天数范围，超过该数量的工作日一定超出范围
+	 */
+	private static final long MAX_WORK_DAYS = LocalDate.MAX.toEpochDay() - LocalDate.MIN.toEpochDay();
+
+	private static final int DEFAULT_WEEKEND_MASK = weekendMask(EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY));
+
+	private static final BaseCache<String, WorkdayCalendar> CACHE = new BaseCache<>();
+
+	/**
+	 * 最近一次使用的缓存，同一个节假日数据字符串对象直接返回，不经过缓存的读锁
+	 */
+	private static volatile CacheEntry lastEntry;
+
+	/**
+	 * 位图开始的epochDay
+	 */
+	private final long startDay;
+
+	/**
+	 * 位图结束的epochDay，不包含
+	 */
+	private final long endDay;
+
+	/**
+	 * 工作日位图，第i天对应words[i >>> 6]的第(i &amp; 63)位
+	 */
+	private final long[] words;
+
+	/**
+	 * 前缀和，rank[w]为words[0, w)中的工作日数量
+	 */
+	private final int[] rank;
+
+	/**
+	 * 周末掩码，第DayOfWeek.getValue()位为1表示周末
+	 */
+	private final int weekendMask;
+
+	/**
+	 * 从星期一开始，一周前i天中的工作日数量
+	 */
+	private final int[] weekPrefix;
+
+	private WorkdayCalendar(long startDay, long endDay, long[] words, int weekendMask) {
+		this.startDay = startDay;
+		this.endDay = endDay;
+		this.words = words;
+		this.weekendMask = weekendMask;
+		this.rank = new int[words.length + 1];
+		for (int i = 0; i < words.length; i++) {
+			rank[i + 1] = rank[i] + Long.bitCount(words[i]);
+		}
+		this.weekPrefix = new int[DAYS_PER_WEEK + 1];
+		for (int i = 0; i < DAYS_PER_WEEK; i++) {
+			weekPrefix[i + 1] = weekPrefix[i] + (isWeekend(weekendMask, i + 1) ? 0 : 1);
+		}
+	}
+
+	/**
+	 * 根据节假日数据构建工作日日历，周六、周日为周末
+	 * @param holidayData 放假信息0表示放假，1表示工作日，如：2021-01-01:0,2021-02-07:1
+	 * @return WorkdayCalendar
+	 */
+	public static WorkdayCalendar of(String holidayData) {
+		return of(holidayData, DEFAULT_WEEKEND_MASK);
+	}
+
+	/**
+	 * 根据节假日数据构建工作日日历，指定周末，比如只有周日休息
+	 * @param holidayData 放假信息0表示放假，1表示工作日，如：2021-01-01:0,2021-02-07:1
+	 * @param weekendDays 周末
+	 * @return WorkdayCalendar
+	 */
+	public static WorkdayCalendar of(String holidayData, Set<DayOfWeek> weekendDays) {
+		Objects.requireNonNull(weekendDays, "weekendDays");
+		return of(holidayData, weekendMask(weekendDays));
+	}
+
+	/**
+	 * 根据节假日数据获取工作日日历，周六、周日为周末，使用缓存，同一节假日数据只构建一次
+	 * @param holidayData 放假信息0表示放假，1表示工作日，如：2021-01-01:0,2021-02-07:1
+	 * @return WorkdayCalendar
+	 */
+	public static WorkdayCalendar ofUseCache(String holidayData) {
+		Objects.requireNonNull(holidayData, "holidayData");
+		CacheEntry entry = lastEntry;
+		if (entry != null && entry.holidayData == holidayData) {
+			return entry.calendar;
+		}
+		WorkdayCalendar calendar = CACHE.get(holidayData, () -> of(holidayData));
+		lastEntry = new CacheEntry(holidayData, calendar);
+		return calendar;
+	}
+
+	/**
+	 * 是否工作日
+	 * @param epochDay epochDay
+	 * @return boolean
+	 */
+	public boolean isWorkDay(long epochDay) {
+		if (epochDay >= startDay && epochDay < endDay) {
+			long index = epochDay - startDay;
+			return (words[(int) (index >>> 6)] & (1L << index)) != 0;
+		}
+		return !isWeekend(weekendMask, dayOfWeek(epochDay));
+	}
+
+	/**
+	 * 是否工作日
+	 * @param localDate LocalDate
+	 * @return boolean
+	 */
+	public boolean isWorkDay(LocalDate localDate) {
+		Objects.requireNonNull(localDate, "localDate");
+		return isWorkDay(localDate.toEpochDay());
+	}
+
+	/**
+	 * 区间内工作日数量，包含起始，start大于end时返回0
+	 * @param startEpochDay 开始epochDay
+	 * @param endEpochDay 结束epochDay
+	 * @return 工作日数量
+	 */
+	public long workDayCount(long startEpochDay, long endEpochDay) {
+		if (startEpochDay > endEpochDay) {
+			return 0;
+		}
+		return countBefore(endEpochDay + 1) - countBefore(startEpochDay);
+	}
+
+	/**
+	 * 区间内工作日数量，包含起始，start晚于end时返回0
+	 * @param start 开始日期
+	 * @param end 结束日期
+	 * @return 工作日数量
+	 */
+	public long workDayCount(LocalDate start, LocalDate end) {
+		Objects.requireNonNull(start, "start");
+		Objects.requireNonNull(end, "end");
+		return workDayCount(start.toEpochDay(), end.toEpochDay());
+	}
+
+	/**
+	 * 区间内是否包含工作日，包含起始
+	 * @param startEpochDay 开始epochDay
+	 * @param endEpochDay 结束epochDay
+	 * @return boolean
+	 */
+	public boolean hasWorkDay(long startEpochDay, long endEpochDay) {
+		return workDayCount(startEpochDay, endEpochDay) > 0;
+	}
+
+	/**
+	 * 按顺序遍历区间内的工作日，包含起始，位图范围内按位扫描
+	 * @param startEpochDay 开始epochDay
+	 * @param endEpochDay 结束epochDay
+	 * @param action 处理工作日的epochDay
+	 */
+	public void forEachWorkDay(long startEpochDay, long endEpochDay, LongConsumer action) {
+		Objects.requireNonNull(action, "action");
+		long day = startEpochDay;
+		// 位图之前
+		for (long to = Math.min(endEpochDay, startDay - 1); day <= to; day++) {
+			if (!isWeekend(weekendMask, dayOfWeek(day))) {
+				action.accept(day);
+			}
+		}
+		// 位图范围内
+		long to = Math.min(endEpochDay, endDay - 1);
+		if (day <= to) {
+			long from = day - startDay;
+			long last = to - startDay;
+			for (int w = (int) (from >>> 6); w <= (int) (last >>> 6); w++) {
+				long word = words[w];
+				if (w == (int) (from >>> 6)) {
+					word &= -1L << from;
+				}
+				if (w == (int) (last >>> 6)) {
+					word &= -1L >>> (63 - (last & 63));
+				}
+				while (word != 0) {
+					action.accept(startDay + ((long) w << 6) + Long.numberOfTrailingZeros(word));
+					word &= word - 1;
+				}
+			}
+			day = to + 1;
+		}
+		// 位图之后
+		for (; day <= endEpochDay; day++) {
+			if (!isWeekend(weekendMask, dayOfWeek(day))) {
+				action.accept(day);
+			}
+		}
+	}
+
+	/**
+	 * 区间内的工作日列表，包含起始
+	 * @param start 开始日期
+	 * @param end 结束日期
+	 * @return 工作日列表
+	 */
+	public List<LocalDate> getWorkDayList(LocalDate start, LocalDate end) {
+		Objects.requireNonNull(start, "start");
+		Objects.requireNonNull(end, "end");
+		List<LocalDate> workDayList = new ArrayList<>();
+		forEachWorkDay(start.toEpochDay(), end.toEpochDay(), day -> workDayList.add(LocalDate.ofEpochDay(day)));
+		return workDayList;
+	}
+
+	/**
+	 * 增加工作日，workDays大于0时返回之后第workDays个工作日，小于0时返回之前第-workDays个工作日，等于0时返回原日期
+	 * @param epochDay epochDay
+	 * @param workDays 工作日数量，可以为负数
+	 * @return epochDay
+	 * @throws DateTimeException 日期或结果超出LocalDate的范围，或者没有可用的工作日（比如全部为周末）
+	 */
+	public long plusWorkDays(long epochDay, long workDays) {
+		ChronoField.EPOCH_DAY.checkValidValue(epochDay);
+		if (workDays == 0) {
+			return epochDay;
+		}
+		if (workDays > MAX_WORK_DAYS || workDays < -MAX_WORK_DAYS) {
+			throw new DateTimeException("workDays out of range: " + workDays);
+		}
+		long target = workDays > 0 ? countBefore(epochDay + 1) + workDays - 1 : countBefore(epochDay) + workDays;
+		return ChronoField.EPOCH_DAY.checkValidValue(select(target));
+	}
+
+	/**
+	 * 增加工作日，workDays大于0时返回之后第workDays个工作日，小于0时返回之前第-workDays个工作日，等于0时返回原日期
+	 * @param localDate LocalDate
+	 * @param workDays 工作日数量，可以为负数
+	 * @return LocalDate
+	 */
+	public LocalDate plusWorkDays(LocalDate localDate, long workDays) {
+		Objects.requireNonNull(localDate, "localDate");
+		if (workDays == 0) {
+			return localDate;
+		}
+		return LocalDate.ofEpochDay(plusWorkDays(localDate.toEpochDay(), workDays));
+	}
+
+	/**
+	 * 减少工作日，workDays大于0时返回之前第workDays个工作日
+	 * @param localDate LocalDate
+	 * @param workDays 工作日数量，可以为负数
+	 * @return LocalDate
+	 */
+	public LocalDate minusWorkDays(LocalDate localDate, long workDays) {
+		if (workDays == Long.MIN_VALUE) {
+			throw new DateTimeException("workDays out of range: " + workDays);
+		}
+		return plusWorkDays(localDate, -workDays);
+	}
+
+	/**
+	 * 指定年月的第n个工作日，n从1开始，小于0时从月末倒数，比如-1为当月最后一个工作日
+	 * @param year 年
+	 * @param month 月
+	 * @param n 第几个工作日
+	 * @return LocalDate
+	 * @throws DateTimeException n为0或者超过当月工作日数量
+	 */
+	public LocalDate nthWorkDayOfMonth(int year, int month, int n) {
+		LocalDate first = LocalDate.of(year, month, 1);
+		long firstDay = first.toEpochDay();
+		long endDay = firstDay + first.lengthOfMonth();
+		long countBeforeFirst = countBefore(firstDay);
+		long countBeforeEnd = countBefore(endDay);
+		if (n == 0 || Math.abs((long) n) > countBeforeEnd - countBeforeFirst) {
+			throw new DateTimeException("n out of range: " + n + ", work days of " + year + "-" + month + " is "
+					+ (countBeforeEnd - countBeforeFirst));
+		}
+		return LocalDate.ofEpochDay(select(n > 0 ? countBeforeFirst + n - 1 : countBeforeEnd + n));
+	}
+
+	/**
+	 * 日期是当月第几个工作日，从1开始，不是工作日时返回0
+	 * @param localDate LocalDate
+	 * @return 第几个工作日
+	 */
+	public int workDayIndex(LocalDate localDate) {
+		Objects.requireNonNull(localDate, "localDate");
+		long epochDay = localDate.toEpochDay();
+		if (!isWorkDay(epochDay)) {
+			return 0;
+		}
+		return (int) (countBefore(epochDay + 1) - countBefore(epochDay - localDate.getDayOfMonth() + 1));
+	}
+
+	/**
+	 * epochDay之前（不包含）的工作日数量，以MONDAY_EPOCH_DAY为0，位图之外按整周计算
+	 */
+	private long countBefore(long epochDay) {
+		if (epochDay <= startDay) {
+			return weekCountBefore(epochDay);
+		}
+		long count = weekCountBefore(startDay);
+		if (epochDay <= endDay) {
+			long index = epochDay - startDay;
+			int w = (int) (index >>> 6);
+			long partial = (index & 63) == 0 ? 0 : Long.bitCount(words[w] & (-1L >>> (64 - (index & 63))));
+			return count + rank[w] + partial;
+		}
+		return count + rank[words.length] + weekCountBefore(epochDay) - weekCountBefore(endDay);
+	}
+
+	private long weekCountBefore(long epochDay) {
+		long days = epochDay - MONDAY_EPOCH_DAY;
+		return Math.floorDiv(days, (long) DAYS_PER_WEEK) * weekPrefix[DAYS_PER_WEEK] + weekPrefix[(int) Math.floorMod(days, (long) DAYS_PER_WEEK)];
+	}
+
+	/**
+	 * countBefore的反查，返回countBefore(day)等于rank的工作日
+	 */
+	private long select(long rank) {
+		long base = weekCountBefore(startDay);
+		if (rank < base) {
+			return weekSelect(rank);
+		}
+		long index = rank - base;
+		if (index >= this.rank[words.length]) {
+			return weekSelect(index - this.rank[words.length] + weekCountBefore(endDay));
+		}
+		// 最后一个rank[w] <= index的位置
+		int low = 0;
+		int high = words.length - 1;
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if (this.rank[mid] <= index) {
+				low = mid;
+			} else {
+				high = mid - 1;
+			}
+		}
+		long word = words[low];
+		for (long i = index - this.rank[low]; i > 0; i--) {
+			word &= word - 1;
+		}
+		return startDay + ((long) low << 6) + Long.numberOfTrailingZeros(word);
+	}
+
+	/**
+	 * weekCountBefore的反查，按周末规则返回weekCountBefore(day)等于rank的工作日
+	 */
+	private long weekSelect(long rank) {
+		int perWeek = weekPrefix[DAYS_PER_WEEK];
+		if (perWeek == 0) {
+			throw new DateTimeException("no work day outside holiday data");
+		}
+		int remainder = (int) Math.floorMod(rank, (long) perWeek);
+		int dayIndex = 0;
+		while (weekPrefix[dayIndex + 1] <= remainder) {
+			dayIndex++;
+		}
+		return MONDAY_EPOCH_DAY + Math.floorDiv(rank, (long) perWeek) * DAYS_PER_WEEK + dayIndex;
+	}
+
+	private static WorkdayCalendar of(String holidayData, int weekendMask) {
+		return of(parse(holidayData), weekendMask);
+	}
+
+	/**
+	 * 根据解析后的节假日数据构建，周六、周日为周末，供HolidayCalendar使用
+	 * @param dateTypeMap epochDay和类型，1表示工作日
+	 */
+	static WorkdayCalendar of(Map<Integer, Integer> dateTypeMap) {
+		return of(dateTypeMap, DEFAULT_WEEKEND_MASK);
+	}
+
+	private static WorkdayCalendar of(Map<Integer, Integer> dateTypeMap, int weekendMask) {
+		if (dateTypeMap.isEmpty()) {
+			return new WorkdayCalendar(0, 0, new long[0], weekendMask);
+		}
+		int minDay = Integer.MAX_VALUE;
+		int maxDay = Integer.MIN_VALUE;
+		for (Integer day : dateTypeMap.keySet()) {
+			minDay = Math.min(minDay, day);
+			maxDay = Math.max(maxDay, day);
+		}
+		int startDay = PackedDate.of(PackedDate.getYear(minDay), 1, 1);
+		int endDay = PackedDate.of(PackedDate.getYear(maxDay) + 1, 1, 1);
+		long[] words = new long[(endDay - startDay + 63) >>> 6];
+		for (int day = startDay; day < endDay; day++) {
+			Integer dateType = dateTypeMap.get(day);
+			boolean workDay = dateType != null ? dateType == WORK_DAY : !isWeekend(weekendMask, dayOfWeek(day));
+			if (workDay) {
+				int index = day - startDay;
+				words[index >>> 6] |= 1L << index;
+			}
+		}
+		return new WorkdayCalendar(startDay, endDay, words, weekendMask);
+	}
+
+	/**
+	 * 解析节假日数据，拆分方式和StringUtil.convertHolidayDataToMap相同，格式错误时抛出相同的异常
+	 */
+	static Map<Integer, Integer> parse(String holidayData) {
+		Map<Integer, Integer> dateTypeMap = new HashMap<>();
+		if (StringUtil.isEmpty(holidayData)) {
+			return dateTypeMap;
+		}
+		String[] dateTypeArr = holidayData.replace(" ", "").split(",");
+		for (String dateType : dateTypeArr) {
+			String[] arr = dateType.split(":");
+			Integer type = Integer.valueOf(arr[1]);
+			int epochDay = parseEpochDay(arr[0]);
+			if (epochDay != Integer.MIN_VALUE) {
+				dateTypeMap.put(epochDay, type);
+			}
+		}
+		return dateTypeMap;
+	}
+
+	/**
+	 * 解析yyyy-MM-dd（0001-9999年）为epochDay，和LocalDate.toString()格式不一致或日期无效时返回Integer.MIN_VALUE
+	 */
+	static int parseEpochDay(String text) {
+		if (text.length() != 10 || text.charAt(4) != '-' || text.charAt(7) != '-') {
+			return Integer.MIN_VALUE;
+		}
+		int year = parseDigits(text, 0, 4);
+		int month = parseDigits(text, 5, 7);
+		int day = parseDigits(text, 8, 10);
+		if (year < 1 || month < 1 || month > 12 || day < 1 || day > PackedDate.lengthOfMonth(year, month)) {
+			return Integer.MIN_VALUE;
+		}
+		return PackedDate.of(year, month, day);
+	}
+
+	private static int parseDigits(String text, int from, int to) {
+		int value = 0;
+		for (int i = from; i < to; i++) {
+			char c = text.charAt(i);
+			if (c < '0' || c > '9') {
+				return -1;
+			}
+			value = value * 10 + (c - '0');
+		}
+		return value;
+	}
+
+	private static int weekendMask(Set<DayOfWeek> weekendDays) {
+		int mask = 0;
+		for (DayOfWeek dayOfWeek : weekendDays) {
+			mask |= 1 << dayOfWeek.getValue();
+		}
+		return mask;
+	}
+
+	/**
+	 * 星期，1-7表示星期一到星期日，支持LocalDate的全部epochDay
+	 */
+	private static int dayOfWeek(long epochDay) {
+		return (int) Math.floorMod(epochDay - MONDAY_EPOCH_DAY, (long) DAYS_PER_WEEK) + 1;
+	}
+
+	private static boolean isWeekend(int weekendMask, int dayOfWeek) {
+		return (weekendMask & (1 << dayOfWeek)) != 0;
+	}
+
+	/**
+	 * 最近一次使用的节假日数据和日历
+	 */
+	private static final class CacheEntry {
+
+		private final String holidayData;
+
+		private final WorkdayCalendar calendar;
+
+		private CacheEntry(String holidayData, WorkdayCalendar calendar) {
+			this.holidayData = holidayData;
+			this.calendar = calendar;
+		}
+	}
+}
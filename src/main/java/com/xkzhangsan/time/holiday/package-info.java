@@ -1,5 +1,7 @@
 /**
  * 节日处理工具类: HolidayUtil
+ * 工作日日历: WorkdayCalendar
+ * 节假日日历: HolidayCalendar、HolidayCalendarHolder
  *
  * @author xkzhangsan
  */
@@ -0,0 +1,86 @@
+package com.xkzhangsan.time.utils;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 区间并行执行工具类，将[0, size)拆分为多段在ForkJoinPool.commonPool()中执行，供批量解析、格式化和转换使用
+ *
+ * @author xkzhangsan
+ */
+public class ParallelUtil {
+
+	/**
+	 * 每段最小数量
+	 */
+	private static final int MIN_LEAF_SIZE = 2048;
+
+	/**
+	 * 拆分位置对齐，64个元素对应位图中的一个long，每段只写自己的long，不需要同步
+	 */
+	private static final int ALIGNMENT = 64;
+
+	private ParallelUtil() {
+	}
+
+	/**
+	 * 执行[0, size)区间，size超过threshold且公共线程池并行度大于1时，拆分为多段并行执行，拆分位置按64对齐
+	 * @param size 数量
+	 * @param threshold 并行阈值
+	 * @param action 处理[from, to)区间
+	 */
+	public static void run(int size, int threshold, RangeAction action) {
+		if (size <= threshold || ForkJoinPool.getCommonPoolParallelism() <= 1) {
+			action.run(0, size);
+			return;
+		}
+		// 每个线程约4段，便于负载均衡
+		int leafSize = Math.max(MIN_LEAF_SIZE, size / (ForkJoinPool.getCommonPoolParallelism() * 4));
+		ForkJoinPool.commonPool().invoke(new RangeTask(action, 0, size, leafSize));
+	}
+
+	/**
+	 * 处理[from, to)区间
+	 *
+	 * @author xkzhangsan
+	 */
+	@FunctionalInterface
+	public interface RangeAction {
+		void run(int from, int to);
+	}
+
+	/**
+	 * 拆分区间的ForkJoin任务，拆分位置按ALIGNMENT对齐
+	 *
+	 * @author xkzhangsan
+	 */
+	private static final class RangeTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final RangeAction action;
+
+		private final int from;
+
+		private final int to;
+
+		private final int leafSize;
+
+		RangeTask(RangeAction action, int from, int to, int leafSize) {
+			this.action = action;
+			this.from = from;
+			this.to = to;
+			this.leafSize = leafSize;
+		}
+
+		@Override
+		protected void compute() {
+			int mid = ((from + to) >>> 1) & -ALIGNMENT;
+			if (to - from <= leafSize || mid <= from) {
+				action.run(from, to);
+				return;
+			}
+			invokeAll(new RangeTask(action, from, mid, leafSize), new RangeTask(action, mid, to, leafSize));
+		}
+	}
+}
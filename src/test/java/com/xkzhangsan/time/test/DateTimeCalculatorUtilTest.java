@@ -1,15 +1,19 @@
 package com.xkzhangsan.time.test;
 
 import com.xkzhangsan.time.calculator.DateTimeCalculatorUtil;
+import com.xkzhangsan.time.calculator.TemporalRangeSpliterator;
 import com.xkzhangsan.time.calculator.TimePair;
 import com.xkzhangsan.time.converter.DateTimeConverterUtil;
+import com.xkzhangsan.time.converter.PackedDateTime;
 import com.xkzhangsan.time.enums.ZoneIdEnum;
 import com.xkzhangsan.time.formatter.DateFormatPattern;
 import com.xkzhangsan.time.formatter.DateTimeFormatterUtil;
+import com.xkzhangsan.time.holiday.WorkdayCalendar;
 import com.xkzhangsan.time.utils.CollectionUtil;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.time.DateTimeException;
 import java.time.DayOfWeek;
 import java.time.Duration;
 import java.time.LocalDate;
@@ -20,9 +24,14 @@ import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.TimeZone;
+import java.util.stream.Collectors;
 
 /**
  * 日期计算测试类
@@ -890,4 +899,150 @@ public class DateTimeCalculatorUtilTest {
         Assert.assertFalse(result3);
 	}
 	
+	/**
+	 * 延迟计算的区间序列测试
+	 */
+	@Test
+	public void temporalRangeTest(){
+		// 从开始时间计算，1月31日按月为2月29日、3月31日，最后为end
+		LocalDate start = LocalDate.of(2020, 1, 31);
+		LocalDate end = LocalDate.of(2020, 5, 15);
+		List<LocalDate> localDateList = DateTimeCalculatorUtil.getLocalDateList(start, end, ChronoUnit.MONTHS);
+		Assert.assertEquals("[2020-01-31, 2020-02-29, 2020-03-31, 2020-04-30, 2020-05-15]", localDateList.toString());
+		Assert.assertEquals(localDateList, DateTimeCalculatorUtil.getLocalDateStream(start, end, ChronoUnit.MONTHS).collect(Collectors.toList()));
+		// 2月29日按月正好为end
+		Assert.assertEquals(2, DateTimeCalculatorUtil.getLocalDateList(start, LocalDate.of(2020, 2, 29), ChronoUnit.MONTHS).size());
+		Assert.assertEquals(1, DateTimeCalculatorUtil.getLocalDateList(start, start, ChronoUnit.MONTHS).size());
+		Assert.assertEquals(106, DateTimeCalculatorUtil.getLocalDateList(start, end).size());
+		
+		// 10年按分钟，延迟计算，并行流按下标平分
+		LocalDateTime startTime = LocalDateTime.of(2010, 1, 1, 0, 0);
+		LocalDateTime endTime = LocalDateTime.of(2020, 1, 1, 0, 0);
+		TemporalRangeSpliterator<LocalDateTime> range = TemporalRangeSpliterator.of(startTime, endTime, ChronoUnit.MINUTES);
+		Assert.assertEquals(Duration.between(startTime, endTime).toMinutes() + 1, range.estimateSize());
+		Assert.assertEquals(range.estimateSize() / 2, range.trySplit().estimateSize());
+		Assert.assertEquals(LocalDateTime.of(2019, 12, 31, 23, 59), DateTimeCalculatorUtil.getLocalDateTimeStream(startTime, endTime, ChronoUnit.MINUTES)
+				.parallel().filter(t -> t.getHour() == 23 && t.getMinute() == 59).reduce((a, b) -> b).get());
+		Iterator<LocalDateTime> iterator = TemporalRangeSpliterator.of(startTime, endTime).iterator();
+		Assert.assertEquals(startTime, iterator.next());
+		Assert.assertEquals(startTime.plusDays(1), iterator.next());
+		
+		Date startDate = DateTimeConverterUtil.toDate(startTime);
+		Date endDate = DateTimeConverterUtil.toDate(startTime.plusHours(5).plusMinutes(30));
+		Assert.assertEquals(DateTimeCalculatorUtil.getDateList(startDate, endDate, ChronoUnit.HOURS),
+				DateTimeCalculatorUtil.getDateStream(startDate, endDate, ChronoUnit.HOURS).collect(Collectors.toList()));
+		Assert.assertEquals(7, DateTimeCalculatorUtil.getDateList(startDate, endDate, ChronoUnit.HOURS).size());
+		try {
+			DateTimeCalculatorUtil.getLocalDateTimeStream(endTime, startTime);
+			Assert.fail();
+		} catch (DateTimeException e) {
+		}
+	}
+	
+	/**
+	 * Date相差总时间按时间戳计算测试
+	 */
+	@Test
+	public void betweenTotalEpochTest(){
+		TimeZone defaultTimeZone = TimeZone.getDefault();
+		try {
+			TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+			// 跨夏令时开始，按本地时间计算，和LocalDateTime一致
+			Date start = DateTimeConverterUtil.toDate(LocalDateTime.of(2021, 3, 13, 12, 0, 0, 500_000_000));
+			Date end = DateTimeConverterUtil.toDate(LocalDateTime.of(2021, 3, 14, 12, 0));
+			Assert.assertEquals(82800000L, end.getTime() - start.getTime() + 500);
+			Assert.assertEquals(0, DateTimeCalculatorUtil.betweenTotalDays(start, end));
+			Assert.assertEquals(23, DateTimeCalculatorUtil.betweenTotalHours(start, end));
+			Assert.assertEquals(86399, DateTimeCalculatorUtil.betweenTotalSeconds(start, end));
+			Assert.assertEquals(86399500L, DateTimeCalculatorUtil.betweenTotalMillis(start, end));
+			Assert.assertEquals(86399500_000_000L, DateTimeCalculatorUtil.betweenTotalNanos(start, end));
+			// 负数秒向下取整，和Duration.getSeconds()一致
+			Assert.assertEquals(-86400, DateTimeCalculatorUtil.betweenTotalSeconds(end, start));
+			Assert.assertEquals(-1440, DateTimeCalculatorUtil.betweenTotalMinutes(end, start));
+			Assert.assertEquals(-86399500L, DateTimeCalculatorUtil.betweenTotalMillis(end, start));
+			
+			ZoneId zone = ZoneId.of("Asia/Shanghai");
+			Assert.assertEquals(82799, PackedDateTime.betweenLocalSeconds(start.getTime(), end.getTime(), zone));
+		} finally {
+			TimeZone.setDefault(defaultTimeZone);
+		}
+	}
+	
+	/**
+	 * 工作日日历测试
+	 */
+	@Test
+	public void workdayCalendarTest(){
+		String holidayData = "2021-01-01:0,2021-02-07:1,2021-02-11:0,2021-02-12:0,2021-02-15:0,2021-02-16:0,2021-02-17:0,2021-02-20:1,2021-04-05:0,2021-04-25:1,2021-05-03:0,2021-05-04:0,2021-05-05:0,2021-05-08:1,2021-06-14:0,2021-09-18:1,2021-09-20:0,2021-09-21:0,2021-09-26:1,2021-10-01:0,2021-10-04:0,2021-10-05:0,2021-10-06:0,2021-10-07:0,2021-10-09:1";
+		WorkdayCalendar calendar = WorkdayCalendar.of(holidayData);
+		//节假日数据覆盖的日期
+		Assert.assertFalse(calendar.isWorkDay(LocalDate.of(2021, 1, 1)));
+		Assert.assertTrue(calendar.isWorkDay(LocalDate.of(2021, 2, 7)));
+		//周末规则
+		Assert.assertTrue(calendar.isWorkDay(LocalDate.of(2021, 1, 4)));
+		Assert.assertFalse(calendar.isWorkDay(LocalDate.of(2022, 1, 1)));
+		//2021年工作日250天，和逐天判断一致
+		Assert.assertEquals(250, calendar.workDayCount(LocalDate.of(2021, 1, 1), LocalDate.of(2021, 12, 31)));
+		long count = DateTimeCalculatorUtil.getLocalDateList(LocalDate.of(2021, 1, 1), LocalDate.of(2021, 12, 31)).stream()
+				.filter(d -> DateTimeCalculatorUtil.isChineseWorkDay(d, holidayData)).count();
+		Assert.assertEquals(count, calendar.workDayCount(LocalDate.of(2021, 1, 1), LocalDate.of(2021, 12, 31)));
+		Assert.assertEquals(0, calendar.workDayCount(LocalDate.of(2021, 2, 2), LocalDate.of(2021, 2, 1)));
+		//跨越覆盖年份
+		Assert.assertEquals(4, calendar.workDayCount(LocalDate.of(2020, 12, 28), LocalDate.of(2021, 1, 3)));
+		Assert.assertEquals(Arrays.asList(LocalDate.of(2021, 10, 8), LocalDate.of(2021, 10, 9)),
+				calendar.getWorkDayList(LocalDate.of(2021, 10, 1), LocalDate.of(2021, 10, 10)));
+		Assert.assertFalse(calendar.hasWorkDay(LocalDate.of(2021, 10, 1).toEpochDay(), LocalDate.of(2021, 10, 7).toEpochDay()));
+		//指定周末
+		WorkdayCalendar sundayOnly = WorkdayCalendar.of(holidayData, EnumSet.of(DayOfWeek.SUNDAY));
+		Assert.assertTrue(sundayOnly.isWorkDay(LocalDate.of(2022, 1, 1)));
+		Assert.assertEquals(6, sundayOnly.workDayCount(LocalDate.of(2022, 1, 3), LocalDate.of(2022, 1, 9)));
+		//缓存
+		Assert.assertSame(WorkdayCalendar.ofUseCache(holidayData), WorkdayCalendar.ofUseCache(holidayData));
+		Assert.assertEquals(250, DateTimeCalculatorUtil.chineseWorkDayCount(DateTimeConverterUtil.toEpochMilli(LocalDate.of(2021, 1, 1)),
+				DateTimeConverterUtil.toEpochMilli(LocalDate.of(2021, 12, 31)), holidayData));
+	}
+	
+	/**
+	 * 增加中国工作日测试
+	 */
+	@Test
+	public void plusChineseWorkDaysTest(){
+		String holidayData = "2021-01-01:0,2021-02-07:1,2021-02-11:0,2021-02-12:0,2021-02-15:0,2021-02-16:0,2021-02-17:0,2021-02-20:1,2021-04-05:0,2021-04-25:1,2021-05-03:0,2021-05-04:0,2021-05-05:0,2021-05-08:1,2021-06-14:0,2021-09-18:1,2021-09-20:0,2021-09-21:0,2021-09-26:1,2021-10-01:0,2021-10-04:0,2021-10-05:0,2021-10-06:0,2021-10-07:0,2021-10-09:1";
+		//国庆节前后
+		LocalDate localDate = LocalDate.of(2021, 9, 30);
+		Assert.assertEquals(LocalDate.of(2021, 10, 8), DateTimeCalculatorUtil.nextChineseWorkDay(localDate, holidayData));
+		Assert.assertEquals(LocalDate.of(2021, 10, 9), DateTimeCalculatorUtil.plusChineseWorkDays(localDate, 2, holidayData));
+		Assert.assertEquals(LocalDate.of(2021, 9, 30), DateTimeCalculatorUtil.previousChineseWorkDay(LocalDate.of(2021, 10, 8), holidayData));
+		Assert.assertEquals(LocalDate.of(2021, 9, 29), DateTimeCalculatorUtil.minusChineseWorkDays(LocalDate.of(2021, 10, 8), 2, holidayData));
+		Assert.assertEquals(localDate, DateTimeCalculatorUtil.plusChineseWorkDays(localDate, 0, holidayData));
+		//2021年工作日250天
+		Assert.assertEquals(LocalDate.of(2021, 12, 31), DateTimeCalculatorUtil.plusChineseWorkDays(LocalDate.of(2020, 12, 31), 250, holidayData));
+		Assert.assertEquals(LocalDate.of(2020, 12, 31), DateTimeCalculatorUtil.minusChineseWorkDays(LocalDate.of(2021, 12, 31), 250, holidayData));
+		//和逐天计算一致
+		LocalDate expected = localDate;
+		for (int i = 0; i < 300; i++) {
+			expected = DateTimeCalculatorUtil.plusDays(expected, 1);
+			while (!DateTimeCalculatorUtil.isChineseWorkDay(expected, holidayData)) {
+				expected = DateTimeCalculatorUtil.plusDays(expected, 1);
+			}
+		}
+		Assert.assertEquals(expected, DateTimeCalculatorUtil.plusChineseWorkDays(localDate, 300, holidayData));
+		//保留时间部分
+		LocalDateTime localDateTime = LocalDateTime.of(2021, 2, 10, 18, 30);
+		Assert.assertEquals(LocalDateTime.of(2021, 2, 18, 18, 30), DateTimeCalculatorUtil.nextChineseWorkDay(localDateTime, holidayData));
+		Assert.assertEquals(DateTimeConverterUtil.toDate(LocalDateTime.of(2021, 2, 18, 18, 30)),
+				DateTimeCalculatorUtil.nextChineseWorkDay(DateTimeConverterUtil.toDate(localDateTime), holidayData));
+		//当月第n个工作日
+		Assert.assertEquals(LocalDate.of(2021, 10, 8), DateTimeCalculatorUtil.nthChineseWorkDayOfMonth(2021, 10, 1, holidayData));
+		Assert.assertEquals(LocalDate.of(2021, 10, 29), DateTimeCalculatorUtil.nthChineseWorkDayOfMonth(2021, 10, -1, holidayData));
+		Assert.assertEquals(2, DateTimeCalculatorUtil.chineseWorkDayIndexOfMonth(LocalDate.of(2021, 10, 9), holidayData));
+		Assert.assertEquals(0, DateTimeCalculatorUtil.chineseWorkDayIndexOfMonth(LocalDate.of(2021, 10, 10), holidayData));
+		try {
+			DateTimeCalculatorUtil.nthChineseWorkDayOfMonth(2021, 10, 19, holidayData);
+			Assert.fail();
+		} catch (DateTimeException e) {
+			//2021年10月工作日18天
+		}
+	}
+	
 }
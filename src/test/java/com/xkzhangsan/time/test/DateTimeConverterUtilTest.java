@@ -1,6 +1,9 @@
 package com.xkzhangsan.time.test;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.Timestamp;
+import java.time.DateTimeException;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -8,16 +11,25 @@ import java.time.LocalTime;
 import java.time.OffsetDateTime;
 import java.time.OffsetTime;
 import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.temporal.TemporalAccessor;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.TimeZone;
 import java.util.concurrent.TimeUnit;
 
 import org.junit.Assert;
 import org.junit.Test;
 
 import com.xkzhangsan.time.LunarDate;
+import com.xkzhangsan.time.calculator.DateTimeCalculatorUtil;
+import com.xkzhangsan.time.converter.DateTimeBatchConverterUtil;
 import com.xkzhangsan.time.converter.DateTimeConverterUtil;
+import com.xkzhangsan.time.converter.PackedDate;
+import com.xkzhangsan.time.converter.PackedDateTime;
+import com.xkzhangsan.time.converter.ZoneRegistry;
 import com.xkzhangsan.time.formatter.DateTimeFormatterUtil;
 
 /**
@@ -423,4 +435,201 @@ public class DateTimeConverterUtilTest {
 		//时间戳毫秒值转换
 		Assert.assertEquals(LocalTime.of(22, 10, 0), DateTimeConverterUtil.toLocalTime(1632147000000L));
 	}
+	
+	/**
+	 * 时区注册表测试
+	 */
+	@Test
+	public void zoneRegistryTest(){
+		// 时区id只解析一次
+		ZoneId zone = ZoneRegistry.getZone("America/New_York");
+		Assert.assertEquals(ZoneId.of("America/New_York"), zone);
+		Assert.assertSame(zone, ZoneRegistry.getZone("America/New_York"));
+		
+		// 夏令时开始和结束前后的偏移，和ZoneRules一致
+		LocalDateTime[] localDateTimes = {LocalDateTime.of(2021, 3, 14, 1, 59, 59), LocalDateTime.of(2021, 3, 14, 2, 30),
+				LocalDateTime.of(2021, 3, 14, 3, 0), LocalDateTime.of(2021, 11, 7, 1, 30), LocalDateTime.of(2021, 11, 7, 2, 0),
+				LocalDateTime.of(1900, 7, 1, 0, 0), LocalDateTime.of(2200, 7, 1, 0, 0)};
+		for (LocalDateTime localDateTime : localDateTimes) {
+			long localMilli = localDateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+			Assert.assertEquals(zone.getRules().getOffset(localDateTime).getTotalSeconds(), ZoneRegistry.getLocalOffsetSeconds(localMilli, zone));
+			Instant instant = localDateTime.atZone(zone).toInstant();
+			Assert.assertEquals(zone.getRules().getOffset(instant), ZoneRegistry.getOffset(instant.toEpochMilli(), zone));
+		}
+		
+		// 按时区id格式化
+		Date date = DateTimeConverterUtil.toDate(ZonedDateTime.of(2021, 11, 7, 1, 30, 0, 0, ZoneOffset.UTC));
+		Assert.assertEquals("2021-11-06 21:30:00", DateTimeFormatterUtil.formatToDateTimeStr(date, "America/New_York"));
+		Assert.assertEquals("2021-11-07 09:30:00", DateTimeFormatterUtil.format(date, DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_FMT, "+08:00"));
+		
+		// 年份范围外使用ZoneRules计算
+		ZoneRegistry.setYearRange(2000, 2001);
+		try {
+			Assert.assertEquals(2000, ZoneRegistry.getFromYear());
+			Assert.assertEquals("2021-11-06 21:30:00", DateTimeFormatterUtil.formatToDateTimeStr(date, "America/New_York"));
+		} finally {
+			ZoneRegistry.setYearRange(ZoneRegistry.DEFAULT_FROM_YEAR, ZoneRegistry.DEFAULT_TO_YEAR);
+		}
+	}
+	
+	/**
+	 * 系统默认时区缓存和偏移窗口测试
+	 */
+	@Test
+	public void systemZoneTest(){
+		TimeZone defaultTimeZone = TimeZone.getDefault();
+		try {
+			TimeZone.setDefault(TimeZone.getTimeZone("Asia/Shanghai"));
+			Assert.assertEquals(ZoneId.systemDefault(), ZoneRegistry.getSystemDefault());
+			LocalDateTime localDateTime = LocalDateTime.of(2021, 11, 7, 1, 30, 15, 123456789);
+			Assert.assertEquals(1636219815123L, DateTimeConverterUtil.toEpochMilli(localDateTime));
+			Assert.assertEquals(localDateTime.atZone(ZoneId.of("Asia/Shanghai")).toInstant(), DateTimeConverterUtil.toInstant(localDateTime));
+			
+			// 修改默认时区后缓存失效
+			TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+			Assert.assertEquals(ZoneId.of("America/New_York"), ZoneRegistry.getSystemDefault());
+			// 夏令时重叠取较早的偏移，间隙之后的时间向后调整
+			Assert.assertEquals(1636263015123L, DateTimeConverterUtil.toEpochMilli(localDateTime));
+			Assert.assertEquals(LocalDateTime.of(2021, 3, 14, 3, 30),
+					DateTimeConverterUtil.toLocalDateTime(DateTimeConverterUtil.toDate(LocalDateTime.of(2021, 3, 14, 2, 30))));
+			Assert.assertEquals(LocalDateTime.of(2021, 11, 7, 1, 30), DateTimeConverterUtil.toLocalDateTime(1636263000000L));
+			Assert.assertEquals(LocalDateTime.of(2021, 11, 7, 1, 30), DateTimeConverterUtil.toLocalDateTime(1636266600000L));
+			Date date = DateTimeConverterUtil.toDate(LocalDate.of(2021, 7, 1));
+			Assert.assertEquals(1625112000000L, date.getTime());
+			Assert.assertEquals(LocalDateTime.of(2021, 7, 1, 0, 0), DateTimeConverterUtil.toLocalDateTime(date));
+			
+			TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+			Assert.assertEquals(1636248615123L, DateTimeConverterUtil.toEpochMilli(localDateTime));
+		} finally {
+			TimeZone.setDefault(defaultTimeZone);
+		}
+	}
+	
+	/**
+	 * 基本类型日期时间测试
+	 */
+	@Test
+	public void packedDateTest(){
+		int epochDay = PackedDate.of(2020, 5, 23);
+		Assert.assertEquals(LocalDate.of(2020, 5, 23).toEpochDay(), epochDay);
+		Assert.assertEquals(2020, PackedDate.getYear(epochDay));
+		Assert.assertEquals(5, PackedDate.getMonth(epochDay));
+		Assert.assertEquals(23, PackedDate.getDayOfMonth(epochDay));
+		Assert.assertEquals(144, PackedDate.getDayOfYear(epochDay));
+		Assert.assertEquals(6, PackedDate.getDayOfWeek(epochDay));
+		Assert.assertEquals(2, PackedDate.getQuarter(epochDay));
+		Assert.assertEquals(20200523, PackedDate.toYyyyMMdd(epochDay));
+		Assert.assertEquals(epochDay, PackedDate.ofYyyyMMdd(20200523));
+		Assert.assertEquals(LocalDate.of(2020, 5, 23), PackedDate.toLocalDate(epochDay));
+		
+		// 加减和LocalDate一致，日超出月末时取月末
+		int leapDay = PackedDate.of(2020, 2, 29);
+		Assert.assertEquals(20210228, PackedDate.toYyyyMMdd(PackedDate.plusYears(leapDay, 1)));
+		Assert.assertEquals(20200430, PackedDate.toYyyyMMdd(PackedDate.plusMonths(PackedDate.of(2020, 1, 31), 3)));
+		Assert.assertEquals(20191231, PackedDate.toYyyyMMdd(PackedDate.plusDays(PackedDate.of(2020, 1, 1), -1)));
+		Assert.assertEquals(20200229, PackedDate.toYyyyMMdd(PackedDate.endOfMonth(PackedDate.of(2020, 2, 3))));
+		Assert.assertEquals(-1, PackedDate.getYear(PackedDate.of(-1, 12, 31)));
+		try {
+			PackedDate.of(2021, 2, 29);
+			Assert.fail();
+		} catch (DateTimeException e) {
+			Assert.assertTrue(e.getMessage().contains("February 29"));
+		}
+		
+		// 时间戳按时区计算
+		ZoneId zone = ZoneId.of("America/New_York");
+		long epochMilli = PackedDateTime.of(2021, 11, 7, 1, 30, 15, 123, zone);
+		Assert.assertEquals(LocalDateTime.of(2021, 11, 7, 1, 30, 15, 123000000).atZone(zone).toInstant().toEpochMilli(), epochMilli);
+		Assert.assertEquals(2021, PackedDateTime.getYear(epochMilli, zone));
+		Assert.assertEquals(11, PackedDateTime.getMonth(epochMilli, zone));
+		Assert.assertEquals(7, PackedDateTime.getDayOfMonth(epochMilli, zone));
+		Assert.assertEquals(1, PackedDateTime.getHour(epochMilli, zone));
+		Assert.assertEquals(30, PackedDateTime.getMinute(epochMilli, zone));
+		Assert.assertEquals(15, PackedDateTime.getSecond(epochMilli, zone));
+		Assert.assertEquals(123, PackedDateTime.getMillisecond(epochMilli));
+		Assert.assertEquals(PackedDate.of(2021, 11, 7), PackedDateTime.getEpochDay(epochMilli, zone));
+		Assert.assertEquals(LocalDateTime.of(2021, 11, 8, 1, 30, 15, 123000000).atZone(zone).toInstant().toEpochMilli(),
+				PackedDateTime.plusDays(epochMilli, 1, zone));
+		Assert.assertEquals(LocalDate.of(2021, 11, 7).atStartOfDay(zone).toInstant().toEpochMilli(),
+				PackedDateTime.startOfDay(epochMilli, zone));
+		
+		// 系统默认时区
+		Date date = DateTimeConverterUtil.toDate(LocalDateTime.of(2020, 12, 31, 23, 59, 59));
+		Assert.assertEquals(2020, DateTimeCalculatorUtil.getYear(date.getTime()));
+		Assert.assertEquals(4, DateTimeCalculatorUtil.getQuarter(date.getTime()));
+		Assert.assertEquals(366, DateTimeCalculatorUtil.getDayOfYear(date));
+		Assert.assertEquals(PackedDate.of(2020, 12, 31), PackedDate.of(date));
+		Assert.assertEquals(DateTimeConverterUtil.toDate(LocalDate.of(2020, 12, 31)), PackedDate.toDate(PackedDate.of(date)));
+	}
+	
+	/**
+	 * 批量转换测试
+	 */
+	@Test
+	public void dateTimeBatchConverterTest(){
+		// 超过并行阈值，覆盖纽约2021年的两次夏令时转换
+		ZoneId zone = ZoneId.of("America/New_York");
+		int size = DateTimeBatchConverterUtil.PARALLEL_THRESHOLD * 3;
+		long start = 1615600000000L;
+		long[] epochMillis = new long[size];
+		LocalDateTime[] localDateTimes = new LocalDateTime[size];
+		for (int i = 0; i < size; i++) {
+			epochMillis[i] = start + i * 1234567L;
+			localDateTimes[i] = LocalDateTime.of(2021, 3, 14, 0, 0).plusMinutes(i * 17L);
+		}
+		LocalDateTime[] result = DateTimeBatchConverterUtil.toLocalDateTime(epochMillis, zone);
+		long[] resultMillis = DateTimeBatchConverterUtil.toEpochMilli(localDateTimes, zone);
+		for (int i = 0; i < size; i++) {
+			Assert.assertEquals(LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis[i]), zone), result[i]);
+			Assert.assertEquals(localDateTimes[i].atZone(zone).toInstant().toEpochMilli(), resultMillis[i]);
+		}
+		Assert.assertArrayEquals(epochMillis, DateTimeBatchConverterUtil.toEpochMilli(DateTimeBatchConverterUtil.toDate(epochMillis)));
+		Assert.assertArrayEquals(epochMillis, DateTimeBatchConverterUtil.toEpochMilli(Arrays.asList(DateTimeBatchConverterUtil.toTimestamp(epochMillis))));
+		
+		// 间隙之后的时间向后调整，重叠取较早的偏移
+		long[] dst = DateTimeBatchConverterUtil.toEpochMilli(new LocalDateTime[]{LocalDateTime.of(2021, 3, 14, 2, 30), LocalDateTime.of(2021, 11, 7, 1, 30)}, zone);
+		Assert.assertArrayEquals(new long[]{1615707000000L, 1636263000000L}, dst);
+		
+		localDateTimes[size - 1] = null;
+		try {
+			DateTimeBatchConverterUtil.toEpochMilli(localDateTimes, zone);
+			Assert.fail();
+		} catch (NullPointerException e) {
+			Assert.assertEquals("localDateTime", e.getMessage());
+		}
+	}
+	
+	/**
+	 * 精确单位转换整数计算测试
+	 */
+	@Test
+	public void unitConversionPreciseTest(){
+		Assert.assertEquals(new BigDecimal("1.50"), DateTimeConverterUtil.unitConversionPrecise(5400, TimeUnit.SECONDS, TimeUnit.HOURS, 2, RoundingMode.DOWN));
+		Assert.assertEquals(new BigDecimal("0.01"), DateTimeConverterUtil.unitConversionPrecise(18, TimeUnit.SECONDS, TimeUnit.HOURS, 2, RoundingMode.HALF_UP));
+		Assert.assertEquals(new BigDecimal("-0.01"), DateTimeConverterUtil.unitConversionPrecise(-1, TimeUnit.SECONDS, TimeUnit.HOURS, 2, RoundingMode.FLOOR));
+		Assert.assertEquals(new BigDecimal("0.00"), DateTimeConverterUtil.unitConversionPrecise(-1, TimeUnit.SECONDS, TimeUnit.HOURS, 2, RoundingMode.CEILING));
+		// 正好一半
+		Assert.assertEquals(new BigDecimal("0.2"), DateTimeConverterUtil.unitConversionPrecise(15, TimeUnit.MINUTES, TimeUnit.HOURS, 1, RoundingMode.HALF_EVEN));
+		Assert.assertEquals(new BigDecimal("0.3"), DateTimeConverterUtil.unitConversionPrecise(15, TimeUnit.MINUTES, TimeUnit.HOURS, 1, RoundingMode.HALF_UP));
+		// 超出long范围使用BigDecimal计算
+		Assert.assertEquals(new BigDecimal(Long.MAX_VALUE).multiply(BigDecimal.valueOf(86400)),
+				DateTimeConverterUtil.unitConversionPrecise(Long.MAX_VALUE, TimeUnit.DAYS, TimeUnit.SECONDS, 0, RoundingMode.DOWN));
+		try {
+			DateTimeConverterUtil.unitConversionPrecise(1, TimeUnit.SECONDS, TimeUnit.HOURS, 2, RoundingMode.UNNECESSARY);
+			Assert.fail();
+		} catch (ArithmeticException e) {
+		}
+		
+		Assert.assertEquals("1.5", DateTimeConverterUtil.unitConversionPreciseString(5400, TimeUnit.SECONDS, TimeUnit.HOURS, 4, RoundingMode.DOWN));
+		Assert.assertEquals("-0.5", DateTimeConverterUtil.unitConversionPreciseString(-1800, TimeUnit.SECONDS, TimeUnit.HOURS));
+		Assert.assertEquals("100", DateTimeConverterUtil.unitConversionPreciseString(360000, TimeUnit.SECONDS, TimeUnit.HOURS));
+		Assert.assertEquals("0", DateTimeConverterUtil.unitConversionPreciseString(-1, TimeUnit.SECONDS, TimeUnit.HOURS));
+		Assert.assertEquals("0.000", DateTimeConverterUtil.millisecondToSecondPreciseThreePlainString(0));
+		Assert.assertEquals("-1.010", DateTimeConverterUtil.millisecondToSecondPreciseThreePlainString(-1010));
+		Assert.assertEquals("-1.01", DateTimeConverterUtil.millisecondToSecondPreciseThreeString(-1010));
+		StringBuilder sb = new StringBuilder("时长:");
+		DateTimeConverterUtil.unitConversionPreciseTo(sb, 90, TimeUnit.MINUTES, TimeUnit.HOURS, 2, RoundingMode.HALF_UP);
+		Assert.assertEquals("时长:1.5", sb.toString());
+	}
+	
 }
@@ -2,17 +2,44 @@ package com.xkzhangsan.time.test;
 
 import com.xkzhangsan.time.calculator.DateTimeCalculatorUtil;
 import com.xkzhangsan.time.converter.DateTimeConverterUtil;
+import com.xkzhangsan.time.cost.Cost;
+import com.xkzhangsan.time.cost.CostUtil;
+import com.xkzhangsan.time.formatter.CachingDateTimeFormatter;
 import com.xkzhangsan.time.formatter.DateFormatPattern;
+import com.xkzhangsan.time.formatter.DateTimeBatchUtil;
+import com.xkzhangsan.time.formatter.DateTimeFormatterCache;
 import com.xkzhangsan.time.formatter.DateTimeFormatterUtil;
+import com.xkzhangsan.time.formatter.DelimitedTimestampNormalizer;
+import com.xkzhangsan.time.formatter.FixedWidthDateTimeCodec;
+import com.xkzhangsan.time.formatter.InferredDateTimeParser;
+import com.xkzhangsan.time.formatter.LogTimestampIndex;
+import com.xkzhangsan.time.formatter.MemoizingDateTimeParser;
+import com.xkzhangsan.time.formatter.MultiPatternParser;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -631,4 +658,906 @@ public class DateTimeFormatterUtilTest {
 		Assert.assertEquals(localDateTime, DateTimeFormatterUtil.parseChineseDateStrToLocalDateTime("二〇二一年八月三十一日"));
 	}
 	
+	/**
+	 * 自定义模板formatter缓存测试
+	 */
+	@Test
+	public void formatterCacheTest(){
+		DateTimeFormatterCache.clear();
+		String pattern = "yyyy-MM-dd HH:mm:ss.SS";
+		DateTimeFormatter formatter1 = DateTimeFormatterUtil.getDateTimeFormatter(pattern);
+		DateTimeFormatter formatter2 = DateTimeFormatterUtil.getDateTimeFormatter(pattern);
+		Assert.assertSame(formatter1, formatter2);
+		Assert.assertEquals(1, DateTimeFormatterCache.getMissCount());
+		Assert.assertEquals(1, DateTimeFormatterCache.getHitCount());
+		
+		//String模板重载方法使用缓存
+		Date date = DateTimeFormatterUtil.parseToDate("2020-05-23 17:06:30.27", pattern);
+		Assert.assertEquals("2020-05-23 17:06:30.27", DateTimeFormatterUtil.format(date, pattern));
+		Assert.assertEquals(1, DateTimeFormatterCache.getMissCount());
+		Assert.assertEquals(3, DateTimeFormatterCache.getHitCount());
+		
+		//不同时区对应不同formatter
+		Assert.assertNotSame(formatter1, DateTimeFormatterUtil.getDateTimeFormatter(pattern, "Europe/Paris"));
+		
+		//超过最大容量淘汰
+		int maxSize = DateTimeFormatterCache.getMaxSize();
+		try {
+			DateTimeFormatterCache.setMaxSize(2);
+			DateTimeFormatterUtil.getDateTimeFormatter("yyyy");
+			DateTimeFormatterUtil.getDateTimeFormatter("MM");
+			Assert.assertEquals(2, DateTimeFormatterCache.size());
+			Assert.assertNotSame(formatter1, DateTimeFormatterUtil.getDateTimeFormatter(pattern));
+		} finally {
+			DateTimeFormatterCache.setMaxSize(maxSize);
+			DateTimeFormatterCache.clear();
+		}
+	}
+	
+	/**
+	 * 定长模板编解码测试
+	 */
+	@Test
+	public void fixedWidthCodecTest(){
+		ZoneId zone = ZoneId.of("Asia/Shanghai");
+		//和DateTimeFormatter结果一致
+		long epochMilli = 1590224790272L;
+		for (FixedWidthDateTimeCodec codec : FixedWidthDateTimeCodec.ENUMS) {
+			DateTimeFormatter formatter = DateTimeFormatter.ofPattern(codec.getPattern()).withZone(zone);
+			String text = formatter.format(Instant.ofEpochMilli(epochMilli));
+			Assert.assertEquals(text, codec.format(epochMilli, zone));
+			Assert.assertEquals(codec, FixedWidthDateTimeCodec.of(codec.getPattern()));
+		}
+		
+		//直接解析为时间戳
+		Assert.assertEquals(epochMilli, FixedWidthDateTimeCodec.YYYY_MM_DD_HH_MM_SS_SSS.parseToEpochMilli("2020-05-23 17:06:30.272", zone));
+		Assert.assertEquals(epochMilli / 1000, FixedWidthDateTimeCodec.YYYY_MM_DD_HH_MM_SS.parseToEpochSecond("2020-05-23 17:06:30", zone));
+		Assert.assertEquals(epochMilli, FixedWidthDateTimeCodec.YYYY_MM_DD_T_HH_MM_SS_SSS_XXX_Z.parseToEpochMilli("2020-05-23T09:06:30.272Z"));
+		Assert.assertEquals(epochMilli, FixedWidthDateTimeCodec.YYYY_MM_DD_T_HH_MM_SS_SSS_XXX_Z.parseToEpochMilli("2020-05-23T17:06:30.272+08:00"));
+		
+		//和DateTimeFormatter SMART解析一致
+		Assert.assertEquals(LocalDateTime.of(2020, 2, 29, 0, 0), FixedWidthDateTimeCodec.YYYY_MM_DD.parseToLocalDateTime("2020-02-30"));
+		Assert.assertEquals(LocalDateTime.of(2021, 1, 1, 0, 0), FixedWidthDateTimeCodec.YYYY_MM_DD_HH_MM_SS.parseToLocalDateTime("2020-12-31 24:00:00"));
+		String[] invalids = {"2020-13-01 00:00:00", "2020-05-23 24:00:01", "2020-05-23 17:6:30", "2020/05/23 17:06:30"};
+		for (String invalid : invalids) {
+			try {
+				FixedWidthDateTimeCodec.YYYY_MM_DD_HH_MM_SS.parseToLocalDateTime(invalid);
+				Assert.fail(invalid);
+			} catch (DateTimeParseException e) {
+				//expected
+			}
+		}
+		
+		//DateTimeFormatterUtil常用方法使用定长编解码
+		Date date = DateTimeFormatterUtil.parseDateTimeStrToDate("2020-05-23 17:06:30");
+		Assert.assertEquals("2020-05-23 17:06:30", DateTimeFormatterUtil.formatToDateTimeStr(date));
+		Assert.assertEquals("2020-05-23", DateTimeFormatterUtil.formatToDateStr(date));
+		Assert.assertEquals("20200523170630", DateTimeFormatterUtil.format(date, DateFormatPattern.YYYYMMDDHHMMSS));
+		Assert.assertEquals(LocalDateTime.of(2020, 5, 23, 17, 6, 30, 272000000),
+				DateTimeFormatterUtil.parseToLocalDateTime("2020-05-23 17:06:30.272", DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_SSS_FMT));
+	}
+	
+	/**
+	 * 自动解析一次扫描测试，常用格式和formatter解析结果一致
+	 */
+	@Test
+	public void smartParseLexerTest(){
+		LocalDateTime expected = LocalDateTime.of(2020, 5, 23, 17, 6, 30);
+		String[] texts = {"2020-05-23 17:06:30", "2020/5/23 17:6:30", "2020.05.23 17:06:30", "20200523170630",
+				"2020年05月23日 17:06:30", "2020年05月23日 17时06分30秒", " 2020-05-23 17:06:30 "};
+		for (String text : texts) {
+			Assert.assertEquals(text, expected, DateTimeFormatterUtil.smartParseToLocalDateTime(text));
+		}
+		
+		LocalDateTime expectedMilli = expected.withNano(272000000);
+		Assert.assertEquals(expectedMilli, DateTimeFormatterUtil.smartParseToLocalDateTime("2020-05-23 17:06:30.272"));
+		Assert.assertEquals(expectedMilli, DateTimeFormatterUtil.smartParseToLocalDateTime("2020-05-23 17:06:30,272"));
+		Assert.assertEquals(expectedMilli, DateTimeFormatterUtil.smartParseToLocalDateTime("20200523170630272"));
+		Assert.assertEquals(LocalDateTime.of(2020, 5, 23, 17, 6), DateTimeFormatterUtil.smartParseToLocalDateTime("2020-05-23 17:06"));
+		Assert.assertEquals(LocalDateTime.of(2020, 5, 23, 17, 6), DateTimeFormatterUtil.smartParseToLocalDateTime("202005231706"));
+		Assert.assertEquals(LocalDateTime.of(2020, 5, 23, 0, 0), DateTimeFormatterUtil.smartParseToLocalDateTime("2020年5月23日"));
+		Assert.assertEquals(LocalDateTime.of(2020, 5, 23, 0, 0), DateTimeFormatterUtil.smartParseToLocalDateTime("20200523"));
+		//和SMART解析一致
+		Assert.assertEquals(LocalDateTime.of(2020, 2, 29, 0, 0), DateTimeFormatterUtil.smartParseToLocalDateTime("2020-02-30"));
+		
+		//其他格式仍使用formatter解析
+		Assert.assertEquals(expectedMilli, DateTimeFormatterUtil.smartParseToLocalDateTime("2020-05-23 17:06:30.27200"));
+		Assert.assertEquals(LocalDateTime.of(2020, 5, 24, 0, 0), DateTimeFormatterUtil.smartParseToLocalDateTime("2020-05-23 24:00:00"));
+		Assert.assertEquals(expected, DateTimeFormatterUtil.smartParseToLocalDateTime("2020-05-23T17:06:30+08:00"));
+		String[] invalids = {"2020-13-23 17:06:30", "2020-05-23 17:60:30", "2020.05-23", "2020-05-23 17", "202005231"};
+		for (String invalid : invalids) {
+			try {
+				DateTimeFormatterUtil.smartParseToLocalDateTime(invalid);
+				Assert.fail(invalid);
+			} catch (DateTimeException e) {
+				//expected
+			}
+		}
+	}
+	
+	/**
+	 * 不抛出异常的解析测试
+	 */
+	@Test
+	public void tryParseTest(){
+		LocalDateTime expected = LocalDateTime.of(2020, 5, 23, 17, 6, 30);
+		Assert.assertEquals(expected, DateTimeFormatterUtil.tryParseDateTimeStrToLocalDateTime("2020-05-23 17:06:30").get());
+		Assert.assertEquals(expected, DateTimeFormatterUtil.tryParseToLocalDateTime("2020/05/23 17:06:30", "yyyy/MM/dd HH:mm:ss").get());
+		Assert.assertEquals(DateTimeConverterUtil.toDate(expected), DateTimeFormatterUtil.tryParseToDate("20200523170630", DateTimeFormatterUtil.YYYYMMDDHHMMSS_FMT).get());
+		Assert.assertEquals(LocalDateTime.of(2020, 5, 23, 0, 0), DateTimeFormatterUtil.tryParseDateStrToLocalDateTime("2020-05-23").get());
+		
+		//解析失败返回Optional.empty()
+		String[] invalids = {null, "", "2020-05-32 17:06:30", "2020-05-23 17:60:30", "2020-05-23 17:06", "2020-05-23 17:06:30x"};
+		for (String invalid : invalids) {
+			Assert.assertFalse(invalid, DateTimeFormatterUtil.tryParseDateTimeStrToDate(invalid).isPresent());
+			Assert.assertFalse(invalid, DateTimeFormatterUtil.tryParseToLocalDateTime(invalid, "yyyy/MM/dd HH:mm:ss").isPresent());
+		}
+		
+		//多个模板按顺序解析，错误模板跳过
+		String[] patterns = {"yyyy-MM-dd'", "yyyy/MM/dd", "yyyy-MM-dd HH:mm:ss"};
+		Assert.assertEquals(expected, DateTimeFormatterUtil.tryParseToLocalDateTime("2020-05-23 17:06:30", patterns).get());
+		Assert.assertEquals(DateTimeConverterUtil.toDate(LocalDate.of(2020, 5, 23)), DateTimeFormatterUtil.parseToDate("2020/05/23", patterns));
+		Assert.assertNull(DateTimeFormatterUtil.parseToDate("2020.05.23", patterns));
+		
+		//校验方法基于tryParse
+		Assert.assertTrue(DateTimeFormatterUtil.isValidDate("2020-02-29"));
+		Assert.assertFalse(DateTimeFormatterUtil.isValidDate("2020-13-01"));
+		Assert.assertTrue(DateTimeFormatterUtil.isValidDateTime("2020-05-23 17:06:30"));
+		Assert.assertFalse(DateTimeFormatterUtil.isValidDateTime("2020-05-23 25:06:30"));
+	}
+	
+	/**
+	 * 多模板解析器测试
+	 */
+	@Test
+	public void multiPatternParserTest(){
+		MultiPatternParser parser = MultiPatternParser.of("yyyy-MM-dd HH:mm:ss", "yyyy/MM/dd", "yyyyMMddHHmmss");
+		Assert.assertEquals(LocalDateTime.of(2020, 5, 23, 17, 6, 30), parser.parseToLocalDateTime("2020-05-23 17:06:30"));
+		Assert.assertEquals(LocalDateTime.of(2020, 5, 23, 0, 0), parser.parseToLocalDateTime("2020/05/23"));
+		Assert.assertEquals(DateTimeFormatterUtil.parseToDate("20200523170630", "yyyyMMddHHmmss"), parser.parseToDate("20200523170630"));
+		Assert.assertNull(parser.parseToLocalDateTime("2020.05.23"));
+		Assert.assertNull(parser.parseToDate(null));
+		Assert.assertFalse(parser.tryParseToDate("2020/13/23").isPresent());
+		Assert.assertEquals(2, parser.getMissCount());
+
+		// 预先过滤，长度和分隔符不符合的模板不尝试解析
+		parser = MultiPatternParser.of("yyyy-MM-dd HH:mm:ss", "yyyy/MM/dd", "yyyyMMddHHmmss");
+		parser.parseToLocalDateTime("2020/05/23");
+		List<MultiPatternParser.PatternStatistics> statistics = parser.getStatistics();
+		// 解析成功次数超过前一个模板，已向前移动
+		Assert.assertEquals("yyyy/MM/dd", statistics.get(0).getPattern());
+		Assert.assertEquals(1, statistics.get(0).getHitCount());
+		Assert.assertEquals(1, statistics.get(1).getSkipCount());
+		Assert.assertEquals(0, statistics.get(1).getAttemptCount());
+
+		// 最常用的模板移动到最前面
+		for (int i = 0; i < 10; i++) {
+			parser.parseToLocalDateTime("20200523170630");
+		}
+		Assert.assertEquals("yyyyMMddHHmmss", parser.getPatterns()[0]);
+		Assert.assertEquals(10, parser.getStatistics().get(0).getHitCount());
+		parser.resetStatistics();
+		Assert.assertEquals(0, parser.getStatistics().get(0).getHitCount());
+		System.out.println(parser);
+	}
+	
+	/**
+	 * 区间解析测试，CharSequence、char[]、byte[]、ByteBuffer
+	 */
+	@Test
+	public void parseRangeTest(){
+		String line = "[2020-05-23 17:06:30] INFO start";
+		long epochMilli = DateTimeFormatterUtil.parseToDate("2020-05-23 17:06:30", DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_FMT).getTime();
+		LocalDateTime localDateTime = LocalDateTime.of(2020, 5, 23, 17, 6, 30);
+
+		Assert.assertEquals(epochMilli, DateTimeFormatterUtil.parseToEpochMilli(new StringBuilder(line), 1, 20, DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_FMT));
+		Assert.assertEquals(localDateTime, DateTimeFormatterUtil.parseToLocalDateTime(line, 1, 20, DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_FMT));
+		Assert.assertEquals(epochMilli, DateTimeFormatterUtil.parseToEpochMilli(line.toCharArray(), 1, 19, DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_FMT));
+		Assert.assertEquals(localDateTime, DateTimeFormatterUtil.parseToLocalDateTime(line.toCharArray(), 1, 19, DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_FMT));
+
+		byte[] bytes = line.getBytes(StandardCharsets.US_ASCII);
+		Assert.assertEquals(epochMilli, DateTimeFormatterUtil.parseToEpochMilli(bytes, 1, 19, DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_FMT));
+		Assert.assertEquals(localDateTime, DateTimeFormatterUtil.parseToLocalDateTime(bytes, 1, 19, DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_FMT));
+
+		ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+		buffer.put(bytes);
+		int position = buffer.position();
+		Assert.assertEquals(epochMilli, DateTimeFormatterUtil.parseToEpochMilli(buffer, 1, 19, DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_FMT));
+		Assert.assertEquals(localDateTime, DateTimeFormatterUtil.parseToLocalDateTime(buffer, 1, 19, DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_FMT));
+		Assert.assertEquals(position, buffer.position());
+
+		// 非定长模板使用formatter解析
+		Assert.assertEquals(LocalDateTime.of(2020, 5, 23, 0, 0), DateTimeFormatterUtil.parseToLocalDateTime("x2020/05/23x".getBytes(StandardCharsets.US_ASCII), 1, 10, DateTimeFormatterUtil.YYYY_MM_DD_EN_FMT));
+
+		// 异常信息和String解析一致
+		try {
+			DateTimeFormatterUtil.parseToLocalDateTime(bytes, 0, 19, DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_FMT);
+			Assert.fail();
+		} catch (DateTimeParseException e) {
+			Assert.assertEquals("[2020-05-23 17:06:3", e.getParsedString());
+		}
+		try {
+			DateTimeFormatterUtil.parseToEpochMilli(bytes, 20, 19, DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_FMT);
+			Assert.fail();
+		} catch (IndexOutOfBoundsException e) {
+			Assert.assertNotNull(e.getMessage());
+		}
+	}
+	
+	/**
+	 * 定长格式化夏令时间隙测试，和formatter格式化一致
+	 */
+	@Test
+	public void fixedWidthCodecGapTest(){
+		// 包含上海1986年和纽约2020年夏令时开始时不存在的本地时间
+		LocalDateTime[] localDateTimes = {LocalDateTime.of(1986, 5, 4, 2, 30), LocalDateTime.of(2020, 3, 8, 2, 30), LocalDateTime.of(2020, 5, 23, 17, 6, 30)};
+		for (LocalDateTime localDateTime : localDateTimes) {
+			Assert.assertEquals(DateTimeFormatterUtil.format(localDateTime, DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_FMT),
+					DateTimeFormatterUtil.format(localDateTime, DateFormatPattern.YYYY_MM_DD_HH_MM_SS));
+			Assert.assertEquals(DateTimeFormatterUtil.format(localDateTime, DateTimeFormatterUtil.YYYY_MM_DD_T_HH_MM_SS_SSS_XXX_Z_FMT),
+					DateTimeFormatterUtil.format(localDateTime, DateFormatPattern.YYYY_MM_DD_T_HH_MM_SS_SSS_XXX_Z));
+		}
+	}
+	
+	/**
+	 * 格式化写入测试，StringBuilder、Appendable、byte[]、ByteBuffer
+	 */
+	@Test
+	public void formatToTest(){
+		Date date = DateTimeFormatterUtil.parseToDate("2020-05-23 17:06:30.272", DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_SSS_FMT);
+		LocalDateTime localDateTime = LocalDateTime.of(2020, 5, 23, 17, 6, 30);
+
+		StringBuilder sb = new StringBuilder("time=");
+		DateTimeFormatterUtil.formatTo(sb, date, DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_SSS_FMT);
+		Assert.assertEquals("time=2020-05-23 17:06:30.272", sb.toString());
+		sb.setLength(0);
+		Assert.assertEquals("20200523170630", DateTimeFormatterUtil.formatTo(sb, localDateTime, DateTimeFormatterUtil.YYYYMMDDHHMMSS_FMT).toString());
+
+		StringWriter writer = new StringWriter();
+		DateTimeFormatterUtil.formatTo(writer, date, DateTimeFormatterUtil.YYYY_MM_DD_FMT);
+		DateTimeFormatterUtil.formatTo(writer, localDateTime, DateTimeFormatterUtil.YYYY_MM_DD_T_HH_MM_SS_SSS_XXX_Z_FMT);
+		Assert.assertEquals("2020-05-23" + DateTimeFormatterUtil.format(localDateTime, DateTimeFormatterUtil.YYYY_MM_DD_T_HH_MM_SS_SSS_XXX_Z_FMT), writer.toString());
+
+		byte[] bytes = new byte[32];
+		int len = DateTimeFormatterUtil.formatTo(bytes, 1, date, DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_FMT);
+		Assert.assertEquals("2020-05-23 17:06:30", new String(bytes, 1, len, StandardCharsets.US_ASCII));
+
+		ByteBuffer buffer = ByteBuffer.allocateDirect(32);
+		len = DateTimeFormatterUtil.formatTo(buffer, 2, localDateTime, DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_FMT);
+		Assert.assertEquals(19, len);
+		Assert.assertEquals(0, buffer.position());
+		Assert.assertEquals('2', buffer.get(2));
+		Assert.assertEquals('0', buffer.get(20));
+
+		// 非定长模板和format一致，中文使用UTF-8编码
+		len = DateTimeFormatterUtil.formatTo(bytes, 0, localDateTime, DateTimeFormatterUtil.YYYY_MM_DD_CN_FMT);
+		Assert.assertEquals(DateTimeFormatterUtil.format(localDateTime, DateTimeFormatterUtil.YYYY_MM_DD_CN_FMT), new String(bytes, 0, len, StandardCharsets.UTF_8));
+
+		// 空间不足时不写入
+		byte[] small = new byte[10];
+		try {
+			DateTimeFormatterUtil.formatTo(small, 0, date, DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_FMT);
+			Assert.fail();
+		} catch (IndexOutOfBoundsException e) {
+			Assert.assertEquals(0, small[0]);
+		}
+	}
+	
+	/**
+	 * 缓存最近一秒的格式化器测试
+	 */
+	@Test
+	public void cachingDateTimeFormatterTest(){
+		CachingDateTimeFormatter formatter = CachingDateTimeFormatter.of(DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_SSS_FMT);
+		long epochMilli = DateTimeFormatterUtil.parseToDate("2020-05-23 17:06:30.272", DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_SSS_FMT).getTime();
+		Assert.assertEquals("2020-05-23 17:06:30.272", formatter.format(epochMilli));
+		Assert.assertEquals("2020-05-23 17:06:30.005", formatter.format(epochMilli - 267));
+		Assert.assertEquals("2020-05-23 17:06:31.000", formatter.format(epochMilli + 728));
+		Assert.assertEquals("x2020-05-23 17:06:31.999", formatter.formatTo(new StringBuilder("x"), epochMilli + 1727).toString());
+
+		// 没有毫秒的模板同一秒返回相同字符串
+		CachingDateTimeFormatter secondFormatter = CachingDateTimeFormatter.of(DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_FMT);
+		Assert.assertSame(secondFormatter.format(epochMilli), secondFormatter.format(epochMilli + 1));
+
+		// 夏令时切换前后和formatter格式化一致
+		CachingDateTimeFormatter zoneFormatter = CachingDateTimeFormatter.of(DateTimeFormatterUtil.YYYY_MM_DD_T_HH_MM_SS_SSS_XXX_FMT.withZone(ZoneId.of("America/New_York")));
+		long transition = ZonedDateTime.of(2020, 3, 8, 3, 0, 0, 0, ZoneId.of("America/New_York")).toInstant().toEpochMilli();
+		for (long t = transition - 2000; t < transition + 2000; t += 7) {
+			Assert.assertEquals(DateTimeFormatterUtil.format(new Date(t), zoneFormatter.getFormatter()), zoneFormatter.format(t));
+		}
+		Assert.assertEquals("2020-03-08T01:59:59.999-05:00", zoneFormatter.format(transition - 1));
+		Assert.assertEquals("2020-03-08T03:00:00.000-04:00", zoneFormatter.format(transition));
+
+		// 纳秒模板，毫秒后面为0
+		CachingDateTimeFormatter nanoFormatter = CachingDateTimeFormatter.of(DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_SSSSSSSSS_FMT);
+		Assert.assertEquals("2020-05-23 17:06:30.272000000", nanoFormatter.format(epochMilli));
+
+		// 毫秒位置不能确定的模板，直接使用formatter
+		CachingDateTimeFormatter tenthFormatter = CachingDateTimeFormatter.of("yyyy-MM-dd HH:mm:ss.S");
+		Assert.assertEquals("2020-05-23 17:06:30.2", tenthFormatter.format(epochMilli));
+		Assert.assertEquals("2020-05-23 17:06:30.9", tenthFormatter.format(epochMilli + 700));
+	}
+
+	/**
+	 * 缓存最近一秒的格式化器和直接格式化吞吐量对比，日志场景，时间戳递增，每秒约1000次格式化
+	 */
+	@Test
+	public void cachingDateTimeFormatterBenchmarkTest(){
+		int count = 2_000_000;
+		long start = DateTimeFormatterUtil.parseToDate("2020-05-23 17:06:30.272", DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_SSS_FMT).getTime();
+		CachingDateTimeFormatter formatter = CachingDateTimeFormatter.of(DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_SSS_FMT);
+		StringBuilder sb = new StringBuilder(32);
+		long check = 0;
+		// 预热
+		for (int i = 0; i < count; i++) {
+			check += DateTimeFormatterUtil.format(new Date(start + i), DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_SSS_FMT).length();
+			check += formatter.format(start + i).length();
+			sb.setLength(0);
+			check += formatter.formatTo(sb, start + i).length();
+		}
+
+		Cost cost = CostUtil.startMillisecondCost();
+		for (int i = 0; i < count; i++) {
+			check += DateTimeFormatterUtil.format(new Date(start + i), DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_SSS_FMT).length();
+		}
+		long uncached = Math.max(cost.stop(), 1);
+
+		cost = CostUtil.startMillisecondCost();
+		for (int i = 0; i < count; i++) {
+			check += formatter.format(start + i).length();
+		}
+		long cached = Math.max(cost.stop(), 1);
+
+		cost = CostUtil.startMillisecondCost();
+		for (int i = 0; i < count; i++) {
+			sb.setLength(0);
+			check += formatter.formatTo(sb, start + i).length();
+		}
+		long cachedFormatTo = Math.max(cost.stop(), 1);
+
+		System.out.println("format(Date, DateTimeFormatter): " + count / uncached + " ops/ms");
+		System.out.println("CachingDateTimeFormatter.format(long): " + count / cached + " ops/ms");
+		System.out.println("CachingDateTimeFormatter.formatTo(StringBuilder, long): " + count / cachedFormatTo + " ops/ms");
+		Assert.assertEquals(count * 23L * 6, check);
+	}
+	
+	/**
+	 * 记忆解析器测试
+	 */
+	@Test
+	public void memoizingDateTimeParserTest(){
+		MemoizingDateTimeParser parser = MemoizingDateTimeParser.of(DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_SSS_FMT);
+		Assert.assertEquals(LocalDateTime.of(2020, 5, 23, 17, 6, 30, 272_000_000), parser.parseToLocalDateTime("2020-05-23 17:06:30.272"));
+		// 同一秒，只解析毫秒
+		Assert.assertEquals(LocalDateTime.of(2020, 5, 23, 17, 6, 30, 999_000_000), parser.parseToLocalDateTime("2020-05-23 17:06:30.999"));
+		Assert.assertEquals(DateTimeFormatterUtil.parseToDate("2020-05-23 17:06:30.001", DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_SSS_FMT).getTime(),
+				parser.parseToEpochMilli("2020-05-23 17:06:30.001"));
+		Assert.assertEquals(LocalDateTime.of(2020, 5, 23, 17, 6, 31), parser.parseToLocalDateTime("2020-05-23 17:06:31.000"));
+		Assert.assertEquals(2, parser.getHitCount());
+		Assert.assertEquals(2, parser.getMissCount());
+		Assert.assertEquals(0.5, parser.getHitRate(), 0.0001);
+
+		// 前缀相同但毫秒部分错误时和DateTimeFormatterUtil抛出相同异常
+		int expectedErrorIndex = -1;
+		try {
+			DateTimeFormatterUtil.parseToLocalDateTime("2020-05-23 17:06:31.0a0", DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_SSS_FMT);
+			Assert.fail();
+		} catch (DateTimeParseException e) {
+			expectedErrorIndex = e.getErrorIndex();
+		}
+		try {
+			parser.parseToLocalDateTime("2020-05-23 17:06:31.0a0");
+			Assert.fail();
+		} catch (DateTimeParseException e) {
+			Assert.assertEquals(expectedErrorIndex, e.getErrorIndex());
+		}
+
+		// 24:00:00.000为第二天0点，不能复用前缀解析24:00:00.500
+		Assert.assertEquals(LocalDateTime.of(2020, 5, 24, 0, 0), parser.parseToLocalDateTime("2020-05-23 24:00:00.000"));
+		for (MemoizingDateTimeParser memoizingParser : new MemoizingDateTimeParser[] {parser, MemoizingDateTimeParser.smart()}) {
+			memoizingParser.parseToLocalDateTime("2020-05-23 24:00:00.000");
+			try {
+				memoizingParser.parseToLocalDateTime("2020-05-23 24:00:00.500");
+				Assert.fail();
+			} catch (DateTimeParseException e) {
+				Assert.assertTrue(e.getMessage().contains("HourOfDay"));
+			}
+		}
+		Assert.assertEquals(LocalDateTime.of(2020, 5, 23, 0, 0, 0, 500_000_000), parser.parseToLocalDateTime("2020-05-23 00:00:00.500"));
+
+		// 自动解析
+		MemoizingDateTimeParser smartParser = MemoizingDateTimeParser.smart();
+		String[] texts = {"2020-05-23 17:06:30,272", "2020-05-23 17:06:30,273", "20200523170630274", "20200523170630275",
+				" 2020/05/23 17:06:30 ", "2020/05/23 17:06:30", "2020-05-23T17:06:30.272+08:00", "2020-05-23T17:06:30.272+08:00"};
+		for (String text : texts) {
+			Assert.assertEquals(DateTimeFormatterUtil.smartParseToLocalDateTime(text), smartParser.parseToLocalDateTime(text));
+			Assert.assertEquals(DateTimeFormatterUtil.smartParseToDate(text), smartParser.parseToDate(text));
+		}
+		Assert.assertTrue(smartParser.getHitRate() > 0.5);
+		smartParser.resetStatistics();
+		Assert.assertEquals(0, smartParser.getHitCount());
+	}
+	
+	/**
+	 * 批量解析和格式化测试
+	 */
+	@Test
+	public void dateTimeBatchTest(){
+		// 超过并行阈值
+		int size = DateTimeBatchUtil.PARALLEL_THRESHOLD * 2 + 3;
+		long[] epochMillis = new long[size];
+		for (int i = 0; i < size; i++) {
+			epochMillis[i] = 1590224790272L + i * 997L;
+		}
+		String[] texts = DateTimeBatchUtil.format(epochMillis, DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_SSS_FMT);
+		for (int i = 0; i < size; i += 101) {
+			Assert.assertEquals(DateTimeFormatterUtil.format(new Date(epochMillis[i]), DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_SSS_FMT), texts[i]);
+		}
+		Assert.assertArrayEquals(epochMillis, DateTimeBatchUtil.parseToEpochMilli(texts, DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_SSS_FMT));
+		Assert.assertArrayEquals(epochMillis, DateTimeBatchUtil.parseToEpochMilli(Arrays.asList(texts), DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_SSS_FMT));
+
+		// 出错时记录在位图中，不中断
+		texts[1] = null;
+		texts[100] = "2020-05-23";
+		texts[size - 1] = "2020-05-23 17:06:30.27x";
+		BitSet errors = new BitSet();
+		long[] result = DateTimeBatchUtil.parseToEpochMilli(texts, DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_SSS_FMT, errors);
+		Assert.assertEquals(3, errors.cardinality());
+		Assert.assertTrue(errors.get(1) && errors.get(100) && errors.get(size - 1));
+		Assert.assertEquals(0, result[100]);
+		Assert.assertEquals(epochMillis[99], result[99]);
+		try {
+			DateTimeBatchUtil.parseToEpochMilli(Arrays.copyOfRange(texts, 2, size), DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_SSS_FMT);
+			Assert.fail();
+		} catch (DateTimeParseException e) {
+			Assert.assertEquals("2020-05-23", e.getParsedString());
+		}
+
+		// 非定长formatter
+		String[] cnTexts = DateTimeBatchUtil.format(new long[] { 1590224790272L }, DateTimeFormatterUtil.YYYY_MM_DD_CN_FMT);
+		Assert.assertEquals(DateTimeFormatterUtil.format(new Date(1590224790272L), DateTimeFormatterUtil.YYYY_MM_DD_CN_FMT), cnTexts[0]);
+		Assert.assertEquals(DateTimeFormatterUtil.parseToDate(cnTexts[0], DateTimeFormatterUtil.YYYY_MM_DD_CN_FMT).getTime(),
+				DateTimeBatchUtil.parseToEpochMilli(cnTexts, DateTimeFormatterUtil.YYYY_MM_DD_CN_FMT)[0]);
+		String[] badCnTexts = { cnTexts[0], "2020年13月23日", "2020年05月32日" };
+		errors = new BitSet();
+		DateTimeBatchUtil.parseToEpochMilli(badCnTexts, DateTimeFormatterUtil.YYYY_MM_DD_CN_FMT, errors);
+		Assert.assertEquals(6, errors.toLongArray()[0]);
+		try {
+			DateTimeBatchUtil.parseToEpochMilli(badCnTexts, DateTimeFormatterUtil.YYYY_MM_DD_CN_FMT);
+			Assert.fail();
+		} catch (DateTimeParseException e) {
+			Assert.assertEquals("2020年13月23日", e.getParsedString());
+		}
+
+		// 定长记录，不足补空格，超出时记录错误
+		long[] two = { epochMillis[0], epochMillis[1] };
+		byte[] bytes = DateTimeBatchUtil.formatToBytes(two, DateTimeFormatterUtil.YYYY_MM_DD_FMT, 12);
+		Assert.assertEquals(texts[0].substring(0, 10) + "  " + DateTimeFormatterUtil.format(new Date(epochMillis[1]), DateTimeFormatterUtil.YYYY_MM_DD_FMT) + "  ",
+				new String(bytes, StandardCharsets.US_ASCII));
+		errors = new BitSet();
+		bytes = DateTimeBatchUtil.formatToBytes(two, DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_FMT, 12, errors);
+		Assert.assertEquals(2, errors.cardinality());
+		Assert.assertEquals("                        ", new String(bytes, StandardCharsets.US_ASCII));
+		try {
+			DateTimeBatchUtil.formatToBytes(two, DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_FMT, 12);
+			Assert.fail();
+		} catch (DateTimeException e) {
+			Assert.assertTrue(e.getMessage().contains("index 0"));
+		}
+	}
+	
+	/**
+	 * formatter常量测试，定长formatter常量使用定长编解码器
+	 */
+	@Test
+	public void formatterConstantsTest(){
+		Assert.assertEquals(ZoneId.systemDefault(), DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_FMT.getZone());
+		Assert.assertEquals("2020-05-23 17:06:30", DateTimeFormatterUtil.format(
+				LocalDateTime.of(2020, 5, 23, 17, 6, 30), DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_FMT));
+		// 定长formatter常量仍然使用定长编解码器
+		Assert.assertEquals("2020-05-23T17:06:30.272+08:00", DateTimeFormatterUtil.format(
+				ZonedDateTime.of(2020, 5, 23, 17, 6, 30, 272_000_000, ZoneId.of("Asia/Shanghai")), DateTimeFormatterUtil.YYYY_MM_DD_T_HH_MM_SS_SSS_XXX_Z_FMT));
+	}
+
+	/**
+	 * 启动耗时对比测试，每次使用新的类加载器，统计第一次调用的耗时（包括类加载和初始化）<br>
+	 * DateTimeFormatterUtil初始化时创建全部formatter常量，FixedWidthDateTimeCodec直接格式化时不初始化这些常量，结果一致，第一次调用更快
+	 */
+	@Test
+	public void startupBenchmarkTest() throws Exception{
+		Date date = new Date(1590224790000L);
+		String expected = DateTimeFormatterUtil.formatToDateStr(date);
+		// 预热JDK中的类，只比较本项目类的加载和初始化
+		firstCallNanos(true, date, expected);
+		firstCallNanos(false, date, expected);
+		long utilNanos = Long.MAX_VALUE;
+		long codecNanos = Long.MAX_VALUE;
+		for (int i = 0; i < 5; i++) {
+			utilNanos = Math.min(utilNanos, firstCallNanos(true, date, expected));
+			codecNanos = Math.min(codecNanos, firstCallNanos(false, date, expected));
+		}
+		System.out.println("DateTimeFormatterUtil.formatToDateStr first call: " + utilNanos / 1000 + "us");
+		System.out.println("FixedWidthDateTimeCodec.YYYY_MM_DD.format first call: " + codecNanos / 1000 + "us");
+		Assert.assertTrue(codecNanos < utilNanos);
+	}
+
+	private static long firstCallNanos(boolean util, Date date, String expected) throws Exception {
+		URL location = DateTimeFormatterUtil.class.getProtectionDomain().getCodeSource().getLocation();
+		try (URLClassLoader loader = new URLClassLoader(new URL[] { location }, ClassLoader.getSystemClassLoader().getParent())) {
+			String pkg = DateTimeFormatterUtil.class.getPackage().getName();
+			Cost cost = CostUtil.startNanosecondCost();
+			Object result;
+			if (util) {
+				Class<?> clazz = Class.forName(pkg + ".DateTimeFormatterUtil", true, loader);
+				result = clazz.getMethod("formatToDateStr", Date.class).invoke(null, date);
+			} else {
+				Class<?> clazz = Class.forName(pkg + ".FixedWidthDateTimeCodec", true, loader);
+				result = clazz.getMethod("format", long.class).invoke(clazz.getField("YYYY_MM_DD").get(null), date.getTime());
+			}
+			long nanos = cost.stop();
+			Assert.assertEquals(expected, result);
+			return nanos;
+		}
+	}
+
+	/**
+	 * 定长记录批量解析测试
+	 */
+	@Test
+	public void dateTimeBatchRecordsTest(){
+		long[] epochMillis = { 1590224790000L, 1590224791000L, -2208988800000L, 253402271999000L };
+		DateTimeFormatter[] formatters = { DateTimeFormatterUtil.YYYYMMDDHHMMSS_FMT, DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_FMT,
+				DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_SSS_FMT, DateTimeFormatterUtil.YYYY_MM_DD_T_HH_MM_SS_SSS_XXX_Z_FMT };
+		for (DateTimeFormatter formatter : formatters) {
+			byte[] records = DateTimeBatchUtil.formatToBytes(epochMillis, formatter, 32);
+			Assert.assertArrayEquals(epochMillis, DateTimeBatchUtil.parseToEpochMilli(records, 0, 32, epochMillis.length, formatter));
+		}
+
+		// 错误记录，包括非数字和超出范围
+		String text = "20200523170630" + "2020052317063x" + "20201323170630" + "20200230240000" + "20200523170630";
+		byte[] records = text.getBytes(StandardCharsets.US_ASCII);
+		BitSet errors = new BitSet();
+		long[] result = DateTimeBatchUtil.parseToEpochMilli(records, 0, 14, 5, DateTimeFormatterUtil.YYYYMMDDHHMMSS_FMT, errors);
+		Assert.assertEquals("{1, 2}", errors.toString());
+		Assert.assertEquals(DateTimeFormatterUtil.parseToDate("20200523170630", DateTimeFormatterUtil.YYYYMMDDHHMMSS_FMT).getTime(), result[0]);
+		// SMART解析，2月30日为2月29日，24:00:00为第二天0点
+		Assert.assertEquals(DateTimeFormatterUtil.parseToDate("20200301000000", DateTimeFormatterUtil.YYYYMMDDHHMMSS_FMT).getTime(), result[3]);
+		try {
+			DateTimeBatchUtil.parseToEpochMilli(records, 0, 14, 5, DateTimeFormatterUtil.YYYYMMDDHHMMSS_FMT);
+			Assert.fail();
+		} catch (DateTimeParseException e) {
+			Assert.assertEquals("2020052317063x", e.getParsedString());
+		}
+
+		// 非定长formatter
+		DateTimeFormatter formatter = DateTimeFormatterUtil.getDateTimeFormatter("yyyy/M/d H:m:s");
+		records = "2020/5/23 17:6:30   2020/13/23 17:6:30  2020/5/23 7:6:3     ".getBytes(StandardCharsets.US_ASCII);
+		errors = new BitSet();
+		result = DateTimeBatchUtil.parseToEpochMilli(records, 0, 20, 3, formatter, errors);
+		Assert.assertEquals("{1}", errors.toString());
+		Assert.assertEquals(DateTimeFormatterUtil.parseToDate("2020/5/23 7:6:3", formatter).getTime(), result[2]);
+		try {
+			DateTimeBatchUtil.parseToEpochMilli(records, 0, 20, 3, formatter);
+			Assert.fail();
+		} catch (DateTimeParseException e) {
+			Assert.assertEquals("2020/13/23 17:6:30", e.getParsedString());
+		}
+	}
+
+	/**
+	 * 定长记录批量解析性能测试，对比逐条解析
+	 */
+	@Test
+	public void dateTimeBatchRecordsBenchmarkTest(){
+		int count = 1_000_000;
+		int width = 19;
+		long[] epochMillis = new long[count];
+		for (int i = 0; i < count; i++) {
+			epochMillis[i] = 1590224790000L + i * 7919000L;
+		}
+		byte[] records = DateTimeBatchUtil.formatToBytes(epochMillis, DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_FMT, width);
+		long check = 0;
+		// 预热
+		for (int i = 0; i < count; i++) {
+			check += DateTimeFormatterUtil.parseToEpochMilli(records, i * width, width, DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_FMT);
+		}
+		check += DateTimeBatchUtil.parseToEpochMilli(records, 0, width, count, DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_FMT)[0];
+
+		Cost cost = CostUtil.startMillisecondCost();
+		for (int i = 0; i < count; i++) {
+			check += DateTimeFormatterUtil.parseToEpochMilli(records, i * width, width, DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_FMT);
+		}
+		long scalar = Math.max(cost.stop(), 1);
+
+		cost = CostUtil.startMillisecondCost();
+		long[] result = DateTimeBatchUtil.parseToEpochMilli(records, 0, width, count, DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_FMT);
+		long batch = Math.max(cost.stop(), 1);
+
+		System.out.println("parseToEpochMilli(byte[], int, int, DateTimeFormatter): " + count / scalar + " rows/ms");
+		System.out.println("DateTimeBatchUtil.parseToEpochMilli(byte[], int, int, int, DateTimeFormatter): " + count / batch + " rows/ms");
+		Assert.assertArrayEquals(epochMillis, result);
+		Assert.assertNotEquals(0, check);
+	}
+	
+	/**
+	 * 根据样本推断格式测试
+	 */
+	@Test
+	public void inferredDateTimeParserTest(){
+		// 中文格式，编译为定长解析器
+		InferredDateTimeParser parser = InferredDateTimeParser.infer("2020年05月23日 17时06分30秒", "2021年12月01日 08时00分59秒");
+		Assert.assertEquals(DateFormatPattern.YYYY_MM_DD_HH_MM_SS_CN_ALL, parser.getPattern());
+		Assert.assertTrue(parser.getReport().isCompiled());
+		Assert.assertEquals(1, parser.getReport().getConfidence(), 0.0001);
+		Assert.assertEquals(LocalDateTime.of(2022, 2, 28, 23, 59, 1), parser.parseToLocalDateTime("2022年02月28日 23时59分01秒"));
+		Assert.assertEquals(DateTimeFormatterUtil.parseToDate("2022年02月28日 23时59分01秒", DateFormatPattern.YYYY_MM_DD_HH_MM_SS_CN_ALL),
+				parser.parseToDate("2022年02月28日 23时59分01秒"));
+		Assert.assertFalse(parser.tryParseToLocalDateTime("2022年02月28日 23时60分01秒").isPresent());
+		
+		// 生成的斜杠变体
+		parser = InferredDateTimeParser.infer(Arrays.asList("2020/05/23 17:06:30.272", "2020/05/23 17:06:31.001"));
+		Assert.assertEquals("yyyy/MM/dd HH:mm:ss.SSS", parser.getPattern());
+		Assert.assertEquals(LocalDateTime.of(2020, 5, 23, 17, 6, 30, 272_000_000), parser.parseToLocalDateTime("2020/05/23 17:06:30.272"));
+		
+		// 不补0的样本选择 yyyy-M-d，往返一致数量更多
+		parser = InferredDateTimeParser.infer("2020-5-3", "2020-05-23", "2020-11-3");
+		Assert.assertEquals(DateFormatPattern.YYYY_M_D, parser.getPattern());
+		Assert.assertEquals(3, parser.getReport().getMatchCount());
+		Assert.assertEquals(2, parser.getReport().getRoundTripCount());
+		
+		// 歧义和解析失败的样本
+		parser = InferredDateTimeParser.infer("05/06/07", "11/12/13", "bad");
+		Assert.assertTrue(parser.getReport().isAmbiguous());
+		Assert.assertEquals(DateFormatPattern.YY_MM_DD_EN, parser.getPattern());
+		Assert.assertTrue(parser.getReport().getAlternatives().contains(DateFormatPattern.MM_DD_YY_EN));
+		Assert.assertEquals(Arrays.asList(2), parser.getReport().getUnmatchedIndexes());
+		Assert.assertEquals(2.0 / 3, parser.getReport().getConfidence(), 0.0001);
+		
+		// 格式不符合时和DateTimeFormatterUtil抛出相同异常
+		parser = InferredDateTimeParser.infer("2020/05/23 17:06:30");
+		String expectedMessage = null;
+		try {
+			DateTimeFormatterUtil.parseToLocalDateTime("2020/05/23 17:6:30", "yyyy/MM/dd HH:mm:ss");
+			Assert.fail();
+		} catch (DateTimeParseException e) {
+			expectedMessage = e.getMessage();
+		}
+		try {
+			parser.parseToLocalDateTime("2020/05/23 17:6:30");
+			Assert.fail();
+		} catch (DateTimeParseException e) {
+			Assert.assertEquals(expectedMessage, e.getMessage());
+		}
+		
+		try {
+			InferredDateTimeParser.infer("not a date");
+			Assert.fail();
+		} catch (DateTimeException e) {
+			Assert.assertTrue(e.getMessage().startsWith("samples are not supported!"));
+		}
+	}
+	
+	/**
+	 * 分隔符文件时间列标准化测试
+	 * @throws IOException
+	 */
+	@Test
+	public void delimitedTimestampNormalizerTest() throws IOException{
+		Path input = Files.createTempFile("xk-time-normalizer", ".csv");
+		Path output = Files.createTempFile("xk-time-normalizer", ".out");
+		try {
+			String text = "id,time,name\n"
+					+ "1,2020-05-23 17:06:30,a\r\n"
+					+ "2,\"2020/05/23 17:06:31\",\"b,c\"\n"
+					+ "3,,d\n"
+					+ "4,bad,e\n"
+					+ "5,20200523170632,f";
+			Files.write(input, text.getBytes(StandardCharsets.UTF_8));
+			
+			// 默认自动解析，输出时间戳毫秒值，小分段测试跨段的行
+			DelimitedTimestampNormalizer normalizer = DelimitedTimestampNormalizer.csv(1).withHeader(true).withInvalidKept(true).withChunkSize(16);
+			DelimitedTimestampNormalizer.Result result = normalizer.normalize(input, output);
+			String expected = "id,time,name\n"
+					+ "1," + DateTimeFormatterUtil.smartParseToDate("2020-05-23 17:06:30").getTime() + ",a\r\n"
+					+ "2,\"" + DateTimeFormatterUtil.smartParseToDate("2020/05/23 17:06:31").getTime() + "\",\"b,c\"\n"
+					+ "3,,d\n"
+					+ "4,bad,e\n"
+					+ "5," + DateTimeFormatterUtil.smartParseToDate("20200523170632").getTime() + ",f";
+			Assert.assertEquals(expected, new String(Files.readAllBytes(output), StandardCharsets.UTF_8));
+			Assert.assertEquals(6, result.getLineCount());
+			Assert.assertEquals(3, result.getConvertedCount());
+			Assert.assertEquals(1, result.getInvalidCount());
+			
+			// 输出为指定格式
+			normalizer = normalizer.withOutputFormatter(DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_SSS_FMT);
+			normalizer.normalize(input, output);
+			String[] lines = new String(Files.readAllBytes(output), StandardCharsets.UTF_8).split("\n");
+			Assert.assertEquals("1,2020-05-23 17:06:30.000,a\r", lines[1]);
+			Assert.assertEquals("2,\"2020-05-23 17:06:31.000\",\"b,c\"", lines[2]);
+			
+			// 解析失败时异常包含行号和列号
+			try {
+				DelimitedTimestampNormalizer.csv(1).withHeader(true).normalize(input, output);
+				Assert.fail();
+			} catch (DateTimeException e) {
+				Assert.assertTrue(e.getMessage(), e.getMessage().startsWith("line 5 column 1 "));
+			}
+		} finally {
+			Files.deleteIfExists(input);
+			Files.deleteIfExists(output);
+		}
+	}
+	
+	/**
+	 * 日志文件时间索引测试
+	 * @throws IOException
+	 */
+	@Test
+	public void logTimestampIndexTest() throws IOException{
+		Path file = Files.createTempFile("xk-time-log", ".log");
+		try {
+			String line1 = "2020-05-23 17:06:30.272 INFO start\n";
+			String line2 = "java.lang.IllegalStateException: error\r\n";
+			String line3 = "\tat com.xkzhangsan.time.Test.main(Test.java:10)\n";
+			String line4 = "2020-05-23 17:06:31.001 ERROR 失败\r\n";
+			Files.write(file, (line1 + line2 + line3 + line4).getBytes(StandardCharsets.UTF_8));
+			LogTimestampIndex index = LogTimestampIndex.build(file, DateFormatPattern.YYYY_MM_DD_HH_MM_SS_SSS);
+			long time1 = DateTimeFormatterUtil.parseToDate("2020-05-23 17:06:30.272", DateFormatPattern.YYYY_MM_DD_HH_MM_SS_SSS).getTime();
+			long time2 = DateTimeFormatterUtil.parseToDate("2020-05-23 17:06:31.001", DateFormatPattern.YYYY_MM_DD_HH_MM_SS_SSS).getTime();
+			long offset4 = (line1 + line2 + line3).getBytes(StandardCharsets.UTF_8).length;
+			Assert.assertArrayEquals(new long[]{time1, time2}, index.getEpochMillis());
+			Assert.assertArrayEquals(new long[]{0, offset4}, index.getLineOffsets());
+			
+			// 按时间查找读取位置
+			Assert.assertEquals(0, index.offsetOf(time1));
+			Assert.assertEquals(offset4, index.offsetOf(time1 + 1));
+			Assert.assertEquals(Files.size(file), index.offsetOf(time2 + 1));
+			
+			// 追加未写完的行，时间之后没有内容时等下次update
+			long offset5 = Files.size(file);
+			Files.write(file, "2020-05-23 17:06:32.500".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+			Assert.assertEquals(0, index.update(file));
+			Files.write(file, " WARN slow\n2020-05-23 17:06:33".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+			Assert.assertEquals(1, index.update(file));
+			Assert.assertEquals(3, index.size());
+			Assert.assertEquals(offset5, index.getLineOffset(2));
+			Assert.assertEquals(time2 + 1499, index.getEpochMilli(2));
+			
+			// 其他模板，文件变小时重新建立
+			Files.write(file, "[2020-05-23 17:06:30] a\n[2020-05-23 17:06:29] b\n".getBytes(StandardCharsets.UTF_8));
+			index = LogTimestampIndex.of("'['yyyy-MM-dd HH:mm:ss']'");
+			Assert.assertEquals(2, index.update(file));
+			Assert.assertArrayEquals(new long[]{time1 - 272, time1 - 1272}, index.getEpochMillis());
+			Files.write(file, "[2020-05-23 17:06:31] c\n".getBytes(StandardCharsets.UTF_8));
+			Assert.assertEquals(1, index.update(file));
+			Assert.assertArrayEquals(new long[]{0}, index.getLineOffsets());
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+	
+	
+	/**
+	 * tryParse和parse结果一致测试，parse成功时tryParse返回相同结果，parse失败时tryParse返回Optional.empty()
+	 */
+	@Test
+	public void tryParseConsistencyTest(){
+		DateTimeFormatter newYork = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.of("America/New_York"));
+		Object[][] cases = {
+				//只有日期时不使用时区偏移，超出范围也能解析
+				{"20201112+1900", DateTimeFormatterUtil.BASIC_ISO_DATE_FMT},
+				{"2052-09-23+19:00", DateTimeFormatterUtil.ISO_DATE_FMT},
+				{"2020-11-12T10:15:30+19:00", DateTimeFormatterUtil.ISO_DATE_TIME_FMT},
+				//Java 8忽略formatter时区之外的时区偏移，Java 9及以上解析失败
+				{"2020-05-23T17:06:30+19:00", DateTimeFormatterUtil.getDateTimeFormatter("yyyy-MM-dd'T'HH:mm:ssXXX")},
+				//SMART模式日期取当月最后一天，24:00为第二天0点
+				{"2021-02-30 10:15:30", DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_FMT},
+				{"2021-04-31", DateTimeFormatterUtil.YYYY_MM_DD_FMT},
+				{"2021-12-31 24:00:00", DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_FMT},
+				{"2021-12-31 24:00:01", DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_FMT},
+				{"2021-12-31 23:59:59.999", DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_SSS_FMT},
+				{"2021-12-32 10:15:30", DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_FMT},
+				//夏令时开始时不存在的时间按时区调整
+				{"2020-03-08 02:30:00", newYork},
+				//分秒不连续时不组合为时间
+				{"2020-03-08 25:61", DateTimeFormatter.ofPattern("yyyy-MM-dd HH:ss").withZone(ZoneId.systemDefault())},
+				{"2020-03-08 10", DateTimeFormatter.ofPattern("yyyy-MM-dd HH").withZone(ZoneId.systemDefault())}};
+		for (Object[] c : cases) {
+			String text = (String) c[0];
+			DateTimeFormatter formatter = (DateTimeFormatter) c[1];
+			LocalDateTime expected = null;
+			try {
+				expected = DateTimeFormatterUtil.parseToLocalDateTime(text, formatter);
+			} catch (DateTimeException e) {
+				// 解析失败
+			}
+			Assert.assertEquals(text, expected, DateTimeFormatterUtil.tryParseToLocalDateTime(text, formatter).orElse(null));
+		}
+		Assert.assertEquals(LocalDateTime.of(2020, 11, 12, 0, 0), DateTimeFormatterUtil.tryParseToLocalDateTime("20201112+1900", DateTimeFormatterUtil.BASIC_ISO_DATE_FMT).get());
+		Assert.assertEquals(LocalDateTime.of(2022, 1, 1, 0, 0), DateTimeFormatterUtil.tryParseToLocalDateTime("2021-12-31 24:00:00", DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_FMT).get());
+		Assert.assertEquals(LocalDateTime.of(2020, 3, 8, 3, 30), DateTimeFormatterUtil.tryParseToLocalDateTime("2020-03-08 02:30:00", newYork).get());
+	}
+	
+	/**
+	 * 定长模板解析夏令时间隙中的时间，和DateTimeFormatter按时区解析一致，向后调整间隙长度
+	 */
+	@Test
+	public void fixedWidthCodecParseGapTest(){
+		ZoneId newYork = ZoneId.of("America/New_York");
+		Assert.assertEquals(LocalDateTime.of(2020, 3, 8, 3, 30),
+				FixedWidthDateTimeCodec.YYYY_MM_DD_HH_MM_SS.parseToLocalDateTime("2020-03-08 02:30:00", newYork));
+		Assert.assertEquals(LocalDateTime.of(2020, 3, 8, 3, 30, 0, 272_000_000),
+				FixedWidthDateTimeCodec.YYYY_MM_DD_HH_MM_SS_SSS.parseToLocalDateTime("2020-03-08 02:30:00.272", newYork));
+		// 重叠时间和只有日期的模板不调整
+		Assert.assertEquals(LocalDateTime.of(2020, 11, 1, 1, 30),
+				FixedWidthDateTimeCodec.YYYY_MM_DD_HH_MM_SS.parseToLocalDateTime("2020-11-01 01:30:00", newYork));
+		Assert.assertEquals(LocalDateTime.of(2020, 3, 8, 2, 30),
+				FixedWidthDateTimeCodec.YYYY_MM_DD_HH_MM_SS.parseToLocalDateTime("2020-03-08 02:30:00", null));
+
+		// 系统默认时区，包含上海1986年和纽约2020年夏令时开始时不存在的本地时间
+		String[] texts = {"1986-05-04 02:30:00", "2020-03-08 02:30:00", "2020-05-23 17:06:30"};
+		DateTimeFormatter formatter = DateTimeFormatterUtil.YYYY_MM_DD_HH_MM_SS_FMT;
+		MemoizingDateTimeParser memoizingParser = MemoizingDateTimeParser.of(formatter);
+		for (String text : texts) {
+			LocalDateTime expected = LocalDateTime.parse(text, DateTimeFormatter.ofPattern(DateFormatPattern.YYYY_MM_DD_HH_MM_SS))
+					.atZone(ZoneId.systemDefault()).toLocalDateTime();
+			Assert.assertEquals(expected, DateTimeFormatterUtil.parseToLocalDateTime(text, formatter));
+			Assert.assertEquals(expected, DateTimeFormatterUtil.parseToLocalDateTime(text, DateFormatPattern.YYYY_MM_DD_HH_MM_SS));
+			Assert.assertEquals(expected, DateTimeFormatterUtil.parseDateTimeStrToLocalDateTime(text));
+			Assert.assertEquals(expected, DateTimeFormatterUtil.parseToLocalDateTime(new StringBuilder(text).append(';'), 0, text.length(), formatter));
+			Assert.assertEquals(expected, DateTimeFormatterUtil.tryParseToLocalDateTime(text, formatter).get());
+			Assert.assertEquals(expected, DateTimeFormatterUtil.tryParseToLocalDateTime(text, DateFormatPattern.YYYY_MM_DD_HH_MM_SS).get());
+			Assert.assertEquals(expected, memoizingParser.parseToLocalDateTime(text));
+			Assert.assertEquals(expected, memoizingParser.parseToLocalDateTime(text));
+		}
+	}
+	
+	/**
+	 * 自动解析夏令时间隙中的时间，和formatter解析一致，按系统默认时区向后调整间隙长度，只有日期时不调整
+	 */
+	@Test
+	public void smartParseGapTest(){
+		// 包含上海1986年和纽约2020年夏令时开始时不存在的本地时间，America/New_York时区下2020-03-08 02:30解析为03:30
+		String[] texts = {"1986-05-04 02:30", "1986-05-04 02:30:00", "1986-05-04 02:30:00.272", "19860504023000",
+				"2020-03-08 02:30", "2020-03-08 02:30:00", "2020年03月08日 02时30分00秒", "20200308023000272"};
+		MemoizingDateTimeParser memoizingParser = MemoizingDateTimeParser.smart();
+		for (String text : texts) {
+			// Java 8的DateTimeFormatter不支持yyyyMMddHHmmssSSS相邻数字解析，按位置计算期望值
+			String digits = (text.replaceAll("[^0-9]", "") + "00000").substring(0, 17);
+			LocalDateTime expected = LocalDateTime.of(Integer.parseInt(digits.substring(0, 4)), Integer.parseInt(digits.substring(4, 6)),
+					Integer.parseInt(digits.substring(6, 8)), Integer.parseInt(digits.substring(8, 10)), Integer.parseInt(digits.substring(10, 12)),
+					Integer.parseInt(digits.substring(12, 14)), Integer.parseInt(digits.substring(14)) * 1000_000)
+					.atZone(ZoneId.systemDefault()).toLocalDateTime();
+			Assert.assertEquals(text, expected, DateTimeFormatterUtil.smartParseToLocalDateTime(text));
+			Assert.assertEquals(text, expected, memoizingParser.parseToLocalDateTime(text));
+			Assert.assertEquals(text, expected, memoizingParser.parseToLocalDateTime(text));
+		}
+		Assert.assertEquals(LocalDateTime.of(1986, 5, 4, 0, 0), DateTimeFormatterUtil.smartParseToLocalDateTime("1986-05-04"));
+	}
+	
+	/**
+	 * 推断格式解析夏令时间隙中的时间，定长模板和编译的斜杠模板都和formatter一致，按系统默认时区向后调整间隙长度
+	 */
+	@Test
+	public void inferredDateTimeParserGapTest(){
+		InferredDateTimeParser dashParser = InferredDateTimeParser.infer("2020-05-23 17:06:30", "2021-12-01 08:00:59");
+		Assert.assertEquals(DateFormatPattern.YYYY_MM_DD_HH_MM_SS, dashParser.getPattern());
+		InferredDateTimeParser slashParser = InferredDateTimeParser.infer("2020/05/23 17:06:30", "2021/12/01 08:00:59");
+		Assert.assertEquals("yyyy/MM/dd HH:mm:ss", slashParser.getPattern());
+		Assert.assertTrue(slashParser.getReport().isCompiled());
+		// 包含上海1986年和纽约2020年夏令时开始时不存在的本地时间，America/New_York时区下2020-03-08 02:30:00解析为03:30:00
+		String[] texts = {"1986-05-04 02:30:00", "2020-03-08 02:30:00", "2020-05-23 17:06:30"};
+		for (String text : texts) {
+			LocalDateTime expected = LocalDateTime.parse(text, DateTimeFormatter.ofPattern(DateFormatPattern.YYYY_MM_DD_HH_MM_SS))
+					.atZone(ZoneId.systemDefault()).toLocalDateTime();
+			String slashText = text.replace('-', '/');
+			Assert.assertEquals(expected, dashParser.parseToLocalDateTime(text));
+			Assert.assertEquals(expected, dashParser.tryParseToLocalDateTime(text).get());
+			Assert.assertEquals(expected, slashParser.parseToLocalDateTime(slashText));
+			Assert.assertEquals(expected, slashParser.tryParseToLocalDateTime(slashText).get());
+			Assert.assertEquals(DateTimeFormatterUtil.parseToDate(text, DateFormatPattern.YYYY_MM_DD_HH_MM_SS), dashParser.parseToDate(text));
+			Assert.assertEquals(DateTimeFormatterUtil.parseToDate(text, DateFormatPattern.YYYY_MM_DD_HH_MM_SS), slashParser.parseToDate(slashText));
+		}
+	}
+	
 }
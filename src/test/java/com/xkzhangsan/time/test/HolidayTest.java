@@ -1,9 +1,16 @@
 package com.xkzhangsan.time.test;
 
+import com.xkzhangsan.time.calculator.DateTimeCalculatorUtil;
 import com.xkzhangsan.time.holiday.Holiday;
+import com.xkzhangsan.time.holiday.HolidayCalendar;
+import com.xkzhangsan.time.holiday.HolidayCalendarHolder;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.Map;
@@ -54,4 +61,42 @@ public class HolidayTest {
 		LocalDate localDate = LocalDate.of(2020, 8, 7);
 		Assert.assertEquals("立秋",Holiday.getSolarTerm(localDate));
 	}
+	
+	/**
+	 * 节假日日历，读取文本和版本替换
+	 */
+	@Test
+	public void holidayCalendarTest() throws IOException {
+		String text = "# 2021年春节\n2021-02-07:1\n2021-02-11~2021-02-17:0, 2021-02-20:1\n";
+		HolidayCalendar holidayCalendar = HolidayCalendar.load(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), 20201125);
+		Assert.assertEquals(20201125, holidayCalendar.getVersion());
+		Assert.assertEquals("2021-02-07:1,2021-02-11:0,2021-02-12:0,2021-02-13:0,2021-02-14:0,2021-02-15:0,2021-02-16:0,2021-02-17:0,2021-02-20:1",
+				holidayCalendar.getHolidayData());
+		Assert.assertTrue(holidayCalendar.isWorkDay(LocalDate.of(2021, 2, 7)));
+		Assert.assertFalse(holidayCalendar.isWorkDay(LocalDate.of(2021, 2, 15)));
+		
+		//和holidayData字符串结果一致
+		String holidayData = holidayCalendar.getHolidayData();
+		LocalDate localDate = LocalDate.of(2021, 2, 10);
+		Assert.assertEquals(DateTimeCalculatorUtil.nextChineseWorkDay(localDate, holidayData), DateTimeCalculatorUtil.nextChineseWorkDay(localDate, holidayCalendar));
+		Assert.assertEquals(LocalDate.of(2021, 2, 18), DateTimeCalculatorUtil.nextChineseWorkDay(localDate, holidayCalendar));
+		Assert.assertEquals(DateTimeCalculatorUtil.chineseWorkDay(LocalDate.of(2021, 2, 1), LocalDate.of(2021, 2, 28), holidayData),
+				DateTimeCalculatorUtil.chineseWorkDay(LocalDate.of(2021, 2, 1), LocalDate.of(2021, 2, 28), holidayCalendar));
+		
+		//格式错误
+		try {
+			HolidayCalendar.load(new ByteArrayInputStream("2021-02-07:1\n2021-02-30:0".getBytes(StandardCharsets.UTF_8)), 1);
+			Assert.fail();
+		} catch (DateTimeException e) {
+			Assert.assertEquals("Invalid holiday data at line 2: 2021-02-30:0", e.getMessage());
+		}
+		
+		//版本大于当前版本时替换
+		HolidayCalendarHolder holder = HolidayCalendarHolder.of(holidayCalendar);
+		Assert.assertFalse(holder.update(HolidayCalendar.of("2021-01-01:0", 20201125)));
+		Assert.assertTrue(holder.update(HolidayCalendar.of("2022-01-03:0", 20211025)));
+		Assert.assertEquals(20211025, holder.get().getVersion());
+		Assert.assertFalse(DateTimeCalculatorUtil.isChineseWorkDay(LocalDate.of(2022, 1, 3), holder.get()));
+	}
+	
 }